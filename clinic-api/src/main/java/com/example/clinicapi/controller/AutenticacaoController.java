@@ -2,6 +2,7 @@ package com.example.clinicapi.controller;
 
 import java.net.URI;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,18 +11,23 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.clinicapi.dto.DadosAutenticacaoDTO;
 import com.example.clinicapi.dto.RefreshTokenRequest;
 import com.example.clinicapi.dto.TokenResponse;
+import com.example.clinicapi.infra.revogacao.RevogacaoTokens;
+import com.example.clinicapi.infra.security.ImpressaoDigitalToken;
 import com.example.clinicapi.infra.security.JwtService;
-import com.example.clinicapi.model.RefreshToken;
+import com.example.clinicapi.infra.security.UsuarioAutenticado;
 import com.example.clinicapi.model.Usuario;
 import com.example.clinicapi.service.RefreshTokenService;
+import com.example.clinicapi.service.RefreshTokenService.RefreshTokenRotacionado;
 import com.example.clinicapi.service.UsuarioService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -58,16 +64,29 @@ public class AutenticacaoController {
      */
     private final RefreshTokenService refreshTokenService;
 
+    /**
+     * Revogação dos access tokens encerrados pelo logout.
+     */
+    private final RevogacaoTokens revogacaoTokens;
+
+    /**
+     * Vínculo dos access tokens com o cliente que os recebeu.
+     */
+    private final ImpressaoDigitalToken impressaoDigitalToken;
+
     /**
      * Realiza a autenticação de um usuário e gera um token JWT.
      * Também gera e retorna um refresh token.
      *
-     * @param dados As credenciais de autenticação (login e senha) do usuário.
+     * @param dados    As credenciais de autenticação (login e senha) do
+     *                 usuário.
+     * @param response A resposta, que recebe o cookie da impressão digital.
      * @return Um {@link TokenResponse} com access token e refresh token.
      */
     @PostMapping
     public TokenResponse login(@RequestBody @Valid
-                               final DadosAutenticacaoDTO dados) {
+                               final DadosAutenticacaoDTO dados,
+                               final HttpServletResponse response) {
         log.info("Tentativa de login para o usuário '{}'", dados.login());
 
         Authentication auth = manager.authenticate(
@@ -76,9 +95,9 @@ public class AutenticacaoController {
 
         Usuario usuario = (Usuario) auth.getPrincipal();
 
-        String accessToken = jwtService.generateToken(usuario.getLogin());
+        String accessToken = emitirAccessToken(usuario, response);
         String refreshToken = refreshTokenService
-            .criarRefreshToken(usuario.getLogin()).getToken();
+            .criarRefreshToken(usuario);
 
         log.info("Login bem-sucedido para o usuário '{}'",
             usuario.getLogin());
@@ -90,13 +109,15 @@ public class AutenticacaoController {
      * Cadastra um novo usuário com perfil padrão {@code ROLE_USER}.
      * Se bem-sucedido, retorna o access token e o refresh token gerados.
      *
-     * @param dados DTO com login e senha do novo usuário.
+     * @param dados    DTO com login e senha do novo usuário.
+     * @param response A resposta, que recebe o cookie da impressão digital.
      * @return {@link ResponseEntity} com status 201 e tokens gerados,
      * ou 409 se o login já estiver em uso.
      */
     @PostMapping("/register")
     public ResponseEntity<TokenResponse> cadastrarUsuarioComToken(
-            @RequestBody @Valid final DadosAutenticacaoDTO dados) {
+            @RequestBody @Valid final DadosAutenticacaoDTO dados,
+            final HttpServletResponse response) {
         log.info("Tentativa de cadastro para o usuário '{}'", dados.login());
 
         if (usuarioService.loginJaExiste(dados.login())) {
@@ -106,11 +127,11 @@ public class AutenticacaoController {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
 
-        usuarioService.cadastrarUsuario(dados);
+        Usuario usuario = usuarioService.cadastrarUsuario(dados);
 
-        String accessToken = jwtService.generateToken(dados.login());
+        String accessToken = emitirAccessToken(usuario, response);
         String refreshToken = refreshTokenService
-            .criarRefreshToken(dados.login()).getToken();
+            .criarRefreshToken(usuario);
 
         log.info("Usuário '{}' cadastrado com sucesso", dados.login());
 
@@ -122,51 +143,101 @@ public class AutenticacaoController {
 
     /**
      * Endpoint responsável por renovar o access token a partir de um
-     * refresh token válido.
+     * refresh token válido. O refresh token apresentado é consumido e
+     * substituído por um novo, que deve ser usado na próxima renovação.
      *
-     * @param request {@link RefreshTokenRequest} contendo o refresh token.
+     * @param request  {@link RefreshTokenRequest} contendo o refresh token.
+     * @param response A resposta, que recebe o cookie da impressão digital.
      * @return {@link TokenResponse} com novo access token
-     * e o mesmo refresh token.
+     * e novo refresh token.
      */
     @PostMapping("/refresh")
     public ResponseEntity<TokenResponse> refreshToken(
-            @RequestBody final RefreshTokenRequest request) {
+            @RequestBody final RefreshTokenRequest request,
+            final HttpServletResponse response) {
         log.info("Requisição de refresh token recebida");
 
-        RefreshToken token = refreshTokenService
-            .verificarValidade(request.refreshToken());
+        RefreshTokenRotacionado rotacionado = refreshTokenService
+            .rotacionar(request.refreshToken());
 
-        String newAccessToken = jwtService
-            .generateToken(token.getUsuario().getLogin());
+        String newAccessToken = emitirAccessToken(rotacionado.usuario(),
+            response);
 
         log.info("Novo access token gerado com sucesso para '{}'",
-            token.getUsuario().getLogin());
+            rotacionado.usuario().getLogin());
 
         return ResponseEntity.ok(
-            new TokenResponse(newAccessToken, token.getToken()));
+            new TokenResponse(newAccessToken, rotacionado.refreshToken()));
     }
 
     /**
      * Endpoint responsável por efetuar o logout do usuário autenticado.
      *
-     * Esse processo remove o refresh token associado ao usuário, invalidando a
-     * possibilidade de geração de novos access tokens, exigindo um novo login.
+     * Com o refresh token da sessão no corpo, encerra apenas essa sessão,
+     * mantendo as do usuário em outros dispositivos; sem corpo, como nas
+     * versões anteriores, encerra todas as sessões do usuário. Em ambos
+     * os casos revoga o access token da requisição até a sua expiração.
+     * Com a vinculação dos tokens habilitada,
+     * também remove o cookie da impressão digital.
      *
-     * @param usuario o usuário autenticado extraído do token JWT
+     * @param usuario       o usuário autenticado extraído do token JWT
+     * @param request       o corpo com o refresh token da sessão
+     *                      (opcional)
+     * @param authorization o cabeçalho com o access token a ser revogado
      * @return HTTP 204 (No Content) indicando logout bem-sucedido
      */
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(
-        @AuthenticationPrincipal final Usuario usuario
+        @AuthenticationPrincipal final UsuarioAutenticado usuario,
+        @RequestBody(required = false) final RefreshTokenRequest request,
+        @RequestHeader(HttpHeaders.AUTHORIZATION) final String authorization
     ) {
         log.debug("Iniciando processo de logout para o usuário '{}'",
-                  usuario.getLogin());
+                  usuario.login());
+
+        String refreshToken = request != null ? request.refreshToken() : null;
+        if (refreshToken == null || refreshToken.isBlank()) {
+            refreshTokenService.excluirPorUsuario(usuario.id());
+        } else {
+            refreshTokenService.encerrarSessao(usuario.id(), refreshToken);
+        }
 
-        refreshTokenService.excluirPorUsuario(usuario);
+        String accessToken = authorization.replace("Bearer ", "");
+        String jti = jwtService.getId(accessToken);
+        if (jti != null) {
+            revogacaoTokens.revogar(jti, jwtService.getExpiracao(accessToken));
+        }
 
         log.info("Logout efetuado com sucesso para o usuário '{}'",
-                 usuario.getLogin());
+                 usuario.login());
 
+        if (impressaoDigitalToken.habilitada()) {
+            return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE,
+                    impressaoDigitalToken.cookieExpirado().toString())
+                .build();
+        }
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Gera o access token do usuário. Com a vinculação habilitada, gera
+     * uma nova impressão digital, entregue no cookie da resposta, e inclui
+     * o seu hash no token.
+     *
+     * @param usuario  O usuário autenticado.
+     * @param response A resposta, que recebe o cookie.
+     * @return O access token.
+     */
+    private String emitirAccessToken(final Usuario usuario,
+                                     final HttpServletResponse response) {
+        if (!impressaoDigitalToken.habilitada()) {
+            return jwtService.generateToken(usuario);
+        }
+        String impressao = impressaoDigitalToken.gerar();
+        response.addHeader(HttpHeaders.SET_COOKIE,
+            impressaoDigitalToken.cookie(impressao).toString());
+        return jwtService.generateToken(usuario,
+            impressaoDigitalToken.hash(impressao));
+    }
 }
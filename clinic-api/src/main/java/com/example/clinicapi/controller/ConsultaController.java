@@ -1,10 +1,15 @@
 package com.example.clinicapi.controller;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,12 +18,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
+import com.example.clinicapi.dto.ResultadoLoteDTO;
+import com.example.clinicapi.service.ConsultaExportacaoService;
+import com.example.clinicapi.service.ConsultaExportacaoService.FormatoExportacao;
+import com.example.clinicapi.service.ConsultaLoteService;
 import com.example.clinicapi.service.ConsultaService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +46,16 @@ public class ConsultaController {
      */
     private final ConsultaService consultaService;
 
+    /**
+     * Serviço responsável pela criação de consultas em lote.
+     */
+    private final ConsultaLoteService consultaLoteService;
+
+    /**
+     * Serviço responsável pela exportação de consultas.
+     */
+    private final ConsultaExportacaoService consultaExportacaoService;
+
     /**
      * Agenda uma nova consulta.
      *
@@ -57,6 +79,22 @@ public class ConsultaController {
         return ResponseEntity.created(uri).body(createdConsulta);
     }
 
+    /**
+     * Agenda várias consultas em uma única requisição.
+     * Cada linha é validada individualmente; as linhas rejeitadas
+     * não impedem a criação das demais.
+     *
+     * @param consultas As consultas a serem agendadas.
+     * @return ResponseEntity com o resultado de cada linha e status 200 OK.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ResultadoLoteDTO> agendarEmLote(
+            @RequestBody final List<ConsultaDTO> consultas) {
+        log.info("Requisição recebida para agendar lote de {} consultas",
+                consultas.size());
+        return ResponseEntity.ok(consultaLoteService.criarEmLote(consultas));
+    }
+
     /**
      * Busca uma consulta pelo seu ID.
      *
@@ -92,6 +130,58 @@ public class ConsultaController {
         return ResponseEntity.ok(consultas);
     }
 
+    /**
+     * Lista as consultas ordenadas por data e hora e ID utilizando paginação
+     * por cursor.
+     * Indicada para percorrer listagens extensas: o custo de cada página
+     * independe da sua posição.
+     *
+     * @param cursor O token {@code proximoCursor} da página anterior;
+     * ausente na primeira página.
+     * @param size   A quantidade de itens por página.
+     * @return ResponseEntity com a página e o cursor da página seguinte.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDTO<ConsultaDTO>> listarPorCursor(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") final int size) {
+        log.info("Requisição recebida para listar consultas por cursor - "
+                + "tamanho: {}", size);
+        return ResponseEntity.ok(consultaService.findAllPorCursor(cursor, size));
+    }
+
+    /**
+     * Exporta todas as consultas do período em NDJSON ou CSV.
+     * O arquivo é escrito diretamente na resposta à medida que as
+     * consultas são lidas do banco, sem paginação.
+     *
+     * @param inicio   Data e hora inicial (inclusiva).
+     * @param fim      Data e hora final (exclusiva).
+     * @param formato  O formato do arquivo: {@code ndjson} ou {@code csv}.
+     * @param response A resposta HTTP onde o arquivo será escrito.
+     * @throws IOException Se ocorrer erro ao escrever a resposta.
+     */
+    @GetMapping("/export")
+    public void exportar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            final LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            final LocalDateTime fim,
+            @RequestParam(defaultValue = "ndjson") final String formato,
+            final HttpServletResponse response) throws IOException {
+        final FormatoExportacao tipo = FormatoExportacao.deParametro(formato);
+        log.info("Requisição recebida para exportar consultas entre {} e {}"
+                + " em {}", inicio, fim, tipo);
+
+        response.setContentType(tipo.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"consultas."
+                + tipo.name().toLowerCase() + "\"");
+        consultaExportacaoService.exportar(inicio, fim, tipo,
+                response.getOutputStream());
+    }
+
     /**
      * Atualiza uma consulta existente.
      *
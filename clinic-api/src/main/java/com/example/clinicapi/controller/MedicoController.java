@@ -1,11 +1,14 @@
 package com.example.clinicapi.controller;
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,11 +17,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.clinicapi.dto.AgendaMedicoDTO;
+import com.example.clinicapi.dto.ContagemAgendaDTO;
 import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
 import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.service.AgendaContadorService;
+import com.example.clinicapi.service.DisponibilidadeService;
 import com.example.clinicapi.service.MedicoService;
 
 import jakarta.validation.Valid;
@@ -48,6 +57,16 @@ public final class MedicoController {
      */
     private final @Lazy MedicoService medicoService;
 
+    /**
+     * Serviço responsável pelo cálculo dos horários livres dos médicos.
+     */
+    private final DisponibilidadeService disponibilidadeService;
+
+    /**
+     * Serviço responsável pelos contadores diários da agenda.
+     */
+    private final AgendaContadorService agendaContadorService;
+
     /**
      * Lista todos os médicos ativos e inativos com paginação.
      *
@@ -67,6 +86,25 @@ public final class MedicoController {
         return ResponseEntity.ok(medicoService.findAll(pageable));
     }
 
+    /**
+     * Lista os médicos ordenados por ID utilizando paginação por cursor.
+     * Indicada para percorrer listagens extensas: o custo de cada página
+     * independe da sua posição.
+     *
+     * @param cursor O token {@code proximoCursor} da página anterior;
+     * ausente na primeira página.
+     * @param size   A quantidade de itens por página.
+     * @return ResponseEntity com a página e o cursor da página seguinte.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDTO<MedicoDTO>> listarPorCursor(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") final int size) {
+        log.info("Requisição recebida para listar médicos por cursor - "
+                + "tamanho: {}", size);
+        return ResponseEntity.ok(medicoService.findAllPorCursor(cursor, size));
+    }
+
     /**
      * Lista apenas os médicos que estão ativos no sistema com paginação.
      *
@@ -126,6 +164,75 @@ public final class MedicoController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Lista os horários livres de um médico no período informado.
+     *
+     * @param id     O ID do médico.
+     * @param inicio Primeiro dia do período (inclusivo).
+     * @param fim    Último dia do período (inclusivo).
+     * @return ResponseEntity com a agenda de horários livres do médico.
+     */
+    @GetMapping("/{id}/agenda")
+    public ResponseEntity<AgendaMedicoDTO> listarHorariosLivres(
+            @PathVariable final Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate fim) {
+        log.info("Requisição recebida para listar horários livres do médico"
+                + " {} entre {} e {}", id, inicio, fim);
+
+        return ResponseEntity.ok(
+                disponibilidadeService.horariosLivres(id, inicio, fim));
+    }
+
+    /**
+     * Retorna a quantidade de consultas do médico em cada dia do período,
+     * por status, a partir dos contadores diários da agenda.
+     *
+     * @param id     O ID do médico.
+     * @param inicio Primeiro dia do período (inclusivo).
+     * @param fim    Último dia do período (inclusivo).
+     * @return ResponseEntity com uma contagem por dia.
+     */
+    @GetMapping("/{id}/agenda/contadores")
+    public ResponseEntity<List<ContagemAgendaDTO>> contarConsultas(
+            @PathVariable final Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate fim) {
+        log.info("Requisição recebida para contar consultas do médico"
+                + " {} entre {} e {}", id, inicio, fim);
+
+        return ResponseEntity.ok(
+                agendaContadorService.contar(id, inicio, fim));
+    }
+
+    /**
+     * Lista os horários livres dos médicos ativos de uma especialidade
+     * no período informado.
+     *
+     * @param especialidade A especialidade a ser filtrada.
+     * @param inicio        Primeiro dia do período (inclusivo).
+     * @param fim           Último dia do período (inclusivo).
+     * @return ResponseEntity com a agenda de cada médico da especialidade.
+     */
+    @GetMapping("/especialidade/{especialidade}/agenda")
+    public ResponseEntity<List<AgendaMedicoDTO>>
+            listarHorariosLivresPorEspecialidade(
+            @PathVariable final Especialidade especialidade,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate fim) {
+        log.info("Requisição recebida para listar horários livres da "
+                + "especialidade {} entre {} e {}", especialidade, inicio, fim);
+
+        return ResponseEntity.ok(disponibilidadeService
+                .horariosLivresPorEspecialidade(especialidade, inicio, fim));
+    }
+
     /**
      * Cria um novo registro de médico no sistema.
      *
@@ -13,10 +13,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
 import com.example.clinicapi.service.PacienteService;
 
 import jakarta.validation.Valid;
@@ -64,6 +66,25 @@ public final class PacienteController {
         return ResponseEntity.ok(pacienteService.findAll(pageable));
     }
 
+    /**
+     * Lista os pacientes ordenados por ID utilizando paginação por cursor.
+     * Indicada para percorrer listagens extensas: o custo de cada página
+     * independe da sua posição.
+     *
+     * @param cursor O token {@code proximoCursor} da página anterior;
+     * ausente na primeira página.
+     * @param size   A quantidade de itens por página.
+     * @return ResponseEntity com a página e o cursor da página seguinte.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDTO<PacienteDTO>> listarPorCursor(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") final int size) {
+        log.info("Requisição recebida para listar pacientes por cursor - "
+                + "tamanho: {}", size);
+        return ResponseEntity.ok(pacienteService.findAllPorCursor(cursor, size));
+    }
+
     /**
      * Lista apenas os pacientes que estão ativos no sistema com paginação.
      *
@@ -0,0 +1,17 @@
+package com.example.clinicapi.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Representa os horários livres de um médico em um período.
+ *
+ * @param medicoId       identificador do médico
+ * @param horariosLivres horários em que uma nova consulta pode começar,
+ *                       em ordem cronológica
+ */
+public record AgendaMedicoDTO(
+        Long medicoId,
+        List<LocalDateTime> horariosLivres
+) implements Serializable { }
@@ -0,0 +1,20 @@
+package com.example.clinicapi.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.example.clinicapi.model.StatusConsulta;
+
+/**
+ * Quantidade de consultas de um médico em um dia.
+ *
+ * @param data      o dia
+ * @param porStatus a quantidade de consultas de cada status
+ * @param total     a quantidade total de consultas no dia
+ */
+public record ContagemAgendaDTO(
+        LocalDate data,
+        Map<StatusConsulta, Long> porStatus,
+        long total
+) implements Serializable { }
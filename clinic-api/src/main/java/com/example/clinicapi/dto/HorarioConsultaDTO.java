@@ -0,0 +1,17 @@
+package com.example.clinicapi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção enxuta de uma consulta contendo apenas os dados
+ * necessários para montar a agenda de um médico.
+ *
+ * @param id       identificador da consulta
+ * @param medicoId identificador do médico responsável
+ * @param dataHora data e hora agendadas
+ */
+public record HorarioConsultaDTO(
+        Long id,
+        Long medicoId,
+        LocalDateTime dataHora
+) { }
@@ -0,0 +1,23 @@
+package com.example.clinicapi.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.clinicapi.model.StatusConsulta;
+
+/**
+ * Projeção de uma consulta com os dados necessários para enviar um
+ * lembrete ao paciente.
+ *
+ * @param id            identificador da consulta
+ * @param dataHora      data e hora agendadas
+ * @param status        status atual da consulta
+ * @param pacienteNome  nome do paciente
+ * @param pacienteEmail e-mail do paciente
+ */
+public record LembreteConsultaDTO(
+        Long id,
+        LocalDateTime dataHora,
+        StatusConsulta status,
+        String pacienteNome,
+        String pacienteEmail
+) { }
@@ -0,0 +1,19 @@
+package com.example.clinicapi.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Página de resultados obtida por paginação por cursor (keyset).
+ *
+ * @param <T>           tipo dos itens da página
+ * @param itens         itens da página, na ordem da listagem
+ * @param tamanho       quantidade de itens solicitada por página
+ * @param proximoCursor token opaco para obter a página seguinte,
+ *                      ou {@code null} se esta for a última
+ */
+public record PaginaCursorDTO<T>(
+        List<T> itens,
+        int tamanho,
+        String proximoCursor
+) implements Serializable { }
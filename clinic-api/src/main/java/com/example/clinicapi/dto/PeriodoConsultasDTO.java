@@ -0,0 +1,16 @@
+package com.example.clinicapi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data e hora da primeira e da última consulta cadastradas.
+ *
+ * @param inicio data e hora da primeira consulta, ou {@code null} se não
+ *               houver consultas
+ * @param fim    data e hora da última consulta, ou {@code null} se não
+ *               houver consultas
+ */
+public record PeriodoConsultasDTO(
+        LocalDateTime inicio,
+        LocalDateTime fim
+) { }
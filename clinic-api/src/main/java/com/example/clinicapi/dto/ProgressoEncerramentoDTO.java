@@ -0,0 +1,35 @@
+package com.example.clinicapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import com.example.clinicapi.model.StatusConsulta;
+
+/**
+ * Progresso do encerramento das consultas agendadas que já passaram.
+ *
+ * @param emExecucao     se uma execução está em andamento
+ * @param statusDestino  o status atribuído às consultas encerradas
+ * @param limite         data e hora até a qual a execução atual (ou a
+ *                       última) encerra consultas
+ * @param iniciadaEm     início da execução atual ou da última
+ * @param concluidaEm    fim da última execução, ou {@code null} se
+ *                       estiver em andamento
+ * @param lotes          lotes processados na execução
+ * @param encerradas     consultas encerradas na execução
+ * @param cursorDataHora data e hora da última consulta processada
+ * @param cursorId       ID da última consulta processada
+ * @param totalEncerradas consultas encerradas desde o início da aplicação
+ */
+public record ProgressoEncerramentoDTO(
+        boolean emExecucao,
+        StatusConsulta statusDestino,
+        LocalDateTime limite,
+        Instant iniciadaEm,
+        Instant concluidaEm,
+        long lotes,
+        long encerradas,
+        LocalDateTime cursorDataHora,
+        Long cursorId,
+        long totalEncerradas
+) { }
@@ -0,0 +1,15 @@
+package com.example.clinicapi.dto;
+
+import java.time.Instant;
+
+/**
+ * Projeção enxuta de um refresh token expirado, com os dados necessários
+ * para percorrer e remover os tokens em blocos.
+ *
+ * @param id            identificador do refresh token
+ * @param dataExpiracao instante de expiração do token
+ */
+public record RefreshTokenExpiradoDTO(
+        Long id,
+        Instant dataExpiracao
+) { }
@@ -0,0 +1,36 @@
+package com.example.clinicapi.dto;
+
+import java.io.Serializable;
+
+/**
+ * Resultado do processamento de uma linha de um lote de consultas.
+ *
+ * @param indice   posição da linha no lote recebido (iniciando em 0)
+ * @param status   situação final da linha
+ * @param id       identificador da consulta criada, ou {@code null}
+ *                 se a linha foi rejeitada
+ * @param mensagem motivo da rejeição, ou {@code null} se a linha foi criada
+ */
+public record ResultadoItemLoteDTO(
+        int indice,
+        StatusItemLote status,
+        Long id,
+        String mensagem
+) implements Serializable {
+
+    /**
+     * Situação de uma linha após o processamento do lote.
+     */
+    public enum StatusItemLote {
+
+        /**
+         * A consulta foi criada.
+         */
+        CRIADA,
+
+        /**
+         * A linha foi rejeitada e nenhuma consulta foi criada.
+         */
+        REJEITADA
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.clinicapi.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resultado da criação de consultas em lote.
+ *
+ * @param total      quantidade de linhas recebidas
+ * @param criadas    quantidade de consultas criadas
+ * @param rejeitadas quantidade de linhas rejeitadas
+ * @param itens      resultado de cada linha, na ordem recebida
+ */
+public record ResultadoLoteDTO(
+        int total,
+        int criadas,
+        int rejeitadas,
+        List<ResultadoItemLoteDTO> itens
+) implements Serializable { }
@@ -0,0 +1,52 @@
+package com.example.clinicapi.event;
+
+import java.time.LocalDateTime;
+
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.StatusConsulta;
+
+/**
+ * Evento publicado quando uma consulta é criada, alterada ou excluída.
+ *
+ * @param consultaId O ID da consulta.
+ * @param dataHora   A data e hora atuais da consulta, ou {@code null}
+ *                   se ela foi excluída.
+ * @param status     O status atual da consulta, ou {@code null}
+ *                   se ela foi excluída.
+ */
+public record ConsultaAlteradaEvent(
+        Long consultaId,
+        LocalDateTime dataHora,
+        StatusConsulta status
+) {
+
+    /**
+     * Cria o evento com o estado atual da consulta.
+     *
+     * @param consulta A consulta criada ou alterada.
+     * @return O evento.
+     */
+    public static ConsultaAlteradaEvent de(final Consulta consulta) {
+        return new ConsultaAlteradaEvent(consulta.getId(),
+                consulta.getDataHora(), consulta.getStatus());
+    }
+
+    /**
+     * Cria o evento de exclusão da consulta.
+     *
+     * @param consultaId O ID da consulta excluída.
+     * @return O evento.
+     */
+    public static ConsultaAlteradaEvent removida(final Long consultaId) {
+        return new ConsultaAlteradaEvent(consultaId, null, null);
+    }
+
+    /**
+     * Indica se a consulta continua agendada após a alteração.
+     *
+     * @return {@code true} se a consulta existe e está agendada.
+     */
+    public boolean agendada() {
+        return status == StatusConsulta.AGENDADA && dataHora != null;
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Este pacote contém os eventos de domínio publicados pelos serviços,
+ * consumidos por componentes que reagem às alterações das entidades
+ * sem acoplá-las ao serviço que as originou.
+ */
+package com.example.clinicapi.event;
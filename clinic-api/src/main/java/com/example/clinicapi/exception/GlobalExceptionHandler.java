@@ -5,6 +5,8 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -80,6 +82,62 @@ public final class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Manipula exceções de conflito de agenda, quando o médico já possui
+     * consulta no horário solicitado.
+     *
+     * @param ex A exceção HorarioIndisponivelException capturada.
+     * @return Uma ResponseEntity contendo um
+     * ErrorResponse com status 409 Conflict.
+     */
+    @ExceptionHandler(HorarioIndisponivelException.class)
+    public ResponseEntity<ErrorResponse> handleHorarioIndisponivelException(
+            final HorarioIndisponivelException ex) {
+        LOGGER.warn("Horário indisponível: {}", ex.getMessage());
+        final ErrorResponse error = new ErrorResponse("CONFLICT",
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Manipula conflitos de versão (bloqueio otimista) que persistiram
+     * após todas as tentativas de atualização.
+     *
+     * @param ex A exceção OptimisticLockingFailureException capturada.
+     * @return Uma ResponseEntity contendo um
+     * ErrorResponse com status 409 Conflict.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+            final OptimisticLockingFailureException ex) {
+        LOGGER.warn("Conflito de versão: {}", ex.getMessage());
+        final ErrorResponse error = new ErrorResponse("CONFLICT",
+                "O registro foi alterado por outra requisição. "
+                + "Tente novamente.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Manipula as requisições recusadas porque um recurso limitado, como
+     * o processamento de senhas, está saturado.
+     *
+     * @param ex A exceção ServicoSobrecarregadoException capturada.
+     * @return Uma ResponseEntity contendo um ErrorResponse com status
+     * 503 Service Unavailable e o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<ErrorResponse> handleServicoSobrecarregado(
+            final ServicoSobrecarregadoException ex) {
+        LOGGER.warn("Requisição recusada por sobrecarga: {}",
+                ex.getMessage());
+        final ErrorResponse error = new ErrorResponse("SERVICE_UNAVAILABLE",
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(ex.getRetryAfterSegundos()))
+                .body(error);
+    }
+
     /**
      * Manipula erros de validação de dados provenientes
      * de anotações @Valid em corpos de requisição.
@@ -0,0 +1,27 @@
+package com.example.clinicapi.exception;
+
+/**
+ * Exceção lançada quando o médico já possui uma consulta
+ * agendada em um horário que se sobrepõe ao solicitado.
+ * Estende RuntimeException para ser uma exceção não verificada.
+ */
+public class HorarioIndisponivelException extends RuntimeException {
+
+    /**
+     * O serialVersionUID é um identificador de
+     * versão para uma classe Serializable.
+     * Necessário para garantir a compatibilidade
+     * durante a serialização/desserialização.
+     */
+    private static final long serialVersionUID = 4391807316245502876L;
+
+    /**
+     * Construtor para HorarioIndisponivelException que permite
+     * uma mensagem customizada.
+     *
+     * @param message A mensagem detalhada da exceção.
+     */
+    public HorarioIndisponivelException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.clinicapi.exception;
+
+/**
+ * Exceção lançada quando um recurso com capacidade limitada está
+ * saturado e a requisição deve ser repetida mais tarde.
+ * Mapeada para {@code 503 Service Unavailable} com o cabeçalho
+ * {@code Retry-After}.
+ */
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    /**
+     * O serialVersionUID é um identificador de
+     * versão para uma classe Serializable.
+     * Necessário para garantir a compatibilidade
+     * durante a serialização/desserialização.
+     */
+    private static final long serialVersionUID = -2171620837402262947L;
+
+    /**
+     * Segundos sugeridos ao cliente antes de repetir a requisição.
+     */
+    private final long retryAfterSegundos;
+
+    /**
+     * Construtor que permite uma mensagem customizada e o tempo de espera
+     * sugerido ao cliente.
+     *
+     * @param message             A mensagem detalhada da exceção.
+     * @param pRetryAfterSegundos Segundos antes de repetir a requisição.
+     */
+    public ServicoSobrecarregadoException(final String message,
+            final long pRetryAfterSegundos) {
+        super(message);
+        this.retryAfterSegundos = pRetryAfterSegundos;
+    }
+
+    /**
+     * Retorna os segundos sugeridos antes de repetir a requisição.
+     *
+     * @return O tempo de espera em segundos.
+     */
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
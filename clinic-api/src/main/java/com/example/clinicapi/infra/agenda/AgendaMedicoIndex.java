@@ -0,0 +1,320 @@
+package com.example.clinicapi.infra.agenda;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice em memória das consultas agendadas de cada médico, utilizado
+ * para detectar conflitos de horário sem acessar o banco de dados.
+ * <p>
+ * Cada médico possui um conjunto ordenado de marcações, de modo que a
+ * verificação de sobreposição é feita em O(log n). O índice é aquecido
+ * a partir da tabela {@code consultas} na inicialização da aplicação e
+ * mantido sincronizado pelo serviço de consultas a cada criação,
+ * atualização ou cancelamento.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AgendaMedicoIndex {
+
+    /**
+     * Repositório utilizado para carregar as consultas existentes.
+     */
+    private final ConsultaRepository consultaRepository;
+
+    /**
+     * Duração padrão de uma consulta. Duas consultas do mesmo médico
+     * conflitam quando seus inícios estão a menos dessa duração.
+     */
+    private final Duration duracaoConsulta;
+
+    /**
+     * Marcações ordenadas por data e hora, agrupadas pelo ID do médico.
+     */
+    private final Map<Long, NavigableSet<Marcacao>> agendas =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Marcação atual de cada consulta indexada, utilizada para
+     * remover ou mover a consulta sem percorrer as agendas.
+     */
+    private final Map<Long, Marcacao> marcacoesPorConsulta =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Cria o índice de agenda.
+     *
+     * @param pConsultaRepository repositório de consultas
+     * @param duracaoMinutos      duração padrão de uma consulta em minutos
+     */
+    public AgendaMedicoIndex(
+            final ConsultaRepository pConsultaRepository,
+            @Value("${agenda.consulta.duracao-minutos:30}")
+            final long duracaoMinutos) {
+        this.consultaRepository = pConsultaRepository;
+        this.duracaoConsulta = Duration.ofMinutes(duracaoMinutos);
+    }
+
+    /**
+     * Carrega no índice as consultas não canceladas que ainda podem
+     * conflitar com novos agendamentos. Executado pelo
+     * {@link AquecimentoAgenda} antes de o servidor web ser iniciado.
+     */
+    @Transactional(readOnly = true)
+    public void aquecer() {
+        final LocalDateTime inicio = LocalDateTime.now()
+                .minus(duracaoConsulta);
+        log.info("Aquecendo índice de agenda com consultas a partir de {}",
+                inicio);
+
+        try (Stream<HorarioConsultaDTO> horarios = consultaRepository
+                .streamHorariosAtivosAPartirDe(inicio)) {
+            horarios.forEach(h ->
+                    registrar(h.id(), h.medicoId(), h.dataHora()));
+        }
+
+        log.info("Índice de agenda aquecido com {} consultas",
+                marcacoesPorConsulta.size());
+    }
+
+    /**
+     * Descarta as marcações que já não podem conflitar com novos
+     * agendamentos. Executado periodicamente conforme
+     * {@code agenda.indice.limpeza-ms}.
+     */
+    @Scheduled(fixedDelayString = "${agenda.indice.limpeza-ms:600000}")
+    public void descartarPassadas() {
+        final int descartadas = descartarAnteriores(
+                LocalDateTime.now().minus(duracaoConsulta));
+        log.debug("{} marcações passadas descartadas do índice de agenda",
+                descartadas);
+    }
+
+    /**
+     * Descarta as marcações com início anterior ao limite.
+     *
+     * @param limite Instante a partir do qual as marcações são mantidas.
+     * @return A quantidade de marcações descartadas.
+     */
+    int descartarAnteriores(final LocalDateTime limite) {
+        int descartadas = 0;
+        for (NavigableSet<Marcacao> agenda : agendas.values()) {
+            final Iterator<Marcacao> passadas = agenda.headSet(
+                    new Marcacao(0L, limite, Long.MIN_VALUE)).iterator();
+            while (passadas.hasNext()) {
+                final Marcacao marcacao = passadas.next();
+                passadas.remove();
+                marcacoesPorConsulta.remove(marcacao.consultaId(), marcacao);
+                descartadas++;
+            }
+        }
+        return descartadas;
+    }
+
+    /**
+     * Verifica se o médico já possui consulta que se sobrepõe
+     * ao horário informado.
+     *
+     * @param medicoId         ID do médico.
+     * @param dataHora         Data e hora pretendidas para a consulta.
+     * @param consultaIgnorada ID de uma consulta a desconsiderar
+     *                         (a própria consulta em uma atualização),
+     *                         ou {@code null}.
+     * @return {@code true} se houver conflito de horário.
+     */
+    public boolean possuiConflito(final Long medicoId,
+            final LocalDateTime dataHora, final Long consultaIgnorada) {
+        if (medicoId == null || dataHora == null) {
+            return false;
+        }
+
+        final NavigableSet<Marcacao> agenda = agendas.get(medicoId);
+        if (agenda == null) {
+            return false;
+        }
+
+        final Marcacao de = new Marcacao(medicoId,
+                dataHora.minus(duracaoConsulta), Long.MAX_VALUE);
+        final Marcacao ate = new Marcacao(medicoId,
+                dataHora.plus(duracaoConsulta), Long.MIN_VALUE);
+
+        for (Marcacao m : agenda.subSet(de, false, ate, false)) {
+            if (consultaIgnorada == null
+                    || m.consultaId() != consultaIgnorada) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica no banco, com a mesma regra de {@link #possuiConflito},
+     * se o médico possui consulta que se sobrepõe ao horário informado.
+     * Alcança as consultas gravadas por outros nós, que não estão no
+     * índice desta instância; deve ser executado na transação do
+     * agendamento.
+     *
+     * @param medicoId         ID do médico.
+     * @param dataHora         Data e hora pretendidas para a consulta.
+     * @param consultaIgnorada ID de uma consulta a desconsiderar,
+     *                         ou {@code null}.
+     * @return {@code true} se houver conflito de horário.
+     */
+    public boolean possuiConflitoGravado(final Long medicoId,
+            final LocalDateTime dataHora, final Long consultaIgnorada) {
+        if (medicoId == null || dataHora == null) {
+            return false;
+        }
+        return consultaRepository.existsConflito(medicoId,
+                dataHora.minus(duracaoConsulta),
+                dataHora.plus(duracaoConsulta), consultaIgnorada);
+    }
+
+    /**
+     * Lista os horários de início das consultas do médico que ocupam
+     * algum instante do intervalo {@code [de, ate)}, em ordem cronológica.
+     *
+     * @param medicoId ID do médico.
+     * @param de       Início do intervalo (inclusivo).
+     * @param ate      Fim do intervalo (exclusivo).
+     * @return Os horários ocupados no intervalo.
+     */
+    public List<LocalDateTime> horariosOcupados(final long medicoId,
+            final LocalDateTime de, final LocalDateTime ate) {
+        final NavigableSet<Marcacao> agenda = agendas.get(medicoId);
+        if (agenda == null) {
+            return List.of();
+        }
+
+        final Marcacao inicio = new Marcacao(medicoId,
+                de.minus(duracaoConsulta), Long.MAX_VALUE);
+        final Marcacao fim = new Marcacao(medicoId, ate, Long.MIN_VALUE);
+
+        final List<LocalDateTime> horarios = new ArrayList<>();
+        for (Marcacao m : agenda.subSet(inicio, false, fim, false)) {
+            horarios.add(m.dataHora());
+        }
+        return horarios;
+    }
+
+    /**
+     * Sincroniza o índice com o estado atual da consulta.
+     * Consultas canceladas são removidas; as demais são
+     * registradas ou movidas para o novo médico e horário.
+     *
+     * @param consulta A consulta persistida.
+     */
+    public void registrar(final Consulta consulta) {
+        if (consulta.getId() == null) {
+            return;
+        }
+        if (consulta.getStatus() == StatusConsulta.CANCELADA
+                || consulta.getMedico() == null
+                || consulta.getMedico().getId() == null
+                || consulta.getDataHora() == null) {
+            remover(consulta.getId());
+            return;
+        }
+        registrar(consulta.getId(), consulta.getMedico().getId(),
+                consulta.getDataHora());
+    }
+
+    /**
+     * Registra (ou move) uma consulta na agenda do médico.
+     *
+     * @param consultaId ID da consulta.
+     * @param medicoId   ID do médico.
+     * @param dataHora   Data e hora da consulta.
+     */
+    public void registrar(final long consultaId, final long medicoId,
+            final LocalDateTime dataHora) {
+        final Marcacao nova = new Marcacao(medicoId, dataHora, consultaId);
+        final Marcacao anterior = marcacoesPorConsulta.put(consultaId, nova);
+        if (anterior != null) {
+            desmarcar(anterior);
+        }
+        agendas.computeIfAbsent(medicoId,
+                id -> new ConcurrentSkipListSet<>()).add(nova);
+    }
+
+    /**
+     * Remove a consulta do índice, se estiver presente.
+     *
+     * @param consultaId ID da consulta.
+     */
+    public void remover(final Long consultaId) {
+        if (consultaId == null) {
+            return;
+        }
+        final Marcacao anterior = marcacoesPorConsulta.remove(consultaId);
+        if (anterior != null) {
+            desmarcar(anterior);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de consultas atualmente indexadas.
+     *
+     * @return O número de consultas no índice.
+     */
+    public int tamanho() {
+        return marcacoesPorConsulta.size();
+    }
+
+    /**
+     * Retorna a duração padrão de uma consulta considerada pelo índice.
+     *
+     * @return A duração de uma consulta.
+     */
+    public Duration getDuracaoConsulta() {
+        return duracaoConsulta;
+    }
+
+    private void desmarcar(final Marcacao marcacao) {
+        final NavigableSet<Marcacao> agenda =
+                agendas.get(marcacao.medicoId());
+        if (agenda != null) {
+            agenda.remove(marcacao);
+        }
+    }
+
+    /**
+     * Entrada do índice: o horário de uma consulta na agenda do médico.
+     * Ordenada por data e hora e, em caso de empate, pelo ID da consulta.
+     *
+     * @param medicoId   ID do médico.
+     * @param dataHora   Data e hora da consulta.
+     * @param consultaId ID da consulta.
+     */
+    record Marcacao(long medicoId, LocalDateTime dataHora, long consultaId)
+            implements Comparable<Marcacao> {
+
+        @Override
+        public int compareTo(final Marcacao outra) {
+            final int cmp = dataHora.compareTo(outra.dataHora);
+            return cmp != 0 ? cmp
+                    : Long.compare(consultaId, outra.consultaId);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.clinicapi.infra.agenda;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aquece o {@link AgendaMedicoIndex} assim que todos os beans são
+ * criados, antes de o servidor web ser iniciado. Desse modo nenhuma
+ * requisição de agendamento é atendida com o índice ainda vazio, o que
+ * deixaria passar conflitos de horário logo após cada reinício.
+ *
+ * <p>O aquecimento é feito por este bean, e não pelo próprio índice,
+ * para que a chamada passe pelo proxy transacional do índice.</p>
+ */
+@Component
+public class AquecimentoAgenda implements SmartInitializingSingleton {
+
+    /**
+     * O índice aquecido.
+     */
+    private final AgendaMedicoIndex agendaMedicoIndex;
+
+    /**
+     * Cria o aquecimento do índice.
+     *
+     * @param pAgendaMedicoIndex índice de agenda
+     */
+    public AquecimentoAgenda(final AgendaMedicoIndex pAgendaMedicoIndex) {
+        this.agendaMedicoIndex = pAgendaMedicoIndex;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        agendaMedicoIndex.aquecer();
+    }
+}
@@ -0,0 +1,7 @@
+
+/**
+ * Este pacote contém os componentes de infraestrutura
+ * responsáveis pela agenda dos médicos,
+ * como o índice em memória utilizado na detecção de conflitos de horário.
+ */
+package com.example.clinicapi.infra.agenda;
@@ -0,0 +1,24 @@
+package com.example.clinicapi.infra.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal pelo qual as invalidações dos caches locais (L1) são propagadas
+ * entre os nós.
+ */
+public interface BarramentoInvalidacao {
+
+    /**
+     * Publica a invalidação para todos os nós, inclusive o de origem.
+     *
+     * @param invalidacao A invalidação.
+     */
+    void publicar(InvalidacaoCache invalidacao);
+
+    /**
+     * Registra o receptor das invalidações publicadas por qualquer nó.
+     *
+     * @param receptor O receptor.
+     */
+    void assinar(Consumer<InvalidacaoCache> receptor);
+}
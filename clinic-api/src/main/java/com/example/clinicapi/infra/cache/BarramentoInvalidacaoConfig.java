@@ -0,0 +1,67 @@
+package com.example.clinicapi.infra.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Classe de configuração responsável por escolher o barramento das
+ * invalidações dos caches locais conforme
+ * {@code api.cache.invalidacao.barramento}: {@code redis} ou
+ * {@code memoria} (padrão quando a propriedade não estiver definida).
+ */
+@Configuration
+public class BarramentoInvalidacaoConfig {
+
+    /**
+     * Propriedade que escolhe o barramento.
+     */
+    private static final String PROPRIEDADE =
+            "api.cache.invalidacao.barramento";
+
+    /**
+     * Contêiner das assinaturas do pub/sub do Redis.
+     *
+     * @param connectionFactory A fábrica de conexões do Redis.
+     * @return O contêiner.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "redis")
+    public RedisMessageListenerContainer containerInvalidacaoCache(
+            final RedisConnectionFactory connectionFactory) {
+        final RedisMessageListenerContainer container =
+                new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Barramento pelo pub/sub do Redis, entre os nós.
+     *
+     * @param redis     O cliente do Redis.
+     * @param container O contêiner das assinaturas.
+     * @return O barramento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "redis")
+    public BarramentoInvalidacao redisBarramentoInvalidacao(
+            final StringRedisTemplate redis,
+            final RedisMessageListenerContainer container) {
+        return new RedisBarramentoInvalidacao(redis, container);
+    }
+
+    /**
+     * Barramento em memória, local ao nó.
+     *
+     * @return O barramento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "memoria",
+            matchIfMissing = true)
+    public BarramentoInvalidacao barramentoInvalidacaoEmMemoria() {
+        return new BarramentoInvalidacaoEmMemoria();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.clinicapi.infra.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de invalidações em memória, que entrega cada invalidação
+ * imediatamente aos receptores registrados na mesma JVM. Adequado a um
+ * único nó e aos testes, em que vários gerenciadores de cache simulam
+ * nós distintos.
+ */
+public final class BarramentoInvalidacaoEmMemoria
+        implements BarramentoInvalidacao {
+
+    /**
+     * Os receptores registrados.
+     */
+    private final List<Consumer<InvalidacaoCache>> receptores =
+            new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(final InvalidacaoCache invalidacao) {
+        receptores.forEach(receptor -> receptor.accept(invalidacao));
+    }
+
+    @Override
+    public void assinar(final Consumer<InvalidacaoCache> receptor) {
+        receptores.add(receptor);
+    }
+}
@@ -2,18 +2,28 @@ package com.example.clinicapi.infra.cache;
 
 import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PacienteDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Configuração de cache para a aplicação, utilizando Redis como provedor.
- * Define o tempo de vida padrão dos itens no cache e a serialização.
+ * Define o tempo de vida padrão dos itens no cache e a serialização, e
+ * coloca à frente de cada cache do Redis uma cópia local limitada
+ * ({@link CacheManagerDoisNiveis}).
  */
 @Configuration
 public class CacheConfig {
@@ -26,7 +36,10 @@ public class CacheConfig {
     /**
      * Configura o comportamento padrão do cache Redis.
      * Define o tempo de vida dos itens e o serializador
-     * para os valores em JSON.
+     * para os valores em JSON, precedidos da expiração e da duração da
+     * carga ({@link SerializadorCompartilhado}). As chaves levam o
+     * prefixo {@code v2:}, para que, durante uma implantação gradual, os
+     * nós da versão anterior não leiam valores nesse formato.
      *
      * @return A configuração padrão do cache Redis.
      */
@@ -34,10 +47,73 @@ public class CacheConfig {
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(CACHE_TTL_MINUTES))
+                .prefixCacheNameWith("v2:")
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair
+                        .fromSerializer(new SerializadorCompartilhado(
+                                new GenericJackson2JsonRedisSerializer())));
+    }
+
+    /**
+     * Configura o gerenciador dos caches em dois níveis: uma cópia local
+     * em cada nó, com até {@code api.cache.l1.capacidade} entradas por
+     * cache e tempo de vida {@code api.cache.l1.ttl-ms}, à frente dos
+     * caches do Redis. As páginas de médicos e os médicos e pacientes por
+     * ID são gravados no Redis pelo {@link CodecCache}, em formato
+     * binário. Todos os valores são gravados com a sua expiração, lida
+     * pelos nós que não os carregaram. As leituras sincronizadas podem
+     * renovar um valor antes da
+     * sua expiração no Redis, conforme {@code api.cache.antecipacao.beta}.
+     *
+     * @param connectionFactory A fábrica de conexões do Redis.
+     * @param configuracao      A configuração padrão do cache Redis.
+     * @param barramento        O barramento das invalidações.
+     * @param meterRegistry     O registro das métricas.
+     * @param capacidade        As entradas de cada cache local.
+     * @param ttlMillis         O tempo de vida das entradas locais em
+     *                          milissegundos.
+     * @param beta              A intensidade da renovação antecipada;
+     *                          {@code 0} a desativa.
+     * @return O gerenciador de caches.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            final RedisConnectionFactory connectionFactory,
+            final RedisCacheConfiguration configuracao,
+            final BarramentoInvalidacao barramento,
+            final MeterRegistry meterRegistry,
+            @Value("${api.cache.l1.capacidade:1000}") final int capacidade,
+            @Value("${api.cache.l1.ttl-ms:30000}") final long ttlMillis,
+            @Value("${api.cache.antecipacao.beta:1.0}") final double beta) {
+        final ObjectMapper smile = CodecCache.mapeador();
+        final RedisCacheConfiguration paginasMedicos = configuracao
                 .serializeValuesWith(
                         RedisSerializationContext.SerializationPair
-                        .fromSerializer(
-                                new GenericJackson2JsonRedisSerializer()));
+                        .fromSerializer(new SerializadorCompartilhado(
+                                CodecCache.paginas(smile, MedicoDTO.class))));
+        final RedisCacheManager redis = RedisCacheManager
+                .builder(connectionFactory)
+                .cacheDefaults(configuracao)
+                .withCacheConfiguration("medicosAtivos", paginasMedicos)
+                .withCacheConfiguration("medicosPorEspecialidade",
+                        paginasMedicos)
+                .withCacheConfiguration("medicos", configuracao
+                        .serializeValuesWith(
+                                RedisSerializationContext.SerializationPair
+                                .fromSerializer(new SerializadorCompartilhado(
+                                        CodecCache.de(smile,
+                                                MedicoDTO.class)))))
+                .withCacheConfiguration("pacientes", configuracao
+                        .serializeValuesWith(
+                                RedisSerializationContext.SerializationPair
+                                .fromSerializer(new SerializadorCompartilhado(
+                                        CodecCache.de(smile,
+                                                PacienteDTO.class)))))
+                .build();
+        redis.afterPropertiesSet();
+        return new CacheManagerDoisNiveis(redis, barramento, meterRegistry,
+                capacidade, Duration.ofMillis(ttlMillis),
+                Duration.ofMinutes(CACHE_TTL_MINUTES), beta);
     }
 
     /**
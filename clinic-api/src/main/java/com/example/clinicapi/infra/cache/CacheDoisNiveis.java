@@ -0,0 +1,542 @@
+package com.example.clinicapi.infra.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache em dois níveis: uma cópia local (L1), limitada em tamanho e em
+ * tempo de vida, à frente do cache compartilhado (L2, o Redis). Uma
+ * leitura encontrada no L1 não sai da JVM nem desserializa o valor; uma
+ * falta no L1 consulta o L2 e guarda o resultado no L1.
+ *
+ * <p>As escritas e remoções são feitas primeiro no L2 e depois no L1, e
+ * são publicadas no {@link BarramentoInvalidacao}, para que os demais nós
+ * descartem a sua cópia local. A carga de um valor ausente, feita nas
+ * leituras com carregador ({@code @Cacheable(sync = true)}), não é
+ * publicada, pois não há valor anterior a descartar. Como a entrega das
+ * invalidações não é garantida, o tempo de vida do L1 limita por quanto
+ * tempo um nó pode ler um valor desatualizado. O L1 devolve a mesma
+ * instância a todas as leituras, de modo que os valores guardados devem
+ * ser imutáveis.</p>
+ *
+ * <p>Nas leituras com carregador ({@code @Cacheable(sync = true)}), as
+ * faltas simultâneas de uma mesma chave aguardam uma única carga neste
+ * nó. Além disso, uma leitura pode renovar o valor antes de ele expirar
+ * no L2, com probabilidade que cresce com a proximidade da expiração,
+ * gravada no L2 junto com o valor ({@link ValorCompartilhado}), e
+ * com a duração da carga (XFetch): as demais leituras continuam a
+ * receber o valor atual, e a expiração não provoca uma rajada de cargas
+ * no banco.</p>
+ */
+public final class CacheDoisNiveis implements Cache {
+
+    /**
+     * Quando o valor expira no L2 e quanto a sua carga levou, ambos em
+     * nanossegundos. Para um valor lido do L2 e carregado por outro nó,
+     * ambas são as gravadas com o valor; apenas para um valor gravado sem
+     * elas a expiração é estimada a partir da leitura, e a duração é a da
+     * última carga deste nó.
+     *
+     * @param expiraEm A expiração no L2.
+     * @param duracao  A duração da carga.
+     */
+    private record Carga(long expiraEm, long duracao) { }
+
+    /**
+     * O nome do cache.
+     */
+    private final String nome;
+
+    /**
+     * O cache local.
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+
+    /**
+     * A expiração e a duração da carga de cada valor, mantidas por mais
+     * tempo que o próprio valor no L1.
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<String, Carga> cargas;
+
+    /**
+     * O cache compartilhado.
+     */
+    private final Cache compartilhado;
+
+    /**
+     * O gerenciador que publica as invalidações.
+     */
+    private final CacheManagerDoisNiveis gerenciador;
+
+    /**
+     * Os parâmetros do cache.
+     */
+    private final ParametrosCache parametros;
+
+    /**
+     * As cargas em andamento, por chave.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> emAndamento =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Duração da última carga deste nó, em nanossegundos.
+     */
+    private volatile long ultimaDuracao;
+
+    /**
+     * Leituras atendidas pelo L1.
+     */
+    private final Counter acertosL1;
+
+    /**
+     * Leituras atendidas pelo L2.
+     */
+    private final Counter acertosL2;
+
+    /**
+     * Leituras não encontradas em nenhum nível.
+     */
+    private final Counter faltas;
+
+    /**
+     * Invalidações recebidas de outros nós.
+     */
+    private final Counter invalidacoesRemotas;
+
+    /**
+     * Cargas de valores ausentes.
+     */
+    private final Counter cargasAusentes;
+
+    /**
+     * Renovações antecipadas.
+     */
+    private final Counter cargasAntecipadas;
+
+    /**
+     * Leituras que aguardaram a carga de outra leitura.
+     */
+    private final Counter cargasCoalescidas;
+
+    /**
+     * Cria o cache e registra as suas métricas.
+     *
+     * @param pNome          nome do cache
+     * @param pCompartilhado cache compartilhado
+     * @param pGerenciador   gerenciador que publica as invalidações
+     * @param pParametros    parâmetros do cache
+     * @param meterRegistry  registro das métricas
+     */
+    CacheDoisNiveis(final String pNome, final Cache pCompartilhado,
+            final CacheManagerDoisNiveis pGerenciador,
+            final ParametrosCache pParametros,
+            final MeterRegistry meterRegistry) {
+        this.nome = pNome;
+        this.compartilhado = pCompartilhado;
+        this.gerenciador = pGerenciador;
+        this.parametros = pParametros;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(parametros.capacidade())
+                .expireAfterWrite(parametros.ttlLocal())
+                .ticker(parametros.ticker())
+                .build();
+        this.cargas = Caffeine.newBuilder()
+                .maximumSize(parametros.capacidade())
+                .expireAfterWrite(parametros.ttlCompartilhado())
+                .ticker(parametros.ticker())
+                .build();
+        this.acertosL1 = leituras(meterRegistry, "l1");
+        this.acertosL2 = leituras(meterRegistry, "l2");
+        this.faltas = leituras(meterRegistry, "falha");
+        this.invalidacoesRemotas =
+                Counter.builder("clinica.cache.invalidacoes.remotas")
+                        .description("Invalidações do cache local recebidas "
+                                + "de outros nós")
+                        .tag("cache", nome)
+                        .register(meterRegistry);
+        this.cargasAusentes = cargas(meterRegistry, "ausente");
+        this.cargasAntecipadas = cargas(meterRegistry, "antecipada");
+        this.cargasCoalescidas = cargas(meterRegistry, "coalescida");
+        Gauge.builder("clinica.cache.acertos.taxa", this,
+                CacheDoisNiveis::taxaAcertos)
+                .description("Fração das leituras do cache atendidas por "
+                        + "um dos níveis, desde o início da aplicação")
+                .tag("cache", nome)
+                .register(meterRegistry);
+        Gauge.builder("clinica.cache.l1.entradas", this,
+                CacheDoisNiveis::entradasLocais)
+                .description("Entradas no cache local deste nó")
+                .tag("cache", nome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return compartilhado.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final String chave = chave(key);
+        final ValueWrapper localizado = local.getIfPresent(chave);
+        if (localizado != null) {
+            acertosL1.increment();
+            return localizado;
+        }
+        final ValueWrapper remoto = compartilhado.get(key);
+        if (remoto == null) {
+            faltas.increment();
+            return null;
+        }
+        acertosL2.increment();
+        final ValueWrapper valor;
+        if (remoto.get() instanceof ValorCompartilhado lido) {
+            valor = new SimpleValueWrapper(lido.valor());
+            cargas.put(chave, new Carga(agora()
+                    + TimeUnit.MILLISECONDS.toNanos(lido.expiraEm()
+                            - parametros.relogio().getAsLong()),
+                    lido.duracao()));
+        } else {
+            valor = remoto;
+            cargas.asMap().putIfAbsent(chave, new Carga(
+                    agora() + parametros.ttlCompartilhado().toNanos(),
+                    ultimaDuracao));
+        }
+        local.put(chave, valor);
+        return valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper valor = get(key);
+        final Object conteudo = valor != null ? valor.get() : null;
+        if (conteudo != null && type != null && !type.isInstance(conteudo)) {
+            throw new IllegalStateException("O valor em cache não é do tipo "
+                    + type.getName() + ": " + conteudo);
+        }
+        return (T) conteudo;
+    }
+
+    /**
+     * Lê o valor dos níveis e, se ausente em ambos, carrega-o uma única
+     * vez entre as leituras simultâneas deste nó e guarda-o nos dois. Um
+     * valor presente pode ser renovado antes da sua expiração no L2; a
+     * renovação é feita pela leitura sorteada, e as leituras simultâneas
+     * recebem o valor atual.
+     *
+     * @param key         A chave.
+     * @param valueLoader O carregador do valor.
+     * @param <T>         O tipo do valor.
+     * @return O valor.
+     * @throws ValueRetrievalException Se o carregador falhar.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final String chave = chave(key);
+        final ValueWrapper valor = get(key);
+        if (valor == null) {
+            return (T) carregar(key, chave, valueLoader);
+        }
+        if (deveAntecipar(chave) && !emAndamento.containsKey(chave)) {
+            final CompletableFuture<Object> carga = new CompletableFuture<>();
+            if (emAndamento.putIfAbsent(chave, carga) == null) {
+                return (T) executar(key, chave, valueLoader, carga, true);
+            }
+        }
+        return (T) valor.get();
+    }
+
+    /**
+     * Grava o valor nos dois níveis e publica a invalidação, para que os
+     * demais nós descartem a cópia anterior, mesmo que o valor já tenha
+     * expirado no L2.
+     *
+     * @param key   A chave.
+     * @param value O valor.
+     */
+    @Override
+    public void put(final Object key, final Object value) {
+        compartilhado.put(key, compartilhar(value, ultimaDuracao));
+        final String chave = chave(key);
+        guardarLocal(chave, value, ultimaDuracao);
+        gerenciador.publicar(nome, chave);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final ValueWrapper existente = compartilhado.putIfAbsent(key,
+                compartilhar(value, ultimaDuracao));
+        if (existente == null) {
+            invalidar(chave(key));
+            return null;
+        }
+        return existente.get() instanceof ValorCompartilhado lido
+                ? new SimpleValueWrapper(lido.valor()) : existente;
+    }
+
+    @Override
+    public void evict(final Object key) {
+        compartilhado.evict(key);
+        invalidar(chave(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final boolean removido = compartilhado.evictIfPresent(key);
+        invalidar(chave(key));
+        return removido;
+    }
+
+    @Override
+    public void clear() {
+        compartilhado.clear();
+        invalidar(null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        final boolean havia = compartilhado.invalidate();
+        invalidar(null);
+        return havia;
+    }
+
+    /**
+     * Descarta a cópia local invalidada por outro nó.
+     *
+     * @param chave A chave invalidada, ou {@code null} para todo o cache.
+     */
+    void invalidarRemoto(final String chave) {
+        invalidarLocal(chave);
+        invalidacoesRemotas.increment();
+    }
+
+    /**
+     * Retorna a quantidade aproximada de entradas no L1.
+     *
+     * @return A quantidade de entradas.
+     */
+    long entradasLocais() {
+        return local.estimatedSize();
+    }
+
+    /**
+     * Carrega o valor ausente, ou aguarda a carga já em andamento neste
+     * nó para a mesma chave.
+     *
+     * @param key        A chave.
+     * @param chave      A chave textual.
+     * @param carregador O carregador do valor.
+     * @return O valor.
+     */
+    private Object carregar(final Object key, final String chave,
+            final Callable<?> carregador) {
+        final CompletableFuture<Object> carga = new CompletableFuture<>();
+        final CompletableFuture<Object> existente =
+                emAndamento.putIfAbsent(chave, carga);
+        if (existente == null) {
+            return executar(key, chave, carregador, carga, false);
+        }
+        cargasCoalescidas.increment();
+        try {
+            return existente.join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, carregador, ex.getCause());
+        }
+    }
+
+    /**
+     * Executa a carga registrada em {@link #emAndamento} e grava o valor
+     * nos dois níveis. Uma renovação substitui um valor que os demais nós
+     * podem ter em cópia local e, por isso, é publicada como invalidação.
+     *
+     * @param key        A chave.
+     * @param chave      A chave textual.
+     * @param carregador O carregador do valor.
+     * @param carga      A carga registrada, concluída com o valor.
+     * @param antecipada Se a carga renova um valor ainda presente.
+     * @return O valor.
+     */
+    private Object executar(final Object key, final String chave,
+            final Callable<?> carregador,
+            final CompletableFuture<Object> carga, final boolean antecipada) {
+        try {
+            final long inicio = agora();
+            final Object valor = carregador.call();
+            final long duracao = agora() - inicio;
+            ultimaDuracao = duracao;
+            compartilhado.put(key, compartilhar(valor, duracao));
+            guardarLocal(chave, valor, duracao);
+            (antecipada ? cargasAntecipadas : cargasAusentes).increment();
+            if (antecipada) {
+                gerenciador.publicar(nome, chave);
+            }
+            carga.complete(valor);
+            return valor;
+        } catch (Exception ex) {
+            carga.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, carregador, ex);
+        } finally {
+            emAndamento.remove(chave, carga);
+        }
+    }
+
+    /**
+     * Sorteia se a leitura deve renovar o valor: com
+     * {@code agora - duracao * beta * ln(aleatorio) >= expiraEm}, a
+     * probabilidade cresce à medida que a expiração se aproxima e é maior
+     * para os valores de carga demorada.
+     *
+     * @param chave A chave textual.
+     * @return {@code true} se a leitura deve renovar o valor.
+     */
+    private boolean deveAntecipar(final String chave) {
+        final Carga carga = cargas.getIfPresent(chave);
+        if (carga == null || parametros.beta() == 0 || carga.duracao() == 0) {
+            return false;
+        }
+        final double folga = -carga.duracao() * parametros.beta()
+                * Math.log(parametros.aleatorio().getAsDouble());
+        return agora() + folga >= carga.expiraEm();
+    }
+
+    /**
+     * Guarda o valor no L1 e a sua expiração no L2.
+     *
+     * @param chave   A chave textual.
+     * @param valor   O valor.
+     * @param duracao A duração da carga, em nanossegundos.
+     */
+    private void guardarLocal(final String chave, final Object valor,
+            final long duracao) {
+        local.put(chave, new SimpleValueWrapper(valor));
+        cargas.put(chave, new Carga(
+                agora() + parametros.ttlCompartilhado().toNanos(), duracao));
+    }
+
+    /**
+     * Envolve o valor com a sua expiração no L2 e a duração da sua carga,
+     * para gravá-lo no L2.
+     *
+     * @param valor   O valor.
+     * @param duracao A duração da carga, em nanossegundos.
+     * @return O valor a gravar no L2.
+     */
+    private ValorCompartilhado compartilhar(final Object valor,
+            final long duracao) {
+        return new ValorCompartilhado(valor, parametros.relogio().getAsLong()
+                + parametros.ttlCompartilhado().toMillis(), duracao);
+    }
+
+    /**
+     * Descarta a cópia local e publica a invalidação para os demais nós.
+     *
+     * @param chave A chave invalidada, ou {@code null} para todo o cache.
+     */
+    private void invalidar(final String chave) {
+        invalidarLocal(chave);
+        gerenciador.publicar(nome, chave);
+    }
+
+    /**
+     * Descarta a cópia local.
+     *
+     * @param chave A chave invalidada, ou {@code null} para todo o cache.
+     */
+    private void invalidarLocal(final String chave) {
+        if (chave == null) {
+            local.invalidateAll();
+            cargas.invalidateAll();
+        } else {
+            local.invalidate(chave);
+            cargas.invalidate(chave);
+        }
+    }
+
+    /**
+     * Retorna o instante atual da fonte de tempo, em nanossegundos.
+     *
+     * @return O instante atual.
+     */
+    private long agora() {
+        return parametros.ticker().read();
+    }
+
+    /**
+     * Calcula a fração das leituras atendidas por um dos níveis.
+     *
+     * @return A fração, ou {@code 0} se ainda não houver leituras.
+     */
+    private double taxaAcertos() {
+        final double acertos = acertosL1.count() + acertosL2.count();
+        final double total = acertos + faltas.count();
+        return total > 0 ? acertos / total : 0;
+    }
+
+    /**
+     * Registra o contador das leituras do cache com o resultado informado.
+     *
+     * @param meterRegistry registro das métricas
+     * @param resultado     o nível que atendeu a leitura, ou {@code falha}
+     * @return O contador.
+     */
+    private Counter leituras(final MeterRegistry meterRegistry,
+            final String resultado) {
+        return Counter.builder("clinica.cache.leituras")
+                .description("Leituras dos caches, pelo nível que as atendeu "
+                        + "(l1 não sai da JVM)")
+                .tag("cache", nome)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o contador das cargas do cache com o motivo informado.
+     *
+     * @param meterRegistry registro das métricas
+     * @param motivo        {@code ausente}, {@code antecipada} ou
+     *                      {@code coalescida}
+     * @return O contador.
+     */
+    private Counter cargas(final MeterRegistry meterRegistry,
+            final String motivo) {
+        return Counter.builder("clinica.cache.cargas")
+                .description("Cargas dos valores do cache: de valores "
+                        + "ausentes, renovações antecipadas e leituras que "
+                        + "aguardaram a carga de outra leitura")
+                .tag("cache", nome)
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Converte a chave do Spring na chave do L1, a mesma representação
+     * textual publicada nas invalidações.
+     *
+     * @param key A chave.
+     * @return A chave textual.
+     */
+    private static String chave(final Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.clinicapi.infra.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gerenciador dos caches em dois níveis ({@link CacheDoisNiveis}): cada
+ * cache do gerenciador compartilhado (L2) recebe uma cópia local (L1)
+ * neste nó.
+ *
+ * <p>O gerenciador assina o {@link BarramentoInvalidacao} e descarta as
+ * cópias locais invalidadas pelos demais nós, ignorando as invalidações
+ * que ele próprio publicou. As leituras de cada cache são publicadas em
+ * {@code clinica.cache.leituras}, por nível que as atendeu, e as cargas
+ * em {@code clinica.cache.cargas}, por motivo.</p>
+ */
+@Slf4j
+public final class CacheManagerDoisNiveis implements CacheManager {
+
+    /**
+     * Identificador deste nó nas invalidações.
+     */
+    private final String origem = UUID.randomUUID().toString();
+
+    /**
+     * O gerenciador dos caches compartilhados.
+     */
+    private final CacheManager compartilhado;
+
+    /**
+     * O barramento das invalidações.
+     */
+    private final BarramentoInvalidacao barramento;
+
+    /**
+     * Registro das métricas.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Os parâmetros dos caches.
+     */
+    private final ParametrosCache parametros;
+
+    /**
+     * Os caches em dois níveis, por nome.
+     */
+    private final Map<String, CacheDoisNiveis> caches =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Cria o gerenciador.
+     *
+     * @param pCompartilhado     gerenciador dos caches compartilhados
+     * @param pBarramento        barramento das invalidações
+     * @param pMeterRegistry     registro das métricas
+     * @param pCapacidade        entradas de cada cache local
+     * @param pTtl               tempo de vida das entradas locais
+     * @param pTtlCompartilhado  tempo de vida das entradas compartilhadas
+     * @param pBeta              intensidade da renovação antecipada;
+     *                           {@code 0} a desativa
+     */
+    public CacheManagerDoisNiveis(final CacheManager pCompartilhado,
+            final BarramentoInvalidacao pBarramento,
+            final MeterRegistry pMeterRegistry, final int pCapacidade,
+            final Duration pTtl, final Duration pTtlCompartilhado,
+            final double pBeta) {
+        this(pCompartilhado, pBarramento, pMeterRegistry,
+                new ParametrosCache(pCapacidade, pTtl, pTtlCompartilhado,
+                        pBeta, Ticker.systemTicker(),
+                        System::currentTimeMillis,
+                        () -> ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Cria o gerenciador com os parâmetros informados.
+     *
+     * @param pCompartilhado gerenciador dos caches compartilhados
+     * @param pBarramento    barramento das invalidações
+     * @param pMeterRegistry registro das métricas
+     * @param pParametros    parâmetros dos caches
+     */
+    CacheManagerDoisNiveis(final CacheManager pCompartilhado,
+            final BarramentoInvalidacao pBarramento,
+            final MeterRegistry pMeterRegistry,
+            final ParametrosCache pParametros) {
+        this.compartilhado = pCompartilhado;
+        this.barramento = pBarramento;
+        this.meterRegistry = pMeterRegistry;
+        this.parametros = pParametros;
+        barramento.assinar(this::receber);
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final CacheDoisNiveis existente = caches.get(name);
+        if (existente != null) {
+            return existente;
+        }
+        final Cache cacheCompartilhado = compartilhado.getCache(name);
+        if (cacheCompartilhado == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name,
+                nome -> new CacheDoisNiveis(nome, cacheCompartilhado, this,
+                        parametros, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return compartilhado.getCacheNames();
+    }
+
+    /**
+     * Publica a invalidação de um cache deste nó.
+     *
+     * @param cache O nome do cache.
+     * @param chave A chave invalidada, ou {@code null} para todo o cache.
+     */
+    void publicar(final String cache, final String chave) {
+        barramento.publicar(new InvalidacaoCache(origem, cache, chave));
+    }
+
+    /**
+     * Descarta a cópia local invalidada por outro nó.
+     *
+     * @param invalidacao A invalidação recebida.
+     */
+    private void receber(final InvalidacaoCache invalidacao) {
+        if (origem.equals(invalidacao.origem())) {
+            return;
+        }
+        final CacheDoisNiveis cache = caches.get(invalidacao.cache());
+        if (cache != null) {
+            cache.invalidarRemoto(invalidacao.chave());
+            log.debug("Cache local {} invalidado por outro nó: {}",
+                    invalidacao.cache(), invalidacao.chave() != null
+                            ? invalidacao.chave() : "todas as entradas");
+        }
+    }
+}
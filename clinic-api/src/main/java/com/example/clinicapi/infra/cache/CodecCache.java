@@ -0,0 +1,160 @@
+package com.example.clinicapi.infra.cache;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serializa os valores de um cache em Smile, o formato binário do
+ * Jackson, precedidos de um byte de versão. Ao contrário do
+ * {@code GenericJackson2JsonRedisSerializer}, o tipo é conhecido pelo
+ * codec do cache e não é gravado em cada valor, e os nomes dos campos
+ * repetidos são gravados uma única vez.
+ *
+ * <p>Um valor com outra versão (gravado por um nó com outra versão da
+ * aplicação, durante uma implantação gradual, ou ainda em JSON) é lido
+ * como ausente, e o cache o recalcula. Os campos desconhecidos são
+ * ignorados, de modo que adicionar um campo a um DTO não exige mudar a
+ * versão; removê-lo ou mudar o seu tipo exige.</p>
+ *
+ * @param <T> O tipo dos valores do cache.
+ */
+@Slf4j
+public final class CodecCache<T> implements RedisSerializer<T> {
+
+    /**
+     * Versão do formato, gravada no primeiro byte de cada valor.
+     */
+    static final byte VERSAO = 1;
+
+    /**
+     * Escreve a representação gravada.
+     */
+    private final ObjectWriter escritor;
+
+    /**
+     * Lê a representação gravada.
+     */
+    private final ObjectReader leitor;
+
+    /**
+     * Converte o valor na representação gravada.
+     */
+    private final Function<T, Object> paraRepresentacao;
+
+    /**
+     * Converte a representação gravada no valor.
+     */
+    private final Function<Object, T> deRepresentacao;
+
+    /**
+     * Cria o codec.
+     *
+     * @param mapper             mapeador Smile
+     * @param tipo               tipo da representação gravada
+     * @param pParaRepresentacao conversão do valor na representação
+     * @param pDeRepresentacao   conversão da representação no valor
+     */
+    private CodecCache(final ObjectMapper mapper, final JavaType tipo,
+            final Function<T, Object> pParaRepresentacao,
+            final Function<Object, T> pDeRepresentacao) {
+        this.escritor = mapper.writerFor(tipo);
+        this.leitor = mapper.readerFor(tipo);
+        this.paraRepresentacao = pParaRepresentacao;
+        this.deRepresentacao = pDeRepresentacao;
+    }
+
+    /**
+     * Cria o mapeador Smile utilizado pelos codecs.
+     *
+     * @return O mapeador.
+     */
+    public static ObjectMapper mapeador() {
+        final ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    /**
+     * Cria o codec de um cache de valores do tipo informado.
+     *
+     * @param mapper O mapeador Smile.
+     * @param tipo   O tipo dos valores.
+     * @param <T>    O tipo dos valores.
+     * @return O codec.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CodecCache<T> de(final ObjectMapper mapper,
+            final Class<T> tipo) {
+        return new CodecCache<>(mapper, mapper.constructType(tipo),
+                valor -> valor, representacao -> (T) representacao);
+    }
+
+    /**
+     * Cria o codec de um cache de páginas com elementos do tipo
+     * informado, gravadas como {@link PaginaCache}.
+     *
+     * @param mapper O mapeador Smile.
+     * @param tipo   O tipo dos elementos.
+     * @param <T>    O tipo dos elementos.
+     * @return O codec.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CodecCache<Page<T>> paginas(final ObjectMapper mapper,
+            final Class<T> tipo) {
+        return new CodecCache<>(mapper, mapper.getTypeFactory()
+                .constructParametricType(PaginaCache.class, tipo),
+                PaginaCache::de,
+                representacao -> ((PaginaCache<T>) representacao).paraPage());
+    }
+
+    @Override
+    public byte[] serialize(final T valor) {
+        if (valor == null) {
+            return new byte[0];
+        }
+        try {
+            final byte[] corpo =
+                    escritor.writeValueAsBytes(paraRepresentacao.apply(valor));
+            final byte[] bytes = new byte[corpo.length + 1];
+            bytes[0] = VERSAO;
+            System.arraycopy(corpo, 0, bytes, 1, corpo.length);
+            return bytes;
+        } catch (IOException ex) {
+            throw new SerializationException(
+                    "Falha ao serializar o valor do cache", ex);
+        }
+    }
+
+    @Override
+    public T deserialize(final byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSAO) {
+            log.debug("Valor em cache com a versão {} ignorado", bytes[0]);
+            return null;
+        }
+        try {
+            return deRepresentacao.apply(
+                    leitor.readValue(bytes, 1, bytes.length - 1));
+        } catch (IOException ex) {
+            throw new SerializationException(
+                    "Falha ao desserializar o valor do cache", ex);
+        }
+    }
+}
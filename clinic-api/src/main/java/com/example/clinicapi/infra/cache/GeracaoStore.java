@@ -0,0 +1,30 @@
+package com.example.clinicapi.infra.cache;
+
+/**
+ * Armazenamento compartilhado das gerações dos caches versionados. Cada
+ * namespace tem um número de geração, incluído nas chaves das entradas
+ * que dependem dele; avançar a geração torna essas entradas inacessíveis,
+ * e elas expiram pelo tempo de vida do cache.
+ *
+ * <p>A implementação é escolhida por {@code api.cache.geracoes.store}:
+ * {@code redis}, compartilhado entre os nós, ou {@code memoria}, local a
+ * um único nó.</p>
+ */
+public interface GeracaoStore {
+
+    /**
+     * Retorna a geração atual do namespace.
+     *
+     * @param namespace O namespace.
+     * @return A geração, ou {@code 0} se nunca tiver sido avançada.
+     */
+    long ler(String namespace);
+
+    /**
+     * Avança a geração do namespace.
+     *
+     * @param namespace O namespace.
+     * @return A nova geração.
+     */
+    long avancar(String namespace);
+}
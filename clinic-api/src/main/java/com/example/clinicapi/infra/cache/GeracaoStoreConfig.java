@@ -0,0 +1,45 @@
+package com.example.clinicapi.infra.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Classe de configuração responsável por escolher o armazenamento das
+ * gerações dos caches versionados conforme {@code api.cache.geracoes.store}:
+ * {@code redis} ou {@code memoria} (padrão quando a propriedade não
+ * estiver definida).
+ */
+@Configuration
+public class GeracaoStoreConfig {
+
+    /**
+     * Propriedade que escolhe o armazenamento.
+     */
+    private static final String PROPRIEDADE = "api.cache.geracoes.store";
+
+    /**
+     * Armazenamento no Redis, compartilhado entre os nós.
+     *
+     * @param redis O cliente do Redis.
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "redis")
+    public GeracaoStore redisGeracaoStore(final StringRedisTemplate redis) {
+        return new RedisGeracaoStore(redis);
+    }
+
+    /**
+     * Armazenamento em memória, local ao nó.
+     *
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "memoria",
+            matchIfMissing = true)
+    public GeracaoStore geracaoStoreEmMemoria() {
+        return new GeracaoStoreEmMemoria();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.clinicapi.infra.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazena as gerações em memória. Adequado a uma única instância da
+ * aplicação e aos testes.
+ */
+public final class GeracaoStoreEmMemoria implements GeracaoStore {
+
+    /**
+     * A geração de cada namespace.
+     */
+    private final Map<String, AtomicLong> geracoes = new ConcurrentHashMap<>();
+
+    @Override
+    public long ler(final String namespace) {
+        final AtomicLong geracao = geracoes.get(namespace);
+        return geracao != null ? geracao.get() : 0L;
+    }
+
+    @Override
+    public long avancar(final String namespace) {
+        return geracoes.computeIfAbsent(namespace, n -> new AtomicLong())
+                .incrementAndGet();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.clinicapi.infra.cache;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gerações dos caches versionados, utilizadas nas chaves dos
+ * {@code @Cacheable} para invalidar apenas as entradas afetadas por uma
+ * escrita: em vez de remover todas as entradas do cache, a escrita avança
+ * a geração dos namespaces que alterou, e as entradas das gerações
+ * anteriores deixam de ser lidas e expiram sozinhas.
+ *
+ * <p>A geração é lida a cada consulta ao cache; para que essa leitura não
+ * custe um acesso ao {@link GeracaoStore}, cada nó mantém uma cópia das
+ * gerações, relida após {@code api.cache.l1.ttl-ms} e descartada quando
+ * outro nó publica um avanço no {@link BarramentoInvalidacao}. Um nó
+ * que perca essa publicação lê a geração anterior por no máximo esse
+ * tempo, o mesmo limite da cópia local dos caches.</p>
+ */
+@Slf4j
+@Component
+public class GeracoesCache {
+
+    /**
+     * Nome utilizado nas invalidações das gerações.
+     */
+    static final String CACHE = "cache:geracoes";
+
+    /**
+     * A geração lida e o instante da leitura, em milissegundos.
+     *
+     * @param geracao A geração.
+     * @param lidaEm  O instante da leitura.
+     */
+    private record Geracao(long geracao, long lidaEm) { }
+
+    /**
+     * Identificador deste nó nas invalidações.
+     */
+    private final String origem = UUID.randomUUID().toString();
+
+    /**
+     * Armazenamento compartilhado das gerações.
+     */
+    private final GeracaoStore store;
+
+    /**
+     * Barramento das invalidações.
+     */
+    private final BarramentoInvalidacao barramento;
+
+    /**
+     * Registro das métricas.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Relógio utilizado para reler as gerações.
+     */
+    private final Clock clock;
+
+    /**
+     * Tempo após o qual a cópia de uma geração é relida, em milissegundos.
+     */
+    private final long ttlMillis;
+
+    /**
+     * A cópia das gerações neste nó, por namespace.
+     */
+    private final Map<String, Geracao> geracoes = new ConcurrentHashMap<>();
+
+    /**
+     * Cria as gerações.
+     *
+     * @param pStore         armazenamento das gerações
+     * @param pBarramento    barramento das invalidações
+     * @param pMeterRegistry registro das métricas
+     * @param pTtlMillis     tempo após o qual uma geração é relida
+     */
+    @Autowired
+    public GeracoesCache(final GeracaoStore pStore,
+            final BarramentoInvalidacao pBarramento,
+            final MeterRegistry pMeterRegistry,
+            @Value("${api.cache.l1.ttl-ms:30000}") final long pTtlMillis) {
+        this(pStore, pBarramento, pMeterRegistry, Clock.systemUTC(),
+                pTtlMillis);
+    }
+
+    /**
+     * Cria as gerações com o relógio informado.
+     *
+     * @param pStore         armazenamento das gerações
+     * @param pBarramento    barramento das invalidações
+     * @param pMeterRegistry registro das métricas
+     * @param pClock         relógio utilizado
+     * @param pTtlMillis     tempo após o qual uma geração é relida
+     */
+    GeracoesCache(final GeracaoStore pStore,
+            final BarramentoInvalidacao pBarramento,
+            final MeterRegistry pMeterRegistry, final Clock pClock,
+            final long pTtlMillis) {
+        this.store = pStore;
+        this.barramento = pBarramento;
+        this.meterRegistry = pMeterRegistry;
+        this.clock = pClock;
+        this.ttlMillis = pTtlMillis;
+        barramento.assinar(this::receber);
+    }
+
+    /**
+     * Retorna a geração atual do namespace, para compor a chave do cache.
+     *
+     * @param namespace O namespace.
+     * @return A geração.
+     */
+    public long atual(final String namespace) {
+        final long agora = clock.millis();
+        final Geracao copia = geracoes.get(namespace);
+        if (copia != null && agora - copia.lidaEm() < ttlMillis) {
+            return copia.geracao();
+        }
+        final long geracao = store.ler(namespace);
+        guardar(namespace, geracao, agora);
+        return geracao;
+    }
+
+    /**
+     * Avança a geração dos namespaces alterados por uma escrita,
+     * invalidando as entradas que dependem deles.
+     *
+     * @param namespaces Os namespaces.
+     */
+    public void avancar(final String... namespaces) {
+        for (final String namespace : namespaces) {
+            final long geracao = store.avancar(namespace);
+            guardar(namespace, geracao, clock.millis());
+            barramento.publicar(
+                    new InvalidacaoCache(origem, CACHE, namespace));
+            Counter.builder("clinica.cache.geracoes.avancos")
+                    .description("Gerações de cache avançadas por escritas")
+                    .tag("namespace", namespace)
+                    .register(meterRegistry)
+                    .increment();
+            log.debug("Geração do cache {} avançada para {}", namespace,
+                    geracao);
+        }
+    }
+
+    /**
+     * Guarda a cópia da geração, sem substituir uma geração mais recente
+     * guardada por uma leitura concorrente.
+     *
+     * @param namespace O namespace.
+     * @param geracao   A geração.
+     * @param agora     O instante da leitura.
+     */
+    private void guardar(final String namespace, final long geracao,
+            final long agora) {
+        geracoes.merge(namespace, new Geracao(geracao, agora),
+                (atual, nova) -> nova.geracao() >= atual.geracao()
+                        ? nova : atual);
+    }
+
+    /**
+     * Descarta a cópia da geração avançada por outro nó.
+     *
+     * @param invalidacao A invalidação recebida.
+     */
+    private void receber(final InvalidacaoCache invalidacao) {
+        if (CACHE.equals(invalidacao.cache())
+                && !origem.equals(invalidacao.origem())
+                && invalidacao.chave() != null) {
+            geracoes.remove(invalidacao.chave());
+        }
+    }
+}
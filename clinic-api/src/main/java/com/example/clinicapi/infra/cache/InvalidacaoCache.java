@@ -0,0 +1,51 @@
+package com.example.clinicapi.infra.cache;
+
+/**
+ * Invalidação de uma entrada ou de todo um cache local (L1), publicada
+ * pelo nó que alterou o cache para que os demais descartem a sua cópia.
+ *
+ * @param origem O identificador do nó que publicou a invalidação.
+ * @param cache  O nome do cache.
+ * @param chave  A chave invalidada, ou {@code null} para todo o cache.
+ */
+public record InvalidacaoCache(String origem, String cache, String chave) {
+
+    /**
+     * Separador dos campos na mensagem.
+     */
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Codifica a invalidação na mensagem publicada:
+     * {@code origem|cache} ou {@code origem|cache|chave}.
+     *
+     * @return A mensagem.
+     */
+    public String codificar() {
+        final String prefixo = origem + SEPARADOR + cache;
+        return chave == null ? prefixo : prefixo + SEPARADOR + chave;
+    }
+
+    /**
+     * Decodifica a mensagem publicada. A chave, último campo, pode conter
+     * o separador.
+     *
+     * @param mensagem A mensagem.
+     * @return A invalidação.
+     * @throws IllegalArgumentException Se a mensagem estiver malformada.
+     */
+    public static InvalidacaoCache decodificar(final String mensagem) {
+        final int primeiro = mensagem.indexOf(SEPARADOR);
+        if (primeiro <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalidação de cache malformada: " + mensagem);
+        }
+        final int segundo = mensagem.indexOf(SEPARADOR, primeiro + 1);
+        return segundo < 0
+                ? new InvalidacaoCache(mensagem.substring(0, primeiro),
+                        mensagem.substring(primeiro + 1), null)
+                : new InvalidacaoCache(mensagem.substring(0, primeiro),
+                        mensagem.substring(primeiro + 1, segundo),
+                        mensagem.substring(segundo + 1));
+    }
+}
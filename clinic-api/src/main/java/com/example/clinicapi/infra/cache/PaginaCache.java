@@ -0,0 +1,72 @@
+package com.example.clinicapi.infra.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Representação estável de uma página guardada em cache: apenas o
+ * conteúdo e os dados necessários para reconstruir a {@link Page}, sem
+ * depender da estrutura interna de {@link PageImpl}.
+ *
+ * @param conteudo   Os elementos da página.
+ * @param pagina     O número da página, ou {@code -1} se não paginada.
+ * @param tamanho    O tamanho da página.
+ * @param total      A quantidade total de elementos.
+ * @param ordenacao  A ordenação, como {@code propriedade:DIRECAO}.
+ * @param <T>        O tipo dos elementos.
+ */
+public record PaginaCache<T>(List<T> conteudo, int pagina, int tamanho,
+        long total, List<String> ordenacao) {
+
+    /**
+     * Separador entre a propriedade e a direção da ordenação.
+     */
+    private static final char SEPARADOR = ':';
+
+    /**
+     * Cria a representação da página.
+     *
+     * @param page A página.
+     * @param <T>  O tipo dos elementos.
+     * @return A representação.
+     */
+    public static <T> PaginaCache<T> de(final Page<T> page) {
+        final Pageable pageable = page.getPageable();
+        final List<String> ordenacao = new ArrayList<>();
+        page.getSort().forEach(ordem -> ordenacao.add(
+                ordem.getProperty() + SEPARADOR + ordem.getDirection()));
+        return pageable.isPaged()
+                ? new PaginaCache<>(page.getContent(),
+                        pageable.getPageNumber(), pageable.getPageSize(),
+                        page.getTotalElements(), ordenacao)
+                : new PaginaCache<>(page.getContent(), -1,
+                        page.getNumberOfElements(), page.getTotalElements(),
+                        ordenacao);
+    }
+
+    /**
+     * Reconstrói a página.
+     *
+     * @return A página.
+     */
+    public Page<T> paraPage() {
+        if (pagina < 0) {
+            return new PageImpl<>(conteudo, Pageable.unpaged(), total);
+        }
+        final List<Sort.Order> ordens = new ArrayList<>(ordenacao.size());
+        for (final String ordem : ordenacao) {
+            final int separador = ordem.lastIndexOf(SEPARADOR);
+            ordens.add(new Sort.Order(
+                    Sort.Direction.valueOf(ordem.substring(separador + 1)),
+                    ordem.substring(0, separador)));
+        }
+        return new PageImpl<>(conteudo,
+                PageRequest.of(pagina, tamanho, Sort.by(ordens)), total);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.clinicapi.infra.cache;
+
+import java.time.Duration;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Parâmetros comuns aos caches em dois níveis de um gerenciador.
+ *
+ * @param capacidade       Entradas de cada cache local.
+ * @param ttlLocal         Tempo de vida das entradas locais.
+ * @param ttlCompartilhado Tempo de vida das entradas no cache
+ *                         compartilhado.
+ * @param beta             Intensidade da renovação antecipada; {@code 0}
+ *                         a desativa.
+ * @param ticker           Fonte de tempo, em nanossegundos.
+ * @param relogio          Relógio de parede, comum aos nós, em
+ *                         milissegundos desde a época; data as expirações
+ *                         gravadas no cache compartilhado.
+ * @param aleatorio        Fonte de números aleatórios em {@code [0, 1)}.
+ */
+record ParametrosCache(int capacidade, Duration ttlLocal,
+        Duration ttlCompartilhado, double beta, Ticker ticker,
+        LongSupplier relogio, DoubleSupplier aleatorio) {
+
+    /**
+     * Valida os parâmetros.
+     *
+     * @throws IllegalArgumentException Se a capacidade ou os tempos de
+     * vida não forem positivos, ou se {@code beta} for negativo.
+     */
+    ParametrosCache {
+        if (capacidade <= 0 || !positivo(ttlLocal)
+                || !positivo(ttlCompartilhado) || beta < 0) {
+            throw new IllegalArgumentException("A capacidade e os tempos de "
+                    + "vida do cache devem ser positivos e beta não pode "
+                    + "ser negativo");
+        }
+    }
+
+    /**
+     * Verifica se a duração é positiva.
+     *
+     * @param duracao A duração.
+     * @return {@code true} se positiva.
+     */
+    private static boolean positivo(final Duration duracao) {
+        return !duracao.isZero() && !duracao.isNegative();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.clinicapi.infra.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Propaga as invalidações entre os nós pelo pub/sub do Redis, no canal
+ * {@code cache:invalidacao}. A entrega não é garantida (um nó
+ * desconectado perde as mensagens do período); a expiração do cache
+ * local limita o tempo em que uma cópia desatualizada pode ser lida.
+ */
+@Slf4j
+public final class RedisBarramentoInvalidacao implements BarramentoInvalidacao {
+
+    /**
+     * Canal das invalidações.
+     */
+    static final String CANAL = "cache:invalidacao";
+
+    /**
+     * Cliente do Redis, utilizado para publicar.
+     */
+    private final StringRedisTemplate redis;
+
+    /**
+     * Contêiner das assinaturas.
+     */
+    private final RedisMessageListenerContainer container;
+
+    /**
+     * Cria o barramento.
+     *
+     * @param pRedis     cliente do Redis
+     * @param pContainer contêiner das assinaturas
+     */
+    public RedisBarramentoInvalidacao(final StringRedisTemplate pRedis,
+            final RedisMessageListenerContainer pContainer) {
+        this.redis = pRedis;
+        this.container = pContainer;
+    }
+
+    @Override
+    public void publicar(final InvalidacaoCache invalidacao) {
+        redis.convertAndSend(CANAL, invalidacao.codificar());
+    }
+
+    @Override
+    public void assinar(final Consumer<InvalidacaoCache> receptor) {
+        container.addMessageListener((mensagem, padrao) -> {
+            final String corpo =
+                    new String(mensagem.getBody(), StandardCharsets.UTF_8);
+            try {
+                receptor.accept(InvalidacaoCache.decodificar(corpo));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Invalidação de cache ignorada: {}", ex.getMessage());
+            }
+        }, new ChannelTopic(CANAL));
+    }
+}
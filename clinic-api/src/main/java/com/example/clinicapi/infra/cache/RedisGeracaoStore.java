@@ -0,0 +1,42 @@
+package com.example.clinicapi.infra.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Armazena as gerações no Redis, em {@code cache:geracao:<namespace>},
+ * compartilhadas entre os nós. As chaves não expiram: uma geração que
+ * voltasse a zero tornaria acessíveis as entradas antigas ainda em cache.
+ */
+public final class RedisGeracaoStore implements GeracaoStore {
+
+    /**
+     * Prefixo das chaves das gerações.
+     */
+    static final String PREFIXO = "cache:geracao:";
+
+    /**
+     * Cliente do Redis.
+     */
+    private final StringRedisTemplate redis;
+
+    /**
+     * Cria o armazenamento.
+     *
+     * @param pRedis cliente do Redis
+     */
+    public RedisGeracaoStore(final StringRedisTemplate pRedis) {
+        this.redis = pRedis;
+    }
+
+    @Override
+    public long ler(final String namespace) {
+        final String geracao = redis.opsForValue().get(PREFIXO + namespace);
+        return geracao != null ? Long.parseLong(geracao) : 0L;
+    }
+
+    @Override
+    public long avancar(final String namespace) {
+        final Long geracao = redis.opsForValue().increment(PREFIXO + namespace);
+        return geracao != null ? geracao : 0L;
+    }
+}
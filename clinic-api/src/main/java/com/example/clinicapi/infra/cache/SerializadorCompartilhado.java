@@ -0,0 +1,78 @@
+package com.example.clinicapi.infra.cache;
+
+import java.nio.ByteBuffer;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Grava um {@link ValorCompartilhado} no Redis: um byte de marca, a
+ * expiração e a duração da carga, seguidos do valor gravado pelo
+ * serializador do cache. Um valor sem a marca (gravado antes da
+ * introdução do cabeçalho) é lido pelo serializador do cache, sem
+ * expiração conhecida.
+ */
+final class SerializadorCompartilhado implements RedisSerializer<Object> {
+
+    /**
+     * Marca do cabeçalho; não inicia um JSON nem um valor do
+     * {@link CodecCache}.
+     */
+    static final byte MARCA = (byte) 0xFE;
+
+    /**
+     * Tamanho do cabeçalho: a marca, a expiração e a duração.
+     */
+    private static final int CABECALHO = 1 + 2 * Long.BYTES;
+
+    /**
+     * Serializador dos valores do cache.
+     */
+    private final RedisSerializer<Object> valores;
+
+    /**
+     * Cria o serializador.
+     *
+     * @param pValores serializador dos valores do cache
+     */
+    @SuppressWarnings("unchecked")
+    SerializadorCompartilhado(final RedisSerializer<?> pValores) {
+        this.valores = (RedisSerializer<Object>) pValores;
+    }
+
+    @Override
+    public byte[] serialize(final Object valor) {
+        if (!(valor instanceof ValorCompartilhado compartilhado)) {
+            return valores.serialize(valor);
+        }
+        final byte[] corpo = compartilhado.valor() != null
+                ? valores.serialize(compartilhado.valor()) : new byte[0];
+        return ByteBuffer.allocate(CABECALHO + corpo.length)
+                .put(MARCA)
+                .putLong(compartilhado.expiraEm())
+                .putLong(compartilhado.duracao())
+                .put(corpo)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MARCA || bytes.length < CABECALHO) {
+            return valores.deserialize(bytes);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get();
+        final long expiraEm = buffer.getLong();
+        final long duracao = buffer.getLong();
+        if (bytes.length == CABECALHO) {
+            return new ValorCompartilhado(null, expiraEm, duracao);
+        }
+        final byte[] corpo = new byte[bytes.length - CABECALHO];
+        buffer.get(corpo);
+        final Object valor = valores.deserialize(corpo);
+        return valor != null
+                ? new ValorCompartilhado(valor, expiraEm, duracao) : null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.clinicapi.infra.cache;
+
+/**
+ * Valor gravado no cache compartilhado (L2) junto com a sua expiração e a
+ * duração da sua carga, para que o nó que o lê, e não o carregou, conheça
+ * quanto tempo de vida lhe resta e quanto custa renová-lo.
+ *
+ * @param valor    O valor em cache.
+ * @param expiraEm A expiração no L2, em milissegundos desde a época.
+ * @param duracao  A duração da carga, em nanossegundos.
+ */
+record ValorCompartilhado(Object valor, long expiraEm, long duracao) { }
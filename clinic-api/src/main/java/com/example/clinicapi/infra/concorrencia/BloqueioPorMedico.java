@@ -0,0 +1,137 @@
+package com.example.clinicapi.infra.concorrencia;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloqueio particionado (striped lock) por médico, utilizado para
+ * serializar a sequência "verificar conflito, salvar e indexar" dos
+ * agendamentos de um mesmo médico.
+ * <p>
+ * Em vez de um único bloqueio global, mantém um vetor fixo de
+ * {@link ReentrantLock} e escolhe a faixa pelo hash do ID do médico.
+ * Agendamentos de médicos diferentes raramente disputam a mesma faixa e
+ * seguem em paralelo, enquanto dois agendamentos do mesmo médico nunca
+ * verificam a agenda ao mesmo tempo. O uso de memória não cresce com a
+ * quantidade de médicos.
+ * </p>
+ * <p>
+ * O bloqueio vale apenas para esta instância da aplicação. Entre nós, os
+ * agendamentos de um mesmo médico são serializados pela versão do médico,
+ * incrementada na transação de cada agendamento, e as alterações
+ * concorrentes de uma mesma consulta pela versão da consulta.
+ * </p>
+ */
+@Component
+public class BloqueioPorMedico {
+
+    /**
+     * Os bloqueios de cada faixa.
+     */
+    private final ReentrantLock[] faixas;
+
+    /**
+     * Máscara aplicada ao hash do ID para escolher a faixa.
+     */
+    private final int mascara;
+
+    /**
+     * Cria o bloqueio particionado.
+     *
+     * @param quantidadeFaixas quantidade de faixas, arredondada para a
+     *                         próxima potência de dois
+     */
+    public BloqueioPorMedico(
+            @Value("${agenda.bloqueio.faixas:64}")
+            final int quantidadeFaixas) {
+        if (quantidadeFaixas < 1) {
+            throw new IllegalArgumentException(
+                    "A quantidade de faixas deve ser positiva");
+        }
+        final int tamanho = Integer.bitCount(quantidadeFaixas) == 1
+                ? quantidadeFaixas
+                : Integer.highestOneBit(quantidadeFaixas) << 1;
+        this.faixas = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Executa a ação com exclusividade sobre a agenda do médico.
+     *
+     * @param <T>      O tipo do resultado.
+     * @param medicoId O ID do médico.
+     * @param acao     A ação a ser executada.
+     * @return O resultado da ação.
+     */
+    public <T> T executar(final Long medicoId, final Supplier<T> acao) {
+        return executar(medicoId == null ? List.of() : List.of(medicoId),
+                acao);
+    }
+
+    /**
+     * Executa a ação com exclusividade sobre as agendas de todos os
+     * médicos informados, por exemplo ao mover uma consulta de um médico
+     * para outro ou ao processar um lote.
+     * <p>
+     * As faixas são adquiridas sempre em ordem crescente, o que impede
+     * deadlocks entre chamadas que envolvem os mesmos médicos em ordens
+     * diferentes.
+     * </p>
+     *
+     * @param <T>       O tipo do resultado.
+     * @param medicoIds Os IDs dos médicos; nulos são ignorados.
+     * @param acao      A ação a ser executada.
+     * @return O resultado da ação.
+     */
+    public <T> T executar(final Collection<Long> medicoIds,
+            final Supplier<T> acao) {
+        final int[] indices = medicoIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::faixaDe)
+                .distinct()
+                .sorted()
+                .toArray();
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                faixas[indice].lock();
+                adquiridas++;
+            }
+            return acao.get();
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                faixas[indices[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Retorna a quantidade de faixas do bloqueio.
+     *
+     * @return A quantidade de faixas.
+     */
+    public int getQuantidadeFaixas() {
+        return faixas.length;
+    }
+
+    /**
+     * Calcula a faixa do médico. O hash é espalhado para que IDs
+     * sequenciais ocupem faixas distintas mesmo com máscaras pequenas.
+     *
+     * @param medicoId O ID do médico.
+     * @return O índice da faixa.
+     */
+    int faixaDe(final long medicoId) {
+        final int hash = Long.hashCode(medicoId);
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.clinicapi.infra.concorrencia;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa novamente, por um número limitado de vezes, as operações que
+ * falham por bloqueio otimista (coluna {@code versao} das entidades).
+ * <p>
+ * A ação deve recarregar a entidade a cada tentativa, de modo que a
+ * alteração seja reaplicada sobre a versão mais recente. Entre as
+ * tentativas há uma espera curta e aleatória, para que as requisições
+ * concorrentes não colidam novamente. Esgotadas as tentativas, a última
+ * exceção é propagada e respondida com 409 Conflict.
+ * </p>
+ */
+@Slf4j
+@Component
+public class RetentativaOtimista {
+
+    /**
+     * Quantidade máxima de execuções da ação, incluindo a primeira.
+     */
+    private final int maximoTentativas;
+
+    /**
+     * Espera base entre tentativas, em milissegundos.
+     */
+    private final long esperaMillis;
+
+    /**
+     * Cria o executor de retentativas.
+     *
+     * @param pMaximoTentativas quantidade máxima de execuções da ação
+     * @param pEsperaMillis     espera base entre tentativas em milissegundos
+     */
+    public RetentativaOtimista(
+            @Value("${concorrencia.retentativa.maximo-tentativas:3}")
+            final int pMaximoTentativas,
+            @Value("${concorrencia.retentativa.espera-ms:10}")
+            final long pEsperaMillis) {
+        if (pMaximoTentativas < 1) {
+            throw new IllegalArgumentException(
+                    "A quantidade de tentativas deve ser positiva");
+        }
+        this.maximoTentativas = pMaximoTentativas;
+        this.esperaMillis = pEsperaMillis;
+    }
+
+    /**
+     * Executa a ação, repetindo-a enquanto falhar por bloqueio otimista
+     * e houver tentativas disponíveis.
+     *
+     * @param <T>      O tipo do resultado.
+     * @param operacao Descrição da operação, utilizada nos logs.
+     * @param acao     A ação a ser executada.
+     * @return O resultado da ação.
+     * @throws OptimisticLockingFailureException Se todas as tentativas
+     * falharem.
+     */
+    public <T> T executar(final String operacao, final Supplier<T> acao) {
+        for (int tentativa = 1;; tentativa++) {
+            try {
+                return acao.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (tentativa >= maximoTentativas) {
+                    log.warn("Conflito de versão em '{}' após {} tentativas",
+                            operacao, tentativa);
+                    throw ex;
+                }
+                log.debug("Conflito de versão em '{}', tentativa {} de {}",
+                        operacao, tentativa, maximoTentativas);
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    /**
+     * Aguarda antes da próxima tentativa, com espera crescente e
+     * aleatória.
+     *
+     * @param tentativa O número da tentativa que falhou.
+     */
+    private void aguardar(final int tentativa) {
+        if (esperaMillis <= 0) {
+            return;
+        }
+        final long limite = esperaMillis * tentativa;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limite) + 1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Retentativa interrompida", ex);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Este pacote contém os componentes de infraestrutura responsáveis pelo
+ * controle de concorrência, como o bloqueio particionado por médico
+ * utilizado nos agendamentos e a retentativa de operações que falham
+ * por bloqueio otimista.
+ */
+package com.example.clinicapi.infra.concorrencia;
@@ -0,0 +1,39 @@
+package com.example.clinicapi.infra.lembrete;
+
+import java.time.Duration;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Reserva os lembretes no Redis com {@code SET NX} em
+ * {@code lembretes:envio:<chave>}, compartilhado entre os nós. A chave
+ * expira pela validade informada, depois que todos os nós já passaram
+ * pelo horário de envio.
+ */
+public final class RedisReservaLembretes implements ReservaLembretes {
+
+    /**
+     * Prefixo das chaves das reservas.
+     */
+    static final String PREFIXO = "lembretes:envio:";
+
+    /**
+     * Cliente do Redis.
+     */
+    private final StringRedisTemplate redis;
+
+    /**
+     * Cria o armazenamento das reservas.
+     *
+     * @param pRedis cliente do Redis
+     */
+    public RedisReservaLembretes(final StringRedisTemplate pRedis) {
+        this.redis = pRedis;
+    }
+
+    @Override
+    public boolean reservar(final String chave, final Duration validade) {
+        return Boolean.TRUE.equals(redis.opsForValue()
+                .setIfAbsent(PREFIXO + chave, "1", validade));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.clinicapi.infra.lembrete;
+
+import java.time.Duration;
+
+/**
+ * Reserva o envio de cada lembrete para um único nó. Todos os nós carregam
+ * a mesma janela de consultas em suas rodas; antes de enviar um lembrete
+ * vencido, o nó o reserva, e apenas quem obtiver a reserva o envia.
+ *
+ * <p>A implementação é escolhida por {@code lembretes.reserva.store}:
+ * {@code redis}, compartilhado entre os nós, ou {@code memoria}, que
+ * sempre concede a reserva e só é adequado a uma única instância da
+ * aplicação.</p>
+ */
+public interface ReservaLembretes {
+
+    /**
+     * Reserva o envio do lembrete identificado pela chave.
+     *
+     * @param chave    Identifica o lembrete, incluindo o horário da
+     *                 consulta, para que uma remarcação gere uma nova
+     *                 reserva.
+     * @param validade Por quanto tempo a reserva é mantida.
+     * @return {@code true} se este nó deve enviar o lembrete, ou
+     *         {@code false} se outro nó já o reservou.
+     */
+    boolean reservar(String chave, Duration validade);
+}
@@ -0,0 +1,46 @@
+package com.example.clinicapi.infra.lembrete;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Classe de configuração responsável por escolher o armazenamento das
+ * reservas de envio dos lembretes conforme {@code lembretes.reserva.store}:
+ * {@code redis} ou {@code memoria} (padrão quando a propriedade não
+ * estiver definida).
+ */
+@Configuration
+public class ReservaLembretesConfig {
+
+    /**
+     * Propriedade que escolhe o armazenamento.
+     */
+    private static final String PROPRIEDADE = "lembretes.reserva.store";
+
+    /**
+     * Reservas no Redis, compartilhadas entre os nós.
+     *
+     * @param redis O cliente do Redis.
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "redis")
+    public ReservaLembretes redisReservaLembretes(
+            final StringRedisTemplate redis) {
+        return new RedisReservaLembretes(redis);
+    }
+
+    /**
+     * Reservas sempre concedidas, para uma única instância.
+     *
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "memoria",
+            matchIfMissing = true)
+    public ReservaLembretes reservaLembretesEmMemoria() {
+        return new ReservaLembretesEmMemoria();
+    }
+}
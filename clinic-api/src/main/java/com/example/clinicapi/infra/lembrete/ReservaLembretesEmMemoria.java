@@ -0,0 +1,16 @@
+package com.example.clinicapi.infra.lembrete;
+
+import java.time.Duration;
+
+/**
+ * Concede todas as reservas. Adequado a uma única instância da aplicação,
+ * em que a própria roda já garante um envio por lembrete, e aos testes;
+ * com mais de um nó, cada nó enviaria os mesmos lembretes.
+ */
+public final class ReservaLembretesEmMemoria implements ReservaLembretes {
+
+    @Override
+    public boolean reservar(final String chave, final Duration validade) {
+        return true;
+    }
+}
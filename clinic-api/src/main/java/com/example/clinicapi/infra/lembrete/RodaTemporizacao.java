@@ -0,0 +1,175 @@
+package com.example.clinicapi.infra.lembrete;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roda de temporização (hashed timing wheel) para agendar um grande
+ * número de tarefas com precisão de um tick.
+ * <p>
+ * O tempo é dividido em ticks de duração fixa e cada tarefa é guardada na
+ * posição {@code tick % tamanho} da roda, junto com o tick absoluto em que
+ * vence. Agendar e cancelar custam O(1); a cada tick apenas a posição
+ * corrente é percorrida, e as tarefas que ainda não venceram (por estarem
+ * uma ou mais voltas à frente) permanecem nela. Não há consultas ao banco
+ * de dados por tick, ao contrário de uma varredura periódica da tabela.
+ * </p>
+ * <p>
+ * A roda não possui thread própria: quem a utiliza chama
+ * {@link #avancar(Instant)} periodicamente e recebe as tarefas vencidas.
+ * Todos os métodos são sincronizados e baratos.
+ * </p>
+ *
+ * @param <K> O tipo da chave que identifica a tarefa (para cancelamento).
+ * @param <V> O tipo do valor entregue quando a tarefa vence.
+ */
+public final class RodaTemporizacao<K, V> {
+
+    /**
+     * Duração de um tick em milissegundos.
+     */
+    private final long tickMillis;
+
+    /**
+     * Máscara aplicada ao tick para obter a posição na roda.
+     */
+    private final int mascara;
+
+    /**
+     * As posições da roda; cada uma guarda as tarefas pela chave.
+     */
+    private final List<Map<K, Tarefa<V>>> posicoes;
+
+    /**
+     * Índice das tarefas pendentes pela chave, utilizado no cancelamento.
+     */
+    private final Map<K, Long> tickPorChave = new HashMap<>();
+
+    /**
+     * O último tick já processado.
+     */
+    private long ultimoTick;
+
+    /**
+     * Tarefa vencida, com o instante em que deveria ter sido executada.
+     *
+     * @param <V>    O tipo do valor.
+     * @param valor  O valor agendado.
+     * @param quando O instante agendado.
+     */
+    public record Tarefa<V>(V valor, Instant quando) { }
+
+    /**
+     * Cria a roda.
+     *
+     * @param tick    A duração de um tick.
+     * @param tamanho A quantidade de posições, arredondada para a próxima
+     *                potência de dois.
+     * @param inicio  O instante a partir do qual a roda começa a girar.
+     */
+    public RodaTemporizacao(final Duration tick, final int tamanho,
+            final Instant inicio) {
+        if (tick.toMillis() < 1 || tamanho < 1) {
+            throw new IllegalArgumentException(
+                    "O tick e o tamanho da roda devem ser positivos");
+        }
+        final int potencia = Integer.bitCount(tamanho) == 1
+                ? tamanho : Integer.highestOneBit(tamanho) << 1;
+        this.tickMillis = tick.toMillis();
+        this.mascara = potencia - 1;
+        this.posicoes = new ArrayList<>(potencia);
+        for (int i = 0; i < potencia; i++) {
+            posicoes.add(new LinkedHashMap<>());
+        }
+        this.ultimoTick = tickDe(inicio);
+    }
+
+    /**
+     * Agenda uma tarefa, substituindo a tarefa pendente com a mesma chave.
+     * Tarefas agendadas para um instante já passado vencem no próximo tick.
+     *
+     * @param chave  A chave da tarefa.
+     * @param quando O instante em que a tarefa deve vencer.
+     * @param valor  O valor entregue quando a tarefa vencer.
+     */
+    public synchronized void agendar(final K chave, final Instant quando,
+            final V valor) {
+        cancelar(chave);
+        final long tick = Math.max(tickDe(quando) + 1, ultimoTick + 1);
+        posicoes.get((int) (tick & mascara))
+                .put(chave, new Tarefa<>(valor, quando));
+        tickPorChave.put(chave, tick);
+    }
+
+    /**
+     * Cancela a tarefa pendente com a chave informada.
+     *
+     * @param chave A chave da tarefa.
+     * @return {@code true} se havia uma tarefa pendente.
+     */
+    public synchronized boolean cancelar(final K chave) {
+        final Long tick = tickPorChave.remove(chave);
+        if (tick == null) {
+            return false;
+        }
+        posicoes.get((int) (tick & mascara)).remove(chave);
+        return true;
+    }
+
+    /**
+     * Gira a roda até o instante informado e retorna as tarefas vencidas,
+     * em ordem de posição. Se a roda ficou parada por mais de uma volta,
+     * cada posição é percorrida uma única vez.
+     *
+     * @param agora O instante atual.
+     * @return As tarefas vencidas, já removidas da roda.
+     */
+    public synchronized List<Tarefa<V>> avancar(final Instant agora) {
+        final long alvo = tickDe(agora);
+        if (alvo <= ultimoTick) {
+            return List.of();
+        }
+        final long passos = Math.min(alvo - ultimoTick, posicoes.size());
+        final List<Tarefa<V>> vencidas = new ArrayList<>();
+        for (long i = 1; i <= passos; i++) {
+            final Iterator<Map.Entry<K, Tarefa<V>>> it = posicoes
+                    .get((int) ((ultimoTick + i) & mascara))
+                    .entrySet().iterator();
+            while (it.hasNext()) {
+                final Map.Entry<K, Tarefa<V>> entrada = it.next();
+                if (tickPorChave.get(entrada.getKey()) <= alvo) {
+                    vencidas.add(entrada.getValue());
+                    tickPorChave.remove(entrada.getKey());
+                    it.remove();
+                }
+            }
+        }
+        ultimoTick = alvo;
+        return vencidas;
+    }
+
+    /**
+     * Retorna a quantidade de tarefas pendentes.
+     *
+     * @return A quantidade de tarefas pendentes.
+     */
+    public synchronized int pendentes() {
+        return tickPorChave.size();
+    }
+
+    /**
+     * Converte um instante no tick correspondente.
+     *
+     * @param instante O instante.
+     * @return O tick que contém o instante.
+     */
+    private long tickDe(final Instant instante) {
+        return Math.floorDiv(instante.toEpochMilli(), tickMillis);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Este pacote contém os componentes de infraestrutura dos lembretes de
+ * consulta, como a roda de temporização (hashed timing wheel) que
+ * mantém em memória os envios da próxima janela de tempo.
+ */
+package com.example.clinicapi.infra.lembrete;
@@ -0,0 +1,187 @@
+package com.example.clinicapi.infra.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Filtro que amostra os eventos dos loggers de alta frequência.
+ *
+ * <p>Para cada logger configurado (e seus descendentes), os primeiros
+ * {@code eventosPorSegundo} eventos de cada segundo passam; além disso,
+ * passa apenas um a cada {@code amostragem} eventos, e os demais são
+ * recusados antes de o evento ser criado, sem custo de formatação. Eventos
+ * {@code WARN} e {@code ERROR} nunca são amostrados. A janela de cada
+ * logger é um único {@code long} (segundo e contagem) atualizado por
+ * compare-and-set, sem bloqueios.</p>
+ *
+ * <p>Configuração no {@code logback-spring.xml}: um ou mais
+ * {@code <logger>}, {@code eventosPorSegundo} (padrão 50) e
+ * {@code amostragem} (padrão 100).</p>
+ */
+public class AmostragemLogsFilter extends TurboFilter {
+
+    /**
+     * Bits da contagem no estado da janela.
+     */
+    private static final int BITS_CONTAGEM = 32;
+
+    /**
+     * Máscara da contagem no estado da janela.
+     */
+    private static final long MASCARA_CONTAGEM = 0xFFFF_FFFFL;
+
+    /**
+     * Prefixos dos loggers amostrados.
+     */
+    private final List<String> loggers = new ArrayList<>();
+
+    /**
+     * Janela de cada logger amostrado: segundo nos bits altos e contagem
+     * nos bits baixos.
+     */
+    private final Map<String, AtomicLong> janelas = new ConcurrentHashMap<>();
+
+    /**
+     * Eventos recusados pela amostragem.
+     */
+    private final LongAdder descartados = new LongAdder();
+
+    /**
+     * Eventos que passam por segundo antes da amostragem.
+     */
+    private int eventosPorSegundo = 50;
+
+    /**
+     * Passa um a cada tantos eventos além do limite.
+     */
+    private int amostragem = 100;
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger,
+            final Level level, final String format, final Object[] params,
+            final Throwable t) {
+        // Sem formato a chamada é uma verificação isXxxEnabled(), que não
+        // conta como evento
+        if (!isStarted() || format == null
+                || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !amostrado(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        final long contagem = contar(logger.getName(), segundoAtual());
+        if (contagem <= eventosPorSegundo
+                || (contagem - eventosPorSegundo) % amostragem == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        descartados.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Conta o evento na janela do logger.
+     *
+     * @param nome    O nome do logger.
+     * @param segundo O segundo atual.
+     * @return A quantidade de eventos do logger no segundo, incluindo este.
+     */
+    long contar(final String nome, final long segundo) {
+        final AtomicLong janela =
+                janelas.computeIfAbsent(nome, n -> new AtomicLong());
+        while (true) {
+            final long estado = janela.get();
+            final long novo = estado >>> BITS_CONTAGEM == segundo
+                    ? estado + 1 : segundo << BITS_CONTAGEM | 1;
+            if (janela.compareAndSet(estado, novo)) {
+                return novo & MASCARA_CONTAGEM;
+            }
+        }
+    }
+
+    /**
+     * Verifica se o logger é um dos configurados ou descendente de um
+     * deles.
+     *
+     * @param nome O nome do logger.
+     * @return {@code true} se os eventos do logger são amostrados.
+     */
+    private boolean amostrado(final String nome) {
+        for (final String prefixo : loggers) {
+            if (nome.startsWith(prefixo) && (nome.length() == prefixo.length()
+                    || nome.charAt(prefixo.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna o segundo atual do relógio monotônico.
+     *
+     * @return O segundo atual.
+     */
+    private static long segundoAtual() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime())
+                & MASCARA_CONTAGEM;
+    }
+
+    @Override
+    public void start() {
+        if (loggers.isEmpty()) {
+            addError("Nenhum logger configurado em [" + getName() + "]");
+            return;
+        }
+        if (eventosPorSegundo < 0 || amostragem <= 0) {
+            addError("Limites de amostragem inválidos em [" + getName() + "]");
+            return;
+        }
+        super.start();
+    }
+
+    /**
+     * Retorna a quantidade de eventos recusados pela amostragem.
+     *
+     * @return A quantidade de eventos recusados.
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    /**
+     * Adiciona um logger amostrado.
+     *
+     * @param logger O nome do logger.
+     */
+    public void addLogger(final String logger) {
+        loggers.add(logger.trim());
+    }
+
+    /**
+     * Define quantos eventos passam por segundo antes da amostragem.
+     *
+     * @param pEventosPorSegundo A quantidade de eventos.
+     */
+    public void setEventosPorSegundo(final int pEventosPorSegundo) {
+        this.eventosPorSegundo = pEventosPorSegundo;
+    }
+
+    /**
+     * Define a amostragem além do limite: passa um a cada tantos eventos.
+     *
+     * @param pAmostragem A amostragem.
+     */
+    public void setAmostragem(final int pAmostragem) {
+        this.amostragem = pAmostragem;
+    }
+}
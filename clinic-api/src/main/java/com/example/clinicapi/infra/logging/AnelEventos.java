@@ -0,0 +1,126 @@
+package com.example.clinicapi.infra.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila circular limitada, sem bloqueios, com vários produtores e um único
+ * consumidor. Cada posição tem um número de sequência que indica se ela
+ * está livre para o próximo produtor ou preenchida para o consumidor, de
+ * modo que inserir custa um compare-and-set e a fila cheia recusa o
+ * elemento em vez de esperar.
+ *
+ * @param <E> o tipo dos elementos
+ */
+final class AnelEventos<E> {
+
+    /**
+     * Os elementos.
+     */
+    private final Object[] itens;
+
+    /**
+     * Número de sequência de cada posição.
+     */
+    private final AtomicLongArray sequencias;
+
+    /**
+     * Máscara do índice (capacidade - 1).
+     */
+    private final int mascara;
+
+    /**
+     * Próxima posição de inserção.
+     */
+    private final AtomicLong cauda = new AtomicLong();
+
+    /**
+     * Próxima posição de retirada; alterada apenas pelo consumidor.
+     */
+    private volatile long cabeca;
+
+    /**
+     * Cria a fila com a capacidade informada, arredondada para a próxima
+     * potência de dois.
+     *
+     * @param capacidade A capacidade mínima.
+     * @throws IllegalArgumentException Se a capacidade não for positiva.
+     */
+    AnelEventos(final int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException(
+                    "A capacidade do anel deve ser positiva");
+        }
+        final int tamanho = capacidade == 1 ? 1
+                : Integer.highestOneBit(capacidade - 1) << 1;
+        this.itens = new Object[tamanho];
+        this.sequencias = new AtomicLongArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            sequencias.set(i, i);
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Insere o elemento sem bloquear. Pode ser chamado por várias threads.
+     *
+     * @param elemento O elemento.
+     * @return {@code false} se a fila estiver cheia.
+     */
+    boolean oferecer(final E elemento) {
+        long posicao = cauda.get();
+        while (true) {
+            final int indice = (int) posicao & mascara;
+            final long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    itens[indice] = elemento;
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                return false;
+            } else {
+                posicao = cauda.get();
+            }
+        }
+    }
+
+    /**
+     * Retira o próximo elemento. Deve ser chamado por uma única thread.
+     *
+     * @return O elemento, ou {@code null} se a fila estiver vazia.
+     */
+    @SuppressWarnings("unchecked")
+    E retirar() {
+        final long posicao = cabeca;
+        final int indice = (int) posicao & mascara;
+        if (sequencias.get(indice) != posicao + 1) {
+            return null;
+        }
+        final E elemento = (E) itens[indice];
+        itens[indice] = null;
+        sequencias.set(indice, posicao + mascara + 1);
+        cabeca = posicao + 1;
+        return elemento;
+    }
+
+    /**
+     * Retorna a quantidade aproximada de elementos na fila.
+     *
+     * @return A quantidade de elementos.
+     */
+    int tamanho() {
+        return (int) Math.max(0, cauda.get() - cabeca);
+    }
+
+    /**
+     * Retorna a capacidade da fila.
+     *
+     * @return A capacidade.
+     */
+    int capacidade() {
+        return itens.length;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.clinicapi.infra.logging;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+/**
+ * Appender assíncrono que entrega os eventos aos appenders anexados a
+ * partir de uma thread própria, por meio de um {@link AnelEventos}.
+ *
+ * <p>Diferente do {@code AsyncAppender} do Logback, que usa uma fila com
+ * bloqueio e pode fazer a thread da requisição esperar quando a fila
+ * enche, este appender nunca espera pela thread consumidora. Com o anel
+ * cheio, os eventos até o {@code limiarDescarte} (TRACE, DEBUG e INFO, por
+ * padrão) são descartados e contados em {@link #getDescartados()}; os
+ * mais graves são oferecidos de novo algumas vezes e, se o anel continuar
+ * cheio, escritos diretamente pela thread que os gerou e contados em
+ * {@link #getEscritosDiretamente()}, de modo que WARN e ERROR nunca se
+ * perdem. A codificação (JSON) e a escrita no console passam a ocorrer
+ * fora das threads das requisições.</p>
+ *
+ * <p>Configuração no {@code logback-spring.xml}: {@code capacidade}
+ * (padrão 8192, arredondada para potência de dois),
+ * {@code limiarDescarte} (padrão INFO) e {@code tempoEncerramentoMs}
+ * (padrão 1000), com os appenders de destino em
+ * {@code <appender-ref>}.</p>
+ */
+public class AnelEventosAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    /**
+     * Capacidade padrão do anel.
+     */
+    private static final int CAPACIDADE_PADRAO = 8192;
+
+    /**
+     * Espera da thread consumidora quando o anel está vazio.
+     */
+    private static final long ESPERA_VAZIO_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Quantidade de novas ofertas de um evento acima do limiar de descarte
+     * antes de escrevê-lo diretamente.
+     */
+    private static final int NOVAS_OFERTAS = 64;
+
+    /**
+     * Os appenders que recebem os eventos.
+     */
+    private final AppenderAttachableImpl<ILoggingEvent> appenders =
+            new AppenderAttachableImpl<>();
+
+    /**
+     * Eventos até o limiar descartados por anel cheio.
+     */
+    private final LongAdder descartados = new LongAdder();
+
+    /**
+     * Eventos acima do limiar escritos pela thread que os gerou, por anel
+     * cheio.
+     */
+    private final LongAdder escritosDiretamente = new LongAdder();
+
+    /**
+     * Nível mais grave descartado quando o anel está cheio.
+     */
+    private Level limiarDescarte = Level.INFO;
+
+    /**
+     * Capacidade do anel.
+     */
+    private int capacidade = CAPACIDADE_PADRAO;
+
+    /**
+     * Tempo máximo, no encerramento, para entregar os eventos pendentes.
+     */
+    private long tempoEncerramentoMs = 1000;
+
+    /**
+     * O anel de eventos; criado ao iniciar.
+     */
+    private AnelEventos<ILoggingEvent> anel;
+
+    /**
+     * A thread que entrega os eventos.
+     */
+    private Thread consumidor;
+
+    /**
+     * Indica se a thread consumidora deve continuar.
+     */
+    private volatile boolean executando;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("Nenhum appender anexado a [" + name + "]");
+            return;
+        }
+        anel = new AnelEventos<>(capacidade);
+        executando = true;
+        consumidor = new Thread(this::consumir, "logs-anel-" + name);
+        consumidor.setDaemon(true);
+        consumidor.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        executando = false;
+        LockSupport.unpark(consumidor);
+        try {
+            consumidor.join(tempoEncerramentoMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumidor.isAlive()) {
+            addWarn("Eventos pendentes descartados no encerramento de ["
+                    + name + "]: " + anel.tamanho());
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(final ILoggingEvent evento) {
+        // Fixa a mensagem formatada, o MDC e o nome da thread antes de
+        // o evento sair da thread que o gerou
+        evento.prepareForDeferredProcessing();
+        if (anel.oferecer(evento)) {
+            return;
+        }
+        if (evento.getLevel().toInt() <= limiarDescarte.toInt()) {
+            descartados.increment();
+            return;
+        }
+        for (int i = 0; i < NOVAS_OFERTAS; i++) {
+            Thread.onSpinWait();
+            if (anel.oferecer(evento)) {
+                return;
+            }
+        }
+        escritosDiretamente.increment();
+        appenders.appendLoopOnAppenders(evento);
+    }
+
+    /**
+     * Entrega os eventos aos appenders até o encerramento, esvaziando o
+     * anel antes de terminar.
+     */
+    private void consumir() {
+        while (true) {
+            final ILoggingEvent evento = anel.retirar();
+            if (evento != null) {
+                appenders.appendLoopOnAppenders(evento);
+            } else if (executando) {
+                LockSupport.parkNanos(this, ESPERA_VAZIO_NANOS);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retorna a quantidade de eventos até o limiar descartados por anel
+     * cheio.
+     *
+     * @return A quantidade de eventos descartados.
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    /**
+     * Retorna a quantidade de eventos acima do limiar escritos pela thread
+     * que os gerou, por anel cheio.
+     *
+     * @return A quantidade de eventos escritos diretamente.
+     */
+    public long getEscritosDiretamente() {
+        return escritosDiretamente.sum();
+    }
+
+    /**
+     * Retorna a quantidade de eventos aguardando entrega.
+     *
+     * @return A quantidade de eventos pendentes.
+     */
+    public int getPendentes() {
+        return anel != null ? anel.tamanho() : 0;
+    }
+
+    /**
+     * Define a capacidade do anel.
+     *
+     * @param pCapacidade A capacidade.
+     */
+    public void setCapacidade(final int pCapacidade) {
+        this.capacidade = pCapacidade;
+    }
+
+    /**
+     * Define o nível mais grave descartado quando o anel está cheio;
+     * níveis inválidos mantêm INFO.
+     *
+     * @param nivel O nível, como {@code INFO} ou {@code DEBUG}.
+     */
+    public void setLimiarDescarte(final String nivel) {
+        this.limiarDescarte = Level.toLevel(nivel, Level.INFO);
+    }
+
+    /**
+     * Define o tempo máximo para entregar os eventos pendentes no
+     * encerramento.
+     *
+     * @param pTempoEncerramentoMs O tempo em milissegundos.
+     */
+    public void setTempoEncerramentoMs(final long pTempoEncerramentoMs) {
+        this.tempoEncerramentoMs = pTempoEncerramentoMs;
+    }
+
+    @Override
+    public void addAppender(final Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(final String nome) {
+        return appenders.getAppender(nome);
+    }
+
+    @Override
+    public boolean isAttached(final Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(final Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(final String nome) {
+        return appenders.detachAppender(nome);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.clinicapi.infra.logging;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publica as métricas do pipeline de log configurado no
+ * {@code logback-spring.xml}: os eventos descartados pelo
+ * {@link AnelEventosAppender} (anel cheio, até o limiar de descarte) e
+ * pelo {@link AmostragemLogsFilter}, os escritos diretamente com o anel
+ * cheio e os eventos aguardando entrega.
+ */
+@Component
+public class MetricasLogs implements MeterBinder {
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        final ILoggerFactory fabrica = LoggerFactory.getILoggerFactory();
+        if (!(fabrica instanceof LoggerContext contexto)) {
+            return;
+        }
+        contexto.getLoggerList().forEach(logger -> {
+            final var it = logger.iteratorForAppenders();
+            while (it.hasNext()) {
+                final Appender<?> appender = it.next();
+                if (appender instanceof AnelEventosAppender anel) {
+                    registrar(registry, anel);
+                }
+            }
+        });
+        contexto.getTurboFilterList().forEach(filtro -> {
+            if (filtro instanceof AmostragemLogsFilter amostragem) {
+                FunctionCounter.builder("clinica.logs.descartados",
+                        amostragem, AmostragemLogsFilter::getDescartados)
+                        .description("Eventos de log descartados")
+                        .tag("motivo", "amostragem")
+                        .register(registry);
+            }
+        });
+    }
+
+    /**
+     * Registra as métricas do appender assíncrono.
+     *
+     * @param registry registro das métricas
+     * @param anel     o appender
+     */
+    private static void registrar(final MeterRegistry registry,
+            final AnelEventosAppender anel) {
+        FunctionCounter.builder("clinica.logs.descartados", anel,
+                AnelEventosAppender::getDescartados)
+                .description("Eventos de log descartados")
+                .tag("motivo", "fila_cheia_limiar")
+                .register(registry);
+        FunctionCounter.builder("clinica.logs.escritos_diretamente", anel,
+                AnelEventosAppender::getEscritosDiretamente)
+                .description("Eventos de log acima do limiar de descarte "
+                        + "escritos pela thread que os gerou, com o anel "
+                        + "cheio")
+                .register(registry);
+        Gauge.builder("clinica.logs.fila", anel,
+                AnelEventosAppender::getPendentes)
+                .description("Eventos de log aguardando escrita pelo "
+                        + "appender assíncrono")
+                .register(registry);
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Este pacote contém os componentes de log usados nos caminhos quentes
+ * das requisições: o appender assíncrono em anel, que nunca bloqueia as
+ * threads das requisições, o filtro de amostragem por logger e as
+ * métricas dos eventos descartados.
+ */
+package com.example.clinicapi.infra.logging;
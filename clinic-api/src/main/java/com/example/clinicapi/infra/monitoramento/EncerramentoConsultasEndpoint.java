@@ -0,0 +1,37 @@
+package com.example.clinicapi.infra.monitoramento;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.example.clinicapi.dto.ProgressoEncerramentoDTO;
+import com.example.clinicapi.service.EncerramentoConsultaService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Endpoint do actuator ({@code /actuator/encerramentoConsultas}) que
+ * expõe o progresso do encerramento das consultas agendadas que já
+ * passaram. Somente leitura, pois os endpoints do actuator não exigem
+ * autenticação.
+ */
+@Component
+@Endpoint(id = "encerramentoConsultas")
+@RequiredArgsConstructor
+public class EncerramentoConsultasEndpoint {
+
+    /**
+     * Serviço de encerramento das consultas.
+     */
+    private final EncerramentoConsultaService encerramentoConsultaService;
+
+    /**
+     * Retorna o progresso da execução atual ou da última.
+     *
+     * @return O progresso do encerramento.
+     */
+    @ReadOperation
+    public ProgressoEncerramentoDTO progresso() {
+        return encerramentoConsultaService.getProgresso();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Este pacote contém os endpoints próprios do actuator, que expõem o
+ * estado das tarefas executadas em segundo plano.
+ */
+package com.example.clinicapi.infra.monitoramento;
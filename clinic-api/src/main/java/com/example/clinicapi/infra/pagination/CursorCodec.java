@@ -0,0 +1,140 @@
+package com.example.clinicapi.infra.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica os tokens opacos utilizados na paginação
+ * por cursor (keyset).
+ * <p>
+ * O token carrega a chave de ordenação do último registro retornado,
+ * {@code (dataHora, id)} ou apenas {@code (id)}, prefixada por uma
+ * versão e codificada em Base64 URL-safe. O cliente deve tratá-lo
+ * como opaco e apenas devolvê-lo na requisição seguinte.
+ * </p>
+ */
+public final class CursorCodec {
+
+    /**
+     * Versão do formato do token, permitindo evoluí-lo no futuro.
+     */
+    private static final String VERSAO = "v1";
+
+    /**
+     * Separador entre os campos do token.
+     */
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Mensagem de erro para tokens que não puderam ser decodificados.
+     */
+    private static final String CURSOR_INVALIDO = "Cursor de paginação inválido";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Chave de ordenação de uma consulta: data e hora, desempatada pelo ID.
+     *
+     * @param dataHora data e hora da consulta
+     * @param id       identificador da consulta
+     */
+    public record ChaveDataHoraId(LocalDateTime dataHora, long id) { }
+
+    /**
+     * Gera o token para uma chave {@code (dataHora, id)}.
+     *
+     * @param dataHora A data e hora do último registro.
+     * @param id       O ID do último registro.
+     * @return O token codificado.
+     */
+    public static String codificar(final LocalDateTime dataHora,
+            final long id) {
+        return codificarTexto(VERSAO + SEPARADOR + dataHora
+                + SEPARADOR + id);
+    }
+
+    /**
+     * Gera o token para uma chave {@code (id)}.
+     *
+     * @param id O ID do último registro.
+     * @return O token codificado.
+     */
+    public static String codificar(final long id) {
+        return codificarTexto(VERSAO + SEPARADOR + id);
+    }
+
+    /**
+     * Decodifica um token de chave {@code (dataHora, id)}.
+     *
+     * @param cursor O token recebido.
+     * @return A chave contida no token.
+     * @throws IllegalArgumentException Se o token for inválido.
+     */
+    public static ChaveDataHoraId decodificarDataHoraId(final String cursor) {
+        final String[] partes = decodificarTexto(cursor);
+        if (partes.length != 3) {
+            throw new IllegalArgumentException(CURSOR_INVALIDO);
+        }
+        try {
+            return new ChaveDataHoraId(LocalDateTime.parse(partes[1]),
+                    Long.parseLong(partes[2]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException(CURSOR_INVALIDO, ex);
+        }
+    }
+
+    /**
+     * Decodifica um token de chave {@code (id)}.
+     *
+     * @param cursor O token recebido.
+     * @return O ID contido no token.
+     * @throws IllegalArgumentException Se o token for inválido.
+     */
+    public static long decodificarId(final String cursor) {
+        final String[] partes = decodificarTexto(cursor);
+        if (partes.length != 2) {
+            throw new IllegalArgumentException(CURSOR_INVALIDO);
+        }
+        try {
+            return Long.parseLong(partes[1]);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(CURSOR_INVALIDO, ex);
+        }
+    }
+
+    /**
+     * Codifica o texto do token em Base64 URL-safe, sem preenchimento.
+     *
+     * @param texto O conteúdo do token.
+     * @return O token codificado.
+     */
+    private static String codificarTexto(final String texto) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o token e separa seus campos, validando a versão.
+     *
+     * @param cursor O token recebido.
+     * @return Os campos do token, incluindo a versão na primeira posição.
+     * @throws IllegalArgumentException Se o token for inválido.
+     */
+    private static String[] decodificarTexto(final String cursor) {
+        final String texto;
+        try {
+            texto = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(CURSOR_INVALIDO, ex);
+        }
+        final String[] partes = texto.split("\\" + SEPARADOR, -1);
+        if (!VERSAO.equals(partes[0])) {
+            throw new IllegalArgumentException(CURSOR_INVALIDO);
+        }
+        return partes;
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Este pacote contém os componentes de infraestrutura
+ * responsáveis pela paginação por cursor (keyset),
+ * como a codificação dos tokens de continuação.
+ */
+package com.example.clinicapi.infra.pagination;
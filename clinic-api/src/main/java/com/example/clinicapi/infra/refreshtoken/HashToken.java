@@ -0,0 +1,36 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Calcula o hash armazenado no lugar dos tokens, de modo que um
+ * vazamento do armazenamento não exponha tokens utilizáveis.
+ */
+public final class HashToken {
+
+    /**
+     * Classe utilitária; não deve ser instanciada.
+     */
+    private HashToken() {
+    }
+
+    /**
+     * Calcula o SHA-256 do token.
+     *
+     * @param token O token.
+     * @return O hash em hexadecimal minúsculo (64 caracteres), o mesmo
+     * formato da função {@code SHA2(token, 256)} do MySQL.
+     */
+    public static String sha256(final String token) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
+        }
+    }
+}
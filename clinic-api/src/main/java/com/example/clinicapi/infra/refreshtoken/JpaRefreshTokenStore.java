@@ -0,0 +1,90 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.time.Clock;
+import java.util.Optional;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.clinicapi.model.RefreshToken;
+import com.example.clinicapi.repository.RefreshTokenRepository;
+import com.example.clinicapi.repository.UsuarioRepository;
+
+/**
+ * Armazena as sessões de refresh token na tabela {@code refresh_tokens}.
+ * Alternativa ao {@link RedisRefreshTokenStore} quando o Redis não estiver
+ * disponível; as sessões expiradas permanecem na tabela até serem
+ * apresentadas ou removidas.
+ */
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    /**
+     * Repositório dos refresh tokens.
+     */
+    private final RefreshTokenRepository repository;
+
+    /**
+     * Repositório de usuários, utilizado para referenciar o usuário da
+     * sessão sem carregá-lo.
+     */
+    private final UsuarioRepository usuarioRepository;
+
+    /**
+     * Relógio utilizado para verificar a expiração.
+     */
+    private final Clock clock;
+
+    /**
+     * Cria o armazenamento.
+     *
+     * @param pRepository        repositório dos refresh tokens
+     * @param pUsuarioRepository repositório de usuários
+     * @param pClock             relógio utilizado para verificar a
+     *                           expiração
+     */
+    public JpaRefreshTokenStore(final RefreshTokenRepository pRepository,
+            final UsuarioRepository pUsuarioRepository, final Clock pClock) {
+        this.repository = pRepository;
+        this.usuarioRepository = pUsuarioRepository;
+        this.clock = pClock;
+    }
+
+    @Override
+    public void salvar(final SessaoRefreshToken sessao) {
+        repository.save(new RefreshToken(null, sessao.hash(),
+                usuarioRepository.getReferenceById(sessao.usuarioId()),
+                sessao.expiraEm()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A sessão só é retornada à chamada cujo {@code DELETE} removeu a
+     * linha; as demais chamadas concorrentes recebem vazio.</p>
+     */
+    @Override
+    @Transactional
+    public Optional<SessaoRefreshToken> consumir(final String hash) {
+        final Optional<SessaoRefreshToken> lida = repository
+                .findByToken(hash)
+                .map(token -> new SessaoRefreshToken(hash,
+                        token.getUsuario().getId(),
+                        token.getUsuario().getLogin(),
+                        token.getDataExpiracao()));
+        if (lida.isEmpty() || repository.removerPorToken(hash) == 0) {
+            return Optional.empty();
+        }
+        final SessaoRefreshToken sessao = lida.get();
+        return sessao.expirada(clock.instant())
+                ? Optional.empty() : Optional.of(sessao);
+    }
+
+    @Override
+    public boolean remover(final String hash, final Long usuarioId) {
+        return repository.removerPorTokenEUsuario(hash, usuarioId) > 0;
+    }
+
+    @Override
+    public void removerPorUsuario(final Long usuarioId) {
+        repository.removerPorUsuario(usuarioId);
+    }
+}
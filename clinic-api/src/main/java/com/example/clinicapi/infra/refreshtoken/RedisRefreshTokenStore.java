@@ -0,0 +1,159 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Armazena as sessões de refresh token no Redis, com a expiração nativa
+ * das chaves: uma sessão expirada desaparece sem limpeza periódica.
+ *
+ * <p>Cada sessão é guardada em {@code refresh:token:<hash>}; os hashes
+ * das sessões de cada usuário ficam no conjunto
+ * {@code refresh:usuario:<id>}, que expira junto com a sessão mais
+ * recente. A gravação da sessão e a sua inclusão no conjunto, assim como
+ * a rotação e a remoção de uma sessão, são feitas em scripts Lua,
+ * atômicos no Redis: uma falha entre os comandos não deixa uma sessão
+ * válida fora do conjunto do usuário.</p>
+ */
+public final class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    /**
+     * Prefixo das chaves das sessões.
+     */
+    static final String PREFIXO_TOKEN = "refresh:token:";
+
+    /**
+     * Prefixo dos conjuntos de sessões de cada usuário.
+     */
+    static final String PREFIXO_USUARIO = "refresh:usuario:";
+
+    /**
+     * Separador dos campos gravados no valor de cada sessão.
+     */
+    private static final String SEPARADOR = ":";
+
+    /**
+     * Grava a sessão, inclui o seu hash no conjunto do usuário e estende
+     * a expiração do conjunto, se necessário, em uma única operação
+     * atômica.
+     */
+    private static final RedisScript<Long> SALVAR =
+            new DefaultRedisScript<>("redis.call('SET', KEYS[1], ARGV[1], "
+                    + "'PX', ARGV[2]) "
+                    + "redis.call('SADD', KEYS[2], ARGV[3]) "
+                    + "if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) "
+                    + "then redis.call('PEXPIRE', KEYS[2], ARGV[2]) end "
+                    + "return 1", Long.class);
+
+    /**
+     * Remove a sessão, se ela pertencer ao usuário, e o seu hash do
+     * conjunto do usuário em uma única operação atômica.
+     */
+    private static final RedisScript<Long> REMOVER =
+            new DefaultRedisScript<>("local v = redis.call('GET', KEYS[1]) "
+                    + "if v and string.sub(v, 1, string.len(ARGV[1])) "
+                    + "== ARGV[1] then redis.call('DEL', KEYS[1]) "
+                    + "redis.call('SREM', KEYS[2], ARGV[2]) return 1 end "
+                    + "return 0", Long.class);
+
+    /**
+     * Lê e remove a sessão em uma única operação atômica.
+     */
+    private static final RedisScript<String> CONSUMIR =
+            new DefaultRedisScript<>("local v = redis.call('GET', KEYS[1]) "
+                    + "if v then redis.call('DEL', KEYS[1]) end "
+                    + "return v", String.class);
+
+    /**
+     * Cliente do Redis.
+     */
+    private final StringRedisTemplate redis;
+
+    /**
+     * Relógio utilizado para calcular a expiração.
+     */
+    private final Clock clock;
+
+    /**
+     * Cria o armazenamento.
+     *
+     * @param pRedis cliente do Redis
+     * @param pClock relógio utilizado para calcular a expiração
+     */
+    public RedisRefreshTokenStore(final StringRedisTemplate pRedis,
+            final Clock pClock) {
+        this.redis = pRedis;
+        this.clock = pClock;
+    }
+
+    @Override
+    public void salvar(final SessaoRefreshToken sessao) {
+        final Duration ttl = Duration.between(clock.instant(),
+                sessao.expiraEm());
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        redis.execute(SALVAR, List.of(PREFIXO_TOKEN + sessao.hash(),
+                PREFIXO_USUARIO + sessao.usuarioId()),
+                sessao.usuarioId() + SEPARADOR
+                        + sessao.expiraEm().toEpochMilli() + SEPARADOR
+                        + sessao.login(),
+                String.valueOf(ttl.toMillis()), sessao.hash());
+    }
+
+    @Override
+    public Optional<SessaoRefreshToken> consumir(final String hash) {
+        final String valor = redis.execute(CONSUMIR,
+                List.of(PREFIXO_TOKEN + hash));
+        if (valor == null) {
+            return Optional.empty();
+        }
+        final SessaoRefreshToken sessao = ler(hash, valor);
+        redis.opsForSet().remove(PREFIXO_USUARIO + sessao.usuarioId(), hash);
+        return sessao.expirada(clock.instant())
+                ? Optional.empty() : Optional.of(sessao);
+    }
+
+    @Override
+    public boolean remover(final String hash, final Long usuarioId) {
+        final Long removida = redis.execute(REMOVER,
+                List.of(PREFIXO_TOKEN + hash, PREFIXO_USUARIO + usuarioId),
+                usuarioId + SEPARADOR, hash);
+        return removida != null && removida == 1L;
+    }
+
+    @Override
+    public void removerPorUsuario(final Long usuarioId) {
+        final String chaveUsuario = PREFIXO_USUARIO + usuarioId;
+        final Set<String> hashes = redis.opsForSet().members(chaveUsuario);
+        final List<String> chaves = new ArrayList<>();
+        chaves.add(chaveUsuario);
+        if (hashes != null) {
+            hashes.forEach(hash -> chaves.add(PREFIXO_TOKEN + hash));
+        }
+        redis.delete(chaves);
+    }
+
+    /**
+     * Lê a sessão gravada no valor da chave.
+     *
+     * @param hash  O hash do token.
+     * @param valor O valor no formato {@code usuarioId:expiraEm:login}.
+     * @return A sessão.
+     */
+    private static SessaoRefreshToken ler(final String hash,
+            final String valor) {
+        final String[] campos = valor.split(SEPARADOR, 3);
+        return new SessaoRefreshToken(hash, Long.valueOf(campos[0]),
+                campos[2], Instant.ofEpochMilli(Long.parseLong(campos[1])));
+    }
+}
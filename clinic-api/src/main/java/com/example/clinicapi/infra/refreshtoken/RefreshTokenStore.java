@@ -0,0 +1,48 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.util.Optional;
+
+/**
+ * Armazenamento das sessões de refresh token, indexadas pelo hash do
+ * token. Um usuário pode manter várias sessões simultâneas, uma por
+ * dispositivo ou login.
+ *
+ * <p>A implementação é escolhida por
+ * {@code api.security.refresh-token.store}: {@code redis} ou
+ * {@code jpa}.</p>
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Armazena uma sessão até a sua expiração.
+     *
+     * @param sessao A sessão.
+     */
+    void salvar(SessaoRefreshToken sessao);
+
+    /**
+     * Remove e retorna, de forma atômica, a sessão do token. Entre
+     * chamadas concorrentes com o mesmo token, apenas uma obtém a sessão,
+     * o que garante que um token seja rotacionado uma única vez.
+     *
+     * @param hash O hash do token.
+     * @return A sessão, ou vazio se o token não existir ou tiver expirado.
+     */
+    Optional<SessaoRefreshToken> consumir(String hash);
+
+    /**
+     * Remove a sessão do token, se ela pertencer ao usuário.
+     *
+     * @param hash      O hash do token.
+     * @param usuarioId O ID do usuário.
+     * @return {@code true} se a sessão foi removida.
+     */
+    boolean remover(String hash, Long usuarioId);
+
+    /**
+     * Remove todas as sessões do usuário.
+     *
+     * @param usuarioId O ID do usuário.
+     */
+    void removerPorUsuario(Long usuarioId);
+}
@@ -0,0 +1,57 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.time.Clock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.example.clinicapi.repository.RefreshTokenRepository;
+import com.example.clinicapi.repository.UsuarioRepository;
+
+/**
+ * Classe de configuração responsável por escolher o armazenamento dos
+ * refresh tokens conforme {@code api.security.refresh-token.store}:
+ * {@code redis} ou {@code jpa} (padrão quando a propriedade não estiver
+ * definida).
+ */
+@Configuration
+public class RefreshTokenStoreConfig {
+
+    /**
+     * Propriedade que escolhe o armazenamento.
+     */
+    private static final String PROPRIEDADE =
+            "api.security.refresh-token.store";
+
+    /**
+     * Armazenamento no Redis, com expiração nativa das chaves.
+     *
+     * @param redis O cliente do Redis.
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "redis")
+    public RefreshTokenStore redisRefreshTokenStore(
+            final StringRedisTemplate redis) {
+        return new RedisRefreshTokenStore(redis, Clock.systemUTC());
+    }
+
+    /**
+     * Armazenamento na tabela {@code refresh_tokens}.
+     *
+     * @param repository        O repositório dos refresh tokens.
+     * @param usuarioRepository O repositório de usuários.
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "jpa",
+            matchIfMissing = true)
+    public RefreshTokenStore jpaRefreshTokenStore(
+            final RefreshTokenRepository repository,
+            final UsuarioRepository usuarioRepository) {
+        return new JpaRefreshTokenStore(repository, usuarioRepository,
+                Clock.systemUTC());
+    }
+}
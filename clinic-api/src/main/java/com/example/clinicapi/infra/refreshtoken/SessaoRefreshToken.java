@@ -0,0 +1,29 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.time.Instant;
+
+/**
+ * Sessão associada a um refresh token.
+ *
+ * @param hash      o hash SHA-256 do token, em hexadecimal
+ * @param usuarioId o ID do usuário
+ * @param login     o login do usuário
+ * @param expiraEm  o instante de expiração do token
+ */
+public record SessaoRefreshToken(
+        String hash,
+        Long usuarioId,
+        String login,
+        Instant expiraEm
+) {
+
+    /**
+     * Indica se a sessão já expirou.
+     *
+     * @param agora O instante atual.
+     * @return {@code true} se a sessão expirou.
+     */
+    public boolean expirada(final Instant agora) {
+        return !expiraEm.isAfter(agora);
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Este pacote contém o armazenamento dos refresh tokens: a interface
+ * {@link com.example.clinicapi.infra.refreshtoken.RefreshTokenStore} e as
+ * implementações em Redis, com expiração nativa das chaves, e em JPA,
+ * mantida como alternativa. Apenas o hash SHA-256 de cada token é
+ * armazenado.
+ */
+package com.example.clinicapi.infra.refreshtoken;
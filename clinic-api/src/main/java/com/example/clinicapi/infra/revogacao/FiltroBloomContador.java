@@ -0,0 +1,225 @@
+package com.example.clinicapi.infra.revogacao;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom com contadores de 4 bits, que admite a remoção de
+ * elementos. Responde "certamente ausente" ou "possivelmente presente":
+ * nunca produz falsos negativos, e a taxa de falsos positivos é a
+ * configurada enquanto a quantidade de elementos não exceder a capacidade.
+ *
+ * <p>Os contadores são compactados em um {@link AtomicLongArray}, 16 por
+ * posição, e atualizados por compare-and-set; a consulta não bloqueia nem
+ * aloca memória. Um contador que atinge 15 fica
+ * saturado e não é mais decrementado, o que evita falsos negativos após
+ * remoções.</p>
+ */
+final class FiltroBloomContador {
+
+    /**
+     * Bits de cada contador.
+     */
+    private static final int BITS_CONTADOR = 4;
+
+    /**
+     * Contadores compactados em cada posição do array.
+     */
+    private static final int CONTADORES_POR_POSICAO =
+            Long.SIZE / BITS_CONTADOR;
+
+    /**
+     * Valor máximo de um contador; contadores saturados não são
+     * decrementados.
+     */
+    private static final long SATURADO = (1L << BITS_CONTADOR) - 1;
+
+    /**
+     * Os contadores.
+     */
+    private final AtomicLongArray posicoes;
+
+    /**
+     * Quantidade de contadores.
+     */
+    private final int contadores;
+
+    /**
+     * Quantidade de funções de hash (contadores por elemento).
+     */
+    private final int funcoes;
+
+    /**
+     * Cria o filtro dimensionado para a capacidade e a taxa de falsos
+     * positivos informadas.
+     *
+     * @param capacidade          quantidade esperada de elementos
+     * @param taxaFalsosPositivos taxa de falsos positivos desejada, entre 0
+     *                            e 1 (exclusivos)
+     * @throws IllegalArgumentException Se algum parâmetro for inválido.
+     */
+    FiltroBloomContador(final int capacidade,
+            final double taxaFalsosPositivos) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException(
+                    "A capacidade do filtro de Bloom deve ser positiva");
+        }
+        if (taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("A taxa de falsos positivos "
+                    + "deve estar entre 0 e 1");
+        }
+        final double ln2 = Math.log(2);
+        final long m = (long) Math.ceil(-capacidade
+                * Math.log(taxaFalsosPositivos) / (ln2 * ln2));
+        if (m > (long) Integer.MAX_VALUE - CONTADORES_POR_POSICAO) {
+            throw new IllegalArgumentException(
+                    "Filtro de Bloom grande demais: " + m + " contadores");
+        }
+        this.contadores = (int) m;
+        this.funcoes = Math.max(1,
+                (int) Math.round((double) m / capacidade * ln2));
+        this.posicoes = new AtomicLongArray(
+                (contadores + CONTADORES_POR_POSICAO - 1)
+                        / CONTADORES_POR_POSICAO);
+    }
+
+    /**
+     * Adiciona o elemento.
+     *
+     * @param elemento O elemento.
+     */
+    void adicionar(final String elemento) {
+        final long hash = hash(elemento);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> Integer.SIZE) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            somar(indice(h1, h2, i), 1);
+        }
+    }
+
+    /**
+     * Remove um elemento adicionado anteriormente. Remover um elemento que
+     * não foi adicionado pode produzir falsos negativos.
+     *
+     * @param elemento O elemento.
+     */
+    void remover(final String elemento) {
+        final long hash = hash(elemento);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> Integer.SIZE) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            somar(indice(h1, h2, i), -1);
+        }
+    }
+
+    /**
+     * Verifica se o elemento pode ter sido adicionado.
+     *
+     * @param elemento O elemento.
+     * @return {@code false} se o elemento certamente não foi adicionado;
+     * {@code true} se possivelmente foi.
+     */
+    boolean possivelmenteContem(final String elemento) {
+        final long hash = hash(elemento);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> Integer.SIZE) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            if (contador(indice(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna a quantidade de contadores.
+     *
+     * @return A quantidade de contadores.
+     */
+    int contadores() {
+        return contadores;
+    }
+
+    /**
+     * Retorna a quantidade de funções de hash.
+     *
+     * @return A quantidade de funções de hash.
+     */
+    int funcoes() {
+        return funcoes;
+    }
+
+    /**
+     * Calcula o índice do contador da i-ésima função de hash, pela técnica
+     * de hash duplo ({@code h1 + i * h2}).
+     *
+     * @param h1 O primeiro hash.
+     * @param h2 O segundo hash.
+     * @param i  O número da função.
+     * @return O índice do contador.
+     */
+    private int indice(final int h1, final int h2, final int i) {
+        final int combinado = h1 + i * h2;
+        return (combinado & Integer.MAX_VALUE) % contadores;
+    }
+
+    /**
+     * Lê um contador.
+     *
+     * @param indice O índice do contador.
+     * @return O valor do contador.
+     */
+    private long contador(final int indice) {
+        final long palavra = posicoes.get(indice / CONTADORES_POR_POSICAO);
+        return (palavra >>> deslocamento(indice)) & SATURADO;
+    }
+
+    /**
+     * Soma o valor a um contador, respeitando a saturação e o zero.
+     *
+     * @param indice O índice do contador.
+     * @param delta  {@code 1} ou {@code -1}.
+     */
+    private void somar(final int indice, final int delta) {
+        final int posicao = indice / CONTADORES_POR_POSICAO;
+        final int deslocamento = deslocamento(indice);
+        long atual;
+        long novo;
+        do {
+            atual = posicoes.get(posicao);
+            final long valor = (atual >>> deslocamento) & SATURADO;
+            if (valor == SATURADO || (delta < 0 && valor == 0)) {
+                return;
+            }
+            novo = atual + ((long) delta << deslocamento);
+        } while (!posicoes.compareAndSet(posicao, atual, novo));
+    }
+
+    /**
+     * Calcula o deslocamento, em bits, do contador dentro da sua posição.
+     *
+     * @param indice O índice do contador.
+     * @return O deslocamento em bits.
+     */
+    private static int deslocamento(final int indice) {
+        return (indice % CONTADORES_POR_POSICAO) * BITS_CONTADOR;
+    }
+
+    /**
+     * Calcula um hash de 64 bits dos caracteres do elemento (FNV-1a
+     * seguido da mistura final do SplitMix64), do qual são extraídos os
+     * dois hashes de 32 bits.
+     *
+     * @param elemento O elemento.
+     * @return O hash.
+     */
+    private static long hash(final String elemento) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < elemento.length(); i++) {
+            h ^= elemento.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
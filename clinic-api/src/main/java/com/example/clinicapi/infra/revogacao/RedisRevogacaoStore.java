@@ -0,0 +1,185 @@
+package com.example.clinicapi.infra.revogacao;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Armazena as revogações no Redis, compartilhadas entre os nós.
+ *
+ * <p>Cada revogação é guardada em {@code revogacao:jti:<jti>}, com
+ * expiração nativa igual à do token, para a consulta exata. O conjunto
+ * ordenado {@code revogacao:ativas} é pontuado pela expiração e o
+ * {@code revogacao:registro}, pelo instante da revogação no relógio do
+ * Redis: cada nó lê do registro apenas as revogações feitas desde a sua
+ * última sincronização, em vez de todas as revogações em vigor. As
+ * revogações expiradas são removidas dos dois conjuntos por um expurgo
+ * periódico, executado por um único nó a cada intervalo.</p>
+ */
+public final class RedisRevogacaoStore implements RevogacaoStore {
+
+    /**
+     * Prefixo das chaves das revogações.
+     */
+    static final String PREFIXO_JTI = "revogacao:jti:";
+
+    /**
+     * Conjunto ordenado das revogações, pontuado pela expiração em
+     * milissegundos.
+     */
+    static final String CHAVE_ATIVAS = "revogacao:ativas";
+
+    /**
+     * Conjunto ordenado das revogações, pontuado pelo instante da
+     * revogação em milissegundos, no relógio do Redis.
+     */
+    static final String CHAVE_REGISTRO = "revogacao:registro";
+
+    /**
+     * Chave que impede que mais de um nó execute o expurgo no mesmo
+     * intervalo.
+     */
+    static final String CHAVE_EXPURGO = "revogacao:expurgo";
+
+    /**
+     * Intervalo mínimo entre dois expurgos, em qualquer nó.
+     */
+    private static final Duration INTERVALO_EXPURGO = Duration.ofSeconds(30);
+
+    /**
+     * Quantidade máxima de revogações removidas por comando do expurgo.
+     */
+    private static final int LOTE_EXPURGO = 1_000;
+
+    /**
+     * Grava a revogação e a inclui nos dois conjuntos em uma única
+     * operação atômica. O registro usa o relógio do Redis, o mesmo para
+     * todos os nós, para que a diferença entre os relógios dos nós não
+     * esconda uma revogação de quem já leu além dela.
+     */
+    private static final RedisScript<Long> REVOGAR =
+            new DefaultRedisScript<>("local t = redis.call('TIME') "
+                    + "local ms = t[1] * 1000 + math.floor(t[2] / 1000) "
+                    + "redis.call('SET', KEYS[1], '1', 'PX', ARGV[2]) "
+                    + "redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1]) "
+                    + "redis.call('ZADD', KEYS[3], ms, ARGV[1]) "
+                    + "return ms", Long.class);
+
+    /**
+     * Lê as revogações registradas a partir do cursor (inclusive, para
+     * não perder as registradas no mesmo milissegundo), com a expiração
+     * de cada uma, em uma lista {@code jti, expiração, registro, ...}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> NOVAS =
+            new DefaultRedisScript<>("local r = redis.call('ZRANGEBYSCORE', "
+                    + "KEYS[1], ARGV[1], '+inf', 'WITHSCORES') "
+                    + "local novas = {} "
+                    + "for i = 1, #r, 2 do "
+                    + "local e = redis.call('ZSCORE', KEYS[2], r[i]) "
+                    + "if e then novas[#novas + 1] = r[i] "
+                    + "novas[#novas + 1] = e "
+                    + "novas[#novas + 1] = r[i + 1] end end "
+                    + "return novas", List.class);
+
+    /**
+     * Remove dos dois conjuntos um lote de revogações expiradas e retorna
+     * a quantidade removida.
+     */
+    private static final RedisScript<Long> EXPURGAR =
+            new DefaultRedisScript<>("local v = redis.call('ZRANGEBYSCORE', "
+                    + "KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) "
+                    + "if #v > 0 then redis.call('ZREM', KEYS[1], unpack(v)) "
+                    + "redis.call('ZREM', KEYS[2], unpack(v)) end "
+                    + "return #v", Long.class);
+
+    /**
+     * Cliente do Redis.
+     */
+    private final StringRedisTemplate redis;
+
+    /**
+     * Relógio utilizado para calcular a expiração.
+     */
+    private final Clock clock;
+
+    /**
+     * Cria o armazenamento.
+     *
+     * @param pRedis cliente do Redis
+     * @param pClock relógio utilizado para calcular a expiração
+     */
+    public RedisRevogacaoStore(final StringRedisTemplate pRedis,
+            final Clock pClock) {
+        this.redis = pRedis;
+        this.clock = pClock;
+    }
+
+    @Override
+    public void revogar(final String jti, final Instant expiraEm) {
+        final Duration ttl = Duration.between(clock.instant(), expiraEm);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        redis.execute(REVOGAR, List.of(PREFIXO_JTI + jti, CHAVE_ATIVAS,
+                CHAVE_REGISTRO), jti, String.valueOf(ttl.toMillis()),
+                String.valueOf(expiraEm.toEpochMilli()));
+    }
+
+    @Override
+    public boolean revogado(final String jti) {
+        return Boolean.TRUE.equals(redis.hasKey(PREFIXO_JTI + jti));
+    }
+
+    @Override
+    public Novas novas(final long cursor) {
+        final List<?> lidas = redis.execute(NOVAS,
+                List.of(CHAVE_REGISTRO, CHAVE_ATIVAS),
+                String.valueOf(cursor));
+        final Map<String, Instant> novas = new HashMap<>();
+        long proximo = cursor;
+        if (lidas != null) {
+            for (int i = 0; i + 2 < lidas.size(); i += 3) {
+                novas.put((String) lidas.get(i), Instant.ofEpochMilli(
+                        milissegundos(lidas.get(i + 1))));
+                proximo = Math.max(proximo, milissegundos(lidas.get(i + 2)));
+            }
+        }
+        return new Novas(novas, proximo);
+    }
+
+    @Override
+    public int expurgar(final Instant agora) {
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(
+                CHAVE_EXPURGO, "1", INTERVALO_EXPURGO))) {
+            return 0;
+        }
+        final List<String> chaves = List.of(CHAVE_ATIVAS, CHAVE_REGISTRO);
+        final String limite = String.valueOf(agora.toEpochMilli());
+        final String lote = String.valueOf(LOTE_EXPURGO);
+        int removidas = 0;
+        Long removidasNoLote;
+        do {
+            removidasNoLote = redis.execute(EXPURGAR, chaves, limite, lote);
+            removidas += removidasNoLote == null ? 0 : removidasNoLote;
+        } while (removidasNoLote != null && removidasNoLote == LOTE_EXPURGO);
+        return removidas;
+    }
+
+    /**
+     * Converte a pontuação lida do Redis em milissegundos.
+     *
+     * @param pontuacao A pontuação, como texto.
+     * @return Os milissegundos.
+     */
+    private static long milissegundos(final Object pontuacao) {
+        return (long) Double.parseDouble((String) pontuacao);
+    }
+}
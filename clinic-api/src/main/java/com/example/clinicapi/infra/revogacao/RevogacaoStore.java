@@ -0,0 +1,61 @@
+package com.example.clinicapi.infra.revogacao;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Armazenamento compartilhado das revogações de access tokens, indexadas
+ * pelo {@code jti}. Uma revogação só precisa ser mantida até a expiração
+ * do token revogado.
+ *
+ * <p>A implementação é escolhida por
+ * {@code api.security.revogacao.store}: {@code redis}, compartilhado entre
+ * os nós, ou {@code memoria}, local a um único nó.</p>
+ */
+public interface RevogacaoStore {
+
+    /**
+     * Registra a revogação do token até a sua expiração.
+     *
+     * @param jti      O identificador do token.
+     * @param expiraEm O instante de expiração do token.
+     */
+    void revogar(String jti, Instant expiraEm);
+
+    /**
+     * Verifica se o token foi revogado.
+     *
+     * @param jti O identificador do token.
+     * @return {@code true} se o token foi revogado e ainda não expirou.
+     */
+    boolean revogado(String jti);
+
+    /**
+     * Retorna as revogações registradas a partir do cursor, na ordem em que
+     * foram feitas, e o cursor da próxima leitura. O cursor {@code 0}
+     * retorna todas as revogações em vigor. Uma revogação pode ser
+     * retornada mais de uma vez; as já expiradas podem ser omitidas.
+     *
+     * @param cursor O cursor retornado pela leitura anterior, ou {@code 0}.
+     * @return As revogações lidas e o próximo cursor.
+     */
+    Novas novas(long cursor);
+
+    /**
+     * Remove do armazenamento as revogações expiradas. Executado
+     * periodicamente, fora do caminho das leituras.
+     *
+     * @param agora O instante atual.
+     * @return A quantidade de revogações removidas.
+     */
+    int expurgar(Instant agora);
+
+    /**
+     * As revogações lidas a partir de um cursor.
+     *
+     * @param revogacoes A expiração de cada token revogado, por
+     *                   {@code jti}.
+     * @param cursor     O cursor da próxima leitura.
+     */
+    record Novas(Map<String, Instant> revogacoes, long cursor) { }
+}
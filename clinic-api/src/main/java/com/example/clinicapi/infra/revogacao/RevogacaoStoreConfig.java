@@ -0,0 +1,48 @@
+package com.example.clinicapi.infra.revogacao;
+
+import java.time.Clock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Classe de configuração responsável por escolher o armazenamento das
+ * revogações de access tokens conforme
+ * {@code api.security.revogacao.store}: {@code redis} ou {@code memoria}
+ * (padrão quando a propriedade não estiver definida).
+ */
+@Configuration
+public class RevogacaoStoreConfig {
+
+    /**
+     * Propriedade que escolhe o armazenamento.
+     */
+    private static final String PROPRIEDADE = "api.security.revogacao.store";
+
+    /**
+     * Armazenamento no Redis, compartilhado entre os nós.
+     *
+     * @param redis O cliente do Redis.
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "redis")
+    public RevogacaoStore redisRevogacaoStore(
+            final StringRedisTemplate redis) {
+        return new RedisRevogacaoStore(redis, Clock.systemUTC());
+    }
+
+    /**
+     * Armazenamento em memória, local ao nó.
+     *
+     * @return O armazenamento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = PROPRIEDADE, havingValue = "memoria",
+            matchIfMissing = true)
+    public RevogacaoStore revogacaoStoreEmMemoria() {
+        return new RevogacaoStoreEmMemoria(Clock.systemUTC());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.clinicapi.infra.revogacao;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Armazena as revogações em memória. Adequado a uma única instância da
+ * aplicação e aos testes; com várias instâncias, uma revogação só vale
+ * no nó em que foi feita.
+ */
+public final class RevogacaoStoreEmMemoria implements RevogacaoStore {
+
+    /**
+     * A expiração de cada token revogado, por {@code jti}.
+     */
+    private final Map<String, Instant> revogacoes = new ConcurrentHashMap<>();
+
+    /**
+     * O {@code jti} de cada revogação, pela sua ordem de registro, que
+     * serve de cursor para as leituras.
+     */
+    private final NavigableMap<Long, String> registro = new TreeMap<>();
+
+    /**
+     * A ordem da última revogação registrada.
+     */
+    private long sequencia;
+
+    /**
+     * Relógio utilizado para verificar a expiração.
+     */
+    private final Clock clock;
+
+    /**
+     * Cria o armazenamento.
+     *
+     * @param pClock relógio utilizado para verificar a expiração
+     */
+    public RevogacaoStoreEmMemoria(final Clock pClock) {
+        this.clock = pClock;
+    }
+
+    @Override
+    public synchronized void revogar(final String jti,
+            final Instant expiraEm) {
+        if (expiraEm.isAfter(clock.instant())) {
+            revogacoes.put(jti, expiraEm);
+            registro.put(++sequencia, jti);
+        }
+    }
+
+    @Override
+    public boolean revogado(final String jti) {
+        final Instant expiraEm = revogacoes.get(jti);
+        return expiraEm != null && expiraEm.isAfter(clock.instant());
+    }
+
+    @Override
+    public synchronized Novas novas(final long cursor) {
+        final Map<String, Instant> novas = new LinkedHashMap<>();
+        registro.tailMap(cursor, false).values().forEach(jti -> {
+            final Instant expiraEm = revogacoes.get(jti);
+            if (expiraEm != null) {
+                novas.put(jti, expiraEm);
+            }
+        });
+        return new Novas(novas, Math.max(cursor, sequencia));
+    }
+
+    @Override
+    public synchronized int expurgar(final Instant agora) {
+        final int antes = registro.size();
+        registro.values().removeIf(jti -> {
+            final Instant expiraEm = revogacoes.get(jti);
+            return expiraEm == null || !expiraEm.isAfter(agora);
+        });
+        revogacoes.values().removeIf(expiraEm -> !expiraEm.isAfter(agora));
+        return antes - registro.size();
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.clinicapi.infra.revogacao;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revogação dos access tokens pelo {@code jti}, consultada pelo filtro de
+ * segurança a cada requisição.
+ *
+ * <p>Cada nó mantém as revogações em vigor em um
+ * {@link FiltroBloomContador}, sincronizado com o {@link RevogacaoStore}
+ * a cada {@code api.security.revogacao.sincronizacao-ms}. Um token que o
+ * filtro aponta como certamente não revogado, o caso comum, é aceito sem
+ * acesso à rede; apenas quando o filtro aponta uma possível revogação o
+ * armazenamento é consultado para a resposta exata. Uma revogação feita
+ * em um nó vale nele imediatamente e nos demais após a próxima
+ * sincronização, que lê apenas as revogações feitas desde a anterior. As
+ * revogações que expiram com o token são removidas do filtro, e do
+ * armazenamento pelo expurgo periódico
+ * ({@code api.security.revogacao.expurgo-ms}).</p>
+ */
+@Slf4j
+@Component
+public class RevogacaoTokens {
+
+    /**
+     * Armazenamento compartilhado das revogações.
+     */
+    private final RevogacaoStore store;
+
+    /**
+     * Relógio utilizado para verificar a expiração das revogações.
+     */
+    private final Clock clock;
+
+    /**
+     * As revogações em vigor neste nó.
+     */
+    private final FiltroBloomContador filtro;
+
+    /**
+     * A expiração de cada revogação adicionada ao filtro, utilizada para
+     * removê-la do filtro e como resposta quando o armazenamento estiver
+     * indisponível.
+     */
+    private final Map<String, Instant> expiracoes = new ConcurrentHashMap<>();
+
+    /**
+     * O cursor da próxima leitura das revogações do armazenamento;
+     * {@code 0} até a primeira sincronização, que lê todas as revogações
+     * em vigor.
+     */
+    private volatile long cursor;
+
+    /**
+     * Consultas ao armazenamento que confirmaram a revogação.
+     */
+    private final Counter confirmadas;
+
+    /**
+     * Consultas ao armazenamento que não confirmaram a revogação (falsos
+     * positivos do filtro).
+     */
+    private final Counter falsosPositivos;
+
+    /**
+     * Consultas ao armazenamento que falharam.
+     */
+    private final Counter falhas;
+
+    /**
+     * Cria a revogação de tokens.
+     *
+     * @param pStore               armazenamento das revogações
+     * @param meterRegistry        registro das métricas
+     * @param capacidade           quantidade esperada de revogações em
+     *                             vigor
+     * @param taxaFalsosPositivos  taxa de falsos positivos do filtro
+     */
+    @Autowired
+    public RevogacaoTokens(final RevogacaoStore pStore,
+            final MeterRegistry meterRegistry,
+            @Value("${api.security.revogacao.capacidade:100000}")
+            final int capacidade,
+            @Value("${api.security.revogacao.taxa-falsos-positivos:0.001}")
+            final double taxaFalsosPositivos) {
+        this(pStore, meterRegistry, Clock.systemUTC(), capacidade,
+                taxaFalsosPositivos);
+    }
+
+    /**
+     * Cria a revogação de tokens com o relógio informado.
+     *
+     * @param pStore               armazenamento das revogações
+     * @param meterRegistry        registro das métricas
+     * @param pClock               relógio utilizado
+     * @param capacidade           quantidade esperada de revogações em
+     *                             vigor
+     * @param taxaFalsosPositivos  taxa de falsos positivos do filtro
+     */
+    RevogacaoTokens(final RevogacaoStore pStore,
+            final MeterRegistry meterRegistry, final Clock pClock,
+            final int capacidade, final double taxaFalsosPositivos) {
+        this.store = pStore;
+        this.clock = pClock;
+        this.filtro = new FiltroBloomContador(capacidade,
+                taxaFalsosPositivos);
+        this.confirmadas = consultas(meterRegistry, "revogado");
+        this.falsosPositivos = consultas(meterRegistry, "falso_positivo");
+        this.falhas = consultas(meterRegistry, "falha");
+        Gauge.builder("clinica.revogacao.ativas", expiracoes, Map::size)
+                .description("Revogações de access tokens em vigor no "
+                        + "filtro deste nó")
+                .register(meterRegistry);
+        log.info("Filtro de revogação criado com {} contadores e {} "
+                + "funções de hash", filtro.contadores(), filtro.funcoes());
+    }
+
+    /**
+     * Revoga o token até a sua expiração.
+     *
+     * @param jti      O identificador do token.
+     * @param expiraEm O instante de expiração do token.
+     */
+    public void revogar(final String jti, final Instant expiraEm) {
+        store.revogar(jti, expiraEm);
+        adicionar(jti, expiraEm, clock.instant());
+        log.debug("Token {} revogado até {}", jti, expiraEm);
+    }
+
+    /**
+     * Verifica se o token foi revogado. O armazenamento só é consultado
+     * quando o filtro aponta uma possível revogação; se ele estiver
+     * indisponível, vale a revogação conhecida por este nó.
+     *
+     * @param jti O identificador do token.
+     * @return {@code true} se o token foi revogado.
+     */
+    public boolean revogado(final String jti) {
+        if (!filtro.possivelmenteContem(jti)) {
+            return false;
+        }
+        try {
+            final boolean revogado = store.revogado(jti);
+            (revogado ? confirmadas : falsosPositivos).increment();
+            return revogado;
+        } catch (DataAccessException ex) {
+            falhas.increment();
+            log.warn("Falha ao consultar a revogação do token {}: {}",
+                    jti, ex.getMessage());
+            return expiracoes.containsKey(jti);
+        }
+    }
+
+    /**
+     * Adiciona ao filtro as revogações feitas em outros nós desde a
+     * sincronização anterior e remove do filtro as que expiraram.
+     * Executado periodicamente conforme
+     * {@code api.security.revogacao.sincronizacao-ms}.
+     */
+    @Scheduled(fixedDelayString =
+            "${api.security.revogacao.sincronizacao-ms:2000}")
+    public void sincronizar() {
+        final Instant agora = clock.instant();
+        try {
+            final RevogacaoStore.Novas novas = store.novas(cursor);
+            novas.revogacoes().forEach((jti, expiraEm) ->
+                    adicionar(jti, expiraEm, agora));
+            cursor = novas.cursor();
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao sincronizar as revogações de tokens: {}",
+                    ex.getMessage());
+        }
+        expiracoes.forEach((jti, expiraEm) -> {
+            if (!expiraEm.isAfter(agora) && expiracoes.remove(jti, expiraEm)) {
+                filtro.remover(jti);
+            }
+        });
+    }
+
+    /**
+     * Remove do armazenamento as revogações expiradas. Executado
+     * periodicamente conforme {@code api.security.revogacao.expurgo-ms};
+     * com o armazenamento compartilhado, apenas um nó o executa a cada
+     * intervalo.
+     */
+    @Scheduled(fixedDelayString =
+            "${api.security.revogacao.expurgo-ms:60000}")
+    public void expurgar() {
+        try {
+            final int removidas = store.expurgar(clock.instant());
+            if (removidas > 0) {
+                log.debug("{} revogações expiradas removidas do "
+                        + "armazenamento", removidas);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao expurgar as revogações expiradas: {}",
+                    ex.getMessage());
+        }
+    }
+
+    /**
+     * Adiciona a revogação ao filtro, se ainda não estiver nele.
+     *
+     * @param jti      O identificador do token.
+     * @param expiraEm O instante de expiração do token.
+     * @param agora    O instante atual.
+     */
+    private void adicionar(final String jti, final Instant expiraEm,
+            final Instant agora) {
+        if (expiraEm.isAfter(agora)
+                && expiracoes.putIfAbsent(jti, expiraEm) == null) {
+            filtro.adicionar(jti);
+        }
+    }
+
+    /**
+     * Registra o contador das consultas ao armazenamento com o resultado
+     * informado.
+     *
+     * @param meterRegistry registro das métricas
+     * @param resultado     o resultado da consulta
+     * @return O contador.
+     */
+    private static Counter consultas(final MeterRegistry meterRegistry,
+            final String resultado) {
+        return Counter.builder("clinica.revogacao.consultas")
+                .description("Consultas ao armazenamento de revogações, "
+                        + "feitas apenas quando o filtro aponta uma "
+                        + "possível revogação")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Este pacote contém a revogação dos access tokens pelo seu identificador
+ * ({@code jti}): o armazenamento compartilhado das revogações, em Redis ou
+ * em memória, e o filtro de Bloom com contadores mantido em cada nó, que
+ * descarta sem acesso à rede os tokens que nunca foram revogados.
+ */
+package com.example.clinicapi.infra.revogacao;
@@ -0,0 +1,18 @@
+package com.example.clinicapi.infra.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Classe de configuração responsável por habilitar a execução de
+ * métodos anotados com {@code @Scheduled}.
+ *
+ * <p>As expressões cron das tarefas são definidas no
+ * application.properties, de modo que possam ser ajustadas por
+ * ambiente.</p>
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
@@ -0,0 +1,5 @@
+/**
+ * Este pacote contém a configuração das tarefas agendadas da aplicação,
+ * como a reconciliação periódica dos contadores da agenda.
+ */
+package com.example.clinicapi.infra.scheduling;
@@ -0,0 +1,139 @@
+package com.example.clinicapi.infra.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Autenticação imutável de um access token, criada uma única vez por
+ * token e reutilizada em todas as requisições que o apresentam.
+ *
+ * <p>As autoridades são a lista compartilhada da role
+ * ({@link com.example.clinicapi.model.Role#getAutoridades()}); não há
+ * credenciais nem detalhes da requisição. Por ser compartilhada, a
+ * autenticação não pode ser alterada por {@link #setAuthenticated}.</p>
+ */
+@SuppressWarnings("serial")
+public final class AutenticacaoJwt implements Authentication {
+
+    /**
+     * O usuário autenticado.
+     */
+    private final UsuarioAutenticado principal;
+
+    /**
+     * Cria a autenticação do usuário.
+     *
+     * @param pPrincipal O usuário autenticado.
+     */
+    public AutenticacaoJwt(final UsuarioAutenticado pPrincipal) {
+        this.principal = pPrincipal;
+    }
+
+    /**
+     * Retorna as autoridades compartilhadas da role do usuário.
+     *
+     * @return As autoridades.
+     */
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principal.role() != null
+                ? principal.role().getAutoridades() : List.of();
+    }
+
+    /**
+     * Retorna as credenciais, que não são mantidas.
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    /**
+     * Retorna os detalhes da requisição, que não são mantidos.
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    /**
+     * Retorna o usuário autenticado.
+     *
+     * @return O usuário autenticado.
+     */
+    @Override
+    public UsuarioAutenticado getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Indica que o token foi verificado.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    /**
+     * Não suportado: a autenticação é compartilhada entre requisições.
+     *
+     * @param autenticado Ignorado.
+     * @throws IllegalArgumentException Sempre.
+     */
+    @Override
+    public void setAuthenticated(final boolean autenticado) {
+        throw new IllegalArgumentException(
+                "A autenticação de um access token é imutável");
+    }
+
+    /**
+     * Retorna o login do usuário.
+     *
+     * @return O login.
+     */
+    @Override
+    public String getName() {
+        return principal.login();
+    }
+
+    /**
+     * Compara as autenticações pelo usuário autenticado.
+     *
+     * @param outro O outro objeto.
+     * @return {@code true} se for a autenticação do mesmo usuário.
+     */
+    @Override
+    public boolean equals(final Object outro) {
+        return outro instanceof AutenticacaoJwt autenticacao
+                && principal.equals(autenticacao.principal);
+    }
+
+    /**
+     * Retorna o hash do usuário autenticado.
+     *
+     * @return O hash.
+     */
+    @Override
+    public int hashCode() {
+        return principal.hashCode();
+    }
+
+    /**
+     * Retorna a representação da autenticação.
+     *
+     * @return A representação.
+     */
+    @Override
+    public String toString() {
+        return "AutenticacaoJwt[" + principal + "]";
+    }
+}
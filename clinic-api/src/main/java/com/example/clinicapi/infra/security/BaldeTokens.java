@@ -0,0 +1,75 @@
+package com.example.clinicapi.infra.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem bloqueio, implementado pelo algoritmo GCRA
+ * (generic cell rate algorithm): em vez da quantidade de tokens e do
+ * instante da última reposição, guarda um único instante teórico em que o
+ * balde estará cheio, atualizado por compare-and-set. O comportamento é o
+ * de um balde de {@link LimiteTaxa#capacidade()} tokens repostos à taxa
+ * configurada.
+ */
+final class BaldeTokens {
+
+    /**
+     * Intervalo de reposição de um token, em nanossegundos.
+     */
+    private final long intervalo;
+
+    /**
+     * Adiantamento máximo do instante teórico em relação ao atual, que
+     * corresponde à capacidade do balde.
+     */
+    private final long tolerancia;
+
+    /**
+     * Instante teórico, em nanossegundos, a partir do qual o balde está
+     * cheio.
+     */
+    private final AtomicLong cheioEm;
+
+    /**
+     * Cria o balde cheio.
+     *
+     * @param limite O limite do balde.
+     * @param agora  O instante atual em nanossegundos.
+     */
+    BaldeTokens(final LimiteTaxa limite, final long agora) {
+        this.intervalo = limite.intervaloNanos();
+        this.tolerancia = intervalo * limite.capacidade();
+        this.cheioEm = new AtomicLong(agora);
+    }
+
+    /**
+     * Tenta consumir um token.
+     *
+     * @param agora O instante atual em nanossegundos.
+     * @return {@code 0} se o token foi consumido; caso contrário, o tempo
+     * em nanossegundos até o próximo token.
+     */
+    long consumir(final long agora) {
+        while (true) {
+            final long atual = cheioEm.get();
+            final long novo = Math.max(atual, agora) + intervalo;
+            final long espera = novo - agora - tolerancia;
+            if (espera > 0) {
+                return espera;
+            }
+            if (cheioEm.compareAndSet(atual, novo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Indica se o balde está cheio, caso em que equivale a um balde novo
+     * e pode ser descartado.
+     *
+     * @param agora O instante atual em nanossegundos.
+     * @return {@code true} se o balde está cheio.
+     */
+    boolean cheio(final long agora) {
+        return cheioEm.get() <= agora;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.clinicapi.infra.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Baldes de tokens por chave (IP ou login), em um mapa limitado. Os
+ * baldes cheios equivalem a baldes novos e são descartados quando o mapa
+ * atinge a capacidade, de modo que as chaves inativas expiram sozinhas.
+ */
+final class BaldesPorChave {
+
+    /**
+     * Intervalo mínimo, em nanossegundos, entre duas varreduras do mapa.
+     */
+    private static final long INTERVALO_LIMPEZA = 1_000_000_000L;
+
+    /**
+     * O limite dos baldes.
+     */
+    private final LimiteTaxa limite;
+
+    /**
+     * Quantidade máxima de baldes.
+     */
+    private final int capacidade;
+
+    /**
+     * Os baldes por chave.
+     */
+    private final Map<String, BaldeTokens> baldes = new ConcurrentHashMap<>();
+
+    /**
+     * Instante, em nanossegundos, a partir do qual uma nova varredura é
+     * permitida.
+     */
+    private final AtomicLong proximaLimpeza = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Cria os baldes.
+     *
+     * @param pLimite     O limite de cada balde.
+     * @param pCapacidade A quantidade máxima de baldes.
+     */
+    BaldesPorChave(final LimiteTaxa pLimite, final int pCapacidade) {
+        this.limite = pLimite;
+        this.capacidade = pCapacidade;
+    }
+
+    /**
+     * Tenta consumir um token do balde da chave.
+     *
+     * @param chave A chave.
+     * @param agora O instante atual em nanossegundos.
+     * @return {@code 0} se o token foi consumido; caso contrário, o tempo
+     * em nanossegundos até o próximo token.
+     */
+    long consumir(final String chave, final long agora) {
+        BaldeTokens balde = baldes.get(chave);
+        if (balde == null) {
+            if (baldes.size() >= capacidade) {
+                limpar(agora);
+            }
+            if (baldes.size() >= capacidade) {
+                // Mapa cheio de chaves ativas: a chave nova não é limitada
+                // até que haja espaço, em vez de recusar clientes legítimos
+                return 0;
+            }
+            balde = baldes.computeIfAbsent(chave,
+                    c -> new BaldeTokens(limite, agora));
+        }
+        return balde.consumir(agora);
+    }
+
+    /**
+     * Retorna a quantidade de baldes.
+     *
+     * @return A quantidade de baldes.
+     */
+    int tamanho() {
+        return baldes.size();
+    }
+
+    /**
+     * Descarta os baldes cheios, no máximo uma vez por
+     * {@link #INTERVALO_LIMPEZA}.
+     *
+     * @param agora O instante atual em nanossegundos.
+     */
+    private void limpar(final long agora) {
+        final long proxima = proximaLimpeza.get();
+        if (agora < proxima || !proximaLimpeza.compareAndSet(proxima,
+                agora + INTERVALO_LIMPEZA)) {
+            return;
+        }
+        baldes.values().removeIf(balde -> balde.cheio(agora));
+    }
+}
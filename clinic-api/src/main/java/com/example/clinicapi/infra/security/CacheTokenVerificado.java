@@ -0,0 +1,237 @@
+package com.example.clinicapi.infra.security;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Cache limitado dos tokens JWT cuja assinatura já foi verificada,
+ * mantidos até a expiração ({@code exp}) de cada token.
+ *
+ * <p>A chave é o SHA-256 do token: uma entrada só é encontrada por um
+ * token idêntico ao verificado, de modo que o cache não permite aceitar
+ * um token diferente do assinado, e as credenciais não ficam guardadas
+ * no heap. Ao atingir a capacidade, o Caffeine descarta as entradas
+ * menos utilizadas em tempo constante, e os novos tokens continuam a ser
+ * guardados. O hash é calculado com um {@link MessageDigest} e buffers
+ * por thread, sem alocações além da própria chave.</p>
+ */
+final class CacheTokenVerificado {
+
+    /**
+     * Tamanho do SHA-256, em bytes.
+     */
+    private static final int BYTES_HASH = 32;
+
+    /**
+     * Leitura de {@code long}s de um {@code byte[]}.
+     */
+    private static final VarHandle LONGS = MethodHandles
+            .byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * O cálculo do hash de cada thread.
+     */
+    private static final ThreadLocal<Resumo> RESUMOS =
+            ThreadLocal.withInitial(Resumo::new);
+
+    /**
+     * O SHA-256 de um token.
+     *
+     * @param h0 Os bytes 0 a 7 do hash.
+     * @param h1 Os bytes 8 a 15 do hash.
+     * @param h2 Os bytes 16 a 23 do hash.
+     * @param h3 Os bytes 24 a 31 do hash.
+     */
+    private record ChaveToken(long h0, long h1, long h2, long h3) { }
+
+    /**
+     * Um token verificado e o instante de sua expiração.
+     *
+     * @param verificado   O token verificado.
+     * @param expiraEm     O instante de expiração, em milissegundos.
+     */
+    private record Entrada(TokenVerificado verificado, long expiraEm) { }
+
+    /**
+     * Relógio utilizado para verificar a expiração.
+     */
+    private final Clock clock;
+
+    /**
+     * Os tokens verificados, pelo hash do token; {@code null} se o cache
+     * estiver desabilitado.
+     */
+    private final Cache<ChaveToken, Entrada> entradas;
+
+    /**
+     * Cria o cache.
+     *
+     * @param pCapacidade quantidade máxima de tokens; {@code 0}
+     *                    desabilita o cache
+     * @param pClock      relógio utilizado para verificar a expiração
+     * @throws IllegalArgumentException Se a capacidade for negativa.
+     */
+    CacheTokenVerificado(final int pCapacidade, final Clock pClock) {
+        if (pCapacidade < 0) {
+            throw new IllegalArgumentException(
+                    "A capacidade do cache de tokens não pode ser negativa");
+        }
+        this.clock = pClock;
+        this.entradas = pCapacidade == 0 ? null : Caffeine.newBuilder()
+                .maximumSize(pCapacidade)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfter(new AteExpiracao())
+                .build();
+    }
+
+    /**
+     * Busca um token verificado e ainda não expirado.
+     *
+     * @param token O token JWT.
+     * @return O token verificado, ou {@code null} se o token não estiver
+     * no cache ou tiver expirado.
+     */
+    TokenVerificado buscar(final String token) {
+        if (entradas == null) {
+            return null;
+        }
+        final Entrada entrada = entradas.getIfPresent(RESUMOS.get().chave(token));
+        return entrada != null ? entrada.verificado() : null;
+    }
+
+    /**
+     * Guarda um token verificado até a sua expiração. Tokens sem
+     * expiração ou já expirados não são guardados.
+     *
+     * @param token      O token JWT.
+     * @param verificado O token verificado.
+     */
+    void guardar(final String token, final TokenVerificado verificado) {
+        final Date expiracao = verificado.claims().getExpiration();
+        if (entradas == null || expiracao == null
+                || expiracao.getTime() <= clock.millis()) {
+            return;
+        }
+        entradas.put(RESUMOS.get().chave(token),
+                new Entrada(verificado, expiracao.getTime()));
+    }
+
+    /**
+     * Retorna a quantidade de tokens guardados, após descartar os
+     * expirados e os excedentes.
+     *
+     * @return A quantidade de tokens.
+     */
+    int tamanho() {
+        if (entradas == null) {
+            return 0;
+        }
+        entradas.cleanUp();
+        return (int) entradas.estimatedSize();
+    }
+
+    /**
+     * Mantém cada entrada até a expiração do seu token.
+     */
+    private final class AteExpiracao implements Expiry<ChaveToken, Entrada> {
+
+        @Override
+        public long expireAfterCreate(final ChaveToken hash,
+                final Entrada entrada, final long agora) {
+            return TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(0, entrada.expiraEm() - clock.millis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(final ChaveToken hash,
+                final Entrada entrada, final long agora,
+                final long restante) {
+            return expireAfterCreate(hash, entrada, agora);
+        }
+
+        @Override
+        public long expireAfterRead(final ChaveToken hash,
+                final Entrada entrada, final long agora,
+                final long restante) {
+            return restante;
+        }
+    }
+
+    /**
+     * Calcula o SHA-256 dos tokens de uma thread, reutilizando o
+     * {@link MessageDigest} e os buffers.
+     */
+    private static final class Resumo {
+
+        /**
+         * O SHA-256.
+         */
+        private final MessageDigest sha256;
+
+        /**
+         * O hash calculado.
+         */
+        private final byte[] hash = new byte[BYTES_HASH];
+
+        /**
+         * Os bytes do token, ampliado conforme necessário.
+         */
+        private byte[] bytes = new byte[1024];
+
+        /**
+         * Cria o cálculo do hash.
+         */
+        Resumo() {
+            try {
+                this.sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 indisponível", ex);
+            }
+        }
+
+        /**
+         * Calcula a chave do token. Os tokens JWT são ASCII e são
+         * copiados sem codificação; os demais são codificados em UTF-8.
+         *
+         * @param token O token.
+         * @return O SHA-256 do token.
+         */
+        ChaveToken chave(final String token) {
+            final int tamanho = token.length();
+            if (bytes.length < tamanho) {
+                bytes = new byte[Math.max(tamanho, bytes.length * 2)];
+            }
+            boolean ascii = true;
+            for (int i = 0; i < tamanho && ascii; i++) {
+                final char c = token.charAt(i);
+                ascii = c < 0x80;
+                bytes[i] = (byte) c;
+            }
+            if (ascii) {
+                sha256.update(bytes, 0, tamanho);
+            } else {
+                sha256.update(token.getBytes(StandardCharsets.UTF_8));
+            }
+            try {
+                sha256.digest(hash, 0, BYTES_HASH);
+            } catch (DigestException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return new ChaveToken((long) LONGS.get(hash, 0),
+                    (long) LONGS.get(hash, 8), (long) LONGS.get(hash, 16),
+                    (long) LONGS.get(hash, 24));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.clinicapi.infra.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache local, de curta duração, do ID e da role de cada usuário,
+ * utilizado para revogar o acesso de usuários excluídos ou com a role
+ * alterada antes da expiração dos tokens já emitidos.
+ *
+ * <p>Com o principal montado a partir do token, o banco é consultado no
+ * máximo uma vez por usuário a cada {@code api.security.usuarios.cache.ttl-ms};
+ * uma exclusão ou alteração de role passa a valer em até esse intervalo.
+ * Desabilitado ({@code api.security.usuarios.cache.habilitado=false}),
+ * o token é aceito até a sua expiração sem consultar o banco. As
+ * leituras ficam em um cache Caffeine limitado a
+ * {@code api.security.usuarios.cache.capacidade} usuários, que descarta
+ * os menos utilizados em tempo constante.</p>
+ */
+@Slf4j
+@Component
+public class CacheUsuariosAtivos {
+
+    /**
+     * O ID e a role lidos do banco para um login.
+     *
+     * @param id   O ID do usuário, ou {@code null} se não existir.
+     * @param role A role do usuário.
+     */
+    private record Registro(Long id, Role role) { }
+
+    /**
+     * Repositório utilizado para ler os usuários.
+     */
+    private final UsuarioRepository usuarioRepository;
+
+    /**
+     * Indica se a verificação está habilitada.
+     */
+    private final boolean habilitado;
+
+    /**
+     * As leituras por login, reutilizadas durante o tempo de vida.
+     */
+    private final Cache<String, Registro> registros;
+
+    /**
+     * A leitura do banco, criada uma única vez.
+     */
+    private final Function<String, Registro> leitura = this::ler;
+
+    /**
+     * Cria o cache de usuários.
+     *
+     * @param pUsuarioRepository repositório de usuários
+     * @param pHabilitado        se a verificação está habilitada
+     * @param ttlMillis          validade de uma leitura em milissegundos
+     * @param pCapacidade        quantidade máxima de usuários guardados
+     */
+    @Autowired
+    public CacheUsuariosAtivos(final UsuarioRepository pUsuarioRepository,
+            @Value("${api.security.usuarios.cache.habilitado:true}")
+            final boolean pHabilitado,
+            @Value("${api.security.usuarios.cache.ttl-ms:30000}")
+            final long ttlMillis,
+            @Value("${api.security.usuarios.cache.capacidade:10000}")
+            final int pCapacidade) {
+        this(pUsuarioRepository, Clock.systemUTC(), pHabilitado,
+                Duration.ofMillis(ttlMillis), pCapacidade);
+    }
+
+    /**
+     * Cria o cache de usuários com o relógio informado.
+     *
+     * @param pUsuarioRepository repositório de usuários
+     * @param pClock             relógio utilizado
+     * @param pHabilitado        se a verificação está habilitada
+     * @param pTtl               validade de uma leitura
+     * @param pCapacidade        quantidade máxima de usuários guardados
+     */
+    CacheUsuariosAtivos(final UsuarioRepository pUsuarioRepository,
+            final Clock pClock, final boolean pHabilitado,
+            final Duration pTtl, final int pCapacidade) {
+        this.usuarioRepository = pUsuarioRepository;
+        this.habilitado = pHabilitado;
+        this.registros = Caffeine.newBuilder()
+                .maximumSize(pCapacidade)
+                .expireAfterWrite(pTtl)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(pClock.millis()))
+                .build();
+    }
+
+    /**
+     * Verifica se o usuário montado a partir do token ainda existe com o
+     * mesmo ID e a mesma role.
+     *
+     * @param principal O usuário montado a partir do token.
+     * @return {@code true} se o usuário continua ativo, ou se a
+     * verificação estiver desabilitada.
+     */
+    public boolean confirmar(final UsuarioAutenticado principal) {
+        if (!habilitado) {
+            return true;
+        }
+        final Registro registro = buscar(principal.login());
+        return registro.id() != null
+                && registro.id().equals(principal.id())
+                && registro.role() == principal.role();
+    }
+
+    /**
+     * Obtém a leitura atual do usuário, consultando o banco se ela não
+     * existir ou tiver expirado. As consultas simultâneas de um mesmo
+     * login aguardam uma única leitura do banco.
+     *
+     * @param login O login do usuário.
+     * @return A leitura do usuário.
+     */
+    private Registro buscar(final String login) {
+        return registros.get(login, leitura);
+    }
+
+    /**
+     * Lê o ID e a role do usuário no banco.
+     *
+     * @param login O login do usuário.
+     * @return A leitura do usuário.
+     */
+    private Registro ler(final String login) {
+        return usuarioRepository.findByLogin(login)
+                .map(u -> new Registro(u.getId(), u.getRole()))
+                .orElseGet(() -> {
+                    log.warn("Usuário do token não encontrado no banco de "
+                            + "dados: {}", login);
+                    return new Registro(null, null);
+                });
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.clinicapi.infra.security;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.clinicapi.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool de threads dedicado ao cálculo e à verificação de hashes de
+ * senha (BCrypt), separado das threads que atendem as requisições.
+ *
+ * <p>O BCrypt é deliberadamente caro; executado nas threads do Tomcat,
+ * uma rajada de logins ocupa todas elas e paralisa o restante da API.
+ * Aqui o trabalho é limitado a {@code api.security.hash.threads} threads
+ * e a uma fila de {@code api.security.hash.fila} posições. Com a fila
+ * cheia a operação é recusada imediatamente com
+ * {@link ServicoSobrecarregadoException} (503), sugerindo um
+ * {@code Retry-After} estimado pelo tempo médio de cada hash.</p>
+ */
+@Slf4j
+@Component
+public class ExecutorSenhas {
+
+    /**
+     * O pool de threads do processamento de senhas.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Duração das operações, por tipo.
+     */
+    private final Map<String, Timer> duracoes = new ConcurrentHashMap<>();
+
+    /**
+     * Registro das métricas.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Operações recusadas por saturação.
+     */
+    private final Counter recusadas;
+
+    /**
+     * Cria o pool do processamento de senhas.
+     *
+     * @param threads        quantidade de threads; {@code 0} utiliza
+     *                       metade dos processadores
+     * @param fila           posições da fila de espera
+     * @param pMeterRegistry registro das métricas
+     */
+    @Autowired
+    public ExecutorSenhas(
+            @Value("${api.security.hash.threads:0}") final int threads,
+            @Value("${api.security.hash.fila:64}") final int fila,
+            final MeterRegistry pMeterRegistry) {
+        final int quantidade = threads > 0 ? threads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        final AtomicInteger sequencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(quantidade, quantidade,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(fila),
+                r -> {
+                    final Thread thread = new Thread(r,
+                            "senhas-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.meterRegistry = pMeterRegistry;
+        this.recusadas = Counter.builder("clinica.senhas.recusadas")
+                .description("Operações de senha recusadas com a fila cheia")
+                .register(pMeterRegistry);
+        Gauge.builder("clinica.senhas.fila", executor,
+                e -> e.getQueue().size())
+                .description("Operações de senha aguardando uma thread")
+                .register(pMeterRegistry);
+        Gauge.builder("clinica.senhas.ativas", executor,
+                ThreadPoolExecutor::getActiveCount)
+                .register(pMeterRegistry);
+        log.info("Pool de senhas criado com {} threads e fila de {}",
+                quantidade, fila);
+    }
+
+    /**
+     * Executa a operação no pool e aguarda o resultado.
+     *
+     * @param <T>      O tipo do resultado.
+     * @param operacao O nome da operação, usado nas métricas.
+     * @param tarefa   A operação.
+     * @return O resultado da operação.
+     * @throws ServicoSobrecarregadoException Se a fila estiver cheia.
+     */
+    public <T> T executar(final String operacao, final Supplier<T> tarefa) {
+        final Timer duracao = duracoes.computeIfAbsent(operacao,
+                o -> Timer.builder("clinica.senhas.hash")
+                        .description("Duração do cálculo ou verificação "
+                                + "de hash de senha")
+                        .tag("operacao", o)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry));
+        final Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> duracao.record(tarefa));
+        } catch (RejectedExecutionException ex) {
+            recusadas.increment();
+            throw new ServicoSobrecarregadoException("Muitas autenticações "
+                    + "simultâneas. Tente novamente em instantes.",
+                    retryAfterSegundos(duracao));
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException ex) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrompido aguardando o processamento da senha", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Interrompe as threads do pool.
+     */
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Estima em quantos segundos a fila atual será esvaziada.
+     *
+     * @param duracao As durações da operação recusada.
+     * @return O tempo estimado, com no mínimo 1 segundo.
+     */
+    private long retryAfterSegundos(final Timer duracao) {
+        final double mediaSegundos = duracao.mean(TimeUnit.SECONDS);
+        final double espera = executor.getQueue().size() * mediaSegundos
+                / executor.getMaximumPoolSize();
+        return Math.max(1L, (long) Math.ceil(espera));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.clinicapi.infra.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Vincula cada access token ao cliente que o recebeu, sem estado no
+ * servidor.
+ *
+ * <p>Na emissão do token é gerado um valor aleatório (a impressão
+ * digital), entregue ao cliente em um cookie {@code HttpOnly},
+ * {@code Secure} e {@code SameSite=Strict}; o token carrega apenas o
+ * SHA-256 desse valor (declaração {@code fgp}). A cada requisição o
+ * filtro de segurança calcula o hash do cookie e o compara com o do
+ * token em tempo constante: um token copiado para outro cliente, sem o
+ * cookie, é recusado sem nenhuma consulta ao Redis ou ao banco. Tokens
+ * sem a declaração (emitidos antes da vinculação) são aceitos até a sua
+ * expiração.</p>
+ *
+ * <p>A vinculação é opcional e vem desabilitada
+ * ({@code api.security.token.impressao-digital.habilitada}): habilitada,
+ * os clientes que não reenviam o cookie passam a receber {@code 401}.</p>
+ */
+@Component
+public class ImpressaoDigitalToken {
+
+    /**
+     * Nome do cookie; o prefixo {@code __Secure-} exige o atributo
+     * {@code Secure}.
+     */
+    static final String COOKIE = "__Secure-Fgp";
+
+    /**
+     * Quantidade de bytes aleatórios da impressão digital.
+     */
+    private static final int BYTES_IMPRESSAO = 32;
+
+    /**
+     * Codificação da impressão digital e do hash.
+     */
+    private static final Base64.Encoder CODIFICADOR =
+            Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Indica se a vinculação está habilitada.
+     */
+    private final boolean habilitada;
+
+    /**
+     * Gerador das impressões digitais.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Tokens recusados por impressão digital ausente ou diferente.
+     */
+    private final Counter recusados;
+
+    /**
+     * Cria a vinculação dos tokens.
+     *
+     * @param pHabilitada   se a vinculação está habilitada
+     * @param meterRegistry registro das métricas
+     */
+    public ImpressaoDigitalToken(
+            @Value("${api.security.token.impressao-digital.habilitada:false}")
+            final boolean pHabilitada,
+            final MeterRegistry meterRegistry) {
+        this.habilitada = pHabilitada;
+        this.recusados = Counter.builder("clinica.auth.impressao.recusados")
+                .description("Access tokens recusados por impressão digital "
+                        + "ausente ou diferente da do cliente que os "
+                        + "recebeu")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica se a vinculação está habilitada.
+     *
+     * @return {@code true} se os tokens são vinculados ao cliente.
+     */
+    public boolean habilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Gera uma nova impressão digital.
+     *
+     * @return A impressão digital, entregue apenas no cookie.
+     */
+    public String gerar() {
+        final byte[] bytes = new byte[BYTES_IMPRESSAO];
+        random.nextBytes(bytes);
+        return CODIFICADOR.encodeToString(bytes);
+    }
+
+    /**
+     * Calcula o hash da impressão digital, incluído no token.
+     *
+     * @param impressao A impressão digital.
+     * @return O SHA-256 da impressão digital em Base64 URL (43
+     * caracteres).
+     */
+    public String hash(final String impressao) {
+        return CODIFICADOR.encodeToString(sha256(impressao));
+    }
+
+    /**
+     * Monta o cookie que entrega a impressão digital ao cliente. O cookie
+     * é de sessão: o token expira antes dele.
+     *
+     * @param impressao A impressão digital.
+     * @return O cookie.
+     */
+    public ResponseCookie cookie(final String impressao) {
+        return ResponseCookie.from(COOKIE, impressao)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Strict")
+                .path("/")
+                .build();
+    }
+
+    /**
+     * Monta o cookie que remove a impressão digital do cliente.
+     *
+     * @return O cookie expirado.
+     */
+    public ResponseCookie cookieExpirado() {
+        return ResponseCookie.from(COOKIE, "")
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Strict")
+                .path("/")
+                .maxAge(0)
+                .build();
+    }
+
+    /**
+     * Confere a impressão digital do cookie da requisição com o hash do
+     * token, em tempo constante.
+     *
+     * @param request O objeto HttpServletRequest.
+     * @param hash    O hash da impressão digital do token, ou {@code null}
+     *                se o token não o contiver.
+     * @return {@code true} se a vinculação estiver desabilitada, se o
+     * token não contiver o hash ou se o cookie corresponder a ele.
+     */
+    boolean confere(final HttpServletRequest request, final byte[] hash) {
+        if (!habilitada || hash == null) {
+            return true;
+        }
+        final String impressao = lerCookie(request);
+        if (impressao == null
+                || !MessageDigest.isEqual(hash, sha256(impressao))) {
+            recusados.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lê a impressão digital do cookie da requisição.
+     *
+     * @param request O objeto HttpServletRequest.
+     * @return A impressão digital, ou {@code null} se ausente.
+     */
+    private static String lerCookie(final HttpServletRequest request) {
+        final Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (final Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Calcula o SHA-256 do valor.
+     *
+     * @param valor O valor.
+     * @return O hash.
+     */
+    private static byte[] sha256(final String valor) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(valor.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.clinicapi.infra.security;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,8 +16,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.clinicapi.exception.TokenInvalidoException;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,6 +30,20 @@ import io.jsonwebtoken.security.Keys;
  * Serviço responsável por gerar e validar JSON Web Tokens (JWTs).
  * Gerencia a criação do token com base em um sujeito
  * e a extração do sujeito de um token existente.
+ *
+ * <p>O token carrega o ID e a role do usuário, de modo que o usuário
+ * autenticado é montado a partir do próprio token, sem uma consulta ao
+ * banco por requisição. Cada token recebe um identificador único
+ * ({@code jti}), pelo qual pode ser revogado antes da expiração, e pode
+ * carregar o hash da impressão digital do cliente ({@code fgp}), que o
+ * vincula ao cliente que o recebeu ({@link ImpressaoDigitalToken}).</p>
+ *
+ * <p>A chave de assinatura e o {@link JwtParser} (imutável e seguro para
+ * uso concorrente) são criados uma única vez. Os tokens já verificados,
+ * com a {@link AutenticacaoJwt} montada a partir deles, ficam em um cache
+ * limitado até a sua expiração, de modo que as requisições seguintes com
+ * o mesmo token não repetem a decodificação, a verificação da assinatura
+ * nem a criação da autenticação.</p>
  */
 @Service
 public final class JwtService {
@@ -34,11 +59,35 @@ public final class JwtService {
             LoggerFactory.getLogger(JwtService.class);
 
     /**
-     * A chave secreta utilizada para assinar e validar os tokens JWT,
-     * carregada das propriedades da aplicação.
+     * Declaração com o ID do usuário.
+     */
+    private static final String CLAIM_ID = "uid";
+
+    /**
+     * Declaração com a role do usuário.
+     */
+    private static final String CLAIM_ROLE = "role";
+
+    /**
+     * Declaração com o hash da impressão digital do cliente.
+     */
+    private static final String CLAIM_IMPRESSAO = "fgp";
+
+    /**
+     * A chave utilizada para assinar e validar os tokens JWT, derivada
+     * uma única vez da chave secreta das propriedades da aplicação.
      */
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private final SecretKey signingKey;
+
+    /**
+     * O parser dos tokens, configurado com a chave de assinatura.
+     */
+    private final JwtParser parser;
+
+    /**
+     * Os tokens cuja assinatura já foi verificada.
+     */
+    private final CacheTokenVerificado tokensVerificados;
 
     /**
      * Define o tempo de expiração do token
@@ -63,32 +112,65 @@ public final class JwtService {
     private static final long TOKEN_EXPIRATION_HOURS = 2L;
 
     /**
-     * Obtém a chave de assinatura para o JWT a partir da chave secreta.
+     * Cria o serviço a partir da chave secreta.
+     *
+     * @param secret          a chave secreta (mínimo de 256 bits)
+     * @param capacidadeCache quantidade máxima de tokens verificados
+     *                        guardados; {@code 0} desabilita o cache
+     */
+    public JwtService(
+            @Value("${api.security.token.secret}") final String secret,
+            @Value("${api.security.token.cache.capacidade:10000}")
+            final int capacidadeCache) {
+        this.signingKey = Keys.hmacShaKeyFor(
+                secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.tokensVerificados = new CacheTokenVerificado(capacidadeCache,
+                Clock.systemUTC());
+    }
+
+    /**
+     * Gera um novo token JWT para o usuário especificado, sem vínculo com
+     * o cliente.
      *
-     * @return A chave de assinatura.
+     * @param usuario O usuário autenticado.
+     * @return O token JWT gerado.
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public String generateToken(final Usuario usuario) {
+        return generateToken(usuario, null);
     }
 
     /**
-     * Gera um novo token JWT para o sujeito especificado.
-     * O token inclui o sujeito, data de emissão e data de expiração.
+     * Gera um novo token JWT para o usuário especificado.
+     * O token inclui o login como sujeito, o ID e a role do usuário,
+     * um identificador único, a data de emissão e a data de expiração.
      *
-     * @param subject O sujeito do token (geralmente o login do usuário).
+     * @param usuario        O usuário autenticado.
+     * @param hashImpressao  O hash da impressão digital do cliente
+     *                       ({@link ImpressaoDigitalToken#hash(String)}),
+     *                       ou {@code null} para não vincular o token.
      * @return O token JWT gerado.
      */
-    public String generateToken(final String subject) {
+    public String generateToken(final Usuario usuario,
+            final String hashImpressao) {
+        final String subject = usuario.getLogin();
         final Date now = new Date();
         final Date expiration = new Date(now.getTime()
                 + MILLIS_PER_SECOND * SECONDS_PER_MINUTE
                 * MINUTES_PER_HOUR * TOKEN_EXPIRATION_HOURS);
 
         String token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
+                .claim(CLAIM_ID, usuario.getId())
+                .claim(CLAIM_ROLE, usuario.getRole() != null
+                        ? usuario.getRole().name() : null)
+                .claim(CLAIM_IMPRESSAO, hashImpressao)
                 .setIssuedAt(now)
                 .setExpiration(expiration)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
 
         LOGGER.info("Token gerado para '{}', expira em {}",
@@ -105,17 +187,137 @@ public final class JwtService {
      * @throws TokenInvalidoException Se o token for inválido ou malformado.
      */
     public String getSubject(final String token) {
+        return verificar(token).claims().getSubject();
+    }
+
+    /**
+     * Extrai o identificador único (jti) de um token JWT.
+     *
+     * @param token O token JWT.
+     * @return O identificador, ou {@code null} se o token não o contiver
+     * (tokens emitidos por versões anteriores).
+     * @throws TokenInvalidoException Se o token for inválido ou malformado.
+     */
+    public String getId(final String token) {
+        return verificar(token).claims().getId();
+    }
+
+    /**
+     * Extrai o instante de expiração de um token JWT.
+     *
+     * @param token O token JWT.
+     * @return O instante de expiração.
+     * @throws TokenInvalidoException Se o token for inválido ou malformado.
+     */
+    public Instant getExpiracao(final String token) {
+        return verificar(token).claims().getExpiration().toInstant();
+    }
+
+    /**
+     * Retorna o usuário autenticado pelo token, montado a partir das suas
+     * declarações, sem consultar o banco de dados.
+     *
+     * @param token O token JWT.
+     * @return O usuário do token, ou vazio se o token não contiver o ID
+     * e a role do usuário (tokens emitidos por versões anteriores).
+     * @throws TokenInvalidoException Se o token for inválido ou malformado.
+     */
+    public Optional<UsuarioAutenticado> getPrincipal(final String token) {
+        return getAutenticacao(token).map(AutenticacaoJwt::getPrincipal);
+    }
+
+    /**
+     * Retorna a autenticação do token, montada uma única vez quando o
+     * token é verificado e reutilizada enquanto ele estiver no cache.
+     *
+     * @param token O token JWT.
+     * @return A autenticação, ou vazio se o token não contiver o ID e a
+     * role do usuário (tokens emitidos por versões anteriores).
+     * @throws TokenInvalidoException Se o token for inválido ou malformado.
+     */
+    public Optional<AutenticacaoJwt> getAutenticacao(final String token) {
+        return Optional.ofNullable(verificar(token).autenticacao());
+    }
+
+    /**
+     * Retorna o hash da impressão digital do cliente ao qual o token está
+     * vinculado.
+     *
+     * @param token O token JWT.
+     * @return O hash, ou {@code null} se o token não estiver vinculado.
+     * @throws TokenInvalidoException Se o token for inválido ou malformado.
+     */
+    byte[] getImpressaoDigital(final String token) {
+        return verificar(token).impressao();
+    }
+
+    /**
+     * Decodifica o hash da impressão digital das declarações do token.
+     *
+     * @param claims As declarações do token.
+     * @return O hash, ou {@code null} se ausente ou malformado.
+     */
+    private static byte[] impressao(final Claims claims) {
+        final String impressao = claims.get(CLAIM_IMPRESSAO, String.class);
+        if (impressao == null) {
+            return null;
+        }
+        try {
+            return Base64.getUrlDecoder().decode(impressao);
+        } catch (IllegalArgumentException e) {
+            // Um hash que não decodifica não corresponde a nenhum cookie
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Monta a autenticação a partir das declarações do token.
+     *
+     * @param claims As declarações do token.
+     * @return A autenticação, ou {@code null} se o token não contiver o
+     * ID e uma role conhecida.
+     */
+    private static AutenticacaoJwt autenticacao(final Claims claims) {
+        final Long id = claims.get(CLAIM_ID, Long.class);
+        final String role = claims.get(CLAIM_ROLE, String.class);
+        if (id == null || role == null) {
+            return null;
+        }
         try {
-            String subject = Jwts
-                    .parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-
-            LOGGER.info("Subject extraído do token: '{}'", subject);
-            return subject;
+            return new AutenticacaoJwt(new UsuarioAutenticado(id,
+                    claims.getSubject(), Role.valueOf(role)));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Role desconhecida no token de '{}': {}",
+                    claims.getSubject(), role);
+            return null;
+        }
+    }
+
+    /**
+     * Verifica a assinatura e a expiração do token, consultando antes o
+     * cache de tokens já verificados. Utilizado pelo filtro de segurança
+     * para obter, com uma única consulta ao cache, todas as informações
+     * do token.
+     *
+     * @param token O token JWT.
+     * @return O token verificado.
+     * @throws TokenInvalidoException Se o token for inválido ou malformado.
+     */
+    TokenVerificado verificar(final String token) {
+        final TokenVerificado emCache = tokensVerificados.buscar(token);
+        if (emCache != null) {
+            return emCache;
+        }
+        try {
+            final Claims claims = parser.parseClaimsJws(token).getBody();
+            final TokenVerificado verificado =
+                    new TokenVerificado(claims,
+                    autenticacao(claims), impressao(claims));
+            tokensVerificados.guardar(token, verificado);
+
+            LOGGER.debug("Subject extraído do token: '{}'",
+                    claims.getSubject());
+            return verificado;
         } catch (JwtException e) {
             String errorMessage = String.format(
                 "Erro ao extrair subject do token JWT. Token fornecido: '%s'",
@@ -0,0 +1,333 @@
+package com.example.clinicapi.infra.security;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.clinicapi.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro que limita a taxa de requisições aos endpoints de autenticação
+ * ({@code POST /auth}, {@code /auth/register} e {@code /auth/refresh}),
+ * antes de qualquer consulta ao banco ou cálculo de hash de senha.
+ *
+ * <p>Cada endpoint tem um balde de tokens por IP do cliente e, no login,
+ * também um por login informado, de modo que uma rajada de tentativas
+ * contra uma mesma conta é contida mesmo vinda de vários IPs. Os limites
+ * são configurados em {@code api.security.limite.*}; uma requisição além
+ * do limite recebe {@code 429 Too Many Requests} com o cabeçalho
+ * {@code Retry-After}. Os baldes não usam bloqueios e ficam em mapas
+ * limitados, dos quais os baldes inativos são descartados.</p>
+ *
+ * <p>Para que o limite por login não possa ser contornado, o corpo do
+ * login é sempre lido, até {@code 4096} bytes, mesmo sem
+ * {@code Content-Length}: um corpo maior recebe
+ * {@code 413 Payload Too Large}, e um corpo sem login legível,
+ * {@code 400 Bad Request}, sem chegar ao controlador.</p>
+ */
+@Slf4j
+@Component
+public final class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    /**
+     * Tamanho máximo do corpo do login, lido para obter o login.
+     */
+    private static final int TAMANHO_MAXIMO_CORPO = 4096;
+
+    /**
+     * Nanossegundos por segundo.
+     */
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    /**
+     * Os baldes de um endpoint.
+     *
+     * @param porIp    Os baldes por IP do cliente.
+     * @param porLogin Os baldes por login, ou {@code null} se o endpoint
+     *                 não for limitado por login.
+     */
+    private record BaldesEndpoint(BaldesPorChave porIp,
+            BaldesPorChave porLogin) { }
+
+    /**
+     * ObjectMapper utilizado para ler o login e escrever a resposta.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Relógio utilizado para repor os tokens.
+     */
+    private final Clock clock;
+
+    /**
+     * Indica se a limitação está habilitada.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Os baldes por caminho do endpoint.
+     */
+    private final Map<String, BaldesEndpoint> endpoints = new HashMap<>();
+
+    /**
+     * Requisições recusadas, por endpoint e tipo de chave.
+     */
+    private final Map<String, Counter> recusadas = new HashMap<>();
+
+    /**
+     * Cria o filtro com os limites configurados.
+     *
+     * @param pObjectMapper    ObjectMapper da aplicação
+     * @param meterRegistry    registro das métricas
+     * @param pHabilitado      se a limitação está habilitada
+     * @param capacidadeChaves quantidade máxima de chaves por endpoint e
+     *                         tipo de chave
+     * @param loginIp          limite de {@code /auth} por IP
+     * @param loginLogin       limite de {@code /auth} por login
+     * @param registerIp       limite de {@code /auth/register} por IP
+     * @param refreshIp        limite de {@code /auth/refresh} por IP
+     */
+    @Autowired
+    public LimiteRequisicoesFilter(final ObjectMapper pObjectMapper,
+            final MeterRegistry meterRegistry,
+            @Value("${api.security.limite.habilitado:true}")
+            final boolean pHabilitado,
+            @Value("${api.security.limite.chaves:100000}")
+            final int capacidadeChaves,
+            @Value("${api.security.limite.auth.ip:20,10}")
+            final String loginIp,
+            @Value("${api.security.limite.auth.login:5,5}")
+            final String loginLogin,
+            @Value("${api.security.limite.register.ip:5,5}")
+            final String registerIp,
+            @Value("${api.security.limite.refresh.ip:30,30}")
+            final String refreshIp) {
+        this(pObjectMapper, meterRegistry, Clock.systemUTC(), pHabilitado,
+                capacidadeChaves, LimiteTaxa.de(loginIp),
+                LimiteTaxa.de(loginLogin), LimiteTaxa.de(registerIp),
+                LimiteTaxa.de(refreshIp));
+    }
+
+    /**
+     * Cria o filtro com o relógio e os limites informados.
+     *
+     * @param pObjectMapper    ObjectMapper da aplicação
+     * @param meterRegistry    registro das métricas
+     * @param pClock           relógio utilizado
+     * @param pHabilitado      se a limitação está habilitada
+     * @param capacidadeChaves quantidade máxima de chaves por endpoint e
+     *                         tipo de chave
+     * @param loginIp          limite de {@code /auth} por IP
+     * @param loginLogin       limite de {@code /auth} por login
+     * @param registerIp       limite de {@code /auth/register} por IP
+     * @param refreshIp        limite de {@code /auth/refresh} por IP
+     */
+    LimiteRequisicoesFilter(final ObjectMapper pObjectMapper,
+            final MeterRegistry meterRegistry, final Clock pClock,
+            final boolean pHabilitado, final int capacidadeChaves,
+            final LimiteTaxa loginIp, final LimiteTaxa loginLogin,
+            final LimiteTaxa registerIp, final LimiteTaxa refreshIp) {
+        this.objectMapper = pObjectMapper;
+        this.clock = pClock;
+        this.habilitado = pHabilitado;
+        endpoints.put("/auth", new BaldesEndpoint(
+                new BaldesPorChave(loginIp, capacidadeChaves),
+                new BaldesPorChave(loginLogin, capacidadeChaves)));
+        endpoints.put("/auth/register", new BaldesEndpoint(
+                new BaldesPorChave(registerIp, capacidadeChaves), null));
+        endpoints.put("/auth/refresh", new BaldesEndpoint(
+                new BaldesPorChave(refreshIp, capacidadeChaves), null));
+
+        endpoints.forEach((endpoint, baldes) -> {
+            registrar(meterRegistry, endpoint, "ip");
+            if (baldes.porLogin() != null) {
+                registrar(meterRegistry, endpoint, "login");
+            }
+        });
+        Gauge.builder("clinica.auth.limite.chaves", endpoints,
+                e -> e.values().stream().mapToInt(b -> b.porIp().tamanho()
+                        + (b.porLogin() != null ? b.porLogin().tamanho() : 0))
+                        .sum())
+                .description("Baldes de tokens mantidos pelo limite de "
+                        + "requisições de autenticação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consome um token dos baldes do cliente e recusa a requisição com
+     * {@code 429} se algum estiver vazio.
+     *
+     * @param request  O objeto HttpServletRequest.
+     * @param response O objeto HttpServletResponse.
+     * @param chain    A cadeia de filtros.
+     * @throws ServletException Se ocorrer um erro de servlet.
+     * @throws IOException      Se ocorrer um erro de I/O.
+     */
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+            final HttpServletResponse response, final FilterChain chain)
+            throws ServletException, IOException {
+        final String endpoint = request.getRequestURI();
+        final BaldesEndpoint baldes = endpoints.get(endpoint);
+        final long agora = agoraNanos();
+
+        long espera = baldes.porIp().consumir(request.getRemoteAddr(), agora);
+        String chave = "ip";
+        HttpServletRequest requisicao = request;
+        if (espera == 0 && baldes.porLogin() != null) {
+            final RequisicaoComCorpo comCorpo =
+                    RequisicaoComCorpo.ler(request, TAMANHO_MAXIMO_CORPO);
+            if (comCorpo == null) {
+                responder(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                        "PAYLOAD_TOO_LARGE", "O corpo da requisição excede "
+                                + TAMANHO_MAXIMO_CORPO + " bytes");
+                return;
+            }
+            final String login = lerLogin(comCorpo.corpo());
+            if (login == null) {
+                responder(response, HttpStatus.BAD_REQUEST, "BAD_REQUEST",
+                        "O corpo da requisição deve ser um JSON com o "
+                                + "login");
+                return;
+            }
+            requisicao = comCorpo;
+            espera = baldes.porLogin().consumir(login, agora);
+            chave = "login";
+        }
+
+        if (espera > 0) {
+            recusar(response, endpoint, chave, espera);
+            return;
+        }
+        chain.doFilter(requisicao, response);
+    }
+
+    /**
+     * Aplica o filtro apenas às requisições {@code POST} dos endpoints
+     * limitados.
+     *
+     * @param request O objeto HttpServletRequest.
+     * @return true se o filtro NÃO deve ser executado.
+     */
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !habilitado
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !endpoints.containsKey(request.getRequestURI());
+    }
+
+    /**
+     * Lê o login do corpo JSON da requisição.
+     *
+     * @param corpo O corpo da requisição.
+     * @return O login normalizado, ou {@code null} se ausente ou se o
+     * corpo não for um JSON válido.
+     */
+    private String lerLogin(final byte[] corpo) {
+        try {
+            final JsonNode login = objectMapper.readTree(corpo).path("login");
+            return login.isTextual()
+                    ? login.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Responde {@code 429 Too Many Requests} com o cabeçalho
+     * {@code Retry-After}.
+     *
+     * @param response O objeto HttpServletResponse.
+     * @param endpoint O endpoint limitado.
+     * @param chave    O tipo de chave cujo balde está vazio.
+     * @param espera   O tempo até o próximo token, em nanossegundos.
+     * @throws IOException Se ocorrer um erro ao escrever a resposta.
+     */
+    private void recusar(final HttpServletResponse response,
+            final String endpoint, final String chave, final long espera)
+            throws IOException {
+        final long segundos = Math.max(1,
+                (espera + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO);
+        recusadas.get(endpoint + ":" + chave).increment();
+        log.debug("Requisição a {} limitada por {}; Retry-After {} s",
+                endpoint, chave, segundos);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        responder(response, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS",
+                "Muitas requisições; tente novamente em " + segundos
+                        + " segundos");
+    }
+
+    /**
+     * Responde com o status e o erro informados, sem chamar o controlador.
+     *
+     * @param response O objeto HttpServletResponse.
+     * @param status   O status da resposta.
+     * @param codigo   O código do erro.
+     * @param mensagem A mensagem do erro.
+     * @throws IOException Se ocorrer um erro ao escrever a resposta.
+     */
+    private void responder(final HttpServletResponse response,
+            final HttpStatus status, final String codigo,
+            final String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(codigo, mensagem));
+    }
+
+    /**
+     * Registra o contador das requisições recusadas do endpoint e do tipo
+     * de chave.
+     *
+     * @param meterRegistry registro das métricas
+     * @param endpoint      o endpoint
+     * @param chave         o tipo de chave ({@code ip} ou {@code login})
+     */
+    private void registrar(final MeterRegistry meterRegistry,
+            final String endpoint, final String chave) {
+        recusadas.put(endpoint + ":" + chave,
+                Counter.builder("clinica.auth.limitadas")
+                        .description("Requisições de autenticação recusadas "
+                                + "com 429 pelo limite de requisições")
+                        .tag("endpoint", endpoint)
+                        .tag("chave", chave)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Retorna o instante atual em nanossegundos.
+     *
+     * @return O instante atual.
+     */
+    private long agoraNanos() {
+        final Instant agora = clock.instant();
+        return TimeUnit.SECONDS.toNanos(agora.getEpochSecond())
+                + agora.getNano();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.clinicapi.infra.security;
+
+/**
+ * Limite de requisições de um balde de tokens.
+ *
+ * @param capacidade         quantidade de requisições aceitas em rajada
+ * @param reposicaoPorMinuto tokens repostos por minuto (taxa sustentada)
+ */
+record LimiteTaxa(int capacidade, int reposicaoPorMinuto) {
+
+    /**
+     * Valida o limite.
+     *
+     * @throws IllegalArgumentException Se a capacidade ou a reposição não
+     * forem positivas.
+     */
+    LimiteTaxa {
+        if (capacidade <= 0 || reposicaoPorMinuto <= 0) {
+            throw new IllegalArgumentException("O limite de requisições "
+                    + "deve ter capacidade e reposição positivas");
+        }
+    }
+
+    /**
+     * Lê o limite no formato {@code capacidade,reposicaoPorMinuto}.
+     *
+     * @param valor O valor da propriedade, por exemplo {@code 20,10}.
+     * @return O limite.
+     * @throws IllegalArgumentException Se o valor estiver fora do formato.
+     */
+    static LimiteTaxa de(final String valor) {
+        final String[] partes = valor.split(",");
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Limite de requisições "
+                    + "inválido (esperado capacidade,reposicaoPorMinuto): "
+                    + valor);
+        }
+        return new LimiteTaxa(Integer.parseInt(partes[0].trim()),
+                Integer.parseInt(partes[1].trim()));
+    }
+
+    /**
+     * Retorna o intervalo de reposição de um token.
+     *
+     * @return O intervalo em nanossegundos.
+     */
+    long intervaloNanos() {
+        return 60_000_000_000L / reposicaoPorMinuto;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.clinicapi.infra.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} que delega ao encoder informado (BCrypt),
+ * executando o cálculo e a verificação dos hashes no
+ * {@link ExecutorSenhas}, fora das threads das requisições.
+ *
+ * <p>{@link #upgradeEncoding(String)} é repassado ao encoder: hashes
+ * gerados com uma força menor que a configurada são recalculados pelo
+ * Spring Security no próximo login bem-sucedido.</p>
+ */
+public final class PasswordEncoderLimitado implements PasswordEncoder {
+
+    /**
+     * O encoder que calcula os hashes.
+     */
+    private final PasswordEncoder delegado;
+
+    /**
+     * O pool onde os hashes são calculados.
+     */
+    private final ExecutorSenhas executorSenhas;
+
+    /**
+     * Cria o encoder.
+     *
+     * @param pDelegado       encoder que calcula os hashes
+     * @param pExecutorSenhas pool onde os hashes são calculados
+     */
+    public PasswordEncoderLimitado(final PasswordEncoder pDelegado,
+            final ExecutorSenhas pExecutorSenhas) {
+        this.delegado = pDelegado;
+        this.executorSenhas = pExecutorSenhas;
+    }
+
+    /**
+     * Calcula o hash da senha no pool de senhas.
+     *
+     * @param rawPassword A senha em texto puro.
+     * @return O hash da senha.
+     */
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return executorSenhas.executar("codificar",
+                () -> delegado.encode(rawPassword));
+    }
+
+    /**
+     * Verifica a senha no pool de senhas.
+     *
+     * @param rawPassword     A senha em texto puro.
+     * @param encodedPassword O hash armazenado.
+     * @return {@code true} se a senha corresponder ao hash.
+     */
+    @Override
+    public boolean matches(final CharSequence rawPassword,
+            final String encodedPassword) {
+        return executorSenhas.executar("verificar",
+                () -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica se o hash foi gerado com uma configuração mais fraca que a
+     * atual e deve ser recalculado.
+     *
+     * @param encodedPassword O hash armazenado.
+     * @return {@code true} se o hash deve ser recalculado.
+     */
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.clinicapi.infra.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Requisição cujo corpo já foi lido para a memória, de modo que um filtro
+ * possa inspecioná-lo sem impedir a leitura pelo controlador. O corpo
+ * está todo disponível, e a leitura assíncrona o entrega de uma vez.
+ */
+final class RequisicaoComCorpo extends HttpServletRequestWrapper {
+
+    /**
+     * O corpo da requisição.
+     */
+    private final byte[] corpo;
+
+    /**
+     * Cria a requisição com o corpo já lido.
+     *
+     * @param request A requisição original.
+     * @param pCorpo  O corpo lido.
+     */
+    private RequisicaoComCorpo(final HttpServletRequest request,
+            final byte[] pCorpo) {
+        super(request);
+        this.corpo = pCorpo;
+    }
+
+    /**
+     * Lê o corpo da requisição, se não exceder o máximo. São lidos no
+     * máximo {@code tamanhoMaximo + 1} bytes, qualquer que seja o
+     * {@code Content-Length} informado, de modo que um corpo sem tamanho
+     * declarado ({@code Transfer-Encoding: chunked}) também é lido e
+     * limitado.
+     *
+     * @param request        A requisição.
+     * @param tamanhoMaximo  O tamanho máximo do corpo em bytes.
+     * @return A requisição com o corpo lido, ou {@code null} se o corpo
+     * for maior que o máximo.
+     * @throws IOException Se ocorrer um erro na leitura.
+     */
+    static RequisicaoComCorpo ler(final HttpServletRequest request,
+            final int tamanhoMaximo) throws IOException {
+        if (request.getContentLengthLong() > tamanhoMaximo) {
+            return null;
+        }
+        final byte[] corpo =
+                request.getInputStream().readNBytes(tamanhoMaximo + 1);
+        return corpo.length > tamanhoMaximo ? null
+                : new RequisicaoComCorpo(request, corpo);
+    }
+
+    /**
+     * Retorna o corpo da requisição.
+     *
+     * @return O corpo.
+     */
+    byte[] corpo() {
+        return corpo;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        final ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return entrada.read();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                return entrada.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return entrada.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(final ReadListener listener) {
+                try {
+                    if (entrada.available() > 0) {
+                        listener.onDataAvailable();
+                    }
+                    listener.onAllDataRead();
+                } catch (IOException ex) {
+                    listener.onError(ex);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        final String codificacao = getCharacterEncoding();
+        final Charset charset = codificacao != null
+                ? Charset.forName(codificacao) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+                charset));
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.clinicapi.infra.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -13,7 +16,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestHeaderRequestMatcher;
 
 import com.example.clinicapi.service.AutenticacaoService;
 
@@ -33,11 +38,15 @@ public class SecurityConfig {
      * Configura a cadeia de filtros de segurança HTTP.
      * Define as permissões de acesso aos endpoints,
      * gerenciamento de sessão e adição de filtros customizados.
+     * Requisições com o cabeçalho {@code Authorization} não aceitas
+     * recebem {@code 401}, em vez do redirecionamento para o login OAuth2.
      *
      * @param http O objeto {@link HttpSecurity}
      * usado para configurar a segurança da aplicação.
      * @param securityFilter O filtro de segurança customizado
      * que intercepta requisições para validação do JWT.
+     * @param limiteRequisicoesFilter O filtro que limita a taxa de
+     * requisições aos endpoints de autenticação.
      * @param usuarioService Serviço responsável por autenticar
      * e carregar os dados do usuário.
      * @return A {@link SecurityFilterChain}
@@ -48,6 +57,7 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(
             final HttpSecurity http,
             final SecurityFilter securityFilter,
+            final LimiteRequisicoesFilter limiteRequisicoesFilter,
             final AutenticacaoService usuarioService) throws Exception {
         log.info("Configurando SecurityFilterChain com endpoints "
                 + "públicos e autenticação JWT.");
@@ -57,6 +67,12 @@ public class SecurityConfig {
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
+            .exceptionHandling(excecoes -> excecoes
+                .defaultAuthenticationEntryPointFor(
+                    new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                    new RequestHeaderRequestMatcher(
+                        HttpHeaders.AUTHORIZATION))
+            )
             .authorizeHttpRequests(auth -> {
                 try {
                     configureEndpoints(auth);
@@ -65,6 +81,8 @@ public class SecurityConfig {
                             + " públicos e OAuth2", e);
                 }
             })
+            .addFilterBefore(limiteRequisicoesFilter,
+                    UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(securityFilter,
                     UsernamePasswordAuthenticationFilter.class);
 
@@ -79,7 +97,9 @@ public class SecurityConfig {
      * @param http O objeto {@link HttpSecurity} utilizado
      * para acessar o {@link AuthenticationManagerBuilder}.
      * @param usuarioService Serviço responsável por carregar
-     * os detalhes do usuário para autenticação.
+     * os detalhes do usuário para autenticação e por gravar os hashes
+     * recalculados.
+     * @param passwordEncoder O codificador de senhas.
      * @return O {@link AuthenticationManager} configurado.
      * @throws Exception Se ocorrer um erro durante a configuração.
      */
@@ -87,26 +107,33 @@ public class SecurityConfig {
     @SuppressWarnings("removal")
     public AuthenticationManager authenticationManager(
             final HttpSecurity http,
-            final AutenticacaoService usuarioService) throws Exception {
+            final AutenticacaoService usuarioService,
+            final PasswordEncoder passwordEncoder) throws Exception {
         log.info("Criando AuthenticationManager com AutenticacaoService e "
                 + "BCryptPasswordEncoder.");
 
         return http.getSharedObject(AuthenticationManagerBuilder.class)
                 .userDetailsService(usuarioService)
-                .passwordEncoder(passwordEncoder())
+                .passwordEncoder(passwordEncoder)
                 .and()
                 .build();
     }
 
     /**
-     * Fornece uma instância do
-     * codificador de senhas BCryptPasswordEncoder.
+     * Fornece o codificador de senhas BCrypt, executado no pool dedicado
+     * {@link ExecutorSenhas}. Ao aumentar a força configurada, os hashes
+     * existentes são recalculados no próximo login de cada usuário.
      *
-     * @return Uma instância de BCryptPasswordEncoder.
+     * @param executorSenhas O pool do processamento de senhas.
+     * @param forca          A força (log2 das rodadas) do BCrypt.
+     * @return O codificador de senhas.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            final ExecutorSenhas executorSenhas,
+            @Value("${api.security.bcrypt.forca:10}") final int forca) {
+        return new PasswordEncoderLimitado(new BCryptPasswordEncoder(forca),
+                executorSenhas);
     }
 
     /**
@@ -1,13 +1,14 @@
 package com.example.clinicapi.infra.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.clinicapi.infra.revogacao.RevogacaoTokens;
+import com.example.clinicapi.model.Usuario;
 import com.example.clinicapi.repository.UsuarioRepository;
 
 import jakarta.servlet.FilterChain;
@@ -23,20 +24,43 @@ import lombok.extern.slf4j.Slf4j;
  * e autorização de requisições.
  * Estende OncePerRequestFilter para garantir que o
  * filtro seja executado uma única vez por requisição.
+ *
+ * <p>A autenticação registrada no contexto é a {@link AutenticacaoJwt}
+ * do token, imutável e compartilhada entre as requisições com o mesmo
+ * token, cujo principal é um {@link UsuarioAutenticado}, e não a
+ * entidade {@link Usuario}.</p>
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public final class SecurityFilter extends OncePerRequestFilter {
 
+    /**
+     * Prefixo do token no cabeçalho "Authorization".
+     */
+    private static final String PREFIXO_BEARER = "Bearer ";
+
     /**
      * Serviço para manipulação de JWTs (gerar, extrair sujeito).
      */
     private final JwtService jwtService;
     /**
-     * Repositório para acessar informações de usuário no banco de dados.
+     * Repositório para acessar informações de usuário no banco de dados,
+     * utilizado apenas para tokens sem o ID e a role do usuário.
      */
     private final UsuarioRepository usuarioRepository;
+    /**
+     * Cache utilizado para revogar usuários excluídos ou alterados.
+     */
+    private final CacheUsuariosAtivos cacheUsuariosAtivos;
+    /**
+     * Revogação dos access tokens encerrados pelo logout.
+     */
+    private final RevogacaoTokens revogacaoTokens;
+    /**
+     * Vínculo dos access tokens com o cliente que os recebeu.
+     */
+    private final ImpressaoDigitalToken impressaoDigitalToken;
 
     /**
      * Executa a lógica do filtro para cada requisição HTTP.
@@ -62,33 +86,57 @@ public final class SecurityFilter extends OncePerRequestFilter {
         if (token != null
                 && SecurityContextHolder.getContext()
                 .getAuthentication() == null) {
-            final String login = jwtService.getSubject(token);
-            final var usuario = usuarioRepository
-                    .findByLogin(login);
-
-            if (usuario.isPresent()) {
-                final UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                usuario.get(),
-                                null,
-                                usuario.get()
-                                .getAuthorities()
-                        );
-                authentication.setDetails(
-                        new WebAuthenticationDetailsSource()
-                        .buildDetails(request));
+            final Optional<AutenticacaoJwt> autenticacao =
+                    autenticar(request, token);
+
+            if (autenticacao.isPresent()) {
                 SecurityContextHolder.getContext()
-                .setAuthentication(authentication);
-                log.info("Usuário autenticado com sucesso: {}", login);
-            } else {
-                log.warn("Usuário não encontrado no banco de dados: {}",
-                        login);
+                .setAuthentication(autenticacao.get());
+                log.debug("Usuário autenticado com sucesso: {}",
+                        autenticacao.get().getName());
             }
         }
 
         chain.doFilter(request, response);
     }
 
+    /**
+     * Obtém a autenticação do token. A autenticação é montada a partir das
+     * declarações do token e reutilizada enquanto o token estiver no cache
+     * do {@link JwtService}; tokens emitidos antes da inclusão do ID e da
+     * role são resolvidos pelo login no banco de dados.
+     *
+     * @param request O objeto HttpServletRequest.
+     * @param token   O token JWT.
+     * @return A autenticação, ou vazio se o token tiver sido revogado,
+     * apresentado por outro cliente ou se o usuário não existir mais.
+     */
+    private Optional<AutenticacaoJwt> autenticar(
+            final HttpServletRequest request, final String token) {
+        final TokenVerificado verificado = jwtService.verificar(token);
+        final String jti = verificado.claims().getId();
+        if (jti != null && revogacaoTokens.revogado(jti)) {
+            log.debug("Token revogado recusado: {}", jti);
+            return Optional.empty();
+        }
+        if (!impressaoDigitalToken.confere(request, verificado.impressao())) {
+            log.debug("Token recusado: impressão digital do cliente "
+                    + "ausente ou diferente");
+            return Optional.empty();
+        }
+        final AutenticacaoJwt doToken = verificado.autenticacao();
+        if (doToken != null) {
+            return cacheUsuariosAtivos.confirmar(doToken.getPrincipal())
+                    ? Optional.of(doToken) : Optional.empty();
+        }
+        final String login = verificado.claims().getSubject();
+        final Optional<Usuario> usuario = usuarioRepository.findByLogin(login);
+        if (usuario.isEmpty()) {
+            log.warn("Usuário não encontrado no banco de dados: {}", login);
+        }
+        return usuario.map(u -> new AutenticacaoJwt(UsuarioAutenticado.de(u)));
+    }
+
     /**
      * Recupera o token JWT do cabeçalho
      * "Authorization" da requisição.
@@ -99,8 +147,9 @@ public final class SecurityFilter extends OncePerRequestFilter {
      */
     private String recuperarToken(final HttpServletRequest request) {
         final String header = request.getHeader("Authorization");
-        final String token = (header != null && header.startsWith("Bearer "))
-                ? header.replace("Bearer ", "") : null;
+        final String token = (header != null
+                && header.startsWith(PREFIXO_BEARER))
+                ? header.substring(PREFIXO_BEARER.length()) : null;
         log.debug("Token extraído do cabeçalho Authorization: {}",
                 token != null ? "[PROTEGIDO]" : "null");
 
@@ -0,0 +1,17 @@
+package com.example.clinicapi.infra.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Um token cuja assinatura já foi verificada.
+ *
+ * @param claims       As declarações do token.
+ * @param autenticacao A autenticação montada a partir das declarações, ou
+ *                     {@code null} se o token não contiver o ID e a role
+ *                     do usuário.
+ * @param impressao    O hash da impressão digital do cliente, decodificado
+ *                     da declaração {@code fgp}, ou {@code null} se o
+ *                     token não estiver vinculado a um cliente.
+ */
+record TokenVerificado(Claims claims, AutenticacaoJwt autenticacao,
+        byte[] impressao) { }
@@ -0,0 +1,44 @@
+package com.example.clinicapi.infra.security;
+
+import java.io.Serializable;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+
+/**
+ * O usuário autenticado por um access token, disponível como principal
+ * da autenticação ({@code @AuthenticationPrincipal}).
+ *
+ * <p>Diferente da entidade {@link Usuario}, é imutável, não carrega a
+ * senha nem estado do JPA e é montado uma única vez por token.</p>
+ *
+ * @param id    O ID do usuário.
+ * @param login O login do usuário.
+ * @param role  A role do usuário.
+ */
+public record UsuarioAutenticado(Long id, String login, Role role)
+        implements AuthenticatedPrincipal, Serializable {
+
+    /**
+     * Cria o usuário autenticado a partir da entidade.
+     *
+     * @param usuario O usuário.
+     * @return O usuário autenticado.
+     */
+    public static UsuarioAutenticado de(final Usuario usuario) {
+        return new UsuarioAutenticado(usuario.getId(), usuario.getLogin(),
+                usuario.getRole());
+    }
+
+    /**
+     * Retorna o login do usuário.
+     *
+     * @return O login.
+     */
+    @Override
+    public String getName() {
+        return login;
+    }
+}
@@ -30,6 +30,7 @@ public interface ConsultaMapper {
      * Converte um {@link ConsultaDTO} para uma entidade {@link Consulta}.
      * Mapeia os IDs de paciente e médico do DTO para as entidades aninhadas.
      * O status da consulta também é mapeado.
+     * A versão é controlada pelo JPA e não é lida do DTO.
      *
      * @param consultaDTO O ConsultaDTO a ser convertido.
      * @return A entidade Consulta resultante.
@@ -37,5 +38,6 @@ public interface ConsultaMapper {
     @Mapping(source = "pacienteId", target = "paciente.id")
     @Mapping(source = "medicoId", target = "medico.id")
     @Mapping(source = "status", target = "status")
+    @Mapping(target = "versao", ignore = true)
     Consulta toEntity(ConsultaDTO consultaDTO);
 }
@@ -1,6 +1,7 @@
 package com.example.clinicapi.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.example.clinicapi.dto.MedicoDTO;
 import com.example.clinicapi.model.Medico;
@@ -23,9 +24,11 @@ public interface MedicoMapper {
 
     /**
      * Converte um {@link MedicoDTO} para uma entidade {@link Medico}.
+     * A versão é controlada pelo JPA e não é lida do DTO.
      *
      * @param medicoDTO O MedicoDTO a ser convertido.
      * @return A entidade Medico resultante.
      */
+    @Mapping(target = "versao", ignore = true)
     Medico toEntity(MedicoDTO medicoDTO);
 }
@@ -1,6 +1,7 @@
 package com.example.clinicapi.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.example.clinicapi.dto.PacienteDTO;
 import com.example.clinicapi.model.Paciente;
@@ -23,9 +24,11 @@ public interface PacienteMapper {
 
     /**
      * Converte um {@link PacienteDTO} para uma entidade {@link Paciente}.
+     * A versão é controlada pelo JPA e não é lida do DTO.
      *
      * @param pacienteDTO O PacienteDTO a ser convertido.
      * @return A entidade Paciente resultante.
      */
+    @Mapping(target = "versao", ignore = true)
     Paciente toEntity(PacienteDTO pacienteDTO);
 }
@@ -0,0 +1,38 @@
+package com.example.clinicapi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantidade de consultas de um médico em um dia, por status.
+ * <p>
+ * A tabela é mantida incrementalmente a cada criação, alteração ou
+ * exclusão de consulta, de modo que os painéis não precisem agrupar a
+ * tabela {@code consultas}. Uma reconciliação periódica a reconstrói a
+ * partir das consultas, corrigindo eventuais divergências.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "agenda_contadores")
+public class AgendaContador {
+
+    /**
+     * O médico, o dia e o status contados.
+     */
+    @EmbeddedId
+    private AgendaContadorId id;
+
+    /**
+     * A quantidade de consultas.
+     */
+    @Column(nullable = false)
+    private long quantidade;
+}
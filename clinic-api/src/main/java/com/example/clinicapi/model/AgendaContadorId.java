@@ -0,0 +1,45 @@
+package com.example.clinicapi.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chave composta de {@link AgendaContador}: médico, dia e status.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class AgendaContadorId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * O ID do médico.
+     */
+    @Column(name = "medico_id", nullable = false)
+    private Long medicoId;
+
+    /**
+     * O dia das consultas contadas.
+     */
+    @Column(nullable = false)
+    private LocalDate data;
+
+    /**
+     * O status das consultas contadas.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusConsulta status;
+}
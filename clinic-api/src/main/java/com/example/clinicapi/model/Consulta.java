@@ -6,12 +6,15 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -27,24 +30,40 @@ import lombok.Setter;
 @Table(name = "consultas")
 public class Consulta {
 
+    /**
+     * Quantidade de IDs reservados a cada acesso à tabela de sequências.
+     */
+    public static final int TAMANHO_BLOCO_IDS = 50;
+
     /**
      * O identificador único da consulta.
+     * <p>
+     * Gerado a partir da tabela {@code id_sequencias} em blocos de
+     * {@value #TAMANHO_BLOCO_IDS}, o que permite ao Hibernate agrupar
+     * os inserts em lotes JDBC (o que não ocorre com {@code IDENTITY}).
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE,
+            generator = "consultas_id")
+    @TableGenerator(name = "consultas_id", table = "id_sequencias",
+            pkColumnName = "sequencia", valueColumnName = "proximo_valor",
+            pkColumnValue = "consultas", allocationSize = TAMANHO_BLOCO_IDS)
     private Long id;
 
     /**
      * O paciente associado a esta consulta.
+     * Carregado sob demanda: as listagens leem apenas o ID.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Paciente paciente;
 
     /**
      * O médico responsável por esta consulta.
+     * Carregado sob demanda: as listagens leem apenas o ID.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medico_id", nullable = false)
     private Medico medico;
 
@@ -67,4 +86,12 @@ public class Consulta {
     @Column(nullable = true)
     private String motivoCancelamento;
 
+    /**
+     * Versão do registro, incrementada a cada atualização. Utilizada pelo
+     * bloqueio otimista para rejeitar gravações feitas sobre uma leitura
+     * desatualizada.
+     */
+    @Version
+    private Long versao;
+
 }
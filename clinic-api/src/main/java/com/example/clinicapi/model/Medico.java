@@ -7,6 +7,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -60,6 +61,14 @@ public class Medico {
      */
     private boolean ativo;
 
+    /**
+     * Versão do registro, incrementada a cada atualização. Utilizada pelo
+     * bloqueio otimista para rejeitar gravações feitas sobre uma leitura
+     * desatualizada.
+     */
+    @Version
+    private Long versao;
+
     /**
      * Construtor para criar uma nova instância de Medico.
      * Define o status como ativo por padrão.
@@ -7,6 +7,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -58,4 +59,12 @@ public class Paciente {
      * Indica se o cadastro do paciente está ativo no sistema.
      */
     private boolean ativo;
+
+    /**
+     * Versão do registro, incrementada a cada atualização. Utilizada pelo
+     * bloqueio otimista para rejeitar gravações feitas sobre uma leitura
+     * desatualizada.
+     */
+    @Version
+    private Long versao;
 }
@@ -4,11 +4,12 @@ import java.time.Instant;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,9 +22,9 @@ import lombok.Setter;
  * para renovar o token de acesso (JWT) de um usuário
  * sem a necessidade de reautenticação por login e senha.
  * <p>
- * Cada usuário pode possuir um único refresh token associado,
- * que tem uma data de expiração
- * e pode ser usado para gerar novos access tokens.
+ * Cada usuário pode possuir vários refresh tokens, um por sessão,
+ * cada um com uma data de expiração. Utilizada quando
+ * {@code api.security.refresh-token.store=jpa}.
  * </p>
  *
  * <p>
@@ -51,17 +52,17 @@ public class RefreshToken {
     private Long id;
 
     /**
-     * String única que representa o valor do refresh token.
-     * Deve ser armazenado de forma segura e não pode se repetir.
+     * Hash SHA-256, em hexadecimal, do valor do refresh token.
+     * O valor em si nunca é armazenado.
      */
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false, unique = true, length = 64)
     private String token;
 
     /**
      * Referência para o usuário associado a este refresh token.
      * Cada refresh token pertence a exatamente um usuário.
      */
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id")
     private Usuario usuario;
 
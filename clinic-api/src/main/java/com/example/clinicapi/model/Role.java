@@ -1,5 +1,7 @@
 package com.example.clinicapi.model;
 
+import java.util.List;
+
 import org.springframework.security.core.GrantedAuthority;
 
 /**
@@ -18,6 +20,12 @@ public enum Role implements GrantedAuthority {
      */
     ROLE_ADMIN;
 
+    /**
+     * As autoridades concedidas pela role, criadas uma única vez e
+     * compartilhadas por todas as autenticações.
+     */
+    private final List<Role> autoridades = List.of(this);
+
     /**
      * Retorna o nome da role como autoridade.
      * Usado internamente pelo Spring Security.
@@ -28,4 +36,13 @@ public enum Role implements GrantedAuthority {
     public String getAuthority() {
         return name();
     }
+
+    /**
+     * Retorna a lista imutável de autoridades concedidas pela role.
+     *
+     * @return as autoridades da role
+     */
+    public List<Role> getAutoridades() {
+        return autoridades;
+    }
 }
@@ -13,7 +13,11 @@ public enum StatusConsulta {
     /**
      * Indica que a consulta foi concluída.
      */
-    REALIZADA("Realizada");
+    REALIZADA("Realizada"),
+    /**
+     * Indica que o paciente não compareceu à consulta agendada.
+     */
+    NAO_COMPARECEU("Não compareceu");
 
     /**
      * A descrição amigável do status da consulta.
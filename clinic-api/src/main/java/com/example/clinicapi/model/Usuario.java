@@ -78,7 +78,7 @@ public final class Usuario implements UserDetails {
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(role);
+        return role != null ? role.getAutoridades() : List.of();
     }
 
     /**
@@ -0,0 +1,128 @@
+package com.example.clinicapi.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.clinicapi.dto.PeriodoConsultasDTO;
+import com.example.clinicapi.model.AgendaContador;
+import com.example.clinicapi.model.AgendaContadorId;
+
+/**
+ * Repositório dos contadores diários da agenda dos médicos.
+ */
+@Repository
+public interface AgendaContadorRepository
+        extends JpaRepository<AgendaContador, AgendaContadorId> {
+
+    /**
+     * Soma {@code delta} ao contador, criando-o se ainda não existir.
+     * O resultado nunca fica negativo.
+     *
+     * @param medicoId O ID do médico.
+     * @param data     O dia.
+     * @param status   O nome do status.
+     * @param delta    O valor a ser somado (negativo para subtrair).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO agenda_contadores "
+            + "(medico_id, data, status, quantidade) "
+            + "VALUES (:medicoId, :data, :status, GREATEST(:delta, 0)) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "quantidade = GREATEST(quantidade + :delta, 0)",
+            nativeQuery = true)
+    void somar(Long medicoId, LocalDate data, String status, long delta);
+
+    /**
+     * Lista os contadores de um médico no período, percorrendo apenas
+     * o intervalo correspondente da chave primária.
+     *
+     * @param medicoId O ID do médico.
+     * @param inicio   Primeiro dia (inclusivo).
+     * @param fim      Último dia (inclusivo).
+     * @return Os contadores existentes no período.
+     */
+    @Query("SELECT c FROM AgendaContador c WHERE c.id.medicoId = :medicoId "
+            + "AND c.id.data BETWEEN :inicio AND :fim")
+    List<AgendaContador> findPorMedicoEPeriodo(Long medicoId,
+            LocalDate inicio, LocalDate fim);
+
+    /**
+     * Retorna a data e hora da primeira e da última consulta, lidas nas
+     * extremidades do índice {@code (data_hora, id)}.
+     *
+     * @return O período das consultas.
+     */
+    @Query("SELECT new com.example.clinicapi.dto.PeriodoConsultasDTO("
+            + "MIN(c.dataHora), MAX(c.dataHora)) FROM Consulta c")
+    PeriodoConsultasDTO periodoConsultas();
+
+    /**
+     * Remove todos os contadores.
+     *
+     * @return A quantidade de linhas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM agenda_contadores", nativeQuery = true)
+    int removerTodos();
+
+    /**
+     * Remove os contadores de dias fora do período, nos quais não há
+     * consultas.
+     *
+     * @param inicio Primeiro dia com consultas.
+     * @param fim    Último dia com consultas.
+     * @return A quantidade de linhas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM agenda_contadores "
+            + "WHERE data < :inicio OR data > :fim", nativeQuery = true)
+    int removerForaDoPeriodo(LocalDate inicio, LocalDate fim);
+
+    /**
+     * Recalcula os contadores dos dias do período agrupando apenas as
+     * consultas do período, lidas pelo índice {@code (data_hora, id)}.
+     *
+     * @param inicio Início do período (inclusivo).
+     * @param fim    Fim do período (exclusivo).
+     * @return A quantidade de linhas afetadas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO agenda_contadores "
+            + "(medico_id, data, status, quantidade) "
+            + "SELECT medico_id, DATE(data_hora), status, COUNT(*) "
+            + "FROM consultas "
+            + "WHERE data_hora >= :inicio AND data_hora < :fim "
+            + "GROUP BY medico_id, DATE(data_hora), status "
+            + "ON DUPLICATE KEY UPDATE quantidade = VALUES(quantidade)",
+            nativeQuery = true)
+    int reconstruirPeriodo(LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Remove os contadores dos dias do período que não correspondem a
+     * nenhuma consulta, inclusive os zerados pelas exclusões.
+     *
+     * @param inicio Primeiro dia do período (inclusivo).
+     * @param fim    Último dia do período (inclusivo).
+     * @return A quantidade de linhas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE c FROM agenda_contadores c "
+            + "WHERE c.data BETWEEN :inicio AND :fim AND NOT EXISTS ("
+            + "SELECT 1 FROM consultas x WHERE x.medico_id = c.medico_id "
+            + "AND x.status = c.status AND x.data_hora >= c.data "
+            + "AND x.data_hora < c.data + INTERVAL 1 DAY)",
+            nativeQuery = true)
+    int removerObsoletos(LocalDate inicio, LocalDate fim);
+}
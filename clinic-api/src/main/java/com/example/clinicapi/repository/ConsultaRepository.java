@@ -1,9 +1,29 @@
 package com.example.clinicapi.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.dto.LembreteConsultaDTO;
 import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.StatusConsulta;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Interface de repositório para a entidade {@link Consulta}.
@@ -14,4 +34,174 @@ import com.example.clinicapi.model.Consulta;
 @Repository
 public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
 
+    /**
+     * Expressão JPQL que projeta uma consulta {@code c} em
+     * {@link ConsultaDTO}. Os IDs de paciente e médico são lidos das
+     * chaves estrangeiras, sem junção com as tabelas relacionadas.
+     */
+    String PROJECAO_DTO = "new com.example.clinicapi.dto.ConsultaDTO("
+            + "c.id, c.paciente.id, c.medico.id, c.dataHora, "
+            + "c.motivoCancelamento, c.status)";
+
+    /**
+     * Percorre os horários das consultas não canceladas
+     * a partir da data informada, sem carregar pacientes e médicos.
+     * Deve ser consumido dentro de uma transação e fechado após o uso.
+     *
+     * @param inicio Data e hora mínima das consultas retornadas.
+     * @return Um Stream de {@link HorarioConsultaDTO}.
+     */
+    @Query("SELECT new com.example.clinicapi.dto.HorarioConsultaDTO("
+            + "c.id, c.medico.id, c.dataHora) FROM Consulta c "
+            + "WHERE c.dataHora >= :inicio "
+            + "AND c.status <> com.example.clinicapi.model"
+            + ".StatusConsulta.CANCELADA")
+    Stream<HorarioConsultaDTO> streamHorariosAtivosAPartirDe(
+            LocalDateTime inicio);
+
+    /**
+     * Busca uma página de consultas projetadas diretamente em
+     * {@link ConsultaDTO}, lendo apenas as colunas da tabela
+     * {@code consultas} (sem carregar pacientes e médicos).
+     *
+     * @param pageable Objeto Pageable para paginação e ordenação.
+     * @return Uma página de ConsultaDTOs.
+     */
+    @Query(value = "SELECT " + PROJECAO_DTO + " FROM Consulta c",
+            countQuery = "SELECT COUNT(c) FROM Consulta c")
+    Page<ConsultaDTO> findAllProjetadas(Pageable pageable);
+
+    /**
+     * Busca uma consulta pelo ID projetada diretamente em
+     * {@link ConsultaDTO}, sem carregar paciente e médico.
+     *
+     * @param id O ID da consulta.
+     * @return Um Optional com o ConsultaDTO, se encontrado.
+     */
+    @Query("SELECT " + PROJECAO_DTO + " FROM Consulta c WHERE c.id = :id")
+    Optional<ConsultaDTO> findProjetadaById(Long id);
+
+    /**
+     * Busca a primeira página da listagem por cursor,
+     * ordenada por data e hora e, em caso de empate, pelo ID.
+     *
+     * @param limit Quantidade máxima de consultas retornadas.
+     * @return As primeiras consultas da listagem.
+     */
+    @Query("SELECT " + PROJECAO_DTO + " FROM Consulta c "
+            + "ORDER BY c.dataHora, c.id")
+    List<ConsultaDTO> findPrimeirasPorDataHoraEId(Limit limit);
+
+    /**
+     * Busca as consultas posicionadas após a chave {@code (dataHora, id)}
+     * na ordenação por data e hora e ID. A condição inicial sobre
+     * {@code dataHora} permite ao MySQL percorrer o índice
+     * {@code idx_consultas_data_hora_id} a partir da chave, sem
+     * descartar linhas como ocorre com {@code OFFSET}.
+     *
+     * @param dataHora Data e hora da última consulta da página anterior.
+     * @param id       ID da última consulta da página anterior.
+     * @param limit    Quantidade máxima de consultas retornadas.
+     * @return As consultas seguintes da listagem.
+     */
+    @Query("SELECT " + PROJECAO_DTO + " FROM Consulta c "
+            + "WHERE c.dataHora >= :dataHora "
+            + "AND (c.dataHora > :dataHora OR c.id > :id) "
+            + "ORDER BY c.dataHora, c.id")
+    List<ConsultaDTO> findApos(LocalDateTime dataHora, Long id, Limit limit);
+
+    /**
+     * Percorre as consultas do período em ordem de data e hora.
+     * Paciente e médico não são carregados (apenas seus IDs são lidos).
+     * O fetch size {@link Integer#MIN_VALUE} faz o driver do MySQL
+     * entregar as linhas uma a uma, sem materializar o resultado em
+     * memória. Deve ser consumido dentro de uma transação e fechado
+     * após o uso; enquanto aberto, a conexão não aceita outros comandos.
+     *
+     * @param inicio Data e hora inicial (inclusiva).
+     * @param fim    Data e hora final (exclusiva).
+     * @return Um Stream com as consultas do período.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE,
+                value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Consulta c "
+            + "WHERE c.dataHora >= :inicio AND c.dataHora < :fim "
+            + "ORDER BY c.dataHora, c.id")
+    Stream<Consulta> streamPorPeriodo(LocalDateTime inicio,
+            LocalDateTime fim);
+
+    /**
+     * Busca, em ordem de data e hora e ID, as consultas agendadas
+     * posicionadas após a chave {@code (dataHora, id)} e até o limite
+     * informado. Utilizado para carregar em blocos a janela de lembretes.
+     *
+     * @param dataHora Data e hora da última consulta do bloco anterior.
+     * @param id       ID da última consulta do bloco anterior.
+     * @param ate      Data e hora máxima (inclusiva).
+     * @param limit    Quantidade máxima de consultas retornadas.
+     * @return As consultas agendadas seguintes.
+     */
+    @Query("SELECT new com.example.clinicapi.dto.HorarioConsultaDTO("
+            + "c.id, c.medico.id, c.dataHora) FROM Consulta c "
+            + "WHERE c.dataHora >= :dataHora "
+            + "AND (c.dataHora > :dataHora OR c.id > :id) "
+            + "AND c.dataHora <= :ate "
+            + "AND c.status = com.example.clinicapi.model"
+            + ".StatusConsulta.AGENDADA "
+            + "ORDER BY c.dataHora, c.id")
+    List<HorarioConsultaDTO> findAgendadasApos(LocalDateTime dataHora,
+            Long id, LocalDateTime ate, Limit limit);
+
+    /**
+     * Verifica se o médico possui consulta não cancelada com início
+     * dentro do intervalo aberto {@code (de, ate)}, lendo o estado
+     * gravado no banco, inclusive o deixado por outros nós.
+     *
+     * @param medicoId         ID do médico.
+     * @param de               Início do intervalo (exclusivo).
+     * @param ate              Fim do intervalo (exclusivo).
+     * @param consultaIgnorada ID de uma consulta a desconsiderar,
+     *                         ou {@code null}.
+     * @return {@code true} se houver consulta no intervalo.
+     */
+    @Query("SELECT COUNT(c) > 0 FROM Consulta c "
+            + "WHERE c.medico.id = :medicoId "
+            + "AND c.dataHora > :de AND c.dataHora < :ate "
+            + "AND c.status <> com.example.clinicapi.model"
+            + ".StatusConsulta.CANCELADA "
+            + "AND (:consultaIgnorada IS NULL OR c.id <> :consultaIgnorada)")
+    boolean existsConflito(Long medicoId, LocalDateTime de,
+            LocalDateTime ate, Long consultaIgnorada);
+
+    /**
+     * Busca os dados de lembrete das consultas informadas, com o nome e
+     * o e-mail do paciente, em uma única consulta.
+     *
+     * @param ids Os IDs das consultas.
+     * @return Os dados de lembrete das consultas encontradas.
+     */
+    @Query("SELECT new com.example.clinicapi.dto.LembreteConsultaDTO("
+            + "c.id, c.dataHora, c.status, p.nome, p.email) "
+            + "FROM Consulta c JOIN c.paciente p WHERE c.id IN :ids")
+    List<LembreteConsultaDTO> findLembretes(Collection<Long> ids);
+
+    /**
+     * Altera, em um único comando e em uma transação curta, o status das
+     * consultas informadas que ainda estiverem agendadas, incrementando a
+     * versão de cada uma.
+     *
+     * @param ids    Os IDs das consultas.
+     * @param status O novo status.
+     * @return A quantidade de consultas alteradas.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Consulta c SET c.status = :status, "
+            + "c.versao = c.versao + 1 "
+            + "WHERE c.id IN :ids AND c.status = com.example.clinicapi.model"
+            + ".StatusConsulta.AGENDADA")
+    int encerrarAgendadas(Collection<Long> ids, StatusConsulta status);
 }
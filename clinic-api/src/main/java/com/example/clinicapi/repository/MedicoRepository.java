@@ -1,15 +1,22 @@
 package com.example.clinicapi.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.example.clinicapi.model.Especialidade;
 import com.example.clinicapi.model.Medico;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Interface de repositório para a entidade {@link Medico}.
  * Fornece métodos de persistência para operações
@@ -41,4 +48,40 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
             + "true AND m.especialidade = :especialidade")
     Page<Medico> findByEspecialidadeAndAtivoTrue(Especialidade especialidade,
             Pageable pageable);
+
+    /**
+     * Busca os IDs dos médicos ativos de uma especialidade,
+     * ordenados de forma crescente.
+     *
+     * @param especialidade A especialidade do médico.
+     * @return Uma lista com os IDs dos médicos ativos da especialidade.
+     */
+    @Query("SELECT m.id FROM Medico m WHERE m.ativo = true "
+            + "AND m.especialidade = :especialidade ORDER BY m.id")
+    List<Long> findIdsAtivosPorEspecialidade(Especialidade especialidade);
+
+    /**
+     * Busca os médicos com ID maior que o informado, em ordem crescente
+     * de ID. Utilizado na paginação por cursor: a busca parte da chave
+     * primária, com custo independente da profundidade da página.
+     *
+     * @param id    ID do último registro da página anterior
+     *              ({@code 0} para a primeira página).
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Os médicos seguintes da listagem.
+     */
+    List<Medico> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Carrega o médico para um agendamento, com incremento forçado da
+     * versão ao final da transação. Dois agendamentos simultâneos do
+     * mesmo médico, mesmo em nós diferentes, gravam a mesma versão, e o
+     * segundo falha por bloqueio otimista.
+     *
+     * @param id ID do médico.
+     * @return O médico, se existir.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT m FROM Medico m WHERE m.id = :id")
+    Optional<Medico> findParaAgendamentoById(Long id);
 }
@@ -1,5 +1,8 @@
 package com.example.clinicapi.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -25,4 +28,16 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
      */
     @Query("SELECT p FROM Paciente p WHERE p.ativo = true")
     Page<Paciente> findAllAtivos(Pageable pageable);
+
+    /**
+     * Busca os pacientes com ID maior que o informado, em ordem crescente
+     * de ID. Utilizado na paginação por cursor: a busca parte da chave
+     * primária, com custo independente da profundidade da página.
+     *
+     * @param id    ID do último registro da página anterior
+     *              ({@code 0} para a primeira página).
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Os pacientes seguintes da listagem.
+     */
+    List<Paciente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -1,12 +1,20 @@
 package com.example.clinicapi.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.clinicapi.dto.RefreshTokenExpiradoDTO;
 import com.example.clinicapi.model.RefreshToken;
-import com.example.clinicapi.model.Usuario;
 
 /**
  * Repositório responsável pelas operações de acesso a dados da entidade
@@ -21,17 +29,82 @@ public interface RefreshTokenRepository extends
     JpaRepository<RefreshToken, Long> {
 
     /**
-     * Busca um refresh token pelo seu valor (string).
+     * Busca um refresh token pelo hash do seu valor.
      *
-     * @param token valor do refresh token
+     * @param token hash SHA-256 do refresh token
      * @return um {@link Optional} contendo o token, se encontrado
      */
     Optional<RefreshToken> findByToken(String token);
 
     /**
-     * Remove o refresh token associado ao usuário informado.
+     * Remove o refresh token com o hash informado em um único comando.
      *
-     * @param usuario o usuário cujo token deve ser removido
+     * @param token hash SHA-256 do refresh token
+     * @return a quantidade de tokens removidos: {@code 0} se outra
+     * transação já o tiver removido
      */
-    void deleteByUsuario(Usuario usuario);
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshToken r WHERE r.token = :token")
+    int removerPorToken(@Param("token") String token);
+
+    /**
+     * Remove o refresh token com o hash informado, se ele pertencer ao
+     * usuário, em um único comando.
+     *
+     * @param token     hash SHA-256 do refresh token
+     * @param usuarioId o ID do usuário da sessão
+     * @return a quantidade de tokens removidos
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshToken r WHERE r.token = :token "
+            + "AND r.usuario.id = :usuarioId")
+    int removerPorTokenEUsuario(@Param("token") String token,
+            @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Remove todos os refresh tokens do usuário informado em um único
+     * comando.
+     *
+     * @param usuarioId o ID do usuário cujas sessões devem ser removidas
+     * @return a quantidade de tokens removidos
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshToken r WHERE r.usuario.id = :usuarioId")
+    int removerPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca, em ordem de expiração e ID, os refresh tokens expirados
+     * seguintes à posição informada. Utilizada para percorrer os tokens em
+     * blocos pelo índice {@code (data_expiracao, id)}.
+     *
+     * @param dataExpiracao expiração do último token do bloco anterior
+     * @param id            ID do último token do bloco anterior
+     * @param limite        instante a partir do qual os tokens ainda são
+     *                      válidos (exclusivo)
+     * @param limit         quantidade máxima de tokens retornados
+     * @return os tokens expirados seguintes
+     */
+    @Query("SELECT new com.example.clinicapi.dto.RefreshTokenExpiradoDTO("
+            + "r.id, r.dataExpiracao) FROM RefreshToken r "
+            + "WHERE r.dataExpiracao >= :dataExpiracao "
+            + "AND (r.dataExpiracao > :dataExpiracao OR r.id > :id) "
+            + "AND r.dataExpiracao < :limite "
+            + "ORDER BY r.dataExpiracao, r.id")
+    List<RefreshTokenExpiradoDTO> findExpiradosApos(Instant dataExpiracao,
+            Long id, Instant limite, Limit limit);
+
+    /**
+     * Remove, em um único comando e em uma transação curta, os refresh
+     * tokens informados.
+     *
+     * @param ids os IDs dos tokens
+     * @return a quantidade de tokens removidos
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshToken r WHERE r.id IN :ids")
+    int removerPorIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,313 @@
+package com.example.clinicapi.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.ContagemAgendaDTO;
+import com.example.clinicapi.dto.PeriodoConsultasDTO;
+import com.example.clinicapi.model.AgendaContador;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.AgendaContadorRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pelos contadores diários da agenda: a quantidade
+ * de consultas de cada médico por dia e por status.
+ *
+ * <p>Os contadores são atualizados a cada criação, alteração ou exclusão
+ * de consulta, com um único comando de upsert por contador afetado, e
+ * lidos pela chave primária em tempo proporcional à quantidade de dias
+ * consultados. Como são dados derivados, uma falha ao atualizá-los não
+ * impede a operação sobre a consulta; a reconciliação periódica corrige
+ * as divergências e remove os contadores zerados.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgendaContadorService {
+
+    /**
+     * Quantidade máxima de dias em uma consulta aos contadores.
+     */
+    private static final int DIAS_MAXIMOS_PERIODO = 366;
+
+    /**
+     * Quantidade de dias recalculados por bloco na reconciliação.
+     */
+    private static final int DIAS_POR_BLOCO = 31;
+
+    /**
+     * Repositório dos contadores.
+     */
+    private final AgendaContadorRepository agendaContadorRepository;
+
+    /**
+     * Identifica o contador afetado por uma consulta.
+     *
+     * @param medicoId O ID do médico.
+     * @param data     O dia da consulta.
+     * @param status   O status da consulta.
+     */
+    public record ChaveContador(Long medicoId, LocalDate data,
+            StatusConsulta status) {
+
+        /**
+         * Obtém a chave do contador de uma consulta.
+         *
+         * @param consulta A consulta.
+         * @return A chave, ou {@code null} se a consulta estiver incompleta.
+         */
+        public static ChaveContador de(final Consulta consulta) {
+            return de(consulta.getMedico() != null
+                    ? consulta.getMedico().getId() : null,
+                    consulta.getDataHora(), consulta.getStatus());
+        }
+
+        /**
+         * Obtém a chave do contador de uma consulta projetada.
+         *
+         * @param consulta A consulta.
+         * @return A chave, ou {@code null} se a consulta estiver incompleta.
+         */
+        public static ChaveContador de(final ConsultaDTO consulta) {
+            return de(consulta.medicoId(), consulta.dataHora(),
+                    consulta.status());
+        }
+
+        /**
+         * Cria a chave a partir dos campos da consulta.
+         *
+         * @param medicoId O ID do médico.
+         * @param dataHora A data e hora da consulta.
+         * @param status   O status da consulta.
+         * @return A chave, ou {@code null} se algum campo for nulo.
+         */
+        private static ChaveContador de(final Long medicoId,
+                final LocalDateTime dataHora, final StatusConsulta status) {
+            if (medicoId == null || dataHora == null || status == null) {
+                return null;
+            }
+            return new ChaveContador(medicoId, dataHora.toLocalDate(),
+                    status);
+        }
+    }
+
+    /**
+     * Conta uma nova consulta.
+     *
+     * @param chave A chave da consulta criada.
+     */
+    public void registrarCriacao(final ChaveContador chave) {
+        somar(chave, 1);
+    }
+
+    /**
+     * Conta as consultas criadas em lote, com um único comando por
+     * contador afetado.
+     *
+     * @param chaves As chaves das consultas criadas.
+     */
+    public void registrarCriacoes(final Collection<ChaveContador> chaves) {
+        final Map<ChaveContador, Long> deltas = new HashMap<>();
+        for (ChaveContador chave : chaves) {
+            if (chave != null) {
+                deltas.merge(chave, 1L, Long::sum);
+            }
+        }
+        deltas.forEach(this::somar);
+    }
+
+    /**
+     * Move a consulta entre contadores quando o médico, o dia ou o
+     * status forem alterados.
+     *
+     * @param antes  A chave da consulta antes da alteração.
+     * @param depois A chave da consulta após a alteração.
+     */
+    public void registrarAlteracao(final ChaveContador antes,
+            final ChaveContador depois) {
+        if (Objects.equals(antes, depois)) {
+            return;
+        }
+        somar(antes, -1);
+        somar(depois, 1);
+    }
+
+    /**
+     * Move para o novo status, com um único comando por contador afetado,
+     * as consultas alteradas em lote.
+     *
+     * @param antes      As chaves das consultas antes da alteração.
+     * @param novoStatus O status atribuído às consultas.
+     */
+    public void registrarAlteracoes(final Collection<ChaveContador> antes,
+            final StatusConsulta novoStatus) {
+        final Map<ChaveContador, Long> deltas = new HashMap<>();
+        for (ChaveContador chave : antes) {
+            if (chave != null && chave.status() != novoStatus) {
+                deltas.merge(chave, -1L, Long::sum);
+                deltas.merge(new ChaveContador(chave.medicoId(),
+                        chave.data(), novoStatus), 1L, Long::sum);
+            }
+        }
+        deltas.forEach(this::somar);
+    }
+
+    /**
+     * Desconta uma consulta excluída.
+     *
+     * @param chave A chave da consulta excluída.
+     */
+    public void registrarExclusao(final ChaveContador chave) {
+        somar(chave, -1);
+    }
+
+    /**
+     * Retorna a quantidade de consultas do médico em cada dia do período,
+     * incluindo os dias sem consultas.
+     *
+     * @param medicoId O ID do médico.
+     * @param inicio   Primeiro dia do período (inclusivo).
+     * @param fim      Último dia do período (inclusivo).
+     * @return Uma contagem por dia, em ordem cronológica.
+     * @throws IllegalArgumentException Se o período for inválido
+     * ou exceder {@value #DIAS_MAXIMOS_PERIODO} dias.
+     */
+    public List<ContagemAgendaDTO> contar(final Long medicoId,
+            final LocalDate inicio, final LocalDate fim) {
+        validarPeriodo(inicio, fim);
+        log.debug("Contando consultas do médico {} entre {} e {}",
+                medicoId, inicio, fim);
+
+        final int dias = (int) ChronoUnit.DAYS.between(inicio, fim) + 1;
+        final List<EnumMap<StatusConsulta, Long>> porDia =
+                new ArrayList<>(dias);
+        for (int i = 0; i < dias; i++) {
+            final EnumMap<StatusConsulta, Long> zerado =
+                    new EnumMap<>(StatusConsulta.class);
+            for (StatusConsulta status : StatusConsulta.values()) {
+                zerado.put(status, 0L);
+            }
+            porDia.add(zerado);
+        }
+
+        for (AgendaContador contador : agendaContadorRepository
+                .findPorMedicoEPeriodo(medicoId, inicio, fim)) {
+            final int dia = (int) ChronoUnit.DAYS.between(inicio,
+                    contador.getId().getData());
+            porDia.get(dia).put(contador.getId().getStatus(),
+                    contador.getQuantidade());
+        }
+
+        final List<ContagemAgendaDTO> contagens = new ArrayList<>(dias);
+        for (int i = 0; i < dias; i++) {
+            final EnumMap<StatusConsulta, Long> quantidades = porDia.get(i);
+            final long total = quantidades.values().stream()
+                    .mapToLong(Long::longValue).sum();
+            contagens.add(new ContagemAgendaDTO(inicio.plusDays(i),
+                    quantidades, total));
+        }
+        return contagens;
+    }
+
+    /**
+     * Reconstrói os contadores a partir da tabela {@code consultas},
+     * corrigindo divergências causadas por falhas na atualização
+     * incremental. Executado periodicamente conforme
+     * {@code agenda.contadores.reconciliacao.cron}.
+     *
+     * <p>O período das consultas é percorrido em blocos de
+     * {@value #DIAS_POR_BLOCO} dias, cada um recalculado por comandos
+     * curtos que leem apenas as consultas do bloco, de modo que a
+     * reconciliação não mantenha bloqueios sobre a tabela inteira.</p>
+     */
+    @Scheduled(cron = "${agenda.contadores.reconciliacao.cron:0 30 3 * * *}")
+    public void reconciliar() {
+        final long inicio = System.nanoTime();
+        final PeriodoConsultasDTO periodo =
+                agendaContadorRepository.periodoConsultas();
+        if (periodo == null || periodo.inicio() == null) {
+            final int removidos = agendaContadorRepository.removerTodos();
+            log.info("Contadores da agenda reconciliados sem consultas: "
+                    + "{} removidos", removidos);
+            return;
+        }
+
+        final LocalDate primeiro = periodo.inicio().toLocalDate();
+        final LocalDate ultimo = periodo.fim().toLocalDate();
+        int removidos = agendaContadorRepository
+                .removerForaDoPeriodo(primeiro, ultimo);
+        int afetados = 0;
+        int blocos = 0;
+        for (LocalDate de = primeiro; !de.isAfter(ultimo);
+                de = de.plusDays(DIAS_POR_BLOCO)) {
+            final LocalDate fimBloco = de.plusDays(DIAS_POR_BLOCO - 1);
+            final LocalDate ate = fimBloco.isBefore(ultimo)
+                    ? fimBloco : ultimo;
+            afetados += agendaContadorRepository.reconstruirPeriodo(
+                    de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+            removidos += agendaContadorRepository.removerObsoletos(de, ate);
+            blocos++;
+        }
+        log.info("Contadores da agenda reconciliados em {} blocos: {} "
+                + "afetados, {} removidos em {} ms", blocos, afetados,
+                removidos, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Soma o valor ao contador, registrando a falha sem propagá-la.
+     *
+     * @param chave A chave do contador; ignorada se {@code null}.
+     * @param delta O valor a ser somado.
+     */
+    private void somar(final ChaveContador chave, final long delta) {
+        if (chave == null) {
+            return;
+        }
+        try {
+            agendaContadorRepository.somar(chave.medicoId(), chave.data(),
+                    chave.status().name(), delta);
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao somar {} ao contador da agenda {}; "
+                    + "será corrigido na reconciliação: {}",
+                    delta, chave, ex.getMessage());
+        }
+    }
+
+    /**
+     * Valida o período consultado.
+     *
+     * @param inicio Primeiro dia do período.
+     * @param fim    Último dia do período.
+     * @throws IllegalArgumentException Se o período for inválido
+     * ou exceder o limite de dias.
+     */
+    private void validarPeriodo(final LocalDate inicio, final LocalDate fim) {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException(
+                    "Período inválido: a data final deve ser igual ou "
+                    + "posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= DIAS_MAXIMOS_PERIODO) {
+            throw new IllegalArgumentException(
+                    "O período consultado deve ter no máximo "
+                    + DIAS_MAXIMOS_PERIODO + " dias");
+        }
+    }
+}
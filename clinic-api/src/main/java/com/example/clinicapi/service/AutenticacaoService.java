@@ -1,10 +1,12 @@
 package com.example.clinicapi.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.clinicapi.model.Usuario;
 import com.example.clinicapi.repository.UsuarioRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -12,12 +14,15 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Serviço responsável por carregar detalhes do usuário para autenticação
- * no Spring Security. Implementa a interface {@link UserDetailsService}.
+ * no Spring Security. Implementa a interface {@link UserDetailsService}
+ * e {@link UserDetailsPasswordService}, que grava o hash recalculado
+ * quando a força configurada do BCrypt é aumentada.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class AutenticacaoService implements UserDetailsService {
+public class AutenticacaoService implements UserDetailsService,
+        UserDetailsPasswordService {
 
     /**
      * Repositório para operações de acesso a dados de usuários.
@@ -50,4 +55,22 @@ public class AutenticacaoService implements UserDetailsService {
                             "Usuário não encontrado");
                 });
     }
+
+    /**
+     * Grava o hash recalculado da senha após um login bem-sucedido com
+     * um hash gerado por uma configuração mais fraca que a atual.
+     *
+     * @param user        O usuário autenticado.
+     * @param newPassword O novo hash da senha.
+     * @return O usuário com o novo hash.
+     */
+    @Override
+    public UserDetails updatePassword(final UserDetails user,
+            final String newPassword) {
+        final Usuario usuario = (Usuario) user;
+        usuario.setSenha(newPassword);
+        log.info("Hash de senha recalculado para o usuário: {}",
+                usuario.getLogin());
+        return repository.save(usuario);
+    }
 }
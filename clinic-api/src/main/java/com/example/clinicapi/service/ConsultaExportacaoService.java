@@ -0,0 +1,231 @@
+package com.example.clinicapi.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.mapper.ConsultaMapper;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela exportação das consultas de um período
+ * em NDJSON ou CSV.
+ *
+ * <p>As consultas são lidas por um {@link Stream} do repositório e
+ * escritas uma a uma no gerador de streaming do Jackson; cada entidade
+ * é desanexada do contexto de persistência logo após ser escrita.
+ * Assim, o uso de memória não depende da quantidade de linhas
+ * exportadas.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsultaExportacaoService {
+
+    /**
+     * Esquema das colunas do arquivo CSV, na ordem em que são escritas.
+     */
+    private static final CsvSchema ESQUEMA_CSV = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("pacienteId")
+            .addColumn("medicoId")
+            .addColumn("dataHora")
+            .addColumn("status")
+            .addColumn("motivoCancelamento")
+            .setUseHeader(true)
+            .build();
+
+    /**
+     * Mapper utilizado para gerar os arquivos CSV.
+     */
+    private static final CsvMapper CSV_MAPPER = (CsvMapper) new CsvMapper()
+            .registerModule(new JavaTimeModule());
+
+    /**
+     * Repositório para operações de persistência de consultas.
+     */
+    private final ConsultaRepository consultaRepository;
+
+    /**
+     * Mapper para conversão entre entidades Consulta e ConsultaDTO.
+     */
+    private final ConsultaMapper consultaMapper;
+
+    /**
+     * ObjectMapper da aplicação, utilizado para gerar o NDJSON.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * EntityManager utilizado para desanexar as entidades já exportadas.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Formatos de arquivo suportados pela exportação.
+     */
+    public enum FormatoExportacao {
+
+        /**
+         * Um objeto JSON por linha.
+         */
+        NDJSON("application/x-ndjson"),
+
+        /**
+         * Valores separados por vírgula, com cabeçalho.
+         */
+        CSV("text/csv");
+
+        /**
+         * O tipo de conteúdo HTTP correspondente ao formato.
+         */
+        private final String contentType;
+
+        FormatoExportacao(final String pContentType) {
+            this.contentType = pContentType;
+        }
+
+        /**
+         * Retorna o tipo de conteúdo HTTP correspondente ao formato.
+         *
+         * @return O content type do formato.
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Converte o parâmetro da requisição no formato correspondente,
+         * sem diferenciar maiúsculas de minúsculas.
+         *
+         * @param valor O valor informado.
+         * @return O formato correspondente.
+         * @throws IllegalArgumentException Se o formato não for suportado.
+         */
+        public static FormatoExportacao deParametro(final String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                throw new IllegalArgumentException(
+                        "Formato de exportação não suportado: " + valor);
+            }
+        }
+    }
+
+    /**
+     * Escreve no fluxo de saída todas as consultas do período,
+     * ordenadas por data e hora.
+     *
+     * @param inicio  Data e hora inicial (inclusiva).
+     * @param fim     Data e hora final (exclusiva).
+     * @param formato O formato do arquivo gerado.
+     * @param saida   O fluxo onde o arquivo será escrito.
+     * @return A quantidade de consultas exportadas.
+     * @throws IOException Se ocorrer erro ao escrever no fluxo de saída.
+     * @throws IllegalArgumentException Se o período for inválido.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(final LocalDateTime inicio, final LocalDateTime fim,
+            final FormatoExportacao formato, final OutputStream saida)
+            throws IOException {
+        if (inicio == null || fim == null || !fim.isAfter(inicio)) {
+            throw new IllegalArgumentException(
+                    "Período inválido: o fim deve ser posterior ao início");
+        }
+        log.info("Exportando consultas entre {} e {} em {}",
+                inicio, fim, formato);
+
+        long total = 0;
+        try (JsonGenerator gerador = criarGerador(formato, saida);
+                Stream<Consulta> consultas = consultaRepository
+                        .streamPorPeriodo(inicio, fim)) {
+            final ObjectWriter writer = criarWriter(formato);
+            for (Consulta consulta
+                    : (Iterable<Consulta>) consultas::iterator) {
+                writer.writeValue(gerador, consultaMapper.toDTO(consulta));
+                if (formato == FormatoExportacao.NDJSON) {
+                    gerador.writeRaw('\n');
+                }
+                desanexar(consulta);
+                total++;
+            }
+        }
+
+        log.info("Exportação concluída: {} consultas", total);
+        return total;
+    }
+
+    /**
+     * Cria o gerador de streaming do Jackson para o formato informado.
+     *
+     * @param formato O formato do arquivo.
+     * @param saida   O fluxo de saída.
+     * @return O gerador configurado.
+     * @throws IOException Se o gerador não puder ser criado.
+     */
+    private JsonGenerator criarGerador(final FormatoExportacao formato,
+            final OutputStream saida) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            final CsvGenerator gerador = CSV_MAPPER.getFactory()
+                    .createGenerator(saida);
+            gerador.setSchema(ESQUEMA_CSV);
+            return gerador;
+        }
+        final JsonGenerator gerador = objectMapper.getFactory()
+                .createGenerator(saida);
+        // As linhas são separadas explicitamente por '\n' em exportar()
+        gerador.setRootValueSeparator(null);
+        return gerador;
+    }
+
+    /**
+     * Cria o writer utilizado para serializar cada linha. As datas são
+     * escritas em ISO-8601 e o fluxo não é descarregado a cada linha.
+     *
+     * @param formato O formato do arquivo.
+     * @return O writer configurado.
+     */
+    private ObjectWriter criarWriter(final FormatoExportacao formato) {
+        final ObjectWriter writer = (formato == FormatoExportacao.CSV
+                ? CSV_MAPPER.writerFor(ConsultaDTO.class).with(ESQUEMA_CSV)
+                : objectMapper.writerFor(ConsultaDTO.class));
+        return writer
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Remove a consulta, o paciente e o médico do contexto de persistência
+     * para que não se acumulem durante a exportação.
+     *
+     * @param consulta A consulta já exportada.
+     */
+    private void desanexar(final Consulta consulta) {
+        entityManager.detach(consulta);
+        if (consulta.getPaciente() != null) {
+            entityManager.detach(consulta.getPaciente());
+        }
+        if (consulta.getMedico() != null) {
+            entityManager.detach(consulta.getMedico());
+        }
+    }
+}
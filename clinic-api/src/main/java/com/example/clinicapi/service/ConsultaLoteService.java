@@ -0,0 +1,334 @@
+package com.example.clinicapi.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.ResultadoItemLoteDTO;
+import com.example.clinicapi.dto.ResultadoItemLoteDTO.StatusItemLote;
+import com.example.clinicapi.dto.ResultadoLoteDTO;
+import com.example.clinicapi.event.ConsultaAlteradaEvent;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.infra.concorrencia.BloqueioPorMedico;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.model.Paciente;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.repository.MedicoRepository;
+import com.example.clinicapi.repository.PacienteRepository;
+import com.example.clinicapi.service.AgendaContadorService.ChaveContador;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela criação de consultas em lote, utilizado
+ * na importação de agendas de clínicas parceiras.
+ *
+ * <p>Cada linha é validada individualmente e o resultado informa a
+ * situação de cada uma. Pacientes e médicos referenciados são
+ * carregados com poucas consultas {@code IN}, e as consultas válidas
+ * são gravadas em uma única transação com inserts agrupados em lotes
+ * JDBC. Diferentemente do agendamento individual, nenhum e-mail é
+ * enviado aos pacientes.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsultaLoteService {
+
+    /**
+     * Quantidade máxima de linhas aceitas em um único lote.
+     */
+    public static final int TAMANHO_MAXIMO_LOTE = 5000;
+
+    /**
+     * Quantidade máxima de IDs enviados em cada consulta {@code IN}.
+     */
+    private static final int TAMANHO_MAXIMO_IN = 1000;
+
+    /**
+     * Repositório para operações de persistência de consultas.
+     */
+    private final ConsultaRepository consultaRepository;
+
+    /**
+     * Repositório para operações de persistência de pacientes.
+     */
+    private final PacienteRepository pacienteRepository;
+
+    /**
+     * Repositório para operações de persistência de médicos.
+     */
+    private final MedicoRepository medicoRepository;
+
+    /**
+     * Índice em memória das agendas dos médicos, utilizado para
+     * rejeitar linhas que conflitem com consultas existentes.
+     */
+    private final AgendaMedicoIndex agendaMedicoIndex;
+
+    /**
+     * Bloqueio por médico que serializa a verificação de conflito e o
+     * salvamento dos agendamentos de um mesmo médico.
+     */
+    private final BloqueioPorMedico bloqueioPorMedico;
+
+    /**
+     * Mantém os contadores diários da agenda de cada médico.
+     */
+    private final AgendaContadorService agendaContadorService;
+
+    /**
+     * Publica o evento de criação de cada consulta do lote.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Validador utilizado para aplicar as restrições do
+     * {@link ConsultaDTO} a cada linha do lote.
+     */
+    private final Validator validator;
+
+    /**
+     * Cria as consultas válidas do lote e informa o resultado de cada linha.
+     * Uma linha é rejeitada quando viola as restrições do DTO, referencia
+     * paciente ou médico inexistente, ou conflita com outra consulta do
+     * médico (existente ou anterior no mesmo lote).
+     *
+     * @param consultas As consultas a serem criadas.
+     * @return O resultado do processamento do lote.
+     * @throws IllegalArgumentException Se o lote estiver vazio ou exceder
+     * {@value #TAMANHO_MAXIMO_LOTE} linhas.
+     */
+    public ResultadoLoteDTO criarEmLote(final List<ConsultaDTO> consultas) {
+        if (consultas == null || consultas.isEmpty()) {
+            throw new IllegalArgumentException("O lote de consultas está vazio");
+        }
+        if (consultas.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote deve conter no máximo "
+                    + TAMANHO_MAXIMO_LOTE + " consultas");
+        }
+        log.info("Processando lote com {} consultas", consultas.size());
+
+        final ResultadoItemLoteDTO[] resultados =
+                new ResultadoItemLoteDTO[consultas.size()];
+        final List<Integer> validas = new ArrayList<>(consultas.size());
+        for (int i = 0; i < consultas.size(); i++) {
+            final String erro = validar(consultas.get(i));
+            if (erro == null) {
+                validas.add(i);
+            } else {
+                resultados[i] = rejeitada(i, erro);
+            }
+        }
+
+        final Map<Long, Paciente> pacientes = carregarPorIds(
+                pacienteRepository, idsReferenciados(consultas, validas,
+                        ConsultaDTO::pacienteId), Paciente::getId);
+        final Map<Long, Medico> medicos = carregarPorIds(
+                medicoRepository, idsReferenciados(consultas, validas,
+                        ConsultaDTO::medicoId), Medico::getId);
+
+        final int criadas = bloqueioPorMedico.executar(medicos.keySet(),
+                () -> agendar(consultas, validas, pacientes, medicos,
+                        resultados));
+        final int rejeitadas = consultas.size() - criadas;
+        log.info("Lote processado: {} consultas criadas, {} rejeitadas",
+                criadas, rejeitadas);
+
+        return new ResultadoLoteDTO(consultas.size(), criadas, rejeitadas,
+                List.of(resultados));
+    }
+
+    /**
+     * Verifica os conflitos de horário das linhas válidas, salva as
+     * consultas aceitas e as registra no índice da agenda. Executado com
+     * as agendas de todos os médicos do lote bloqueadas, como em
+     * {@link ConsultaService#createConsulta(ConsultaDTO)}.
+     *
+     * @param consultas  As linhas do lote.
+     * @param validas    Os índices das linhas válidas.
+     * @param pacientes  Os pacientes referenciados, indexados pelo ID.
+     * @param medicos    Os médicos referenciados, indexados pelo ID.
+     * @param resultados O resultado de cada linha, preenchido por este método.
+     * @return A quantidade de consultas criadas.
+     */
+    private int agendar(final List<ConsultaDTO> consultas,
+            final List<Integer> validas, final Map<Long, Paciente> pacientes,
+            final Map<Long, Medico> medicos,
+            final ResultadoItemLoteDTO[] resultados) {
+        final Duration duracao = agendaMedicoIndex.getDuracaoConsulta();
+        final Map<Long, NavigableSet<LocalDateTime>> agendasDoLote =
+                new HashMap<>();
+        final List<Integer> indicesNovas = new ArrayList<>(validas.size());
+        final List<Consulta> novas = new ArrayList<>(validas.size());
+
+        for (int i : validas) {
+            final ConsultaDTO dto = consultas.get(i);
+            final Paciente paciente = pacientes.get(dto.pacienteId());
+            final Medico medico = medicos.get(dto.medicoId());
+
+            if (paciente == null || medico == null) {
+                resultados[i] = rejeitada(i,
+                        "Paciente ou Médico não encontrados");
+            } else if (agendaMedicoIndex.possuiConflito(dto.medicoId(),
+                    dto.dataHora(), null)
+                    || conflitaNoLote(agendasDoLote, dto, duracao)) {
+                resultados[i] = rejeitada(i,
+                        "O médico já possui consulta agendada neste horário");
+            } else {
+                agendasDoLote.computeIfAbsent(dto.medicoId(),
+                        id -> new TreeSet<>()).add(dto.dataHora());
+                final Consulta consulta = new Consulta();
+                consulta.setPaciente(paciente);
+                consulta.setMedico(medico);
+                consulta.setDataHora(dto.dataHora());
+                consulta.setStatus(StatusConsulta.AGENDADA);
+                novas.add(consulta);
+                indicesNovas.add(i);
+            }
+        }
+
+        if (!novas.isEmpty()) {
+            final List<Consulta> salvas = consultaRepository.saveAll(novas);
+            for (int j = 0; j < salvas.size(); j++) {
+                final Consulta salva = salvas.get(j);
+                agendaMedicoIndex.registrar(salva);
+                final int indice = indicesNovas.get(j);
+                resultados[indice] = new ResultadoItemLoteDTO(indice,
+                        StatusItemLote.CRIADA, salva.getId(), null);
+            }
+            agendaContadorService.registrarCriacoes(salvas.stream()
+                    .map(ChaveContador::de).toList());
+            salvas.forEach(salva -> eventPublisher.publishEvent(
+                    ConsultaAlteradaEvent.de(salva)));
+        }
+
+        return novas.size();
+    }
+
+    /**
+     * Aplica as restrições de validação do DTO a uma linha do lote.
+     *
+     * @param dto A linha a ser validada.
+     * @return As mensagens de erro concatenadas, ou {@code null}
+     * se a linha for válida.
+     */
+    private String validar(final ConsultaDTO dto) {
+        if (dto == null) {
+            return "Consulta não informada";
+        }
+        final Set<ConstraintViolation<ConsultaDTO>> violacoes =
+                validator.validate(dto);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Verifica se a linha conflita com outra consulta do mesmo médico
+     * já aceita neste lote.
+     *
+     * @param agendasDoLote Horários aceitos no lote, por médico.
+     * @param dto           A linha a ser verificada.
+     * @param duracao       A duração de uma consulta.
+     * @return {@code true} se houver sobreposição.
+     */
+    private static boolean conflitaNoLote(
+            final Map<Long, NavigableSet<LocalDateTime>> agendasDoLote,
+            final ConsultaDTO dto, final Duration duracao) {
+        final NavigableSet<LocalDateTime> agenda =
+                agendasDoLote.get(dto.medicoId());
+        if (agenda == null) {
+            return false;
+        }
+        final LocalDateTime vizinho = agenda.higher(
+                dto.dataHora().minus(duracao));
+        return vizinho != null
+                && vizinho.isBefore(dto.dataHora().plus(duracao));
+    }
+
+    /**
+     * Coleta os IDs distintos referenciados pelas linhas válidas.
+     *
+     * @param consultas As linhas do lote.
+     * @param validas   Os índices das linhas válidas.
+     * @param extrator  Função que extrai o ID desejado da linha.
+     * @return Os IDs distintos, na ordem em que aparecem.
+     */
+    private static Set<Long> idsReferenciados(
+            final List<ConsultaDTO> consultas, final List<Integer> validas,
+            final Function<ConsultaDTO, Long> extrator) {
+        final Set<Long> ids = new LinkedHashSet<>();
+        for (int i : validas) {
+            ids.add(extrator.apply(consultas.get(i)));
+        }
+        return ids;
+    }
+
+    /**
+     * Carrega as entidades com os IDs informados em blocos de até
+     * {@value #TAMANHO_MAXIMO_IN} IDs por consulta {@code IN}.
+     *
+     * @param <T>        O tipo da entidade.
+     * @param repository O repositório da entidade.
+     * @param ids        Os IDs a serem carregados.
+     * @param idDe       Função que extrai o ID da entidade.
+     * @return As entidades encontradas, indexadas pelo ID.
+     */
+    private static <T> Map<Long, T> carregarPorIds(
+            final JpaRepository<T, Long> repository,
+            final Collection<Long> ids, final Function<T, Long> idDe) {
+        final Map<Long, T> entidades = new HashMap<>();
+        final List<Long> bloco = new ArrayList<>(TAMANHO_MAXIMO_IN);
+        for (Long id : ids) {
+            bloco.add(id);
+            if (bloco.size() == TAMANHO_MAXIMO_IN) {
+                repository.findAllById(bloco)
+                        .forEach(e -> entidades.put(idDe.apply(e), e));
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            repository.findAllById(bloco)
+                    .forEach(e -> entidades.put(idDe.apply(e), e));
+        }
+        return entidades;
+    }
+
+    /**
+     * Cria o resultado de uma linha rejeitada.
+     *
+     * @param indice   A posição da linha no lote.
+     * @param mensagem O motivo da rejeição.
+     * @return O resultado da linha.
+     */
+    private static ResultadoItemLoteDTO rejeitada(final int indice,
+            final String mensagem) {
+        return new ResultadoItemLoteDTO(indice, StatusItemLote.REJEITADA,
+                null, mensagem);
+    }
+}
@@ -1,20 +1,37 @@
 package com.example.clinicapi.service;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
+import com.example.clinicapi.event.ConsultaAlteradaEvent;
+import com.example.clinicapi.exception.HorarioIndisponivelException;
+import com.example.clinicapi.exception.ResourceNotFoundException;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.infra.concorrencia.BloqueioPorMedico;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
+import com.example.clinicapi.infra.pagination.CursorCodec;
 import com.example.clinicapi.mapper.ConsultaMapper;
 import com.example.clinicapi.model.Consulta;
-import com.example.clinicapi.model.Medico;
-import com.example.clinicapi.model.Paciente;
 import com.example.clinicapi.model.StatusConsulta;
 import com.example.clinicapi.repository.ConsultaRepository;
 import com.example.clinicapi.repository.MedicoRepository;
 import com.example.clinicapi.repository.PacienteRepository;
+import com.example.clinicapi.service.AgendaContadorService.ChaveContador;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +67,16 @@ public class ConsultaService {
      */
     private final MedicoRepository medicoRepository;
 
+    /**
+     * Serviço de pacientes, cuja busca por ID é atendida pelo cache.
+     */
+    private final PacienteService pacienteService;
+
+    /**
+     * Serviço de médicos, cuja busca por ID é atendida pelo cache.
+     */
+    private final MedicoService medicoService;
+
     /**
      * Mapper para conversão entre entidades Consulta e ConsultaDTO.
      */
@@ -61,6 +88,40 @@ public class ConsultaService {
      */
     private final EmailService emailService;
 
+    /**
+     * Índice em memória das agendas dos médicos, utilizado para
+     * impedir agendamentos sobrepostos sem consultar o banco.
+     */
+    private final AgendaMedicoIndex agendaMedicoIndex;
+
+    /**
+     * Bloqueio por médico que serializa a verificação de conflito e o
+     * salvamento dos agendamentos de um mesmo médico.
+     */
+    private final BloqueioPorMedico bloqueioPorMedico;
+
+    /**
+     * Refaz as atualizações que falham por conflito de versão.
+     */
+    private final RetentativaOtimista retentativaOtimista;
+
+    /**
+     * Mantém os contadores diários da agenda de cada médico.
+     */
+    private final AgendaContadorService agendaContadorService;
+
+    /**
+     * Publica os eventos de criação, alteração e exclusão de consultas,
+     * consumidos por exemplo pelos lembretes enviados aos pacientes.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Transação em que o médico é bloqueado, a agenda é conferida no
+     * banco e a consulta é salva.
+     */
+    private final TransactionTemplate transacao;
+
     /**
      * Valor máximo permitido para o tamanho da página de resultados.
      * Utilizado para limitar a quantidade de dados retornados
@@ -76,13 +137,22 @@ public class ConsultaService {
 
     /**
      * Cria uma nova consulta com base nos dados fornecidos.
-     * Valida a existência do paciente e do médico antes de agendar a consulta.
+     * Valida a existência do paciente e do médico antes de agendar a consulta,
+     * pela busca em cache; a consulta referencia o paciente sem carregá-lo,
+     * e o médico é carregado com bloqueio otimista na transação que a salva.
      * Envia um e-mail de confirmação ao paciente após o agendamento.
      *
      * @param consultaDTO O DTO contendo os dados da consulta a ser criada.
      * @return O ConsultaDTO da consulta salva.
      * @throws IllegalArgumentException
      * Se o paciente ou médico não forem encontrados.
+     * @throws HorarioIndisponivelException
+     * Se o médico já possuir consulta no horário solicitado.
+     * @throws ResourceNotFoundException
+     * Se o paciente ou o médico tiver sido excluído após a busca em cache.
+     * @throws OptimisticLockingFailureException
+     * Se a agenda do médico continuar sendo alterada por outros nós após
+     * todas as tentativas.
      */
     public ConsultaDTO createConsulta(final ConsultaDTO consultaDTO) {
         log.info("Tentando agendar nova consulta: paciente={},"
@@ -90,28 +160,53 @@ public class ConsultaService {
                 consultaDTO.pacienteId(), consultaDTO.medicoId(),
                 consultaDTO.dataHora());
 
-        final Optional<Paciente> paciente = pacienteRepository
+        return retentativaOtimista.executar(
+                "agendar consulta do médico " + consultaDTO.medicoId(),
+                () -> bloqueioPorMedico.executar(consultaDTO.medicoId(),
+                        () -> agendar(consultaDTO)));
+    }
+
+    /**
+     * Verifica a disponibilidade, salva e indexa a nova consulta.
+     * Deve ser executado com o bloqueio da agenda do médico, para que
+     * dois agendamentos simultâneos neste nó não passem pela verificação;
+     * entre nós, o conflito é detectado por {@link #salvarNaAgenda}.
+     *
+     * @param consultaDTO O DTO contendo os dados da consulta a ser criada.
+     * @return O ConsultaDTO da consulta salva.
+     */
+    private ConsultaDTO agendar(final ConsultaDTO consultaDTO) {
+        verificarDisponibilidade(consultaDTO.medicoId(),
+                consultaDTO.dataHora(), null);
+
+        final Optional<PacienteDTO> paciente = pacienteService
                 .findById(consultaDTO.pacienteId());
-        final Optional<Medico> medico = medicoRepository
+        final Optional<MedicoDTO> medico = medicoService
                 .findById(consultaDTO.medicoId());
 
         if (paciente.isPresent() && medico.isPresent()) {
             final Consulta consulta = new Consulta();
-            consulta.setPaciente(paciente.get());
-            consulta.setMedico(medico.get());
+            consulta.setPaciente(pacienteRepository
+                    .getReferenceById(consultaDTO.pacienteId()));
             consulta.setDataHora(consultaDTO.dataHora());
             consulta.setStatus(StatusConsulta.AGENDADA);
 
-            final Consulta savedConsulta = consultaRepository.save(consulta);
+            final Consulta savedConsulta = salvarNaAgenda(consulta,
+                    consultaDTO.medicoId(), null);
+            agendaMedicoIndex.registrar(savedConsulta);
+            agendaContadorService.registrarCriacao(
+                    ChaveContador.de(savedConsulta));
+            eventPublisher.publishEvent(
+                    ConsultaAlteradaEvent.de(savedConsulta));
 
             log.info("Consulta agendada com sucesso: id={}, dataHora={}",
                     savedConsulta.getId(), savedConsulta.getDataHora());
 
             emailService.enviarEmail(
-                    paciente.get().getEmail(),
+                    paciente.get().email(),
                     "Consulta agendada com sucesso",
                     String.format("Olá %s, sua consulta foi agendada para %s.",
-                            paciente.get().getNome(),
+                            paciente.get().nome(),
                             savedConsulta.getDataHora().toString())
             );
 
@@ -126,7 +221,7 @@ public class ConsultaService {
 
     /**
      * Retorna uma página de todas as consultas existentes,
-     * convertidas para DTOs.
+     * projetadas diretamente em DTOs, sem carregar pacientes e médicos.
      *
      * @param pageable Objeto Pageable para paginação e ordenação.
      * @return Uma página de ConsultaDTOs.
@@ -146,12 +241,53 @@ public class ConsultaService {
                 size,
                 sort);
 
-        return consultaRepository.findAll(pageable)
-                .map(consultaMapper::toDTO);
+        return consultaRepository.findAllProjetadas(pageable);
+    }
+
+    /**
+     * Retorna uma página de consultas ordenadas por data e hora e ID,
+     * utilizando paginação por cursor (keyset). Diferentemente de
+     * {@link #findAll(Pageable)}, o custo de cada página não cresce com
+     * a profundidade da listagem e nenhuma contagem total é executada.
+     *
+     * @param cursor  O token devolvido na página anterior,
+     * ou {@code null} para a primeira página.
+     * @param tamanho A quantidade de consultas desejada.
+     * @return A página de ConsultaDTOs e o cursor da página seguinte.
+     * @throws IllegalArgumentException Se o cursor for inválido.
+     */
+    public PaginaCursorDTO<ConsultaDTO> findAllPorCursor(final String cursor,
+            final int tamanho) {
+        final int size = Math.min(Math.max(TAMANHO_MINIMO_PAGINA, tamanho),
+                TAMANHO_MAXIMO_PAGINA);
+        log.info("Listando consultas por cursor - tamanho: {}, "
+                + "primeira página: {}", size, cursor == null);
+
+        final Limit limite = Limit.of(size + 1);
+        final List<ConsultaDTO> consultas;
+        if (cursor == null || cursor.isBlank()) {
+            consultas = consultaRepository.findPrimeirasPorDataHoraEId(limite);
+        } else {
+            final CursorCodec.ChaveDataHoraId chave =
+                    CursorCodec.decodificarDataHoraId(cursor);
+            consultas = consultaRepository.findApos(chave.dataHora(),
+                    chave.id(), limite);
+        }
+
+        final boolean possuiProxima = consultas.size() > size;
+        final List<ConsultaDTO> pagina = possuiProxima
+                ? consultas.subList(0, size) : consultas;
+        final String proximoCursor = possuiProxima
+                ? CursorCodec.codificar(pagina.get(size - 1).dataHora(),
+                        pagina.get(size - 1).id())
+                : null;
+
+        return new PaginaCursorDTO<>(List.copyOf(pagina), size,
+                proximoCursor);
     }
 
     /**
-     * Busca uma consulta pelo seu ID e a converte para DTO.
+     * Busca uma consulta pelo seu ID, projetada diretamente em DTO.
      *
      * @param id O ID da consulta a ser buscada.
      * @return Um Optional contendo o ConsultaDTO,
@@ -159,10 +295,10 @@ public class ConsultaService {
      */
     public Optional<ConsultaDTO> findById(final Long id) {
         log.info("Buscando consulta por ID: {}", id);
-        return consultaRepository.findById(id)
+        return consultaRepository.findProjetadaById(id)
                 .map(consulta -> {
-                    log.info("Consulta encontrada: id={}", consulta.getId());
-                    return consultaMapper.toDTO(consulta);
+                    log.info("Consulta encontrada: id={}", consulta.id());
+                    return consulta;
                 });
     }
 
@@ -173,7 +309,13 @@ public class ConsultaService {
      */
     public void deleteById(final Long id) {
         log.info("Cancelando consulta de ID: {}", id);
+        final Optional<ConsultaDTO> existente = consultaRepository
+                .findProjetadaById(id);
         consultaRepository.deleteById(id);
+        agendaMedicoIndex.remover(id);
+        existente.ifPresent(consulta -> agendaContadorService
+                .registrarExclusao(ChaveContador.de(consulta)));
+        eventPublisher.publishEvent(ConsultaAlteradaEvent.removida(id));
         log.info("Consulta de ID {} cancelada com sucesso", id);
     }
 
@@ -189,59 +331,203 @@ public class ConsultaService {
      * @return Um Optional contendo o ConsultaDTO atualizado, se a consulta
      * for encontrada.
      * @throws IllegalArgumentException Se a consulta não for encontrada.
+     * @throws HorarioIndisponivelException
+     * Se o novo horário conflitar com outra consulta do médico.
+     * @throws ResourceNotFoundException
+     * Se o novo paciente ou médico tiver sido excluído após a busca em
+     * cache.
+     * @throws OptimisticLockingFailureException
+     * Se a consulta continuar sendo alterada por outras requisições
+     * após todas as tentativas.
      */
     public Optional<ConsultaDTO> updateConsulta(final Long id,
             final ConsultaDTO consultaDTO) {
         log.info("Tentando atualizar consulta de ID: {}", id);
-        final Optional<Consulta> existingConsulta = consultaRepository
-                .findById(id);
+        return retentativaOtimista.executar("atualizar consulta " + id,
+                () -> {
+                    final Consulta consulta = consultaRepository.findById(id)
+                            .orElseThrow(() -> {
+                                log.warn("Falha ao atualizar - consulta ID {}"
+                                        + " não encontrada", id);
+                                return new IllegalArgumentException(
+                                        "Consulta não encontrada "
+                                        + "para o ID fornecido");
+                            });
+                    final Long medicoAtual = consulta.getMedico() != null
+                            ? consulta.getMedico().getId() : null;
+                    return bloqueioPorMedico.executar(
+                            Arrays.asList(medicoAtual, consultaDTO.medicoId()),
+                            () -> atualizar(consulta, consultaDTO));
+                });
+    }
 
-        if (existingConsulta.isPresent()) {
-            final Consulta consulta = existingConsulta.get();
+    /**
+     * Aplica as alterações do DTO à consulta, verifica a disponibilidade
+     * e salva. Deve ser executado com o bloqueio das agendas do médico
+     * atual e do novo médico; se a consulta tiver sido alterada por outra
+     * requisição desde a leitura, o salvamento falha pela versão e a
+     * atualização é refeita por {@link RetentativaOtimista}.
+     *
+     * @param consulta    A consulta carregada do banco.
+     * @param consultaDTO O DTO contendo os dados atualizados da consulta.
+     * @return Um Optional contendo o ConsultaDTO atualizado.
+     */
+    private Optional<ConsultaDTO> atualizar(final Consulta consulta,
+            final ConsultaDTO consultaDTO) {
+        final Long id = consulta.getId();
+        final ChaveContador antes = ChaveContador.de(consulta);
+
+        if (consultaDTO.pacienteId() != null
+                && pacienteService.findById(consultaDTO.pacienteId())
+                        .isPresent()) {
+            consulta.setPaciente(pacienteRepository
+                    .getReferenceById(consultaDTO.pacienteId()));
+        }
+        Long medicoId = consulta.getMedico() != null
+                ? consulta.getMedico().getId() : null;
+        if (consultaDTO.medicoId() != null
+                && medicoService.findById(consultaDTO.medicoId())
+                        .isPresent()) {
+            medicoId = consultaDTO.medicoId();
+        }
+        if (consultaDTO.dataHora() != null) {
+            consulta.setDataHora(consultaDTO.dataHora());
+        }
 
-            if (consultaDTO.pacienteId() != null) {
-                pacienteRepository.findById(consultaDTO.pacienteId())
-                        .ifPresent(consulta::setPaciente);
-            }
-            if (consultaDTO.medicoId() != null) {
-                medicoRepository.findById(consultaDTO.medicoId())
-                        .ifPresent(consulta::setMedico);
-            }
-            if (consultaDTO.dataHora() != null) {
-                consulta.setDataHora(consultaDTO.dataHora());
-            }
+        boolean statusAlterado = false;
+        if (consultaDTO.status() != null
+                && !consultaDTO.status().equals(consulta.getStatus())) {
+            consulta.setStatus(consultaDTO.status());
+            statusAlterado = true;
+        }
 
-            boolean statusAlterado = false;
-            if (consultaDTO.status() != null
-                    && !consultaDTO.status().equals(consulta.getStatus())) {
-                consulta.setStatus(consultaDTO.status());
-                statusAlterado = true;
-            }
+        if (consultaDTO.motivoCancelamento() != null) {
+            consulta.setMotivoCancelamento(consultaDTO
+                    .motivoCancelamento());
+        }
 
-            if (consultaDTO.motivoCancelamento() != null) {
-                consulta.setMotivoCancelamento(consultaDTO
-                        .motivoCancelamento());
-            }
+        if (consulta.getStatus() != StatusConsulta.CANCELADA
+                && medicoId != null) {
+            verificarDisponibilidade(medicoId, consulta.getDataHora(), id);
+        }
 
-            final Consulta updatedConsulta = consultaRepository.save(consulta);
-            log.info("Consulta ID {} atualizada com sucesso", id);
-
-            if (statusAlterado && consulta.getPaciente() != null) {
-                emailService.enviarEmail(
-                        consulta.getPaciente().getEmail(),
-                        "Status da sua consulta foi atualizado",
-                        String.format("Olá %s, o status da sua "
-                                + "consulta agora é: %s.",
-                                consulta.getPaciente().getNome(),
-                                consulta.getStatus().name())
-                );
+        final Consulta updatedConsulta = salvarNaAgenda(consulta, medicoId,
+                id);
+        agendaMedicoIndex.registrar(updatedConsulta);
+        agendaContadorService.registrarAlteracao(antes,
+                ChaveContador.de(updatedConsulta));
+        eventPublisher.publishEvent(ConsultaAlteradaEvent.de(updatedConsulta));
+        log.info("Consulta ID {} atualizada com sucesso", id);
+
+        if (statusAlterado && consulta.getPaciente() != null) {
+            emailService.enviarEmail(
+                    consulta.getPaciente().getEmail(),
+                    "Status da sua consulta foi atualizado",
+                    String.format("Olá %s, o status da sua "
+                            + "consulta agora é: %s.",
+                            consulta.getPaciente().getNome(),
+                            consulta.getStatus().name())
+            );
+        }
+
+        return Optional.of(consultaMapper.toDTO(updatedConsulta));
+    }
+
+    /**
+     * Salva a consulta na agenda do médico, em uma transação que carrega
+     * o médico com incremento forçado da versão e confere o horário no
+     * banco. O índice em memória conhece apenas as consultas deste nó;
+     * se outro nó agendar para o mesmo médico ao mesmo tempo, uma das
+     * transações falha pela versão do médico e é refeita por
+     * {@link RetentativaOtimista}, encontrando então a consulta gravada.
+     *
+     * @param consulta         A consulta a ser salva.
+     * @param medicoId         O ID do médico da consulta, ou {@code null}.
+     * @param consultaIgnorada O ID da própria consulta em uma atualização,
+     * ou {@code null} em um novo agendamento.
+     * @return A consulta salva.
+     * @throws ResourceNotFoundException Se o médico não existir mais.
+     * @throws HorarioIndisponivelException
+     * Se o médico já possuir consulta gravada no horário.
+     */
+    private Consulta salvarNaAgenda(final Consulta consulta,
+            final Long medicoId, final Long consultaIgnorada) {
+        if (medicoId == null) {
+            return salvar(consulta);
+        }
+        return transacao.execute(status -> {
+            consulta.setMedico(medicoRepository
+                    .findParaAgendamentoById(medicoId)
+                    .orElseThrow(() -> {
+                        log.warn("Falha ao salvar consulta - médico ID {} "
+                                + "excluído", medicoId);
+                        return new ResourceNotFoundException(
+                                "Médico não encontrado");
+                    }));
+            if (consulta.getStatus() != StatusConsulta.CANCELADA
+                    && agendaMedicoIndex.possuiConflitoGravado(medicoId,
+                            consulta.getDataHora(), consultaIgnorada)) {
+                log.warn("Conflito de agenda: médico {} já possui consulta "
+                        + "gravada próxima de {}", medicoId,
+                        consulta.getDataHora());
+                throw new HorarioIndisponivelException(
+                        "O médico já possui consulta agendada neste horário");
             }
+            return salvar(consulta);
+        });
+    }
 
-            return Optional.of(consultaMapper.toDTO(updatedConsulta));
+    /**
+     * Salva a consulta. A existência do paciente e do médico é verificada
+     * pela busca em cache; se um deles tiver sido excluído depois, em
+     * outro nó, a chave estrangeira recusa o salvamento, e a existência é
+     * conferida no banco para responder que o recurso não foi encontrado.
+     *
+     * @param consulta A consulta a ser salva.
+     * @return A consulta salva.
+     * @throws ResourceNotFoundException
+     * Se o paciente ou o médico da consulta não existir mais.
+     */
+    private Consulta salvar(final Consulta consulta) {
+        try {
+            return consultaRepository.save(consulta);
+        } catch (DataIntegrityViolationException ex) {
+            if (consulta.getPaciente() != null && !pacienteRepository
+                    .existsById(consulta.getPaciente().getId())) {
+                log.warn("Falha ao salvar consulta - paciente ID {} "
+                        + "excluído", consulta.getPaciente().getId());
+                throw new ResourceNotFoundException(
+                        "Paciente não encontrado");
+            }
+            if (consulta.getMedico() != null && !medicoRepository
+                    .existsById(consulta.getMedico().getId())) {
+                log.warn("Falha ao salvar consulta - médico ID {} "
+                        + "excluído", consulta.getMedico().getId());
+                throw new ResourceNotFoundException(
+                        "Médico não encontrado");
+            }
+            throw ex;
         }
+    }
 
-        log.warn("Falha ao atualizar - consulta ID {} não encontrada", id);
-        throw new IllegalArgumentException("Consulta não encontrada "
-                + "para o ID fornecido");
+    /**
+     * Garante que o médico não possua outra consulta sobreposta
+     * ao horário informado, consultando o índice em memória da agenda.
+     *
+     * @param medicoId         O ID do médico.
+     * @param dataHora         A data e hora pretendidas.
+     * @param consultaIgnorada O ID da própria consulta em uma atualização,
+     * ou {@code null} em um novo agendamento.
+     * @throws HorarioIndisponivelException Se houver conflito de horário.
+     */
+    private void verificarDisponibilidade(final Long medicoId,
+            final LocalDateTime dataHora, final Long consultaIgnorada) {
+        if (agendaMedicoIndex.possuiConflito(medicoId, dataHora,
+                consultaIgnorada)) {
+            log.warn("Conflito de agenda: médico {} já possui consulta "
+                    + "próxima de {}", medicoId, dataHora);
+            throw new HorarioIndisponivelException(
+                    "O médico já possui consulta agendada neste horário");
+        }
     }
 }
@@ -0,0 +1,268 @@
+package com.example.clinicapi.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.clinicapi.dto.AgendaMedicoDTO;
+import com.example.clinicapi.exception.ResourceNotFoundException;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.repository.MedicoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável por calcular os horários livres da agenda
+ * dos médicos em um período.
+ *
+ * <p>Cada dia é representado por um mapa de bits com um bit por
+ * intervalo de 15 minutos (96 intervalos, dois {@code long} por dia),
+ * montado a partir das consultas mantidas no {@link AgendaMedicoIndex}.
+ * Um horário é considerado livre quando todos os intervalos cobertos
+ * por uma consulta a partir dele estão desocupados e dentro do
+ * expediente configurado.</p>
+ */
+@Slf4j
+@Service
+public class DisponibilidadeService {
+
+    /**
+     * Duração, em minutos, de cada intervalo da agenda.
+     */
+    public static final int MINUTOS_POR_SLOT = 15;
+
+    /**
+     * Quantidade de intervalos de 15 minutos em um dia.
+     */
+    private static final int SLOTS_POR_DIA = 96;
+
+    /**
+     * Quantidade de palavras de 64 bits utilizadas por dia no mapa de bits.
+     */
+    private static final int PALAVRAS_POR_DIA = 2;
+
+    /**
+     * Quantidade máxima de dias que podem ser consultados por requisição.
+     */
+    private static final int DIAS_MAXIMOS_PERIODO = 31;
+
+    /**
+     * Índice em memória das consultas de cada médico.
+     */
+    private final AgendaMedicoIndex agendaMedicoIndex;
+
+    /**
+     * Repositório de médicos, utilizado para validar o médico
+     * e localizar os médicos de uma especialidade.
+     */
+    private final MedicoRepository medicoRepository;
+
+    /**
+     * Primeiro intervalo do expediente (inclusivo).
+     */
+    private final int slotAbertura;
+
+    /**
+     * Último intervalo do expediente (exclusivo).
+     */
+    private final int slotFechamento;
+
+    /**
+     * Quantidade de intervalos ocupados por uma consulta.
+     */
+    private final int slotsPorConsulta;
+
+    /**
+     * Cria o serviço de disponibilidade.
+     *
+     * @param pAgendaMedicoIndex índice de agenda dos médicos
+     * @param pMedicoRepository  repositório de médicos
+     * @param inicioExpediente   horário de início do expediente (HH:mm)
+     * @param fimExpediente      horário de término do expediente (HH:mm)
+     */
+    public DisponibilidadeService(
+            final AgendaMedicoIndex pAgendaMedicoIndex,
+            final MedicoRepository pMedicoRepository,
+            @Value("${agenda.expediente.inicio:08:00}")
+            final String inicioExpediente,
+            @Value("${agenda.expediente.fim:18:00}")
+            final String fimExpediente) {
+        this.agendaMedicoIndex = pAgendaMedicoIndex;
+        this.medicoRepository = pMedicoRepository;
+        this.slotAbertura = slotDoHorario(LocalTime.parse(inicioExpediente));
+        this.slotFechamento = slotDoHorario(LocalTime.parse(fimExpediente));
+
+        final Duration duracao = pAgendaMedicoIndex.getDuracaoConsulta();
+        this.slotsPorConsulta = (int) Math.max(1,
+                (duracao.toMinutes() + MINUTOS_POR_SLOT - 1)
+                / MINUTOS_POR_SLOT);
+    }
+
+    /**
+     * Retorna os horários livres de um médico no período informado.
+     *
+     * @param medicoId O ID do médico.
+     * @param inicio   Primeiro dia do período (inclusivo).
+     * @param fim      Último dia do período (inclusivo).
+     * @return A agenda do médico com os horários livres.
+     * @throws ResourceNotFoundException Se o médico não existir.
+     * @throws IllegalArgumentException  Se o período for inválido.
+     */
+    public AgendaMedicoDTO horariosLivres(final Long medicoId,
+            final LocalDate inicio, final LocalDate fim) {
+        validarPeriodo(inicio, fim);
+        log.debug("Calculando horários livres do médico {} entre {} e {}",
+                medicoId, inicio, fim);
+
+        if (!medicoRepository.existsById(medicoId)) {
+            throw new ResourceNotFoundException("Médico não encontrado");
+        }
+
+        return calcularAgenda(medicoId, inicio, fim, LocalDateTime.now());
+    }
+
+    /**
+     * Retorna os horários livres de todos os médicos ativos de uma
+     * especialidade no período informado.
+     *
+     * @param especialidade A especialidade desejada.
+     * @param inicio        Primeiro dia do período (inclusivo).
+     * @param fim           Último dia do período (inclusivo).
+     * @return A agenda de cada médico ativo da especialidade.
+     * @throws IllegalArgumentException Se o período for inválido.
+     */
+    public List<AgendaMedicoDTO> horariosLivresPorEspecialidade(
+            final Especialidade especialidade,
+            final LocalDate inicio, final LocalDate fim) {
+        validarPeriodo(inicio, fim);
+        log.debug("Calculando horários livres da especialidade {} "
+                + "entre {} e {}", especialidade, inicio, fim);
+
+        final LocalDateTime agora = LocalDateTime.now();
+        return medicoRepository.findIdsAtivosPorEspecialidade(especialidade)
+                .stream()
+                .map(id -> calcularAgenda(id, inicio, fim, agora))
+                .toList();
+    }
+
+    /**
+     * Monta o mapa de bits do período e extrai os horários livres.
+     *
+     * @param medicoId O ID do médico.
+     * @param inicio   Primeiro dia do período.
+     * @param fim      Último dia do período.
+     * @param agora    Instante atual; horários anteriores não são livres.
+     * @return A agenda calculada.
+     */
+    AgendaMedicoDTO calcularAgenda(final long medicoId,
+            final LocalDate inicio, final LocalDate fim,
+            final LocalDateTime agora) {
+        final int dias = (int) ChronoUnit.DAYS.between(inicio, fim) + 1;
+        final LocalDateTime origem = inicio.atStartOfDay();
+        final int totalSlots = dias * SLOTS_POR_DIA;
+        final long[] ocupados = new long[dias * PALAVRAS_POR_DIA];
+
+        for (LocalDateTime horario : agendaMedicoIndex.horariosOcupados(
+                medicoId, origem, fim.plusDays(1).atStartOfDay())) {
+            final long minutos = ChronoUnit.MINUTES.between(origem, horario);
+            final long de = Math.floorDiv(minutos, MINUTOS_POR_SLOT);
+            final long ate = de + slotsPorConsulta
+                    + (Math.floorMod(minutos, MINUTOS_POR_SLOT) > 0 ? 1 : 0);
+            marcar(ocupados, (int) Math.max(0, de),
+                    (int) Math.min(totalSlots, ate));
+        }
+
+        final long minutosAgora = ChronoUnit.MINUTES.between(origem, agora);
+        final long primeiroSlotFuturo = minutosAgora < 0 ? 0
+                : Math.floorDiv(minutosAgora + MINUTOS_POR_SLOT - 1,
+                        MINUTOS_POR_SLOT);
+
+        final List<LocalDateTime> livres = new ArrayList<>();
+        for (int dia = 0; dia < dias; dia++) {
+            final int base = dia * SLOTS_POR_DIA;
+            for (int slot = slotAbertura;
+                    slot + slotsPorConsulta <= slotFechamento; slot++) {
+                final int global = base + slot;
+                if (global >= primeiroSlotFuturo
+                        && livre(ocupados, global, slotsPorConsulta)) {
+                    livres.add(origem.plusMinutes(
+                            (long) global * MINUTOS_POR_SLOT));
+                }
+            }
+        }
+
+        return new AgendaMedicoDTO(medicoId, livres);
+    }
+
+    /**
+     * Valida o período consultado.
+     *
+     * @param inicio Primeiro dia do período.
+     * @param fim    Último dia do período.
+     * @throws IllegalArgumentException Se o período for inválido
+     * ou exceder o limite de dias.
+     */
+    private void validarPeriodo(final LocalDate inicio, final LocalDate fim) {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException(
+                    "Período inválido: a data final deve ser igual ou "
+                    + "posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= DIAS_MAXIMOS_PERIODO) {
+            throw new IllegalArgumentException(
+                    "O período consultado deve ter no máximo "
+                    + DIAS_MAXIMOS_PERIODO + " dias");
+        }
+    }
+
+    /**
+     * Converte um horário do dia no índice do intervalo correspondente.
+     *
+     * @param horario O horário do dia.
+     * @return O índice do intervalo de 15 minutos.
+     */
+    private static int slotDoHorario(final LocalTime horario) {
+        return (horario.getHour() * 60 + horario.getMinute())
+                / MINUTOS_POR_SLOT;
+    }
+
+    /**
+     * Marca como ocupados os intervalos {@code [de, ate)}.
+     *
+     * @param bits O mapa de bits do período.
+     * @param de   Primeiro intervalo (inclusivo).
+     * @param ate  Último intervalo (exclusivo).
+     */
+    private static void marcar(final long[] bits, final int de,
+            final int ate) {
+        for (int i = de; i < ate; i++) {
+            bits[i >>> 6] |= 1L << i;
+        }
+    }
+
+    /**
+     * Verifica se os intervalos a partir de {@code de} estão livres.
+     *
+     * @param bits       O mapa de bits do período.
+     * @param de         Primeiro intervalo.
+     * @param quantidade Quantidade de intervalos consecutivos.
+     * @return {@code true} se todos estiverem desocupados.
+     */
+    private static boolean livre(final long[] bits, final int de,
+            final int quantidade) {
+        for (int i = de; i < de + quantidade; i++) {
+            if ((bits[i >>> 6] & (1L << i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.clinicapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.dto.ProgressoEncerramentoDTO;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.service.AgendaContadorService.ChaveContador;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável por encerrar as consultas agendadas que já
+ * passaram, atribuindo a elas o status configurado em
+ * {@code consultas.encerramento.status-destino} ({@code REALIZADA} ou
+ * {@code NAO_COMPARECEU}).
+ *
+ * <p>As consultas são percorridas em blocos ordenados por data e hora e
+ * ID; cada bloco é alterado por um único {@code UPDATE} em uma transação
+ * curta, seguido de uma pausa ({@code consultas.encerramento.pausa-ms})
+ * que limita a carga sobre o banco. Assim a tarefa pode rodar em horário
+ * comercial sem manter bloqueios sobre muitas linhas. O progresso é
+ * exposto pelo endpoint {@code /actuator/encerramentoConsultas}.</p>
+ */
+@Slf4j
+@Service
+public class EncerramentoConsultaService {
+
+    /**
+     * Menor data e hora aceita pelo tipo {@code DATETIME} do MySQL,
+     * utilizada como posição inicial do cursor.
+     */
+    static final LocalDateTime DATA_HORA_MINIMA =
+            LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    /**
+     * Repositório utilizado para ler e alterar as consultas.
+     */
+    private final ConsultaRepository consultaRepository;
+
+    /**
+     * Serviço dos contadores diários da agenda.
+     */
+    private final AgendaContadorService agendaContadorService;
+
+    /**
+     * Relógio utilizado para obter a data e hora atuais.
+     */
+    private final Clock clock;
+
+    /**
+     * O status atribuído às consultas encerradas.
+     */
+    private final StatusConsulta statusDestino;
+
+    /**
+     * Tempo após o horário da consulta antes de encerrá-la.
+     */
+    private final Duration tolerancia;
+
+    /**
+     * Quantidade de consultas alteradas por comando.
+     */
+    private final int tamanhoLote;
+
+    /**
+     * Pausa entre os lotes.
+     */
+    private final Duration pausa;
+
+    /**
+     * Impede execuções simultâneas.
+     */
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    /**
+     * Progresso da execução atual ou da última.
+     */
+    private volatile ProgressoEncerramentoDTO progresso;
+
+    /**
+     * Consultas encerradas desde o início da aplicação.
+     */
+    private long totalEncerradas;
+
+    /**
+     * Cria o serviço de encerramento.
+     *
+     * @param pConsultaRepository    repositório de consultas
+     * @param pAgendaContadorService serviço dos contadores da agenda
+     * @param pStatusDestino         status atribuído às consultas
+     * @param toleranciaMinutos      minutos após o horário da consulta
+     * @param pTamanhoLote           consultas alteradas por comando
+     * @param pausaMillis            pausa entre os lotes em milissegundos
+     */
+    @Autowired
+    public EncerramentoConsultaService(
+            final ConsultaRepository pConsultaRepository,
+            final AgendaContadorService pAgendaContadorService,
+            @Value("${consultas.encerramento.status-destino:REALIZADA}")
+            final StatusConsulta pStatusDestino,
+            @Value("${consultas.encerramento.tolerancia-minutos:120}")
+            final long toleranciaMinutos,
+            @Value("${consultas.encerramento.tamanho-lote:500}")
+            final int pTamanhoLote,
+            @Value("${consultas.encerramento.pausa-ms:200}")
+            final long pausaMillis) {
+        this(pConsultaRepository, pAgendaContadorService,
+                Clock.systemDefaultZone(), pStatusDestino,
+                Duration.ofMinutes(toleranciaMinutos), pTamanhoLote,
+                Duration.ofMillis(pausaMillis));
+    }
+
+    /**
+     * Cria o serviço de encerramento com o relógio informado.
+     *
+     * @param pConsultaRepository    repositório de consultas
+     * @param pAgendaContadorService serviço dos contadores da agenda
+     * @param pClock                 relógio utilizado
+     * @param pStatusDestino         status atribuído às consultas
+     * @param pTolerancia            tempo após o horário da consulta
+     * @param pTamanhoLote           consultas alteradas por comando
+     * @param pPausa                 pausa entre os lotes
+     * @throws IllegalArgumentException Se o status de destino não for
+     * {@code REALIZADA} ou {@code NAO_COMPARECEU}, ou se o tamanho do
+     * lote não for positivo.
+     */
+    EncerramentoConsultaService(final ConsultaRepository pConsultaRepository,
+            final AgendaContadorService pAgendaContadorService,
+            final Clock pClock, final StatusConsulta pStatusDestino,
+            final Duration pTolerancia, final int pTamanhoLote,
+            final Duration pPausa) {
+        if (pStatusDestino != StatusConsulta.REALIZADA
+                && pStatusDestino != StatusConsulta.NAO_COMPARECEU) {
+            throw new IllegalArgumentException("O status de destino do "
+                    + "encerramento deve ser REALIZADA ou NAO_COMPARECEU");
+        }
+        if (pTamanhoLote <= 0) {
+            throw new IllegalArgumentException(
+                    "O tamanho do lote de encerramento deve ser positivo");
+        }
+        this.consultaRepository = pConsultaRepository;
+        this.agendaContadorService = pAgendaContadorService;
+        this.clock = pClock;
+        this.statusDestino = pStatusDestino;
+        this.tolerancia = pTolerancia;
+        this.tamanhoLote = pTamanhoLote;
+        this.pausa = pPausa;
+        this.progresso = new ProgressoEncerramentoDTO(false, pStatusDestino,
+                null, null, null, 0, 0, null, null, 0);
+    }
+
+    /**
+     * Encerra as consultas agendadas cujo horário, somado à tolerância,
+     * já passou. Executado periodicamente conforme
+     * {@code consultas.encerramento.cron}; uma execução é ignorada se a
+     * anterior ainda estiver em andamento.
+     */
+    @Scheduled(cron = "${consultas.encerramento.cron:0 */15 * * * *}")
+    public void executar() {
+        encerrar(LocalDateTime.now(clock).minus(tolerancia));
+    }
+
+    /**
+     * Retorna o progresso da execução atual ou da última.
+     *
+     * @return O progresso do encerramento.
+     */
+    public ProgressoEncerramentoDTO getProgresso() {
+        return progresso;
+    }
+
+    /**
+     * Encerra, em lotes, as consultas agendadas até o limite informado.
+     *
+     * @param limite Data e hora máxima (inclusiva) das consultas.
+     * @return A quantidade de consultas encerradas, ou {@code -1} se
+     * outra execução estiver em andamento.
+     */
+    long encerrar(final LocalDateTime limite) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.warn("Encerramento de consultas já está em execução");
+            return -1;
+        }
+        final Instant inicio = clock.instant();
+        LocalDateTime cursorDataHora = DATA_HORA_MINIMA;
+        Long cursorId = 0L;
+        long lotes = 0;
+        long encerradas = 0;
+        try {
+            atualizarProgresso(true, limite, inicio, null, 0, 0, null, null);
+            List<HorarioConsultaDTO> bloco;
+            do {
+                bloco = consultaRepository.findAgendadasApos(cursorDataHora,
+                        cursorId, limite, Limit.of(tamanhoLote));
+                if (bloco.isEmpty()) {
+                    break;
+                }
+                encerradas += encerrarLote(bloco);
+                lotes++;
+                final HorarioConsultaDTO ultimo = bloco.get(bloco.size() - 1);
+                cursorDataHora = ultimo.dataHora();
+                cursorId = ultimo.id();
+                atualizarProgresso(true, limite, inicio, null, lotes,
+                        encerradas, cursorDataHora, cursorId);
+            } while (bloco.size() == tamanhoLote && pausar());
+        } finally {
+            atualizarProgresso(false, limite, inicio, clock.instant(), lotes,
+                    encerradas, lotes > 0 ? cursorDataHora : null,
+                    lotes > 0 ? cursorId : null);
+            emExecucao.set(false);
+        }
+        log.info("Encerramento de consultas até {}: {} consultas alteradas "
+                + "para {} em {} lotes", limite, encerradas, statusDestino,
+                lotes);
+        return encerradas;
+    }
+
+    /**
+     * Altera o status de um bloco de consultas e atualiza os contadores
+     * da agenda.
+     *
+     * @param bloco As consultas do bloco.
+     * @return A quantidade de consultas alteradas.
+     */
+    private int encerrarLote(final List<HorarioConsultaDTO> bloco) {
+        final List<Long> ids = new ArrayList<>(bloco.size());
+        final List<ChaveContador> chaves = new ArrayList<>(bloco.size());
+        for (HorarioConsultaDTO horario : bloco) {
+            ids.add(horario.id());
+            chaves.add(new ChaveContador(horario.medicoId(),
+                    horario.dataHora().toLocalDate(),
+                    StatusConsulta.AGENDADA));
+        }
+        final int alteradas =
+                consultaRepository.encerrarAgendadas(ids, statusDestino);
+        if (alteradas == ids.size()) {
+            agendaContadorService.registrarAlteracoes(chaves, statusDestino);
+        } else {
+            // Algumas consultas foram alteradas entre a leitura e o UPDATE;
+            // sem saber quais, a reconciliação corrige os contadores
+            log.warn("{} de {} consultas do lote já não estavam agendadas; "
+                    + "os contadores serão corrigidos na reconciliação",
+                    ids.size() - alteradas, ids.size());
+        }
+        return alteradas;
+    }
+
+    /**
+     * Aguarda a pausa entre os lotes.
+     *
+     * @return {@code false} se a thread for interrompida durante a pausa.
+     */
+    private boolean pausar() {
+        if (pausa.isZero() || pausa.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausa.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Encerramento de consultas interrompido");
+            return false;
+        }
+    }
+
+    /**
+     * Publica o progresso da execução.
+     *
+     * @param executando     se a execução está em andamento
+     * @param limite         data e hora máxima das consultas
+     * @param inicio         início da execução
+     * @param fim            fim da execução, se concluída
+     * @param lotes          lotes processados
+     * @param encerradas     consultas encerradas na execução
+     * @param cursorDataHora data e hora da última consulta processada
+     * @param cursorId       ID da última consulta processada
+     */
+    private void atualizarProgresso(final boolean executando,
+            final LocalDateTime limite, final Instant inicio,
+            final Instant fim, final long lotes, final long encerradas,
+            final LocalDateTime cursorDataHora, final Long cursorId) {
+        final long total = totalEncerradas + encerradas;
+        if (!executando) {
+            totalEncerradas = total;
+        }
+        progresso = new ProgressoEncerramentoDTO(executando, statusDestino,
+                limite, inicio, fim, lotes, encerradas, cursorDataHora,
+                cursorId, total);
+    }
+}
@@ -0,0 +1,521 @@
+package com.example.clinicapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.dto.LembreteConsultaDTO;
+import com.example.clinicapi.event.ConsultaAlteradaEvent;
+import com.example.clinicapi.infra.lembrete.ReservaLembretes;
+import com.example.clinicapi.infra.lembrete.RodaTemporizacao;
+import com.example.clinicapi.infra.lembrete.RodaTemporizacao.Tarefa;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pelos lembretes enviados aos pacientes 24 horas e
+ * 1 hora antes de cada consulta.
+ *
+ * <p>Em vez de consultar a tabela {@code consultas} a cada minuto, o
+ * serviço carrega em blocos ordenados as consultas agendadas da próxima
+ * janela de tempo ({@code lembretes.janela-horas}) e guarda os envios em
+ * uma {@link RodaTemporizacao}. Uma thread dedicada gira a roda a cada
+ * tick e envia em lote os lembretes vencidos, relendo as consultas em uma
+ * única consulta para descartar as que foram canceladas ou remarcadas.
+ * A janela é estendida periodicamente, e as alterações feitas pelo
+ * {@link ConsultaService} chegam por {@link ConsultaAlteradaEvent}.</p>
+ *
+ * <p>Com mais de um nó, todos carregam a mesma janela; cada lembrete
+ * vencido é reservado em {@link ReservaLembretes} antes do envio, e só o
+ * nó que obtiver a reserva o envia. Os horários são comparados em
+ * segundos inteiros, a precisão da coluna {@code data_hora}.</p>
+ *
+ * <p>Após um reinício, apenas a próxima janela é recarregada; os
+ * lembretes cujo horário de envio já passou são descartados, o que
+ * também evita reenviar os que já foram enviados. O atraso entre o
+ * horário previsto e o envio efetivo é publicado na métrica
+ * {@code clinica.lembretes.atraso}.</p>
+ */
+@Slf4j
+@Service
+public class LembreteConsultaService {
+
+    /**
+     * Quantidade de consultas lidas por bloco ao carregar a janela e ao
+     * reler as consultas dos lembretes vencidos.
+     */
+    static final int TAMANHO_BLOCO = 500;
+
+    /**
+     * Meio segundo em nanossegundos, a partir do qual o MySQL arredonda a
+     * fração para o segundo seguinte.
+     */
+    private static final int NANOS_MEIO_SEGUNDO = 500_000_000;
+
+    /**
+     * Os lembretes enviados para cada consulta.
+     */
+    public enum TipoLembrete {
+
+        /**
+         * Lembrete enviado 24 horas antes da consulta.
+         */
+        VESPERA(Duration.ofHours(24), "Lembrete: sua consulta é amanhã"),
+
+        /**
+         * Lembrete enviado 1 hora antes da consulta.
+         */
+        UMA_HORA(Duration.ofHours(1),
+                "Lembrete: sua consulta começa em 1 hora");
+
+        /**
+         * A antecedência do envio em relação à consulta.
+         */
+        private final Duration antecedencia;
+
+        /**
+         * O assunto do e-mail.
+         */
+        private final String assunto;
+
+        TipoLembrete(final Duration pAntecedencia, final String pAssunto) {
+            this.antecedencia = pAntecedencia;
+            this.assunto = pAssunto;
+        }
+
+        /**
+         * Retorna a antecedência do envio em relação à consulta.
+         *
+         * @return A antecedência.
+         */
+        public Duration getAntecedencia() {
+            return antecedencia;
+        }
+    }
+
+    /**
+     * Identifica um lembrete na roda, para substituição e cancelamento.
+     *
+     * @param consultaId O ID da consulta.
+     * @param tipo       O tipo do lembrete.
+     */
+    record ChaveLembrete(long consultaId, TipoLembrete tipo) { }
+
+    /**
+     * Lembrete agendado na roda.
+     *
+     * @param consultaId O ID da consulta.
+     * @param dataHora   A data e hora da consulta quando o lembrete
+     *                   foi agendado.
+     * @param tipo       O tipo do lembrete.
+     */
+    record Lembrete(long consultaId, LocalDateTime dataHora,
+            TipoLembrete tipo) { }
+
+    /**
+     * Repositório utilizado para carregar e reler as consultas.
+     */
+    private final ConsultaRepository consultaRepository;
+
+    /**
+     * Serviço responsável pelo envio dos e-mails.
+     */
+    private final EmailService emailService;
+
+    /**
+     * Reservas que garantem um único envio de cada lembrete entre os nós.
+     */
+    private final ReservaLembretes reservaLembretes;
+
+    /**
+     * Relógio utilizado para obter o instante atual.
+     */
+    private final Clock clock;
+
+    /**
+     * Indica se os lembretes estão habilitados.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Intervalo de tempo à frente mantido em memória.
+     */
+    private final Duration janela;
+
+    /**
+     * Duração de um tick da roda.
+     */
+    private final Duration tick;
+
+    /**
+     * A roda com os lembretes pendentes da janela.
+     */
+    private final RodaTemporizacao<ChaveLembrete, Lembrete> roda;
+
+    /**
+     * Atraso entre o horário previsto e o envio, por tipo de lembrete.
+     */
+    private final Map<TipoLembrete, Timer> atrasos =
+            new EnumMap<>(TipoLembrete.class);
+
+    /**
+     * Lembretes enviados, por tipo.
+     */
+    private final Map<TipoLembrete, Counter> enviados =
+            new EnumMap<>(TipoLembrete.class);
+
+    /**
+     * Lembretes descartados por cancelamento ou remarcação da consulta.
+     */
+    private final Counter descartados;
+
+    /**
+     * Thread que gira a roda; criada ao iniciar o serviço.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Data e hora até a qual as consultas já foram carregadas na roda,
+     * ou {@code null} antes da primeira carga.
+     */
+    private volatile LocalDateTime carregadoAte;
+
+    /**
+     * Cria o serviço de lembretes.
+     *
+     * @param pConsultaRepository repositório de consultas
+     * @param pEmailService       serviço de envio de e-mails
+     * @param pReservaLembretes   reservas de envio entre os nós
+     * @param meterRegistry       registro das métricas
+     * @param pHabilitado         se os lembretes estão habilitados
+     * @param janelaHoras         horas à frente mantidas em memória
+     * @param tickMillis          duração de um tick da roda em milissegundos
+     * @param posicoes            quantidade de posições da roda
+     */
+    @Autowired
+    public LembreteConsultaService(
+            final ConsultaRepository pConsultaRepository,
+            final EmailService pEmailService,
+            final ReservaLembretes pReservaLembretes,
+            final MeterRegistry meterRegistry,
+            @Value("${lembretes.habilitado:true}") final boolean pHabilitado,
+            @Value("${lembretes.janela-horas:26}") final long janelaHoras,
+            @Value("${lembretes.roda.tick-ms:1000}") final long tickMillis,
+            @Value("${lembretes.roda.posicoes:4096}") final int posicoes) {
+        this(pConsultaRepository, pEmailService, pReservaLembretes,
+                meterRegistry, Clock.systemDefaultZone(), pHabilitado,
+                Duration.ofHours(janelaHoras), Duration.ofMillis(tickMillis),
+                posicoes);
+    }
+
+    /**
+     * Cria o serviço de lembretes com o relógio informado.
+     *
+     * @param pConsultaRepository repositório de consultas
+     * @param pEmailService       serviço de envio de e-mails
+     * @param pReservaLembretes   reservas de envio entre os nós
+     * @param meterRegistry       registro das métricas
+     * @param pClock              relógio utilizado
+     * @param pHabilitado         se os lembretes estão habilitados
+     * @param pJanela             intervalo à frente mantido em memória
+     * @param pTick               duração de um tick da roda
+     * @param posicoes            quantidade de posições da roda
+     */
+    LembreteConsultaService(final ConsultaRepository pConsultaRepository,
+            final EmailService pEmailService,
+            final ReservaLembretes pReservaLembretes,
+            final MeterRegistry meterRegistry, final Clock pClock,
+            final boolean pHabilitado, final Duration pJanela,
+            final Duration pTick, final int posicoes) {
+        if (pJanela.compareTo(TipoLembrete.VESPERA.antecedencia) <= 0) {
+            throw new IllegalArgumentException("A janela de lembretes deve"
+                    + " ser maior que a antecedência de "
+                    + TipoLembrete.VESPERA.antecedencia.toHours() + " horas");
+        }
+        this.consultaRepository = pConsultaRepository;
+        this.emailService = pEmailService;
+        this.reservaLembretes = pReservaLembretes;
+        this.clock = pClock;
+        this.habilitado = pHabilitado;
+        this.janela = pJanela;
+        this.tick = pTick;
+        this.roda = new RodaTemporizacao<>(pTick, posicoes, pClock.instant());
+
+        for (TipoLembrete tipo : TipoLembrete.values()) {
+            atrasos.put(tipo, Timer.builder("clinica.lembretes.atraso")
+                    .description("Atraso entre o horário previsto e o "
+                            + "envio do lembrete")
+                    .tag("tipo", tipo.name())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            enviados.put(tipo, Counter.builder("clinica.lembretes.enviados")
+                    .tag("tipo", tipo.name())
+                    .register(meterRegistry));
+        }
+        this.descartados = Counter.builder("clinica.lembretes.descartados")
+                .description("Lembretes de consultas canceladas ou "
+                        + "remarcadas")
+                .register(meterRegistry);
+        Gauge.builder("clinica.lembretes.pendentes", roda,
+                RodaTemporizacao::pendentes)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carrega a primeira janela e inicia a thread que gira a roda.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            log.info("Lembretes de consulta desabilitados");
+            return;
+        }
+        carregarJanela(LocalDateTime.now(clock));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "lembretes-roda");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> girar(clock.instant()),
+                tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Interrompe a thread que gira a roda.
+     */
+    @PreDestroy
+    public void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Estende a janela carregada, acompanhando a passagem do tempo.
+     * O intervalo ({@code lembretes.recarga-ms}) deve ser menor que a
+     * diferença entre a janela e a antecedência de 24 horas.
+     */
+    @Scheduled(fixedDelayString = "${lembretes.recarga-ms:600000}",
+            initialDelayString = "${lembretes.recarga-ms:600000}")
+    public void estenderJanela() {
+        if (carregadoAte != null) {
+            carregarJanela(LocalDateTime.now(clock));
+        }
+    }
+
+    /**
+     * Atualiza os lembretes de uma consulta criada, alterada ou excluída.
+     *
+     * @param evento O evento publicado pelo serviço de consultas.
+     */
+    @EventListener
+    public void aoAlterarConsulta(final ConsultaAlteradaEvent evento) {
+        for (TipoLembrete tipo : TipoLembrete.values()) {
+            roda.cancelar(new ChaveLembrete(evento.consultaId(), tipo));
+        }
+        final LocalDateTime limite = carregadoAte;
+        if (limite != null && evento.agendada()
+                && !evento.dataHora().isAfter(limite)) {
+            agendarLembretes(evento.consultaId(), evento.dataHora(),
+                    LocalDateTime.now(clock));
+        }
+    }
+
+    /**
+     * Retorna a quantidade de lembretes pendentes na roda.
+     *
+     * @return A quantidade de lembretes pendentes.
+     */
+    public int pendentes() {
+        return roda.pendentes();
+    }
+
+    /**
+     * Carrega na roda, em blocos ordenados por data e hora e ID, as
+     * consultas agendadas entre o fim da última carga e o fim da janela.
+     *
+     * @param agora A data e hora atuais.
+     */
+    synchronized void carregarJanela(final LocalDateTime agora) {
+        final LocalDateTime limite = agora.plus(janela);
+        final LocalDateTime anterior = carregadoAte;
+        LocalDateTime ultimaDataHora = anterior != null
+                && anterior.isAfter(agora) ? anterior : agora;
+        long ultimoId = Long.MAX_VALUE;
+        int carregadas = 0;
+
+        List<HorarioConsultaDTO> bloco;
+        do {
+            bloco = consultaRepository.findAgendadasApos(ultimaDataHora,
+                    ultimoId, limite, Limit.of(TAMANHO_BLOCO));
+            for (HorarioConsultaDTO horario : bloco) {
+                agendarLembretes(horario.id(), horario.dataHora(), agora);
+            }
+            if (!bloco.isEmpty()) {
+                final HorarioConsultaDTO ultimo = bloco.get(bloco.size() - 1);
+                ultimaDataHora = ultimo.dataHora();
+                ultimoId = ultimo.id();
+                carregadas += bloco.size();
+            }
+        } while (bloco.size() == TAMANHO_BLOCO);
+
+        carregadoAte = limite;
+        log.debug("Janela de lembretes carregada até {}: {} consultas, "
+                + "{} lembretes pendentes", limite, carregadas,
+                roda.pendentes());
+    }
+
+    /**
+     * Gira a roda até o instante informado e envia os lembretes vencidos.
+     * Falhas são registradas sem interromper a thread da roda.
+     *
+     * @param agora O instante atual.
+     */
+    void girar(final Instant agora) {
+        final List<Tarefa<Lembrete>> vencidas = roda.avancar(agora);
+        if (vencidas.isEmpty()) {
+            return;
+        }
+        try {
+            enviar(vencidas, agora);
+        } catch (RuntimeException ex) {
+            log.error("Falha ao enviar {} lembretes de consulta",
+                    vencidas.size(), ex);
+        }
+    }
+
+    /**
+     * Agenda os lembretes da consulta cujo horário de envio ainda não
+     * passou.
+     *
+     * @param consultaId O ID da consulta.
+     * @param dataHora   A data e hora da consulta.
+     * @param agora      A data e hora atuais.
+     */
+    private void agendarLembretes(final long consultaId,
+            final LocalDateTime dataHoraInformada, final LocalDateTime agora) {
+        final LocalDateTime dataHora = emSegundos(dataHoraInformada);
+        for (TipoLembrete tipo : TipoLembrete.values()) {
+            final LocalDateTime envio = dataHora.minus(tipo.antecedencia);
+            if (envio.isAfter(agora)) {
+                roda.agendar(new ChaveLembrete(consultaId, tipo),
+                        envio.atZone(clock.getZone()).toInstant(),
+                        new Lembrete(consultaId, dataHora, tipo));
+            }
+        }
+    }
+
+    /**
+     * Relê as consultas dos lembretes vencidos em blocos e envia os
+     * lembretes das que continuam agendadas no mesmo horário, desde que
+     * nenhum outro nó já os tenha reservado.
+     *
+     * @param vencidas Os lembretes vencidos.
+     * @param agora    O instante atual.
+     */
+    private void enviar(final List<Tarefa<Lembrete>> vencidas,
+            final Instant agora) {
+        final Set<Long> ids = new LinkedHashSet<>();
+        for (Tarefa<Lembrete> tarefa : vencidas) {
+            ids.add(tarefa.valor().consultaId());
+        }
+        final Map<Long, LembreteConsultaDTO> consultas = new HashMap<>();
+        final List<Long> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        for (Long id : ids) {
+            bloco.add(id);
+            if (bloco.size() == TAMANHO_BLOCO) {
+                lerConsultas(bloco, consultas);
+            }
+        }
+        if (!bloco.isEmpty()) {
+            lerConsultas(bloco, consultas);
+        }
+
+        int enviadosNoLote = 0;
+        for (Tarefa<Lembrete> tarefa : vencidas) {
+            final Lembrete lembrete = tarefa.valor();
+            final LembreteConsultaDTO consulta =
+                    consultas.get(lembrete.consultaId());
+            if (consulta == null
+                    || consulta.status() != StatusConsulta.AGENDADA
+                    || !lembrete.dataHora().equals(
+                            emSegundos(consulta.dataHora()))) {
+                descartados.increment();
+                continue;
+            }
+            if (!reservaLembretes.reservar(lembrete.consultaId() + ":"
+                    + lembrete.tipo() + ":" + lembrete.dataHora(),
+                    lembrete.tipo().antecedencia)) {
+                continue;
+            }
+            emailService.enviarEmail(consulta.pacienteEmail(),
+                    lembrete.tipo().assunto,
+                    String.format("Olá %s, lembramos que sua consulta está "
+                            + "marcada para %s.", consulta.pacienteNome(),
+                            consulta.dataHora().toString()));
+            atrasos.get(lembrete.tipo()).record(
+                    Duration.between(tarefa.quando(), agora));
+            enviados.get(lembrete.tipo()).increment();
+            enviadosNoLote++;
+        }
+        log.info("Lembretes enviados: {} de {} vencidos", enviadosNoLote,
+                vencidas.size());
+    }
+
+    /**
+     * Arredonda a data e hora para segundos inteiros, como a coluna
+     * {@code DATETIME} do MySQL faz ao gravar frações de segundo; assim o
+     * horário de um evento coincide com o relido do banco.
+     *
+     * @param dataHora A data e hora.
+     * @return A data e hora sem frações de segundo.
+     */
+    static LocalDateTime emSegundos(final LocalDateTime dataHora) {
+        final LocalDateTime truncada = dataHora.truncatedTo(ChronoUnit.SECONDS);
+        return dataHora.getNano() >= NANOS_MEIO_SEGUNDO
+                ? truncada.plusSeconds(1) : truncada;
+    }
+
+    /**
+     * Lê os dados de lembrete de um bloco de consultas e esvazia o bloco.
+     *
+     * @param bloco     Os IDs das consultas.
+     * @param consultas O mapa onde as consultas lidas são guardadas.
+     */
+    private void lerConsultas(final List<Long> bloco,
+            final Map<Long, LembreteConsultaDTO> consultas) {
+        for (LembreteConsultaDTO consulta
+                : consultaRepository.findLembretes(List.copyOf(bloco))) {
+            consultas.put(consulta.id(), consulta);
+        }
+        bloco.clear();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.clinicapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.clinicapi.dto.RefreshTokenExpiradoDTO;
+import com.example.clinicapi.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável por remover da tabela {@code refresh_tokens} os
+ * tokens expirados, que de outro modo só seriam removidos quando
+ * apresentados pelo cliente.
+ *
+ * <p>Os tokens são percorridos em blocos ordenados por expiração e ID,
+ * pelo índice {@code (data_expiracao, id)}; cada bloco é removido por um
+ * único {@code DELETE} em uma transação curta, seguido de uma pausa
+ * ({@code refresh-tokens.limpeza.pausa-ms}), de modo que a limpeza não
+ * mantenha bloqueios prolongados sobre as tabelas de autenticação. As
+ * quantidades removidas e a duração de cada execução são publicadas em
+ * {@code clinica.refresh-tokens.removidos} e
+ * {@code clinica.refresh-tokens.limpeza}. Criado apenas quando os
+ * refresh tokens são gravados no banco
+ * ({@code api.security.refresh-token.store=jpa}, o padrão).</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "api.security.refresh-token.store",
+        havingValue = "jpa", matchIfMissing = true)
+public class LimpezaRefreshTokenService {
+
+    /**
+     * Repositório dos refresh tokens.
+     */
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * Relógio utilizado para obter o instante atual.
+     */
+    private final Clock clock;
+
+    /**
+     * Quantidade de tokens removidos por comando.
+     */
+    private final int tamanhoLote;
+
+    /**
+     * Pausa entre os lotes.
+     */
+    private final Duration pausa;
+
+    /**
+     * Impede execuções simultâneas.
+     */
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    /**
+     * Tokens removidos desde o início da aplicação.
+     */
+    private final Counter removidos;
+
+    /**
+     * Lotes removidos desde o início da aplicação.
+     */
+    private final Counter lotes;
+
+    /**
+     * Duração de cada execução.
+     */
+    private final Timer duracao;
+
+    /**
+     * Cria o serviço de limpeza.
+     *
+     * @param pRefreshTokenRepository repositório dos refresh tokens
+     * @param meterRegistry           registro das métricas
+     * @param pTamanhoLote            tokens removidos por comando
+     * @param pausaMillis             pausa entre os lotes em milissegundos
+     */
+    @Autowired
+    public LimpezaRefreshTokenService(
+            final RefreshTokenRepository pRefreshTokenRepository,
+            final MeterRegistry meterRegistry,
+            @Value("${refresh-tokens.limpeza.tamanho-lote:500}")
+            final int pTamanhoLote,
+            @Value("${refresh-tokens.limpeza.pausa-ms:100}")
+            final long pausaMillis) {
+        this(pRefreshTokenRepository, meterRegistry, Clock.systemUTC(),
+                pTamanhoLote, Duration.ofMillis(pausaMillis));
+    }
+
+    /**
+     * Cria o serviço de limpeza com o relógio informado.
+     *
+     * @param pRefreshTokenRepository repositório dos refresh tokens
+     * @param meterRegistry           registro das métricas
+     * @param pClock                  relógio utilizado
+     * @param pTamanhoLote            tokens removidos por comando
+     * @param pPausa                  pausa entre os lotes
+     * @throws IllegalArgumentException Se o tamanho do lote não for
+     * positivo.
+     */
+    LimpezaRefreshTokenService(
+            final RefreshTokenRepository pRefreshTokenRepository,
+            final MeterRegistry meterRegistry, final Clock pClock,
+            final int pTamanhoLote, final Duration pPausa) {
+        if (pTamanhoLote <= 0) {
+            throw new IllegalArgumentException(
+                    "O tamanho do lote de limpeza deve ser positivo");
+        }
+        this.refreshTokenRepository = pRefreshTokenRepository;
+        this.clock = pClock;
+        this.tamanhoLote = pTamanhoLote;
+        this.pausa = pPausa;
+        this.removidos = Counter.builder("clinica.refresh-tokens.removidos")
+                .description("Refresh tokens expirados removidos pela "
+                        + "limpeza")
+                .register(meterRegistry);
+        this.lotes = Counter.builder("clinica.refresh-tokens.lotes")
+                .description("Lotes de refresh tokens expirados removidos")
+                .register(meterRegistry);
+        this.duracao = Timer.builder("clinica.refresh-tokens.limpeza")
+                .description("Duração de cada execução da limpeza dos "
+                        + "refresh tokens expirados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remove os refresh tokens expirados. Executado periodicamente
+     * conforme {@code refresh-tokens.limpeza.cron}; uma execução é
+     * ignorada se a anterior ainda estiver em andamento.
+     */
+    @Scheduled(cron = "${refresh-tokens.limpeza.cron:0 0 * * * *}")
+    public void executar() {
+        limpar(clock.instant());
+    }
+
+    /**
+     * Remove, em lotes, os refresh tokens expirados antes do limite.
+     *
+     * @param limite Instante a partir do qual os tokens ainda são válidos.
+     * @return A quantidade de tokens removidos, ou {@code -1} se outra
+     * execução estiver em andamento.
+     */
+    long limpar(final Instant limite) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.warn("Limpeza de refresh tokens já está em execução");
+            return -1;
+        }
+        final long inicio = System.nanoTime();
+        Instant cursorExpiracao = Instant.EPOCH;
+        Long cursorId = 0L;
+        long lotesExecucao = 0;
+        long removidosExecucao = 0;
+        try {
+            List<RefreshTokenExpiradoDTO> bloco;
+            do {
+                bloco = refreshTokenRepository.findExpiradosApos(
+                        cursorExpiracao, cursorId, limite,
+                        Limit.of(tamanhoLote));
+                if (bloco.isEmpty()) {
+                    break;
+                }
+                final List<Long> ids = new ArrayList<>(bloco.size());
+                bloco.forEach(token -> ids.add(token.id()));
+                final int removidosLote =
+                        refreshTokenRepository.removerPorIds(ids);
+                removidosExecucao += removidosLote;
+                lotesExecucao++;
+                removidos.increment(removidosLote);
+                lotes.increment();
+                final RefreshTokenExpiradoDTO ultimo =
+                        bloco.get(bloco.size() - 1);
+                cursorExpiracao = ultimo.dataExpiracao();
+                cursorId = ultimo.id();
+            } while (bloco.size() == tamanhoLote && pausar());
+        } finally {
+            duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            emExecucao.set(false);
+        }
+        log.info("Limpeza de refresh tokens expirados antes de {}: {} "
+                + "removidos em {} lotes", limite, removidosExecucao,
+                lotesExecucao);
+        return removidosExecucao;
+    }
+
+    /**
+     * Aguarda a pausa entre os lotes.
+     *
+     * @return {@code false} se a thread for interrompida durante a pausa.
+     */
+    private boolean pausar() {
+        if (pausa.isZero() || pausa.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausa.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Limpeza de refresh tokens interrompida");
+            return false;
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.example.clinicapi.service;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
+import com.example.clinicapi.infra.cache.GeracoesCache;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
+import com.example.clinicapi.infra.pagination.CursorCodec;
 import com.example.clinicapi.mapper.MedicoMapper;
 import com.example.clinicapi.model.Especialidade;
 import com.example.clinicapi.model.Medico;
@@ -22,6 +31,12 @@ import lombok.extern.slf4j.Slf4j;
  * Serviço responsável pela lógica de negócios dos médicos,
  * incluindo listagem, busca, criação, atualização e exclusão de médicos.
  * Gerencia o cache para listagens de médicos ativos.
+ *
+ * <p>As chaves das listagens em cache incluem a geração do conjunto de
+ * médicos ativos ({@code medicos:ativos}) ou da especialidade
+ * ({@code medicos:<ESPECIALIDADE>}), obtida de {@link GeracoesCache}.
+ * Uma escrita avança apenas as gerações dos conjuntos que alterou; as
+ * páginas das demais especialidades continuam em cache.</p>
  */
 @Slf4j
 @Service
@@ -41,6 +56,19 @@ public class MedicoService {
      */
     private static final int TAMANHO_MINIMO_PAGINA = 1;
 
+    /**
+     * Namespace da geração das listagens de médicos ativos. Deve
+     * coincidir com o utilizado na chave de {@link #findAllAtivos}.
+     */
+    private static final String NAMESPACE_ATIVOS = "medicos:ativos";
+
+    /**
+     * Prefixo do namespace da geração das listagens por especialidade.
+     * Deve coincidir com o utilizado na chave de
+     * {@link #findByEspecialidade}.
+     */
+    private static final String PREFIXO_NAMESPACE_ESPECIALIDADE = "medicos:";
+
     /**
      * Repositório para operações de persistência de médicos.
      */
@@ -51,6 +79,16 @@ public class MedicoService {
      */
     private final MedicoMapper medicoMapper;
 
+    /**
+     * Refaz as atualizações que falham por conflito de versão.
+     */
+    private final RetentativaOtimista retentativaOtimista;
+
+    /**
+     * Gerações das listagens em cache.
+     */
+    private final GeracoesCache geracoesCache;
+
     /**
      * Retorna uma página de todos os médicos existentes,
      * convertidos para DTOs.
@@ -71,12 +109,51 @@ public class MedicoService {
     }
 
     /**
-     * Busca um médico pelo seu ID e o converte para DTO.
+     * Retorna uma página de médicos ordenados por ID, utilizando
+     * paginação por cursor (keyset). O custo de cada página não cresce
+     * com a profundidade da listagem e nenhuma contagem total é executada.
+     *
+     * @param cursor  O token devolvido na página anterior,
+     * ou {@code null} para a primeira página.
+     * @param tamanho A quantidade de médicos desejada.
+     * @return A página de MedicoDTOs e o cursor da página seguinte.
+     * @throws IllegalArgumentException Se o cursor for inválido.
+     */
+    public PaginaCursorDTO<MedicoDTO> findAllPorCursor(final String cursor,
+            final int tamanho) {
+        final int size = Math.min(Math.max(TAMANHO_MINIMO_PAGINA, tamanho),
+                TAMANHO_MAXIMO_PAGINA);
+        final long ultimoId = cursor == null || cursor.isBlank()
+                ? 0L : CursorCodec.decodificarId(cursor);
+        log.debug("Buscando médicos por cursor: após ID {}, tamanho {}",
+                ultimoId, size);
+
+        final List<Medico> registros = medicoRepository
+                .findByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(size + 1));
+
+        final boolean possuiProxima = registros.size() > size;
+        final List<Medico> pagina = possuiProxima
+                ? registros.subList(0, size) : registros;
+        final String proximoCursor = possuiProxima
+                ? CursorCodec.codificar(pagina.get(size - 1).getId())
+                : null;
+
+        return new PaginaCursorDTO<>(
+                pagina.stream().map(medicoMapper::toDTO).toList(),
+                size, proximoCursor);
+    }
+
+    /**
+     * Busca um médico pelo seu ID e o converte para DTO, utilizando o
+     * cache {@code medicos}, mantido pelas escritas deste serviço. As
+     * faltas são carregadas uma única vez por nó; um médico ausente também
+     * fica em cache, até ser criado ou expirar.
      *
      * @param id O ID do médico a ser buscado.
      * @return Um Optional contendo o MedicoDTO, se encontrado.
      * @throws EntityNotFoundException Se o médico não for encontrado.
      */
+    @Cacheable(value = "medicos", key = "#id", sync = true)
     public Optional<MedicoDTO> findById(final Long id) {
         log.debug("Buscando médico por ID: {}", id);
 
@@ -86,12 +163,14 @@ public class MedicoService {
 
     /**
      * Retorna uma página de todos os médicos ativos, convertidos para DTOs,
-     * utilizando cache.
+     * utilizando cache versionado pela geração dos médicos ativos. As
+     * faltas simultâneas de uma mesma página aguardam uma única consulta.
      *
      * @param pageable Objeto Pageable para paginação e ordenação.
      * @return Uma página de MedicoDTOs representando médicos ativos.
      */
-    @Cacheable("medicosAtivos")
+    @Cacheable(value = "medicosAtivos", sync = true,
+            key = "@geracoesCache.atual('medicos:ativos') + ':' + #pageable")
     public Page<MedicoDTO> findAllAtivos(final Pageable pageable) {
         int page = Math.max(0, pageable.getPageNumber());
         int size = Math.min(Math.max(TAMANHO_MINIMO_PAGINA,
@@ -107,13 +186,18 @@ public class MedicoService {
 
     /**
      * Retorna uma página de médicos ativos por especialidade,
-     * convertidos para DTOs.
+     * convertidos para DTOs, utilizando cache versionado pela geração da
+     * especialidade. As faltas simultâneas de uma mesma página aguardam
+     * uma única consulta.
      *
      * @param especialidade A especialidade do médico.
      * @param pageable      Objeto Pageable para paginação e ordenação.
      * @return Uma página de MedicoDTOs
      * representando médicos ativos de uma especialidade.
      */
+    @Cacheable(value = "medicosPorEspecialidade", sync = true,
+            key = "#especialidade + ':' + @geracoesCache.atual('medicos:' "
+                    + "+ #especialidade) + ':' + #pageable")
     public Page<MedicoDTO> findByEspecialidade(
             final Especialidade especialidade,
             final Pageable pageable) {
@@ -131,34 +215,56 @@ public class MedicoService {
     }
 
     /**
-     * Salva um novo médico no banco de dados.
-     * Limpa o cache de 'medicosAtivos' após a operação.
+     * Salva um novo médico no banco de dados e no cache {@code medicos}.
+     * Avança as gerações das listagens que passam a incluí-lo.
      *
      * @param medicoDTO O DTO contendo os dados do médico a ser salvo.
      * @return O MedicoDTO do médico salvo.
      */
-    @CacheEvict(value = "medicosAtivos", allEntries = true)
+    @CachePut(value = "medicos", key = "#result.id")
     public MedicoDTO save(final MedicoDTO medicoDTO) {
         log.info("Salvando novo médico: {}", medicoDTO);
-        final Medico medico = medicoMapper.toEntity(medicoDTO);
-        return medicoMapper.toDTO(medicoRepository.save(medico));
+        final Medico medico = medicoRepository.save(
+                medicoMapper.toEntity(medicoDTO));
+        invalidarListagens(false, null, medico.isAtivo(),
+                medico.getEspecialidade());
+        return medicoMapper.toDTO(medico);
     }
 
     /**
-     * Atualiza os dados de um médico existente.
-     * Limpa o cache de 'medicosAtivos' após a operação.
+     * Atualiza os dados de um médico existente, também no cache
+     * {@code medicos}. Avança as gerações das listagens que o incluíam ou passam a
+     * incluí-lo.
      *
      * @param id        O ID do médico a ser atualizado.
      * @param medicoDTO O DTO contendo os dados atualizados do médico.
      * @return O MedicoDTO do médico atualizado.
      * @throws RuntimeException Se o médico não for encontrado.
      */
-    @CacheEvict(value = "medicosAtivos", allEntries = true)
+    @CachePut(value = "medicos", key = "#id")
     public MedicoDTO update(final Long id, final MedicoDTO medicoDTO) {
         log.info("Atualizando médico com ID: {}", id);
+        return retentativaOtimista.executar("atualizar médico " + id,
+                () -> aplicarAtualizacao(id, medicoDTO));
+    }
+
+    /**
+     * Carrega o médico e aplica as alterações do DTO. Executado a cada
+     * tentativa de {@link #update}, sempre sobre a versão mais recente.
+     *
+     * @param id        O ID do médico a ser atualizado.
+     * @param medicoDTO O DTO contendo os dados atualizados.
+     * @return O MedicoDTO atualizado.
+     * @throws RuntimeException Se o médico não for encontrado.
+     */
+    private MedicoDTO aplicarAtualizacao(final Long id,
+            final MedicoDTO medicoDTO) {
         final Medico medicoExistente = medicoRepository.findById(id)
                 .orElseThrow(() ->
                 new RuntimeException("Médico não encontrado"));
+        final boolean ativoAntes = medicoExistente.isAtivo();
+        final Especialidade especialidadeAntes =
+                medicoExistente.getEspecialidade();
 
         if (medicoDTO.nome() != null) {
             medicoExistente.setNome(medicoDTO.nome());
@@ -179,18 +285,54 @@ public class MedicoService {
             medicoExistente.setAtivo(medicoDTO.ativo());
         }
 
-        return medicoMapper.toDTO(medicoRepository.save(medicoExistente));
+        final Medico medico = medicoRepository.save(medicoExistente);
+        invalidarListagens(ativoAntes, especialidadeAntes, medico.isAtivo(),
+                medico.getEspecialidade());
+        return medicoMapper.toDTO(medico);
     }
 
     /**
-     * Exclui um médico pelo seu ID.
-     * Limpa o cache de 'medicosAtivos' após a operação.
+     * Exclui um médico pelo seu ID e o remove do cache {@code medicos}.
+     * Avança as gerações das listagens que o incluíam.
      *
      * @param id O ID do médico a ser excluído.
      */
-    @CacheEvict(value = "medicosAtivos", allEntries = true)
+    @CacheEvict(value = "medicos", key = "#id")
     public void deleteById(final Long id) {
         log.info("Excluindo (inativando) médico com ID: {}", id);
+        final Optional<Medico> medico = medicoRepository.findById(id);
         medicoRepository.deleteById(id);
+        medico.ifPresent(m -> invalidarListagens(m.isAtivo(),
+                m.getEspecialidade(), false, null));
+    }
+
+    /**
+     * Avança as gerações das listagens de médicos ativos afetadas por uma
+     * escrita: a de todos os ativos e as das especialidades anterior e
+     * nova, se o médico estava ou passou a estar ativo. A alteração de
+     * um médico inativo que permanece inativo não afeta nenhuma listagem.
+     *
+     * @param ativoAntes         Se o médico estava ativo.
+     * @param especialidadeAntes A especialidade anterior, ou {@code null}.
+     * @param ativoDepois        Se o médico está ativo.
+     * @param especialidade      A especialidade atual, ou {@code null}.
+     */
+    private void invalidarListagens(final boolean ativoAntes,
+            final Especialidade especialidadeAntes,
+            final boolean ativoDepois, final Especialidade especialidade) {
+        if (!ativoAntes && !ativoDepois) {
+            return;
+        }
+        final Set<String> namespaces = new LinkedHashSet<>();
+        namespaces.add(NAMESPACE_ATIVOS);
+        if (ativoAntes && especialidadeAntes != null) {
+            namespaces.add(PREFIXO_NAMESPACE_ESPECIALIDADE
+                    + especialidadeAntes.name());
+        }
+        if (ativoDepois && especialidade != null) {
+            namespaces.add(PREFIXO_NAMESPACE_ESPECIALIDADE
+                    + especialidade.name());
+        }
+        geracoesCache.avancar(namespaces.toArray(String[]::new));
     }
 }
@@ -1,12 +1,20 @@
 package com.example.clinicapi.service;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
+import com.example.clinicapi.infra.pagination.CursorCodec;
 import com.example.clinicapi.mapper.PacienteMapper;
 import com.example.clinicapi.model.Paciente;
 import com.example.clinicapi.repository.PacienteRepository;
@@ -46,6 +54,11 @@ public class PacienteService {
      */
     private final PacienteMapper pacienteMapper;
 
+    /**
+     * Refaz as atualizações que falham por conflito de versão.
+     */
+    private final RetentativaOtimista retentativaOtimista;
+
     /**
      * Retorna uma página de todos os pacientes existentes,
      * convertidos para DTOs.
@@ -67,11 +80,50 @@ public class PacienteService {
     }
 
     /**
-     * Busca um paciente pelo seu ID e o converte para DTO.
+     * Retorna uma página de pacientes ordenados por ID, utilizando
+     * paginação por cursor (keyset). O custo de cada página não cresce
+     * com a profundidade da listagem e nenhuma contagem total é executada.
+     *
+     * @param cursor  O token devolvido na página anterior,
+     * ou {@code null} para a primeira página.
+     * @param tamanho A quantidade de pacientes desejada.
+     * @return A página de PacienteDTOs e o cursor da página seguinte.
+     * @throws IllegalArgumentException Se o cursor for inválido.
+     */
+    public PaginaCursorDTO<PacienteDTO> findAllPorCursor(final String cursor,
+            final int tamanho) {
+        final int size = Math.min(Math.max(TAMANHO_MINIMO_PAGINA, tamanho),
+                TAMANHO_MAXIMO_PAGINA);
+        final long ultimoId = cursor == null || cursor.isBlank()
+                ? 0L : CursorCodec.decodificarId(cursor);
+        log.debug("Buscando pacientes por cursor: após ID {}, tamanho {}",
+                ultimoId, size);
+
+        final List<Paciente> registros = pacienteRepository
+                .findByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(size + 1));
+
+        final boolean possuiProxima = registros.size() > size;
+        final List<Paciente> pagina = possuiProxima
+                ? registros.subList(0, size) : registros;
+        final String proximoCursor = possuiProxima
+                ? CursorCodec.codificar(pagina.get(size - 1).getId())
+                : null;
+
+        return new PaginaCursorDTO<>(
+                pagina.stream().map(pacienteMapper::toDTO).toList(),
+                size, proximoCursor);
+    }
+
+    /**
+     * Busca um paciente pelo seu ID e o converte para DTO, utilizando o
+     * cache {@code pacientes}, mantido pelas escritas deste serviço. As
+     * faltas são carregadas uma única vez por nó; um paciente ausente
+     * também fica em cache, até ser criado ou expirar.
      *
      * @param id O ID do paciente a ser buscado.
      * @return Um Optional contendo o PacienteDTO, se encontrado.
      */
+    @Cacheable(value = "pacientes", key = "#id", sync = true)
     public Optional<PacienteDTO> findById(final Long id) {
         log.debug("Buscando paciente por ID: {}", id);
 
@@ -101,11 +153,13 @@ public class PacienteService {
     }
 
     /**
-     * Salva um novo paciente no banco de dados.
+     * Salva um novo paciente no banco de dados e no cache
+     * {@code pacientes}.
      *
      * @param pacienteDTO O DTO contendo os dados do paciente a ser salvo.
      * @return O PacienteDTO do paciente salvo.
      */
+    @CachePut(value = "pacientes", key = "#result.id")
     public PacienteDTO save(final PacienteDTO pacienteDTO) {
         log.debug("Salvando novo paciente: {}", pacienteDTO);
 
@@ -119,16 +173,32 @@ public class PacienteService {
     }
 
     /**
-     * Atualiza os dados de um paciente existente.
+     * Atualiza os dados de um paciente existente, também no cache
+     * {@code pacientes}.
      *
      * @param id  O ID do paciente a ser atualizado.
      * @param dto O DTO contendo os dados atualizados do paciente.
      * @return O PacienteDTO do paciente atualizado.
      * @throws EntityNotFoundException Se o paciente não for encontrado.
      */
+    @CachePut(value = "pacientes", key = "#id")
     public PacienteDTO update(final Long id, final PacienteDTO dto) {
         log.debug("Atualizando paciente ID {} com DTO: {}", id, dto);
+        return retentativaOtimista.executar("atualizar paciente " + id,
+                () -> aplicarAtualizacao(id, dto));
+    }
 
+    /**
+     * Carrega o paciente e aplica as alterações do DTO. Executado a cada
+     * tentativa de {@link #update}, sempre sobre a versão mais recente.
+     *
+     * @param id  O ID do paciente a ser atualizado.
+     * @param dto O DTO contendo os dados atualizados.
+     * @return O PacienteDTO atualizado.
+     * @throws EntityNotFoundException Se o paciente não for encontrado.
+     */
+    private PacienteDTO aplicarAtualizacao(final Long id,
+            final PacienteDTO dto) {
         final Paciente paciente = pacienteRepository.findById(id)
                 .orElseThrow(() ->
                 new EntityNotFoundException("Paciente não encontrado"));
@@ -157,10 +227,12 @@ public class PacienteService {
     }
 
     /**
-     * Exclui um paciente pelo seu ID.
+     * Exclui um paciente pelo seu ID e o remove do cache
+     * {@code pacientes}.
      *
      * @param id O ID do paciente a ser excluído.
      */
+    @CacheEvict(value = "pacientes", key = "#id")
     public void deleteById(final Long id) {
         log.debug("Iniciando inativação do paciente com ID: {}", id);
         pacienteRepository.deleteById(id);
@@ -1,120 +1,204 @@
 package com.example.clinicapi.service;
 
+import java.security.SecureRandom;
+import java.time.Clock;
 import java.time.Instant;
-import java.util.UUID;
+import java.util.Base64;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import com.example.clinicapi.model.RefreshToken;
+import com.example.clinicapi.infra.refreshtoken.HashToken;
+import com.example.clinicapi.infra.refreshtoken.RefreshTokenStore;
+import com.example.clinicapi.infra.refreshtoken.SessaoRefreshToken;
 import com.example.clinicapi.model.Usuario;
-import com.example.clinicapi.repository.RefreshTokenRepository;
 import com.example.clinicapi.repository.UsuarioRepository;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Serviço responsável por gerenciar os refresh tokens utilizados
  * para renovar tokens de acesso (JWT) sem exigir novo login.
  *
- * Fornece métodos para criação, validação e remoção de refresh tokens,
- * garantindo controle seguro de sessões autenticadas.
+ * <p>Cada login cria uma sessão independente, de modo que o usuário
+ * pode manter várias sessões simultâneas. O token é um valor aleatório de
+ * 256 bits entregue apenas ao cliente; o {@link RefreshTokenStore}
+ * guarda somente o seu hash. A cada renovação o token apresentado é
+ * consumido e substituído por um novo (rotação), o que impede a
+ * reutilização de um token já utilizado.</p>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
     /**
-     * Repositório para operações com a entidade {@link RefreshToken}.
+     * Quantidade de bytes aleatórios de cada token.
      */
-    private final RefreshTokenRepository repository;
+    private static final int BYTES_TOKEN = 32;
 
     /**
-     * Repositório de usuários para associação com tokens.
+     * Codificação dos tokens, segura para URLs e cabeçalhos.
+     */
+    private static final Base64.Encoder CODIFICADOR =
+            Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Armazenamento das sessões.
+     */
+    private final RefreshTokenStore store;
+
+    /**
+     * Repositório de usuários, consultado na renovação.
      */
     private final UsuarioRepository usuarioRepository;
 
     /**
      * Tempo de expiração do refresh token em milissegundos.
-     * Configurado via application.properties.
      */
-    @Value("${security.jwt.refresh-token-expiration-ms}")
-    private Long refreshTokenDurationMs;
+    private final long refreshTokenDurationMs;
+
+    /**
+     * Relógio utilizado para calcular a expiração.
+     */
+    private final Clock clock;
+
+    /**
+     * Gerador dos tokens.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Resultado da rotação de um refresh token.
+     *
+     * @param usuario      O usuário da sessão.
+     * @param refreshToken O novo refresh token, que substitui o consumido.
+     */
+    public record RefreshTokenRotacionado(Usuario usuario,
+            String refreshToken) {
+    }
 
     /**
-     * Cria e persiste um novo refresh token para o usuário informado.
+     * Cria o serviço com a duração configurada.
      *
-     * @param username login do usuário
-     * @return {@link RefreshToken} gerado e salvo no banco
-     * @throws UsernameNotFoundException se o usuário não for encontrado
+     * @param pStore                  armazenamento das sessões
+     * @param pUsuarioRepository      repositório de usuários
+     * @param pRefreshTokenDurationMs tempo de expiração do refresh token
+     *                                em milissegundos
      */
-    public RefreshToken criarRefreshToken(final String username) {
-        log.info("Criando refresh token para o usuário '{}'", username);
+    @Autowired
+    public RefreshTokenService(final RefreshTokenStore pStore,
+            final UsuarioRepository pUsuarioRepository,
+            @Value("${security.jwt.refresh-token-expiration-ms}")
+            final long pRefreshTokenDurationMs) {
+        this(pStore, pUsuarioRepository, pRefreshTokenDurationMs,
+                Clock.systemUTC());
+    }
 
-        Usuario usuario = usuarioRepository.findByLogin(username)
-            .orElseThrow(() -> {
-                log.warn("Usuário '{}' não encontrado ao gerar token",
-                        username);
-                return new UsernameNotFoundException("Usuário não encontrado");
-            });
+    /**
+     * Cria o serviço com o relógio informado.
+     *
+     * @param pStore                  armazenamento das sessões
+     * @param pUsuarioRepository      repositório de usuários
+     * @param pRefreshTokenDurationMs tempo de expiração do refresh token
+     *                                em milissegundos
+     * @param pClock                  relógio utilizado para calcular a
+     *                                expiração
+     */
+    RefreshTokenService(final RefreshTokenStore pStore,
+            final UsuarioRepository pUsuarioRepository,
+            final long pRefreshTokenDurationMs, final Clock pClock) {
+        this.store = pStore;
+        this.usuarioRepository = pUsuarioRepository;
+        this.refreshTokenDurationMs = pRefreshTokenDurationMs;
+        this.clock = pClock;
+    }
 
-        RefreshToken token = new RefreshToken();
-        token.setUsuario(usuario);
-        token.setToken(UUID.randomUUID().toString());
-        token.setDataExpiracao(
-            Instant.now().plusMillis(refreshTokenDurationMs)
-        );
+    /**
+     * Cria uma nova sessão para o usuário informado.
+     *
+     * @param usuario o usuário autenticado
+     * @return o refresh token gerado, entregue apenas ao cliente
+     */
+    public String criarRefreshToken(final Usuario usuario) {
+        final byte[] bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        final String token = CODIFICADOR.encodeToString(bytes);
+        final Instant expiraEm = clock.instant()
+                .plusMillis(refreshTokenDurationMs);
 
-        RefreshToken salvo = repository.save(token);
+        store.salvar(new SessaoRefreshToken(HashToken.sha256(token),
+                usuario.getId(), usuario.getLogin(), expiraEm));
 
         log.info("Refresh token criado para usuário '{}'. Expira em {}",
-            username, salvo.getDataExpiracao());
-
-        return salvo;
+                usuario.getLogin(), expiraEm);
+        return token;
     }
 
     /**
-     * Verifica se o refresh token informado é válido. Se expirado,
-     * remove-o do banco e lança exceção.
+     * Consome o refresh token informado e emite um novo para a mesma
+     * sessão. Entre requisições concorrentes com o mesmo token, apenas uma
+     * é atendida.
      *
      * @param token valor do refresh token
-     * @return {@link RefreshToken} válido
-     * @throws RuntimeException se o token for inexistente ou expirado
+     * @return o usuário da sessão e o novo refresh token
+     * @throws RuntimeException se o token for inexistente, já utilizado
+     * ou expirado, ou se o usuário não existir mais
      */
-    public RefreshToken verificarValidade(final String token) {
-        log.info("Verificando validade do refresh token");
-
-        RefreshToken refreshToken = repository.findByToken(token)
-            .orElseThrow(() -> {
-                log.warn("Token de refresh inválido ou inexistente");
-                return new RuntimeException("Token não encontrado");
-            });
-
-        if (refreshToken.getDataExpiracao().isBefore(Instant.now())) {
-            log.warn("Refresh token expirado em {}, removendo do banco",
-                refreshToken.getDataExpiracao());
-            repository.delete(refreshToken);
-            throw new RuntimeException("Token expirado. "
-                    + "Faça login novamente.");
-        }
+    public RefreshTokenRotacionado rotacionar(final String token) {
+        log.debug("Rotacionando refresh token");
+
+        final SessaoRefreshToken sessao = store
+                .consumir(HashToken.sha256(token))
+                .orElseThrow(() -> {
+                    log.warn("Token de refresh inválido, utilizado ou "
+                            + "expirado");
+                    return new RuntimeException("Token não encontrado. "
+                            + "Faça login novamente.");
+                });
+
+        final Usuario usuario = usuarioRepository
+                .findById(sessao.usuarioId())
+                .orElseThrow(() -> {
+                    log.warn("Usuário '{}' do refresh token não existe mais",
+                            sessao.login());
+                    return new RuntimeException("Token não encontrado. "
+                            + "Faça login novamente.");
+                });
+
+        return new RefreshTokenRotacionado(usuario,
+                criarRefreshToken(usuario));
+    }
 
-        log.info("Refresh token válido até {}",
-                refreshToken.getDataExpiracao());
-        return refreshToken;
+    /**
+     * Encerra a sessão do refresh token informado, mantendo as demais
+     * sessões do usuário. Um token de outro usuário, já utilizado ou
+     * expirado é ignorado.
+     *
+     * @param usuarioId ID do usuário autenticado
+     * @param token     valor do refresh token da sessão
+     * @throws IllegalArgumentException se o token não for informado
+     */
+    public void encerrarSessao(final Long usuarioId, final String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException(
+                    "O refresh token da sessão deve ser informado");
+        }
+        final boolean removida = store.remover(HashToken.sha256(token),
+                usuarioId);
+        log.info("Sessão do usuário {} {}", usuarioId,
+                removida ? "encerrada" : "não encontrada ou já encerrada");
     }
 
     /**
-     * Exclui o refresh token associado ao usuário informado.
+     * Exclui todas as sessões do usuário informado, como na troca de
+     * senha ou em uma revogação administrativa.
      *
-     * @param usuario usuário cujo token deve ser removido
+     * @param usuarioId ID do usuário cujas sessões devem ser removidas
      */
-    public void excluirPorUsuario(final Usuario usuario) {
-        log.info("Removendo refresh token associado ao usuário '{}'",
-            usuario.getLogin());
-        repository.deleteByUsuario(usuario);
-        log.info("Refresh token removido com sucesso");
+    public void excluirPorUsuario(final Long usuarioId) {
+        log.info("Removendo refresh tokens associados ao usuário {}",
+            usuarioId);
+        store.removerPorUsuario(usuarioId);
     }
 }
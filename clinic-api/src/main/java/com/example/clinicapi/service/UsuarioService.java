@@ -32,15 +32,17 @@ public class UsuarioService {
      * Cadastra um novo usuário no sistema, criptografando sua senha.
      *
      * @param dados O DTO contendo o login e a senha do novo usuário.
+     * @return O usuário cadastrado.
      */
-    public void cadastrarUsuario(final DadosAutenticacaoDTO dados) {
+    public Usuario cadastrarUsuario(final DadosAutenticacaoDTO dados) {
         log.info("Iniciando cadastro para login '{}'", dados.login());
 
         final String senhaCriptografada = encoder.encode(dados.senha());
         final Usuario usuario = new Usuario(dados.login(), senhaCriptografada);
-        repository.save(usuario);
+        final Usuario salvo = repository.save(usuario);
 
         log.info("Usuário '{}' cadastrado com sucesso", dados.login());
+        return salvo;
     }
 
     /**
@@ -0,0 +1,3 @@
+-- Suporta a limpeza em blocos dos refresh tokens expirados, ordenada por (data_expiracao, id),
+-- sem varrer a tabela inteira a cada execução
+CREATE INDEX idx_refresh_tokens_data_expiracao_id ON refresh_tokens (data_expiracao, id);
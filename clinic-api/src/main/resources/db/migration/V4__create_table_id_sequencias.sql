@@ -0,0 +1,10 @@
+CREATE TABLE id_sequencias (
+    sequencia VARCHAR(64) NOT NULL,
+    proximo_valor BIGINT NOT NULL,
+    CONSTRAINT pk_id_sequencias PRIMARY KEY (sequencia)
+);
+
+-- O gerador "pooled" do Hibernate reserva os IDs (valor - 50, valor];
+-- o valor inicial garante que não haja colisão com as consultas existentes.
+INSERT INTO id_sequencias (sequencia, proximo_valor)
+SELECT 'consultas', COALESCE(MAX(id), 0) + 51 FROM consultas;
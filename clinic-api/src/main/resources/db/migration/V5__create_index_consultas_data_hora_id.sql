@@ -0,0 +1,2 @@
+-- Suporta a paginação por cursor de /consultas, ordenada por (data_hora, id)
+CREATE INDEX idx_consultas_data_hora_id ON consultas (data_hora, id);
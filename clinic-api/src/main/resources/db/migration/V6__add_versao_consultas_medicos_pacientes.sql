@@ -0,0 +1,4 @@
+-- Coluna de versão para o bloqueio otimista (@Version) das entidades
+ALTER TABLE consultas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE medicos ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE pacientes ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
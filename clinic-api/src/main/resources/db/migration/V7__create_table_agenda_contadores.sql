@@ -0,0 +1,18 @@
+-- Quantidade de consultas por médico, dia e status, mantida incrementalmente.
+-- Os contadores são dados derivados de consultas: sem chave estrangeira para medicos, os contadores zerados de um
+-- médico não impedem a sua exclusão e são removidos pela reconciliação
+CREATE TABLE agenda_contadores (
+    medico_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    CONSTRAINT pk_agenda_contadores PRIMARY KEY (medico_id, data, status)
+);
+
+-- Suporta a reconciliação em blocos de dias
+CREATE INDEX idx_agenda_contadores_data ON agenda_contadores (data);
+
+INSERT INTO agenda_contadores (medico_id, data, status, quantidade)
+SELECT medico_id, DATE(data_hora), status, COUNT(*)
+FROM consultas
+GROUP BY medico_id, DATE(data_hora), status;
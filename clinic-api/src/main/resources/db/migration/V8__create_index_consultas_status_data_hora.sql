@@ -0,0 +1,3 @@
+-- Suporta a leitura em blocos das consultas agendadas, ordenada por (data_hora, id),
+-- usada pelo encerramento das consultas passadas e pela janela de lembretes
+CREATE INDEX idx_consultas_status_data_hora_id ON consultas (status, data_hora, id);
@@ -0,0 +1,4 @@
+-- Os refresh tokens passam a ser armazenados como hash SHA-256 em hexadecimal;
+-- os tokens já emitidos continuam válidos, pois o hash é calculado sobre o mesmo valor
+UPDATE refresh_tokens SET token = SHA2(token, 256);
+ALTER TABLE refresh_tokens MODIFY token VARCHAR(64) NOT NULL;
@@ -0,0 +1,79 @@
+package com.example.clinicapi.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+
+/**
+ * Mede a latência da verificação de conflito de agenda
+ * com o índice populado por 1 milhão de consultas.
+ *
+ * <p>Execução: {@code ./mvnw test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.clinicapi.benchmark.AgendaMedicoIndexBenchmark}
+ * ou diretamente pela IDE através do método {@code main}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendaMedicoIndexBenchmark {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Param({"1000000"})
+    private int consultas;
+
+    @Param({"500"})
+    private int medicos;
+
+    private AgendaMedicoIndex index;
+
+    private int consultasPorMedico;
+
+    @Setup(Level.Trial)
+    public void popular() {
+        index = new AgendaMedicoIndex(null, 30);
+        consultasPorMedico = consultas / medicos;
+        long id = 1;
+        for (long medico = 1; medico <= medicos; medico++) {
+            for (int i = 0; i < consultasPorMedico; i++) {
+                index.registrar(id++, medico, INICIO.plusMinutes(30L * i));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean verificarConflito() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long medico = 1 + random.nextInt(medicos);
+        LocalDateTime dataHora = INICIO.plusMinutes(15L * random.nextInt(consultasPorMedico * 2));
+        return index.possuiConflito(medico, dataHora, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AgendaMedicoIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.clinicapi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.infra.cache.CodecCache;
+import com.example.clinicapi.infra.cache.PaginaCache;
+import com.example.clinicapi.model.Especialidade;
+
+/**
+ * Compara a gravação de uma página de médicos em cache pelo
+ * {@code GenericJackson2JsonRedisSerializer}, utilizado até então, e
+ * pelo {@link CodecCache}, em Smile: o tempo de serialização e de
+ * desserialização por página e, impressa antes das medições, a
+ * quantidade de bytes gravada no Redis.
+ *
+ * <p>O JSON da {@code PageImpl} não pode ser desserializado (a classe não
+ * tem construtor para o Jackson); a leitura em JSON é medida sobre a
+ * mesma página como {@link PaginaCache}, o melhor caso para o formato.</p>
+ *
+ * <p>Execução: {@code ./mvnw test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.clinicapi.benchmark.CodecCacheBenchmark}
+ * ou diretamente pela IDE através do método {@code main}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecCacheBenchmark {
+
+    @Param({"20", "100"})
+    private int tamanho;
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    private final CodecCache<Page<MedicoDTO>> codec = CodecCache.paginas(CodecCache.mapeador(), MedicoDTO.class);
+
+    private Page<MedicoDTO> pagina;
+
+    private byte[] paginaJson;
+
+    private byte[] paginaBinaria;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<MedicoDTO> medicos = new ArrayList<>(tamanho);
+        for (long id = 1; id <= tamanho; id++) {
+            medicos.add(new MedicoDTO(id, "Dr. Médico " + id, "medico" + id + "@clinica.com", "CRM" + (1000 + id),
+                    "1199999" + (1000 + id), Especialidade.values()[(int) (id % 5)], true));
+        }
+        pagina = new PageImpl<>(medicos, PageRequest.of(0, tamanho, Sort.by("nome")), 1_000);
+        paginaJson = json.serialize(PaginaCache.de(pagina));
+        paginaBinaria = codec.serialize(pagina);
+        System.out.printf("%nBytes por página de %d médicos: JSON (PageImpl) %d, JSON (PaginaCache) %d, Smile %d%n",
+                tamanho, json.serialize(pagina).length, paginaJson.length, paginaBinaria.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerializar() {
+        return json.serialize(pagina);
+    }
+
+    @Benchmark
+    public Object jsonDesserializar() {
+        return ((PaginaCache<?>) json.deserialize(paginaJson)).paraPage();
+    }
+
+    @Benchmark
+    public byte[] codecSerializar() {
+        return codec.serialize(pagina);
+    }
+
+    @Benchmark
+    public Page<MedicoDTO> codecDesserializar() {
+        return codec.deserialize(paginaBinaria);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CodecCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
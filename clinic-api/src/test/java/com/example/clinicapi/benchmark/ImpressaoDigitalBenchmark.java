@@ -0,0 +1,119 @@
+package com.example.clinicapi.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.clinicapi.infra.revogacao.RevogacaoStoreEmMemoria;
+import com.example.clinicapi.infra.revogacao.RevogacaoTokens;
+import com.example.clinicapi.infra.security.CacheUsuariosAtivos;
+import com.example.clinicapi.infra.security.ImpressaoDigitalToken;
+import com.example.clinicapi.infra.security.JwtService;
+import com.example.clinicapi.infra.security.SecurityFilter;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Mede o custo adicionado ao {@link SecurityFilter} pela conferência da
+ * impressão digital ({@link ImpressaoDigitalToken}): a leitura do
+ * cookie, o SHA-256 do seu valor e a comparação em tempo constante com o
+ * hash do token. Os dois cenários usam o mesmo token, já verificado e em
+ * cache, e a mesma requisição com o cookie.
+ *
+ * <p>Execução: {@code ./mvnw test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.clinicapi.benchmark.ImpressaoDigitalBenchmark}
+ * ou diretamente pela IDE através do método {@code main}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImpressaoDigitalBenchmark {
+
+    private static final String SECRET = "umaChaveSecretaComPeloMenos32CaracteresSeguros123";
+
+    private static final FilterChain CADEIA = (request, response) -> { };
+
+    private SecurityFilter semImpressao;
+
+    private SecurityFilter comImpressao;
+
+    private MockHttpServletRequest request;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        JwtService jwtService = new JwtService(SECRET, 10_000);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CacheUsuariosAtivos cacheUsuariosAtivos =
+                new CacheUsuariosAtivos(null, false, Duration.ZERO.toMillis(), 0);
+        RevogacaoTokens revogacaoTokens = new RevogacaoTokens(
+                new RevogacaoStoreEmMemoria(Clock.systemUTC()), meterRegistry, 1_000, 0.01);
+        ImpressaoDigitalToken impressaoDigitalToken = new ImpressaoDigitalToken(true, meterRegistry);
+
+        semImpressao = new SecurityFilter(jwtService, null, cacheUsuariosAtivos, revogacaoTokens,
+                new ImpressaoDigitalToken(false, meterRegistry));
+        comImpressao = new SecurityFilter(jwtService, null, cacheUsuariosAtivos, revogacaoTokens,
+                impressaoDigitalToken);
+
+        String impressao = impressaoDigitalToken.gerar();
+        String token = jwtService.generateToken(new Usuario(1L, "usuario", null, Role.ROLE_USER),
+                impressaoDigitalToken.hash(impressao));
+        request = new MockHttpServletRequest("GET", "/medicos");
+        request.addHeader("Authorization", "Bearer " + token);
+        request.setCookies(new Cookie("__Secure-Fgp", impressao));
+    }
+
+    @Benchmark
+    public Authentication filtroSemImpressao() throws Exception {
+        return autenticar(semImpressao);
+    }
+
+    @Benchmark
+    public Authentication filtroComImpressao() throws Exception {
+        return autenticar(comImpressao);
+    }
+
+    private Authentication autenticar(final SecurityFilter filter) throws Exception {
+        filter.doFilter(request, response, CADEIA);
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        if (autenticacao == null) {
+            throw new IllegalStateException("Token não autenticado");
+        }
+        return autenticacao;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImpressaoDigitalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.clinicapi.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.clinicapi.infra.security.JwtService;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Mede quantos tokens por segundo são validados por
+ * {@link JwtService#getSubject(String)}: criando a chave e o parser a
+ * cada chamada (implementação anterior), reutilizando o parser e
+ * reutilizando o parser com o cache de tokens verificados.
+ *
+ * <p>Execução: {@code ./mvnw test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.clinicapi.benchmark.JwtServiceBenchmark}
+ * ou diretamente pela IDE através do método {@code main}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "umaChaveSecretaComPeloMenos32CaracteresSeguros123";
+
+    private JwtService semCache;
+
+    private JwtService comCache;
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        semCache = new JwtService(SECRET, 0);
+        comCache = new JwtService(SECRET, 10_000);
+        token = semCache.generateToken(new Usuario(1L, "usuario", null, Role.ROLE_USER));
+    }
+
+    @Benchmark
+    public String parserPorChamada() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String parserReutilizado() {
+        return semCache.getSubject(token);
+    }
+
+    @Benchmark
+    public String tokenVerificadoEmCache() {
+        return comCache.getSubject(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.clinicapi.benchmark;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.clinicapi.infra.logging.AmostragemLogsFilter;
+import com.example.clinicapi.infra.logging.AnelEventosAppender;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+
+/**
+ * Mede a latência de uma requisição simulada que registra três eventos
+ * {@code INFO} em JSON, com quatro threads concorrentes: com o appender
+ * síncrono (configuração anterior), com o {@link AnelEventosAppender} e
+ * com o appender assíncrono mais o {@link AmostragemLogsFilter}.
+ *
+ * <p>A saída é descartada, de modo que o custo medido no modo síncrono é
+ * apenas a codificação JSON e a disputa pelo bloqueio do appender; com um
+ * console real o custo da escrita se soma a ele. Nos modos assíncronos,
+ * os eventos descartados por anel cheio são exibidos ao final.</p>
+ *
+ * <p>Execução: {@code ./mvnw test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.clinicapi.benchmark.LoggingBenchmark}
+ * ou diretamente pela IDE através do método {@code main}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({"SINCRONO", "ASSINCRONO", "AMOSTRADO"})
+    private String modo;
+
+    private LoggerContext contexto;
+
+    private AnelEventosAppender anel;
+
+    private AmostragemLogsFilter amostragem;
+
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new LoggerContext();
+        contexto.setMDCAdapter(new LogbackMDCAdapter());
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(contexto);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> saida = new OutputStreamAppender<>();
+        saida.setContext(contexto);
+        saida.setName("SAIDA");
+        saida.setEncoder(encoder);
+        saida.setOutputStream(OutputStream.nullOutputStream());
+        saida.start();
+
+        Appender<ILoggingEvent> appender = saida;
+        if (!"SINCRONO".equals(modo)) {
+            anel = new AnelEventosAppender();
+            anel.setContext(contexto);
+            anel.setName("ASYNC");
+            anel.addAppender(saida);
+            anel.start();
+            appender = anel;
+        }
+        if ("AMOSTRADO".equals(modo)) {
+            amostragem = new AmostragemLogsFilter();
+            amostragem.setContext(contexto);
+            amostragem.addLogger("com.example.clinicapi.controller");
+            amostragem.start();
+            contexto.addTurboFilter(amostragem);
+        }
+
+        Logger root = contexto.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+        logger = contexto.getLogger("com.example.clinicapi.controller.ConsultaController");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        if (anel != null) {
+            System.out.printf("%nDescartados por anel cheio: %d%n", anel.getDescartados());
+        }
+        if (amostragem != null) {
+            System.out.printf("Descartados pela amostragem: %d%n", amostragem.getDescartados());
+        }
+        contexto.stop();
+    }
+
+    @Benchmark
+    public void requisicao() {
+        logger.info("Buscando consultas do médico {} na página {}", 42L, 0);
+        logger.info("Consulta {} agendada para o paciente {}", 1234L, 77L);
+        logger.info("Resposta enviada com status {}", 200);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoggingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
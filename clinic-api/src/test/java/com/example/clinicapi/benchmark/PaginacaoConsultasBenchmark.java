@@ -0,0 +1,184 @@
+package com.example.clinicapi.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compara a paginação por OFFSET (com a contagem executada pelo
+ * {@code Page} do Spring Data) com a paginação por cursor na tabela
+ * {@code consultas} populada com 5 milhões de linhas.
+ *
+ * <p>Requer o MySQL do {@code docker-compose.yml} com as migrations
+ * aplicadas e ao menos um paciente e um médico cadastrados. Na primeira
+ * execução a tabela é completada até {@code linhas} registros, o que pode
+ * levar alguns minutos. A conexão pode ser alterada com
+ * {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.user} e
+ * {@code -Dbenchmark.jdbc.password}.</p>
+ *
+ * <p>Execução: {@code ./mvnw test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.clinicapi.benchmark.PaginacaoConsultasBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaginacaoConsultasBenchmark {
+
+    private static final String SELECT = "SELECT id, paciente_id, medico_id, data_hora, status FROM consultas ";
+
+    private static final int TAMANHO_PAGINA = 10;
+
+    @Param({"5000000"})
+    private int linhas;
+
+    @Param({"1", "10000"})
+    private int pagina;
+
+    private Connection conexao;
+
+    private PreparedStatement offset;
+
+    private PreparedStatement contagem;
+
+    private PreparedStatement cursor;
+
+    private Timestamp ultimaDataHora;
+
+    private long ultimoId;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        conexao = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url",
+                        "jdbc:mysql://localhost:3307/clinicdb?useSSL=false&serverTimezone=UTC"
+                        + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"),
+                System.getProperty("benchmark.jdbc.user", "root"),
+                System.getProperty("benchmark.jdbc.password", "root"));
+        popular();
+
+        offset = conexao.prepareStatement(SELECT + "ORDER BY data_hora, id LIMIT ? OFFSET ?");
+        contagem = conexao.prepareStatement("SELECT COUNT(*) FROM consultas");
+        cursor = conexao.prepareStatement(SELECT
+                + "WHERE data_hora >= ? AND (data_hora > ? OR id > ?) ORDER BY data_hora, id LIMIT ?");
+
+        // Chave da última linha da página anterior, como viria no cursor
+        try (PreparedStatement chave = conexao.prepareStatement(
+                "SELECT data_hora, id FROM consultas ORDER BY data_hora, id LIMIT 1 OFFSET ?")) {
+            chave.setInt(1, Math.max(0, (pagina - 1) * TAMANHO_PAGINA - 1));
+            try (ResultSet rs = chave.executeQuery()) {
+                rs.next();
+                ultimaDataHora = pagina == 1 ? new Timestamp(0) : rs.getTimestamp(1);
+                ultimoId = pagina == 1 ? 0 : rs.getLong(2);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException {
+        conexao.close();
+    }
+
+    @Benchmark
+    public void offset(final Blackhole bh) throws SQLException {
+        offset.setInt(1, TAMANHO_PAGINA);
+        offset.setInt(2, (pagina - 1) * TAMANHO_PAGINA);
+        consumir(offset, bh);
+        consumir(contagem, bh);
+    }
+
+    @Benchmark
+    public void cursor(final Blackhole bh) throws SQLException {
+        cursor.setTimestamp(1, ultimaDataHora);
+        cursor.setTimestamp(2, ultimaDataHora);
+        cursor.setLong(3, ultimoId);
+        cursor.setInt(4, TAMANHO_PAGINA + 1);
+        consumir(cursor, bh);
+    }
+
+    private static void consumir(final PreparedStatement ps, final Blackhole bh) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    private void popular() throws SQLException {
+        long existentes;
+        long pacienteId;
+        long medicoId;
+        try (Statement st = conexao.createStatement()) {
+            existentes = valor(st, "SELECT COUNT(*) FROM consultas");
+            pacienteId = valor(st, "SELECT MIN(id) FROM pacientes");
+            medicoId = valor(st, "SELECT MIN(id) FROM medicos");
+        }
+        if (existentes >= linhas) {
+            return;
+        }
+
+        conexao.setAutoCommit(false);
+        LocalDateTime inicio = LocalDateTime.of(2020, 1, 1, 8, 0);
+        try (PreparedStatement insert = conexao.prepareStatement(
+                "INSERT INTO consultas (paciente_id, medico_id, data_hora, status) VALUES (?, ?, ?, 'REALIZADA')")) {
+            for (long i = existentes; i < linhas; i++) {
+                insert.setLong(1, pacienteId);
+                insert.setLong(2, medicoId);
+                insert.setTimestamp(3, Timestamp.valueOf(inicio.plusMinutes(i)));
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+            }
+            insert.executeBatch();
+            conexao.commit();
+        }
+        try (Statement st = conexao.createStatement()) {
+            st.execute("UPDATE id_sequencias SET proximo_valor = "
+                    + "(SELECT MAX(id) + 51 FROM consultas) WHERE sequencia = 'consultas'");
+        }
+        conexao.commit();
+        conexao.setAutoCommit(true);
+    }
+
+    private static long valor(final Statement st, final String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PaginacaoConsultasBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
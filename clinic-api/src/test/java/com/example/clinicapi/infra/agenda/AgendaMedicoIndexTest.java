@@ -0,0 +1,120 @@
+package com.example.clinicapi.infra.agenda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AgendaMedicoIndexTest {
+
+    private static final LocalDateTime NOVE_HORAS = LocalDateTime.of(2030, 3, 10, 9, 0);
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    private AgendaMedicoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AgendaMedicoIndex(consultaRepository, 30);
+    }
+
+    @Test
+    void deveDetectarConflitoDentroDaDuracaoDaConsulta() {
+        index.registrar(1L, 10L, NOVE_HORAS);
+
+        assertTrue(index.possuiConflito(10L, NOVE_HORAS, null));
+        assertTrue(index.possuiConflito(10L, NOVE_HORAS.plusMinutes(15), null));
+        assertTrue(index.possuiConflito(10L, NOVE_HORAS.minusMinutes(29), null));
+    }
+
+    @Test
+    void devePermitirConsultasEmSequenciaEDeOutrosMedicos() {
+        index.registrar(1L, 10L, NOVE_HORAS);
+
+        assertFalse(index.possuiConflito(10L, NOVE_HORAS.plusMinutes(30), null));
+        assertFalse(index.possuiConflito(10L, NOVE_HORAS.minusMinutes(30), null));
+        assertFalse(index.possuiConflito(20L, NOVE_HORAS, null));
+    }
+
+    @Test
+    void deveIgnorarAPropriaConsultaNaAtualizacao() {
+        index.registrar(1L, 10L, NOVE_HORAS);
+
+        assertFalse(index.possuiConflito(10L, NOVE_HORAS.plusMinutes(10), 1L));
+    }
+
+    @Test
+    void deveMoverConsultaAoRegistrarNovamente() {
+        index.registrar(1L, 10L, NOVE_HORAS);
+        index.registrar(1L, 10L, NOVE_HORAS.plusHours(2));
+
+        assertFalse(index.possuiConflito(10L, NOVE_HORAS, null));
+        assertTrue(index.possuiConflito(10L, NOVE_HORAS.plusHours(2), null));
+        assertEquals(1, index.tamanho());
+    }
+
+    @Test
+    void deveRemoverConsultaCanceladaDoIndice() {
+        Medico medico = new Medico();
+        medico.setId(10L);
+        Consulta consulta = Consulta.builder()
+                .id(1L)
+                .medico(medico)
+                .dataHora(NOVE_HORAS)
+                .status(StatusConsulta.AGENDADA)
+                .build();
+
+        index.registrar(consulta);
+        assertTrue(index.possuiConflito(10L, NOVE_HORAS, null));
+
+        consulta.setStatus(StatusConsulta.CANCELADA);
+        index.registrar(consulta);
+
+        assertFalse(index.possuiConflito(10L, NOVE_HORAS, null));
+        assertEquals(0, index.tamanho());
+    }
+
+    @Test
+    void deveAquecerIndiceAPartirDoRepositorio() {
+        when(consultaRepository.streamHorariosAtivosAPartirDe(any()))
+                .thenReturn(Stream.of(
+                        new HorarioConsultaDTO(1L, 10L, NOVE_HORAS),
+                        new HorarioConsultaDTO(2L, 20L, NOVE_HORAS)));
+
+        index.aquecer();
+
+        assertEquals(2, index.tamanho());
+        assertTrue(index.possuiConflito(20L, NOVE_HORAS.plusMinutes(5), null));
+    }
+
+    @Test
+    void deveDescartarMarcacoesAnterioresAoLimite() {
+        index.registrar(1L, 10L, NOVE_HORAS.minusDays(1));
+        index.registrar(2L, 10L, NOVE_HORAS);
+        index.registrar(3L, 20L, NOVE_HORAS.minusHours(1));
+
+        assertEquals(2, index.descartarAnteriores(NOVE_HORAS));
+
+        assertEquals(1, index.tamanho());
+        assertFalse(index.possuiConflito(20L, NOVE_HORAS.minusHours(1), null));
+        assertTrue(index.possuiConflito(10L, NOVE_HORAS, null));
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.clinicapi.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheDoisNiveisTest {
+
+    private static final String CACHE = "medicosAtivos";
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private volatile double sorteio = 0.5;
+
+    private ConcurrentMapCacheManager redis;
+
+    private SimpleMeterRegistry registroA;
+
+    private SimpleMeterRegistry registroB;
+
+    private Cache noA;
+
+    private Cache noB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new ConcurrentMapCacheManager(CACHE);
+        BarramentoInvalidacao barramento = new BarramentoInvalidacaoEmMemoria();
+        registroA = new SimpleMeterRegistry();
+        registroB = new SimpleMeterRegistry();
+        ParametrosCache parametros = new ParametrosCache(100, Duration.ofSeconds(30),
+                Duration.ofMinutes(10), 1.0, nanos::get, () -> TimeUnit.NANOSECONDS.toMillis(nanos.get()),
+                () -> sorteio);
+        noA = new CacheManagerDoisNiveis(redis, barramento, registroA, parametros).getCache(CACHE);
+        noB = new CacheManagerDoisNiveis(redis, barramento, registroB, parametros).getCache(CACHE);
+    }
+
+    @Test
+    void deveAtenderSegundaLeituraPeloCacheLocalSemConsultarORedis() {
+        redis.getCache(CACHE).put("pagina-0", "lista");
+
+        assertEquals("lista", noA.get("pagina-0").get());
+        redis.getCache(CACHE).put("pagina-0", "alterada por fora");
+
+        assertEquals("lista", noA.get("pagina-0").get());
+        assertEquals(1.0, leituras("l1"));
+        assertEquals(1.0, leituras("l2"));
+    }
+
+    @Test
+    void deveInvalidarCacheLocalDeOutroNoQuandoValorForAlterado() {
+        noA.put("pagina-0", "v1");
+        assertEquals("v1", noB.get("pagina-0").get());
+
+        noA.put("pagina-0", "v2");
+
+        assertEquals("v2", noB.get("pagina-0").get());
+    }
+
+    @Test
+    void deveInvalidarTodoOCacheLocalDeOutroNoQuandoCacheForLimpo() {
+        noA.put("pagina-0", "v1");
+        noA.put("pagina-1", "v1");
+        noB.get("pagina-0");
+        noB.get("pagina-1");
+
+        noA.clear();
+
+        assertNull(noB.get("pagina-0"));
+        assertNull(noB.get("pagina-1"));
+        assertEquals(0.0, registroA.get("clinica.cache.invalidacoes.remotas").counter().count());
+        assertEquals(3.0, registroB.get("clinica.cache.invalidacoes.remotas").counter().count());
+    }
+
+    @Test
+    void deveExpirarCacheLocalAposOTempoDeVida() {
+        redis.getCache(CACHE).put("pagina-0", "v1");
+        noA.get("pagina-0");
+        redis.getCache(CACHE).put("pagina-0", "v2");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        assertEquals("v2", noA.get("pagina-0").get());
+        assertEquals(2.0, leituras("l2"));
+    }
+
+    @Test
+    void deveCarregarValorAusenteUmaUnicaVezEGuardarNosDoisNiveis() {
+        AtomicLong cargas = new AtomicLong();
+        Object valor = new Object();
+
+        assertSame(valor, noA.get("pagina-0", () -> {
+            cargas.incrementAndGet();
+            return valor;
+        }));
+        assertSame(valor, noA.get("pagina-0", () -> {
+            cargas.incrementAndGet();
+            return new Object();
+        }));
+
+        assertEquals(1, cargas.get());
+        assertSame(valor, compartilhado("pagina-0").valor());
+        assertEquals(1.0, leituras("falha"));
+        assertEquals(1.0, leituras("l1"));
+        assertEquals(1.0, registroA.get("clinica.cache.l1.entradas").gauge().value());
+    }
+
+    @Test
+    void deveAguardarUmaUnicaCargaQuandoFaltasForemSimultaneas() throws Exception {
+        int leitores = 8;
+        AtomicLong cargas = new AtomicLong();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(leitores);
+        try {
+            List<Future<Object>> resultados = new ArrayList<>();
+            for (int i = 0; i < leitores; i++) {
+                resultados.add(executor.submit(() -> noA.get("pagina-0", () -> {
+                    cargas.incrementAndGet();
+                    liberar.await();
+                    return "lista";
+                })));
+            }
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cargas("coalescida") < leitores - 1 && System.nanoTime() < limite) {
+                Thread.onSpinWait();
+            }
+            liberar.countDown();
+
+            for (Future<Object> resultado : resultados) {
+                assertEquals("lista", resultado.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, cargas.get());
+        assertEquals(1.0, cargas("ausente"));
+        assertEquals(leitores - 1.0, cargas("coalescida"));
+    }
+
+    @Test
+    void devePropagarFalhaDaCargaERecarregarNaLeituraSeguinte() {
+        assertThrows(Cache.ValueRetrievalException.class, () -> noA.get("pagina-0", () -> {
+            throw new IllegalStateException("banco indisponível");
+        }));
+
+        assertEquals("lista", noA.get("pagina-0", () -> "lista"));
+        assertEquals(1.0, cargas("ausente"));
+    }
+
+    @Test
+    void deveRenovarValorAntesDaExpiracaoEInvalidarOutrosNos() {
+        noA.get("pagina-0", () -> {
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            return "v1";
+        });
+        assertEquals("v1", noB.get("pagina-0").get());
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(10) - TimeUnit.SECONDS.toNanos(2));
+        sorteio = 0.05;
+
+        assertEquals("v2", noA.get("pagina-0", () -> "v2"));
+        assertEquals("v2", compartilhado("pagina-0").valor());
+        assertEquals("v2", noB.get("pagina-0").get());
+        assertEquals(1.0, cargas("antecipada"));
+    }
+
+    @Test
+    void naoDeveRenovarValorLongeDaExpiracao() {
+        noA.get("pagina-0", () -> {
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            return "v1";
+        });
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        sorteio = 0.05;
+
+        assertEquals("v1", noA.get("pagina-0", () -> "v2"));
+        assertEquals(0.0, cargas("antecipada"));
+    }
+
+    @Test
+    void naoDevePublicarInvalidacaoAoCarregarChaveAusente() {
+        noB.put("pagina-0", "v1");
+        noA.get("pagina-0");
+
+        noA.get("pagina-1", () -> "v1");
+
+        assertEquals(0.0, registroB.get("clinica.cache.invalidacoes.remotas").counter().count());
+        assertEquals("v1", noB.get("pagina-0").get());
+    }
+
+    @Test
+    void deveInvalidarCacheLocalDeOutroNoQuandoValorExpiradoNoRedisForGravado() {
+        noA.put("pagina-0", "v1");
+        assertEquals("v1", noB.get("pagina-0").get());
+        redis.getCache(CACHE).evict("pagina-0");
+
+        noA.put("pagina-0", "v2");
+
+        assertEquals("v2", noB.get("pagina-0").get());
+    }
+
+    @Test
+    void deveRenovarValorCarregadoPorOutroNoPelaExpiracaoGravadaNoRedis() {
+        noA.get("pagina-0", () -> {
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            return "v1";
+        });
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(10) - TimeUnit.SECONDS.toNanos(2));
+        sorteio = 0.05;
+
+        assertEquals("v2", noB.get("pagina-0", () -> "v2"));
+        assertEquals(1.0, registroB.get("clinica.cache.cargas").tag("motivo", "antecipada").counter().count());
+    }
+
+    private ValorCompartilhado compartilhado(String chave) {
+        return (ValorCompartilhado) redis.getCache(CACHE).get(chave).get();
+    }
+
+    private double cargas(String motivo) {
+        return registroA.get("clinica.cache.cargas").tag("motivo", motivo).counter().count();
+    }
+
+    private double leituras(String resultado) {
+        return registroA.get("clinica.cache.leituras").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.clinicapi.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.model.Especialidade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CodecCacheTest {
+
+    private final ObjectMapper smile = CodecCache.mapeador();
+
+    private final CodecCache<Page<MedicoDTO>> codec = CodecCache.paginas(smile, MedicoDTO.class);
+
+    @Test
+    void deveReconstruirAPaginaComConteudoPaginacaoEOrdenacao() {
+        Page<MedicoDTO> pagina = pagina(20);
+
+        Page<MedicoDTO> lida = codec.deserialize(codec.serialize(pagina));
+
+        assertEquals(pagina.getContent(), lida.getContent());
+        assertEquals(pagina.getPageable(), lida.getPageable());
+        assertEquals(pagina.getTotalElements(), lida.getTotalElements());
+        assertEquals(Sort.by(Sort.Order.asc("nome"), Sort.Order.desc("id")), lida.getSort());
+    }
+
+    @Test
+    void deveGravarMenosBytesQueOJsonComTipos() {
+        Page<MedicoDTO> pagina = pagina(20);
+
+        byte[] binario = codec.serialize(pagina);
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(pagina);
+
+        assertEquals(CodecCache.VERSAO, binario[0]);
+        assertTrue(binario.length * 2 < json.length, binario.length + " bytes contra " + json.length);
+    }
+
+    @Test
+    void deveTratarComoAusenteValorDeOutraVersao() {
+        byte[] bytes = codec.serialize(pagina(1));
+        bytes[0] = CodecCache.VERSAO + 1;
+
+        assertNull(codec.deserialize(bytes));
+        assertNull(codec.deserialize(new GenericJackson2JsonRedisSerializer().serialize(pagina(1))));
+    }
+
+    @Test
+    void deveReconstruirValorUnicoComDatas() {
+        CodecCache<PacienteDTO> codecPaciente = CodecCache.de(smile, PacienteDTO.class);
+        PacienteDTO paciente = new PacienteDTO(1L, "Maria", "maria@email.com", "12345678901", "11999999999",
+                LocalDate.of(1990, 5, 20), true);
+
+        assertEquals(paciente, codecPaciente.deserialize(codecPaciente.serialize(paciente)));
+    }
+
+    @Test
+    void deveGravarExpiracaoEDuracaoDaCargaJuntoComOValor() {
+        SerializadorCompartilhado serializador = new SerializadorCompartilhado(codec);
+        Page<MedicoDTO> pagina = pagina(3);
+
+        byte[] bytes = serializador.serialize(new ValorCompartilhado(pagina, 1_700_000_000_000L, 42_000L));
+        ValorCompartilhado lido = (ValorCompartilhado) serializador.deserialize(bytes);
+
+        assertEquals(SerializadorCompartilhado.MARCA, bytes[0]);
+        assertEquals(pagina.getContent(), ((Page<?>) lido.valor()).getContent());
+        assertEquals(1_700_000_000_000L, lido.expiraEm());
+        assertEquals(42_000L, lido.duracao());
+    }
+
+    @Test
+    void deveLerValorGravadoSemExpiracao() {
+        SerializadorCompartilhado serializador = new SerializadorCompartilhado(codec);
+        Page<MedicoDTO> pagina = pagina(3);
+
+        Object lido = serializador.deserialize(codec.serialize(pagina));
+
+        assertEquals(pagina.getContent(), ((Page<?>) lido).getContent());
+    }
+
+    private static Page<MedicoDTO> pagina(int tamanho) {
+        List<MedicoDTO> medicos = new ArrayList<>();
+        for (long id = 1; id <= tamanho; id++) {
+            medicos.add(new MedicoDTO(id, "Dr. Médico " + id, "medico" + id + "@clinica.com", "CRM" + (1000 + id),
+                    "1199999" + (1000 + id), Especialidade.values()[(int) (id % 5)], true));
+        }
+        return new PageImpl<>(medicos, PageRequest.of(2, tamanho, Sort.by(Sort.Order.asc("nome"), Sort.Order.desc("id"))), 500);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.clinicapi.infra.lembrete;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.clinicapi.infra.lembrete.RodaTemporizacao.Tarefa;
+
+class RodaTemporizacaoTest {
+
+    private static final Instant INICIO = Instant.parse("2030-03-10T08:00:00Z");
+
+    private final RodaTemporizacao<String, String> roda = new RodaTemporizacao<>(Duration.ofSeconds(1), 8, INICIO);
+
+    @Test
+    void naoDeveVencerTarefaAntesDoHorario() {
+        roda.agendar("a", INICIO.plusSeconds(5), "A");
+
+        assertTrue(roda.avancar(INICIO.plusSeconds(5)).isEmpty());
+        List<Tarefa<String>> vencidas = roda.avancar(INICIO.plusSeconds(6));
+
+        assertEquals(List.of(new Tarefa<>("A", INICIO.plusSeconds(5))), vencidas);
+        assertEquals(0, roda.pendentes());
+    }
+
+    @Test
+    void deveManterTarefasDeVoltasFuturasNaMesmaPosicao() {
+        // Com 8 posições, 3s e 11s (e 19s) caem na mesma posição
+        roda.agendar("a", INICIO.plusSeconds(3), "A");
+        roda.agendar("b", INICIO.plusSeconds(11), "B");
+        roda.agendar("c", INICIO.plusSeconds(19), "C");
+
+        assertEquals(List.of("A"), valores(roda.avancar(INICIO.plusSeconds(4))));
+        assertEquals(List.of("B"), valores(roda.avancar(INICIO.plusSeconds(12))));
+        assertEquals(1, roda.pendentes());
+        assertEquals(List.of("C"), valores(roda.avancar(INICIO.plusSeconds(20))));
+    }
+
+    @Test
+    void deveVencerTudoAoAvancarMaisDeUmaVoltaDeUmaVez() {
+        roda.agendar("a", INICIO.plusSeconds(2), "A");
+        roda.agendar("b", INICIO.plusSeconds(30), "B");
+        roda.agendar("c", INICIO.plusSeconds(90), "C");
+
+        assertEquals(List.of("A", "B"), valores(roda.avancar(INICIO.plusSeconds(60))).stream().sorted().toList());
+        assertEquals(1, roda.pendentes());
+    }
+
+    @Test
+    void deveCancelarESubstituirTarefasPelaChave() {
+        roda.agendar("a", INICIO.plusSeconds(2), "A");
+        roda.agendar("b", INICIO.plusSeconds(2), "B");
+        roda.agendar("b", INICIO.plusSeconds(4), "B2");
+
+        assertTrue(roda.cancelar("a"));
+        assertFalse(roda.cancelar("a"));
+        assertTrue(roda.avancar(INICIO.plusSeconds(3)).isEmpty());
+        assertEquals(List.of("B2"), valores(roda.avancar(INICIO.plusSeconds(5))));
+    }
+
+    @Test
+    void deveVencerNoProximoTickTarefaAgendadaNoPassado() {
+        roda.avancar(INICIO.plusSeconds(10));
+        roda.agendar("a", INICIO, "A");
+
+        assertEquals(List.of("A"), valores(roda.avancar(INICIO.plusSeconds(11))));
+    }
+
+    private static List<String> valores(final List<Tarefa<String>> tarefas) {
+        return tarefas.stream().map(Tarefa::valor).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.clinicapi.infra.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class AmostragemLogsFilterTest {
+
+    private LoggerContext contexto;
+
+    private AmostragemLogsFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        contexto = new LoggerContext();
+        contexto.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filtro = new AmostragemLogsFilter();
+        filtro.setContext(contexto);
+        filtro.addLogger("com.example.clinicapi.controller");
+        filtro.setEventosPorSegundo(3);
+        filtro.setAmostragem(5);
+        filtro.start();
+    }
+
+    @Test
+    void deveAmostrarEventosAlemDoLimitePorSegundo() {
+        Logger logger = contexto.getLogger("com.example.clinicapi.controller.MedicoController");
+
+        int aceitos = 0;
+        for (int i = 0; i < 23; i++) {
+            if (filtro.decide(null, logger, Level.INFO, "evento", null, null) == FilterReply.NEUTRAL) {
+                aceitos++;
+            }
+        }
+
+        // 3 dentro do limite e 1 a cada 5 dos 20 seguintes, salvo virada
+        // do segundo durante o laço, que só aumenta os aceitos
+        assertEquals(23 - aceitos, filtro.getDescartados());
+        assertTrue(aceitos >= 7);
+    }
+
+    @Test
+    void deveContarJanelaPorSegundo() {
+        assertEquals(1, filtro.contar("a", 10));
+        assertEquals(2, filtro.contar("a", 10));
+        assertEquals(1, filtro.contar("b", 10));
+        assertEquals(1, filtro.contar("a", 11));
+    }
+
+    @Test
+    void naoDeveAmostrarAvisosNemOutrosLoggersNemVerificacoes() {
+        Logger controller = contexto.getLogger("com.example.clinicapi.controller.MedicoController");
+        Logger outro = contexto.getLogger("com.example.clinicapi.controllerX");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controller, Level.WARN, "aviso", null, null));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, outro, Level.INFO, "evento", null, null));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controller, Level.INFO, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controller, Level.DEBUG, "depuracao", null, null));
+        }
+
+        assertEquals(0, filtro.getDescartados());
+    }
+}
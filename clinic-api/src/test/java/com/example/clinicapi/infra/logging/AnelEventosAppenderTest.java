@@ -0,0 +1,92 @@
+package com.example.clinicapi.infra.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+class AnelEventosAppenderTest {
+
+    private final LoggerContext contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    @Test
+    void deveDescartarInfoEEscreverErrorDiretamenteComOAnelCheio() throws Exception {
+        CountDownLatch emEntrega = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Destino destino = new Destino(emEntrega, liberar);
+        AnelEventosAppender appender = new AnelEventosAppender();
+        appender.setContext(contexto);
+        appender.setName("TESTE");
+        appender.setCapacidade(2);
+        appender.addAppender(destino);
+        destino.start();
+        appender.start();
+
+        try {
+            // A thread consumidora fica presa entregando o primeiro evento
+            appender.doAppend(evento(Level.INFO, "primeiro"));
+            assertTrue(emEntrega.await(5, TimeUnit.SECONDS));
+            appender.doAppend(evento(Level.INFO, "segundo"));
+            appender.doAppend(evento(Level.INFO, "terceiro"));
+
+            appender.doAppend(evento(Level.INFO, "descartado"));
+            appender.doAppend(evento(Level.DEBUG, "descartado"));
+            appender.doAppend(evento(Level.ERROR, "erro"));
+
+            assertEquals(2, appender.getDescartados());
+            assertEquals(1, appender.getEscritosDiretamente());
+            assertEquals(List.of("primeiro", "erro"), destino.mensagens);
+        } finally {
+            liberar.countDown();
+            appender.stop();
+        }
+        assertEquals(List.of("primeiro", "erro", "segundo", "terceiro"), destino.mensagens);
+    }
+
+    private ILoggingEvent evento(final Level nivel, final String mensagem) {
+        return new LoggingEvent(AnelEventosAppenderTest.class.getName(), contexto.getLogger("teste"), nivel,
+                mensagem, null, null);
+    }
+
+    /**
+     * Appender de destino que prende a thread consumidora no primeiro evento.
+     */
+    private static final class Destino extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+        private final List<String> mensagens = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch emEntrega;
+
+        private final CountDownLatch liberar;
+
+        Destino(final CountDownLatch pEmEntrega, final CountDownLatch pLiberar) {
+            this.emEntrega = pEmEntrega;
+            this.liberar = pLiberar;
+        }
+
+        @Override
+        protected void append(final ILoggingEvent evento) {
+            mensagens.add(evento.getFormattedMessage());
+            if (Thread.currentThread().getName().startsWith("logs-anel-") && emEntrega.getCount() > 0) {
+                emEntrega.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
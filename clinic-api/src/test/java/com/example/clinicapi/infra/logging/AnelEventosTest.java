@@ -0,0 +1,79 @@
+package com.example.clinicapi.infra.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class AnelEventosTest {
+
+    @Test
+    void deveRetirarNaOrdemERecusarQuandoCheio() {
+        AnelEventos<Integer> anel = new AnelEventos<>(3);
+
+        assertEquals(4, anel.capacidade());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(anel.oferecer(i));
+        }
+        assertFalse(anel.oferecer(4));
+        assertEquals(4, anel.tamanho());
+
+        assertEquals(0, anel.retirar());
+        assertTrue(anel.oferecer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, anel.retirar());
+        }
+        assertNull(anel.retirar());
+        assertEquals(0, anel.tamanho());
+    }
+
+    @Test
+    void deveEntregarCadaElementoUmaVezComVariosProdutores() throws Exception {
+        AnelEventos<Integer> anel = new AnelEventos<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> recusados = new ArrayList<>();
+        boolean[] recebidos = new boolean[40_000];
+        try {
+            for (int t = 0; t < 4; t++) {
+                int base = t * 10_000;
+                recusados.add(executor.submit(() -> {
+                    largada.await();
+                    int recusas = 0;
+                    for (int i = 0; i < 10_000; i++) {
+                        while (!anel.oferecer(base + i)) {
+                            recusas++;
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return recusas;
+                }));
+            }
+            largada.countDown();
+            int retirados = 0;
+            while (retirados < recebidos.length) {
+                Integer elemento = anel.retirar();
+                if (elemento != null) {
+                    assertFalse(recebidos[elemento]);
+                    recebidos[elemento] = true;
+                    retirados++;
+                }
+            }
+            for (Future<Integer> recusas : recusados) {
+                recusas.get();
+            }
+            assertNull(anel.retirar());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
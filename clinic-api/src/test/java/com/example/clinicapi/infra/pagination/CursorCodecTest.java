@@ -0,0 +1,42 @@
+package com.example.clinicapi.infra.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorCodecTest {
+
+    @Test
+    void deveCodificarEDecodificarChaveDataHoraId() {
+        LocalDateTime dataHora = LocalDateTime.of(2030, 3, 10, 9, 30);
+
+        String cursor = CursorCodec.codificar(dataHora, 42L);
+        CursorCodec.ChaveDataHoraId chave = CursorCodec.decodificarDataHoraId(cursor);
+
+        assertEquals(dataHora, chave.dataHora());
+        assertEquals(42L, chave.id());
+        assertFalse(cursor.contains("="));
+    }
+
+    @Test
+    void deveCodificarEDecodificarChaveId() {
+        assertEquals(7L, CursorCodec.decodificarId(CursorCodec.codificar(7L)));
+    }
+
+    @Test
+    void deveRecusarCursorInvalido() {
+        String versaoDesconhecida = Base64.getUrlEncoder()
+                .encodeToString("v0|7".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodificarId("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodificarId(versaoDesconhecida));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorCodec.decodificarDataHoraId(CursorCodec.codificar(7L)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.clinicapi.infra.refreshtoken;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Armazenamento em memória das sessões, com a mesma semântica do
+ * {@link RedisRefreshTokenStore}, para testes sem Redis nem banco.
+ */
+public class RefreshTokenStoreEmMemoria implements RefreshTokenStore {
+
+    private final Map<String, SessaoRefreshToken> sessoes = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    public RefreshTokenStoreEmMemoria(final Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void salvar(final SessaoRefreshToken sessao) {
+        if (!sessao.expirada(clock.instant())) {
+            sessoes.put(sessao.hash(), sessao);
+        }
+    }
+
+    @Override
+    public Optional<SessaoRefreshToken> consumir(final String hash) {
+        return Optional.ofNullable(sessoes.remove(hash))
+                .filter(sessao -> !sessao.expirada(clock.instant()));
+    }
+
+    @Override
+    public boolean remover(final String hash, final Long usuarioId) {
+        SessaoRefreshToken sessao = sessoes.get(hash);
+        return sessao != null && sessao.usuarioId().equals(usuarioId) && sessoes.remove(hash, sessao);
+    }
+
+    @Override
+    public void removerPorUsuario(final Long usuarioId) {
+        sessoes.values().removeIf(sessao -> sessao.usuarioId().equals(usuarioId));
+    }
+
+    public int tamanho() {
+        return sessoes.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.clinicapi.infra.revogacao;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomContadorTest {
+
+    @Test
+    void naoDeveProduzirFalsosNegativos() {
+        FiltroBloomContador filtro = new FiltroBloomContador(10_000, 0.01);
+        String[] elementos = new String[10_000];
+        for (int i = 0; i < elementos.length; i++) {
+            elementos[i] = UUID.randomUUID().toString();
+            filtro.adicionar(elementos[i]);
+        }
+
+        for (String elemento : elementos) {
+            assertTrue(filtro.possivelmenteContem(elemento));
+        }
+    }
+
+    @Test
+    void deveManterTaxaDeFalsosPositivosProximaDaConfigurada() {
+        FiltroBloomContador filtro = new FiltroBloomContador(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(UUID.randomUUID().toString());
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.possivelmenteContem(UUID.randomUUID().toString())) {
+                falsosPositivos++;
+            }
+        }
+
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void deveRemoverElementoSemAfetarOsDemais() {
+        FiltroBloomContador filtro = new FiltroBloomContador(100, 0.001);
+        filtro.adicionar("removido");
+        filtro.adicionar("mantido");
+        filtro.adicionar("duplicado");
+        filtro.adicionar("duplicado");
+
+        filtro.remover("removido");
+        filtro.remover("duplicado");
+
+        assertFalse(filtro.possivelmenteContem("removido"));
+        assertTrue(filtro.possivelmenteContem("mantido"));
+        assertTrue(filtro.possivelmenteContem("duplicado"));
+    }
+
+    @Test
+    void deveRecusarParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloomContador(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloomContador(100, 1));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.clinicapi.infra.revogacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RevogacaoTokensTest {
+
+    private static final Instant AGORA = Instant.parse("2030-03-10T12:00:00Z");
+
+    private static final Instant EXPIRACAO = AGORA.plus(Duration.ofHours(2));
+
+    private Instant agora = AGORA;
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void naoDeveConsultarArmazenamentoParaTokensNaoRevogados() {
+        RevogacaoStore store = mock(RevogacaoStore.class);
+        RevogacaoTokens revogacaoTokens = new RevogacaoTokens(store, meterRegistry, clock, 1_000, 0.001);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(revogacaoTokens.revogado(UUID.randomUUID().toString()));
+        }
+
+        verify(store, never()).revogado(anyString());
+    }
+
+    @Test
+    void deveRecusarTokenRevogadoConfirmandoNoArmazenamento() {
+        RevogacaoTokens revogacaoTokens = new RevogacaoTokens(new RevogacaoStoreEmMemoria(clock), meterRegistry,
+                clock, 1_000, 0.001);
+
+        revogacaoTokens.revogar("jti-1", EXPIRACAO);
+
+        assertTrue(revogacaoTokens.revogado("jti-1"));
+        assertEquals(1.0, consultas("revogado"));
+    }
+
+    @Test
+    void deveReceberRevogacoesDeOutrosNosNaSincronizacao() {
+        RevogacaoStore compartilhado = new RevogacaoStoreEmMemoria(clock);
+        RevogacaoTokens no1 = new RevogacaoTokens(compartilhado, meterRegistry, clock, 1_000, 0.001);
+        RevogacaoTokens no2 = new RevogacaoTokens(compartilhado, new SimpleMeterRegistry(), clock, 1_000, 0.001);
+
+        no1.revogar("jti-1", EXPIRACAO);
+        no2.sincronizar();
+
+        assertTrue(no2.revogado("jti-1"));
+    }
+
+    @Test
+    void deveLerApenasAsRevogacoesNovasNasSincronizacoesSeguintes() {
+        RevogacaoStoreEmMemoria compartilhado = new RevogacaoStoreEmMemoria(clock);
+        RevogacaoTokens no1 = new RevogacaoTokens(compartilhado, meterRegistry, clock, 1_000, 0.001);
+        no1.revogar("jti-1", EXPIRACAO);
+        long cursor = compartilhado.novas(0).cursor();
+
+        no1.revogar("jti-2", EXPIRACAO);
+
+        assertEquals(Map.of("jti-2", EXPIRACAO), compartilhado.novas(cursor).revogacoes());
+        assertTrue(compartilhado.novas(compartilhado.novas(cursor).cursor()).revogacoes().isEmpty());
+    }
+
+    @Test
+    void deveExpurgarDoArmazenamentoAsRevogacoesExpiradas() {
+        RevogacaoStoreEmMemoria compartilhado = new RevogacaoStoreEmMemoria(clock);
+        RevogacaoTokens revogacaoTokens = new RevogacaoTokens(compartilhado, meterRegistry, clock, 1_000, 0.001);
+        revogacaoTokens.revogar("jti-1", AGORA.plusSeconds(60));
+        revogacaoTokens.revogar("jti-2", EXPIRACAO);
+
+        agora = AGORA.plusSeconds(60);
+        revogacaoTokens.expurgar();
+
+        assertEquals(Map.of("jti-2", EXPIRACAO), compartilhado.novas(0).revogacoes());
+        assertEquals(0, compartilhado.expurgar(agora));
+    }
+
+    @Test
+    void deveRemoverDoFiltroAsRevogacoesExpiradas() {
+        RevogacaoTokens revogacaoTokens = new RevogacaoTokens(new RevogacaoStoreEmMemoria(clock), meterRegistry,
+                clock, 1_000, 0.001);
+        revogacaoTokens.revogar("jti-1", EXPIRACAO);
+        assertEquals(1.0, meterRegistry.get("clinica.revogacao.ativas").gauge().value());
+
+        agora = EXPIRACAO;
+        revogacaoTokens.sincronizar();
+
+        assertFalse(revogacaoTokens.revogado("jti-1"));
+        assertEquals(0.0, consultas("revogado") + consultas("falso_positivo"));
+        assertEquals(0.0, meterRegistry.get("clinica.revogacao.ativas").gauge().value());
+    }
+
+    @Test
+    void deveUsarRevogacaoLocalQuandoArmazenamentoFalhar() {
+        RevogacaoStore store = mock(RevogacaoStore.class);
+        when(store.revogado("jti-1")).thenThrow(new QueryTimeoutException("timeout"));
+        RevogacaoTokens revogacaoTokens = new RevogacaoTokens(store, meterRegistry, clock, 1_000, 0.001);
+
+        revogacaoTokens.revogar("jti-1", EXPIRACAO);
+
+        assertTrue(revogacaoTokens.revogado("jti-1"));
+        assertEquals(1.0, consultas("falha"));
+    }
+
+    private double consultas(final String resultado) {
+        return meterRegistry.get("clinica.revogacao.consultas").tag("resultado", resultado).counter().count();
+    }
+}
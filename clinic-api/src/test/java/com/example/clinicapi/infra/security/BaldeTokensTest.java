@@ -0,0 +1,73 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BaldeTokensTest {
+
+    private static final long AGORA = TimeUnit.DAYS.toNanos(20_000);
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void deveAceitarRajadaAteACapacidadeERecusarComTempoDeEspera() {
+        BaldeTokens balde = new BaldeTokens(new LimiteTaxa(3, 60), AGORA);
+
+        assertEquals(0, balde.consumir(AGORA));
+        assertEquals(0, balde.consumir(AGORA));
+        assertEquals(0, balde.consumir(AGORA));
+        assertEquals(SEGUNDO, balde.consumir(AGORA));
+        assertEquals(SEGUNDO / 2, balde.consumir(AGORA + SEGUNDO / 2));
+    }
+
+    @Test
+    void deveReporTokensNaTaxaConfigurada() {
+        BaldeTokens balde = new BaldeTokens(new LimiteTaxa(2, 60), AGORA);
+        balde.consumir(AGORA);
+        balde.consumir(AGORA);
+
+        assertEquals(0, balde.consumir(AGORA + SEGUNDO));
+        assertTrue(balde.consumir(AGORA + SEGUNDO) > 0);
+        assertFalse(balde.cheio(AGORA + SEGUNDO));
+        assertTrue(balde.cheio(AGORA + 3 * SEGUNDO));
+    }
+
+    @Test
+    void deveConsumirExatamenteACapacidadeSobConcorrencia() throws Exception {
+        BaldeTokens balde = new BaldeTokens(new LimiteTaxa(100, 1), AGORA);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    int aceitas = 0;
+                    for (int i = 0; i < 1_000; i++) {
+                        aceitas += balde.consumir(AGORA) == 0 ? 1 : 0;
+                    }
+                    return aceitas;
+                }));
+            }
+            largada.countDown();
+            int aceitas = 0;
+            for (Future<Integer> resultado : resultados) {
+                aceitas += resultado.get();
+            }
+            assertEquals(100, aceitas);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
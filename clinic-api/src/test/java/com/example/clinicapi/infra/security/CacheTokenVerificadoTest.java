@@ -0,0 +1,90 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class CacheTokenVerificadoTest {
+
+    private static final Instant AGORA = Instant.parse("2030-03-10T12:00:00Z");
+
+    @Test
+    void deveRetornarClaimsAteAExpiracao() {
+        Claims claims = claims("usuario", AGORA.plusSeconds(60));
+        CacheTokenVerificado cache = new CacheTokenVerificado(10, relogio(AGORA));
+        cache.guardar("token", new TokenVerificado(claims, null, null));
+
+        assertSame(claims, cache.buscar("token").claims());
+        assertNull(cache.buscar("outro-token"));
+    }
+
+    @Test
+    void deveDescartarTokenExpirado() {
+        Claims claims = claims("usuario", AGORA.plusSeconds(60));
+        Instant[] agora = {AGORA};
+        Clock clock = new Clock() {
+            @Override
+            public Instant instant() {
+                return agora[0];
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(final ZoneId zone) {
+                return this;
+            }
+        };
+        CacheTokenVerificado cache = new CacheTokenVerificado(10, clock);
+        cache.guardar("token", new TokenVerificado(claims, null, null));
+        assertSame(claims, cache.buscar("token").claims());
+
+        agora[0] = AGORA.plusSeconds(60);
+
+        assertNull(cache.buscar("token"));
+        assertEquals(0, cache.tamanho());
+    }
+
+    @Test
+    void naoDeveUltrapassarACapacidade() {
+        CacheTokenVerificado cache = new CacheTokenVerificado(2, relogio(AGORA));
+        for (int i = 0; i < 5; i++) {
+            cache.guardar("token" + i, new TokenVerificado(claims("usuario" + i, AGORA.plusSeconds(60)), null, null));
+        }
+
+        assertEquals(2, cache.tamanho());
+    }
+
+    @Test
+    void naoDeveGuardarTokenSemExpiracaoOuComCacheDesabilitado() {
+        CacheTokenVerificado cache = new CacheTokenVerificado(2, relogio(AGORA));
+        cache.guardar("token", new TokenVerificado(Jwts.claims().setSubject("usuario"), null, null));
+        CacheTokenVerificado desabilitado = new CacheTokenVerificado(0, relogio(AGORA));
+        desabilitado.guardar("token", new TokenVerificado(claims("usuario", AGORA.plusSeconds(60)), null, null));
+
+        assertEquals(0, cache.tamanho());
+        assertEquals(0, desabilitado.tamanho());
+    }
+
+    private static Claims claims(final String subject, final Instant expiracao) {
+        return Jwts.claims().setSubject(subject).setExpiration(Date.from(expiracao));
+    }
+
+    private static Clock relogio(final Instant instante) {
+        return Clock.fixed(instante, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+import com.example.clinicapi.repository.UsuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CacheUsuariosAtivosTest {
+
+    private static final UsuarioAutenticado PRINCIPAL = new UsuarioAutenticado(7L, "ana", Role.ROLE_ADMIN);
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private Instant agora = Instant.parse("2030-03-10T12:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+    };
+
+    @Test
+    void deveConsultarOBancoUmaVezPorUsuarioDuranteOTtl() {
+        when(usuarioRepository.findByLogin("ana"))
+                .thenReturn(Optional.of(new Usuario(7L, "ana", "senha", Role.ROLE_ADMIN)));
+        CacheUsuariosAtivos cache = criar(true);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(cache.confirmar(PRINCIPAL));
+        }
+
+        verify(usuarioRepository, times(1)).findByLogin("ana");
+    }
+
+    @Test
+    void deveRevogarUsuarioExcluidoOuComRoleAlteradaAposOTtl() {
+        when(usuarioRepository.findByLogin("ana"))
+                .thenReturn(Optional.of(new Usuario(7L, "ana", "senha", Role.ROLE_ADMIN)))
+                .thenReturn(Optional.of(new Usuario(7L, "ana", "senha", Role.ROLE_USER)))
+                .thenReturn(Optional.empty());
+        CacheUsuariosAtivos cache = criar(true);
+
+        assertTrue(cache.confirmar(PRINCIPAL));
+        agora = agora.plusSeconds(30);
+        assertFalse(cache.confirmar(PRINCIPAL));
+        agora = agora.plusSeconds(30);
+        assertFalse(cache.confirmar(PRINCIPAL));
+    }
+
+    @Test
+    void naoDeveConsultarOBancoQuandoDesabilitado() {
+        assertTrue(criar(false).confirmar(PRINCIPAL));
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    private CacheUsuariosAtivos criar(final boolean habilitado) {
+        return new CacheUsuariosAtivos(usuarioRepository, clock, habilitado, Duration.ofSeconds(30), 100);
+    }
+}
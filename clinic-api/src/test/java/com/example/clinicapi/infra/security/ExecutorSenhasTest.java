@@ -0,0 +1,85 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.example.clinicapi.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Timeout(value = 10, unit = TimeUnit.SECONDS)
+class ExecutorSenhasTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorSenhas executorSenhas;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executorSenhas = new ExecutorSenhas(1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorSenhas.encerrar();
+    }
+
+    @Test
+    void deveExecutarNoPoolERegistrarADuracao() {
+        String thread = executorSenhas.executar("verificar", () -> Thread.currentThread().getName());
+
+        assertTrue(thread.startsWith("senhas-"));
+        assertEquals(1, meterRegistry.get("clinica.senhas.hash").tag("operacao", "verificar").timer().count());
+    }
+
+    @Test
+    void deveRecusarComRetryAfterQuandoAFilaEstiverCheia() throws Exception {
+        CountDownLatch ocupada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Boolean> emExecucao = CompletableFuture.supplyAsync(() -> executorSenhas.executar("verificar", () -> {
+            ocupada.countDown();
+            aguardar(liberar);
+            return true;
+        }));
+        ocupada.await();
+        CompletableFuture<Boolean> naFila = CompletableFuture.supplyAsync(() -> executorSenhas.executar("verificar", () -> true));
+        while (meterRegistry.get("clinica.senhas.fila").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServicoSobrecarregadoException ex = assertThrows(ServicoSobrecarregadoException.class,
+                () -> executorSenhas.executar("verificar", () -> true));
+
+        assertTrue(ex.getRetryAfterSegundos() >= 1);
+        assertEquals(1, meterRegistry.get("clinica.senhas.recusadas").counter().count());
+        liberar.countDown();
+        assertTrue(emExecucao.get());
+        assertTrue(naFila.get());
+    }
+
+    @Test
+    void devePropagarExcecaoDaOperacao() {
+        assertThrows(IllegalArgumentException.class, () -> executorSenhas.executar("codificar", () -> {
+            throw new IllegalArgumentException("hash inválido");
+        }));
+    }
+
+    private static void aguardar(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
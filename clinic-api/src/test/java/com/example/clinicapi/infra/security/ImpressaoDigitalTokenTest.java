@@ -0,0 +1,123 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.clinicapi.infra.revogacao.RevogacaoStoreEmMemoria;
+import com.example.clinicapi.infra.revogacao.RevogacaoTokens;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+
+class ImpressaoDigitalTokenTest {
+
+    private static final String SECRET = "minha-chave-supersecreta-para-teste-123456";
+
+    private static final Usuario USUARIO = new Usuario(7L, "ana", "senha", Role.ROLE_ADMIN);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ImpressaoDigitalToken impressaoDigitalToken;
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        impressaoDigitalToken = new ImpressaoDigitalToken(true, meterRegistry);
+        jwtService = new JwtService(SECRET, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deveAceitarTokenApresentadoComOCookieDoCliente() {
+        String impressao = impressaoDigitalToken.gerar();
+        String token = jwtService.generateToken(USUARIO, impressaoDigitalToken.hash(impressao));
+
+        assertTrue(impressaoDigitalToken.confere(requisicao(impressao), jwtService.getImpressaoDigital(token)));
+        assertEquals(0.0, recusados());
+    }
+
+    @Test
+    void deveRecusarTokenSemOCookieOuComCookieDeOutroCliente() {
+        String token = jwtService.generateToken(USUARIO, impressaoDigitalToken.hash(impressaoDigitalToken.gerar()));
+        byte[] hash = jwtService.getImpressaoDigital(token);
+
+        assertFalse(impressaoDigitalToken.confere(new MockHttpServletRequest(), hash));
+        assertFalse(impressaoDigitalToken.confere(requisicao(impressaoDigitalToken.gerar()), hash));
+        assertEquals(2.0, recusados());
+    }
+
+    @Test
+    void deveAceitarTokenNaoVinculadoOuComVinculacaoDesabilitada() {
+        String naoVinculado = jwtService.generateToken(USUARIO);
+        String vinculado = jwtService.generateToken(USUARIO, impressaoDigitalToken.hash(impressaoDigitalToken.gerar()));
+        ImpressaoDigitalToken desabilitada = new ImpressaoDigitalToken(false, meterRegistry);
+
+        assertNull(jwtService.getImpressaoDigital(naoVinculado));
+        assertTrue(impressaoDigitalToken.confere(new MockHttpServletRequest(), null));
+        assertTrue(desabilitada.confere(new MockHttpServletRequest(), jwtService.getImpressaoDigital(vinculado)));
+    }
+
+    @Test
+    void deveEntregarAImpressaoEmCookieHttpOnlySecureSameSiteStrict() {
+        String cookie = impressaoDigitalToken.cookie("valor").toString();
+
+        assertTrue(cookie.startsWith("__Secure-Fgp=valor"));
+        assertTrue(cookie.contains("HttpOnly"));
+        assertTrue(cookie.contains("Secure"));
+        assertTrue(cookie.contains("SameSite=Strict"));
+        assertTrue(impressaoDigitalToken.cookieExpirado().toString().contains("Max-Age=0"));
+    }
+
+    @Test
+    void naoDeveAutenticarTokenReenviadoPorOutroCliente() throws Exception {
+        SecurityFilter filter = new SecurityFilter(jwtService, null,
+                new CacheUsuariosAtivos(null, Clock.systemUTC(), false, Duration.ZERO, 0),
+                new RevogacaoTokens(new RevogacaoStoreEmMemoria(Clock.systemUTC()), meterRegistry, 100, 0.01),
+                impressaoDigitalToken);
+        String impressao = impressaoDigitalToken.gerar();
+        String token = jwtService.generateToken(USUARIO, impressaoDigitalToken.hash(impressao));
+
+        MockHttpServletRequest original = requisicao(impressao);
+        original.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(original, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+
+        MockHttpServletRequest reenviada = new MockHttpServletRequest("GET", "/medicos");
+        reenviada.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(reenviada, new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest requisicao(final String impressao) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/medicos");
+        request.setCookies(new Cookie(ImpressaoDigitalToken.COOKIE, impressao));
+        return request;
+    }
+
+    private double recusados() {
+        return meterRegistry.get("clinica.auth.impressao.recusados").counter().count();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LimiteRequisicoesFilterTest {
+
+    private Instant agora = Instant.parse("2030-03-10T12:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LimiteRequisicoesFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new LimiteRequisicoesFilter(new ObjectMapper(), meterRegistry, clock, true, 1_000,
+                new LimiteTaxa(3, 60), new LimiteTaxa(2, 6), new LimiteTaxa(1, 1), new LimiteTaxa(1, 1));
+    }
+
+    @Test
+    void deveRecusarRajadaPorIpComRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, executar(login("10.0.0.1", "usuario" + i)).getStatus());
+        }
+
+        MockHttpServletResponse recusada = executar(login("10.0.0.1", "outro"));
+
+        assertEquals(429, recusada.getStatus());
+        assertEquals("1", recusada.getHeader("Retry-After"));
+        assertTrue(recusada.getContentAsString().contains("TOO_MANY_REQUESTS"));
+        assertEquals(1.0, recusadas("/auth", "ip"));
+        assertEquals(200, executar(login("10.0.0.2", "outro")).getStatus());
+    }
+
+    @Test
+    void deveLimitarTentativasContraOMesmoLoginVindasDeIpsDiferentes() throws Exception {
+        assertEquals(200, executar(login("10.0.0.1", "Alvo")).getStatus());
+        assertEquals(200, executar(login("10.0.0.2", "alvo")).getStatus());
+
+        MockHttpServletResponse recusada = executar(login("10.0.0.3", "alvo "));
+
+        assertEquals(429, recusada.getStatus());
+        assertEquals("10", recusada.getHeader("Retry-After"));
+        assertEquals(1.0, recusadas("/auth", "login"));
+    }
+
+    @Test
+    void devePreservarCorpoParaOControlador() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", "usuario"), new MockHttpServletResponse(), chain);
+
+        String corpo = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("{\"login\":\"usuario\",\"senha\":\"12345\"}", corpo);
+    }
+
+    @Test
+    void deveLimitarPorLoginCorpoSemContentLength() throws Exception {
+        assertEquals(200, executar(semTamanho(login("10.0.0.1", "alvo"))).getStatus());
+        assertEquals(200, executar(semTamanho(login("10.0.0.2", "alvo"))).getStatus());
+
+        assertEquals(429, executar(semTamanho(login("10.0.0.3", "alvo"))).getStatus());
+        assertEquals(1.0, recusadas("/auth", "login"));
+    }
+
+    @Test
+    void deveRecusarCorpoDeLoginMaiorQueOLimite() throws Exception {
+        String corpo = "{\"login\":\"alvo\",\"senha\":\"12345\"" + " ".repeat(5_000) + "}";
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(post("/auth", "10.0.0.1", corpo), response, chain);
+        MockHttpServletResponse semTamanho = executar(semTamanho(post("/auth", "10.0.0.1", corpo)));
+
+        assertEquals(413, response.getStatus());
+        assertEquals(413, semTamanho.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void deveRecusarCorpoDeLoginSemLogin() throws Exception {
+        assertEquals(400, executar(post("/auth", "10.0.0.1", "nao e json")).getStatus());
+        assertEquals(400, executar(post("/auth", "10.0.0.1", "{\"senha\":\"12345\"}")).getStatus());
+    }
+
+    @Test
+    void deveLiberarRequisicoesAposReposicao() throws Exception {
+        assertEquals(200, executar(post("/auth/refresh", "10.0.0.1", "{}")).getStatus());
+        assertEquals(429, executar(post("/auth/refresh", "10.0.0.1", "{}")).getStatus());
+
+        agora = agora.plus(Duration.ofMinutes(1));
+
+        assertEquals(200, executar(post("/auth/refresh", "10.0.0.1", "{}")).getStatus());
+    }
+
+    @Test
+    void naoDeveLimitarOutrosEndpoints() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, executar(post("/medicos", "10.0.0.1", "{}")).getStatus());
+        }
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/auth/refresh");
+        get.setRemoteAddr("10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, executar(get).getStatus());
+        }
+        assertNotNull(meterRegistry.get("clinica.auth.limite.chaves").gauge());
+        assertEquals(0.0, meterRegistry.get("clinica.auth.limite.chaves").gauge().value());
+    }
+
+    private MockHttpServletResponse executar(final MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest login(final String ip, final String login) {
+        return post("/auth", ip, "{\"login\":\"" + login + "\",\"senha\":\"12345\"}");
+    }
+
+    private MockHttpServletRequest semTamanho(final MockHttpServletRequest request) {
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", request.getRequestURI()) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        chunked.setRemoteAddr(request.getRemoteAddr());
+        chunked.addHeader("Transfer-Encoding", "chunked");
+        chunked.setContent(request.getContentAsByteArray());
+        return chunked;
+    }
+
+    private MockHttpServletRequest post(final String uri, final String ip, final String corpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private double recusadas(final String endpoint, final String chave) {
+        return meterRegistry.get("clinica.auth.limitadas").tag("endpoint", endpoint).tag("chave", chave)
+                .counter().count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordEncoderLimitadoTest {
+
+    private final ExecutorSenhas executorSenhas = new ExecutorSenhas(2, 8, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        executorSenhas.encerrar();
+    }
+
+    @Test
+    void deveCodificarEVerificarSenhasNoPool() {
+        PasswordEncoderLimitado encoder = new PasswordEncoderLimitado(new BCryptPasswordEncoder(4), executorSenhas);
+
+        String hash = encoder.encode("senha123");
+
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+    }
+
+    @Test
+    void deveIndicarRecalculoQuandoAForcaConfiguradaAumentar() {
+        String hashAntigo = new BCryptPasswordEncoder(4).encode("senha123");
+        PasswordEncoderLimitado encoder = new PasswordEncoderLimitado(new BCryptPasswordEncoder(5), executorSenhas);
+
+        assertTrue(encoder.upgradeEncoding(hashAntigo));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("senha123")));
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.clinicapi.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.clinicapi.infra.revogacao.RevogacaoStoreEmMemoria;
+import com.example.clinicapi.infra.revogacao.RevogacaoTokens;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+import com.example.clinicapi.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityFilterAlocacaoTest {
+
+    private static final String SECRET = "minha-chave-supersecreta-para-teste-123456";
+
+    private static final int AQUECIMENTO = 20_000;
+
+    private static final int REQUISICOES = 20_000;
+
+    private static final FilterChain CADEIA = (request, response) -> { };
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private JwtService jwtService;
+
+    private RevogacaoTokens revogacaoTokens;
+
+    private CacheUsuariosAtivos cacheUsuariosAtivos;
+
+    private SecurityFilter filter;
+
+    private FiltroAnterior filtroAnterior;
+
+    private FiltroBase filtroBase;
+
+    private MockHttpServletRequest request;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        Usuario usuario = new Usuario(7L, "ana", "senha", Role.ROLE_ADMIN);
+        when(usuarioRepository.findByLogin("ana")).thenReturn(Optional.of(usuario));
+        jwtService = new JwtService(SECRET, 100);
+        revogacaoTokens = new RevogacaoTokens(new RevogacaoStoreEmMemoria(Clock.systemUTC()),
+                new SimpleMeterRegistry(), 1_000, 0.01);
+        cacheUsuariosAtivos = new CacheUsuariosAtivos(usuarioRepository, Clock.systemUTC(), true,
+                Duration.ofMinutes(10), 100);
+        filter = new SecurityFilter(jwtService, usuarioRepository, cacheUsuariosAtivos, revogacaoTokens,
+                new ImpressaoDigitalToken(false, new SimpleMeterRegistry()));
+        filtroAnterior = new FiltroAnterior();
+        filtroBase = new FiltroBase(new AutenticacaoJwt(UsuarioAutenticado.de(usuario)));
+        request = new MockHttpServletRequest("GET", "/medicos");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(usuario));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deveReutilizarAMesmaAutenticacaoEntreRequisicoes() throws Exception {
+        Authentication primeira = autenticarComFiltro();
+        Authentication segunda = autenticarComFiltro();
+
+        assertNotNull(primeira);
+        assertSame(primeira, segunda);
+        assertSame(Role.ROLE_ADMIN.getAutoridades(), primeira.getAuthorities());
+        assertSame(UsuarioAutenticado.class, primeira.getPrincipal().getClass());
+    }
+
+    @Test
+    void deveAlocarMenosPorRequisicaoQueAAutenticacaoAnterior() throws Exception {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Descontado o custo comum a qualquer filtro (cadeia, contexto e
+        // extração do token), a autenticação deve alocar ao menos 4x menos
+        long base = bytesPorRequisicao(threads, this::autenticarBase);
+        long anterior = bytesPorRequisicao(threads, this::autenticarComoAntes) - base;
+        long atual = bytesPorRequisicao(threads, this::autenticarComFiltro) - base;
+
+        assertTrue(atual * 4 <= anterior,
+                "Alocação da autenticação por requisição: atual " + atual + " B, anterior " + anterior + " B");
+    }
+
+    private Authentication autenticarComFiltro() throws Exception {
+        filter.doFilter(request, response, CADEIA);
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+
+    private Authentication autenticarBase() throws Exception {
+        filtroBase.doFilter(request, response, CADEIA);
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+
+    private Authentication autenticarComoAntes() throws Exception {
+        filtroAnterior.doFilter(request, response, CADEIA);
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+
+    private static long bytesPorRequisicao(final com.sun.management.ThreadMXBean threads,
+            final Requisicao requisicao) throws Exception {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            requisicao.executar();
+        }
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < REQUISICOES; i++) {
+            requisicao.executar();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - antes) / REQUISICOES;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                ? threads : null;
+    }
+
+    /**
+     * Reproduz o filtro anterior: a cada requisição, a entidade montada a
+     * partir do token, a lista de autoridades, o token de autenticação e
+     * os detalhes da requisição. A leitura das declarações do token, que
+     * também alocava, não é reproduzida, de modo que a medida é um limite
+     * inferior do custo anterior.
+     */
+    private final class FiltroAnterior extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(final HttpServletRequest req, final HttpServletResponse res,
+                final FilterChain chain) throws ServletException, IOException {
+            String header = req.getHeader("Authorization");
+            String token = header.replace("Bearer ", "");
+            String jti = jwtService.getId(token);
+            if (!revogacaoTokens.revogado(jti)) {
+                UsuarioAutenticado doToken = jwtService.getPrincipal(token).orElseThrow();
+                Usuario usuario = Usuario.builder()
+                        .id(doToken.id())
+                        .login(doToken.login())
+                        .role(doToken.role())
+                        .build();
+                if (cacheUsuariosAtivos.confirmar(doToken)) {
+                    UsernamePasswordAuthenticationToken autenticacao =
+                            new UsernamePasswordAuthenticationToken(usuario, null, List.of(usuario.getRole()));
+                    autenticacao.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                    SecurityContextHolder.getContext().setAuthentication(autenticacao);
+                }
+            }
+            chain.doFilter(req, res);
+        }
+    }
+
+    /**
+     * Filtro que apenas extrai o token e registra uma autenticação pronta:
+     * o custo comum a qualquer filtro de autenticação.
+     */
+    private static final class FiltroBase extends OncePerRequestFilter {
+
+        private final Authentication autenticacao;
+
+        private FiltroBase(final Authentication pAutenticacao) {
+            this.autenticacao = pAutenticacao;
+        }
+
+        @Override
+        protected void doFilterInternal(final HttpServletRequest req, final HttpServletResponse res,
+                final FilterChain chain) throws ServletException, IOException {
+            if (!req.getHeader("Authorization").substring("Bearer ".length()).isEmpty()) {
+                SecurityContextHolder.getContext().setAuthentication(autenticacao);
+            }
+            chain.doFilter(req, res);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Requisicao {
+        Authentication executar() throws Exception;
+    }
+}
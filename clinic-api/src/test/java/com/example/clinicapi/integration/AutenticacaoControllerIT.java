@@ -22,7 +22,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import com.example.clinicapi.dto.DadosAutenticacaoDTO;
+import com.example.clinicapi.dto.RefreshTokenRequest;
 import com.example.clinicapi.dto.TokenResponse;
+import com.example.clinicapi.infra.refreshtoken.HashToken;
 import com.example.clinicapi.model.RefreshToken;
 import com.example.clinicapi.model.Usuario;
 import com.example.clinicapi.repository.RefreshTokenRepository;
@@ -162,7 +164,8 @@ class AutenticacaoControllerIT extends TestBaseIT {
     }
     
     @Test
-    void deveEfetuarLogoutRemovendoRefreshToken() throws Exception {
+    void deveEfetuarLogoutRemovendoApenasORefreshTokenDaSessao()
+            throws Exception {
         // Arrange
         String login = "usuario_logout";
         String senha = "senhaLogout";
@@ -172,25 +175,47 @@ class AutenticacaoControllerIT extends TestBaseIT {
 
         String token = gerarTokenJWT(login, senha);
 
-        // Cria refresh token associado ao usuário
-        RefreshToken refreshToken = RefreshToken.builder()
-            .usuario(usuario)
-            .token(UUID.randomUUID().toString())
-            .dataExpiracao(Instant.now().plusSeconds(3600))
-            .build();
-
-        refreshTokenRepository.save(refreshToken);
+        // Cria duas sessões do usuário, como em dois dispositivos
+        String sessaoAtual = UUID.randomUUID().toString();
+        String outraSessao = UUID.randomUUID().toString();
+        refreshTokenRepository.save(criarRefreshToken(usuario, sessaoAtual));
+        refreshTokenRepository.save(criarRefreshToken(usuario, outraSessao));
 
         // Act & Assert
         mockMvc.perform(post("/auth/logout")
-                .header("Authorization", "Bearer " + token))
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new RefreshTokenRequest(sessaoAtual))))
             .andExpect(status().isNoContent());
 
-        // Verifica se o token foi removido
-        Optional<RefreshToken> tokenRemovido =
-            refreshTokenRepository.findByToken(refreshToken.getToken());
+        // Verifica se apenas o token da sessão foi removido
+        Optional<RefreshToken> tokenRemovido = refreshTokenRepository
+            .findByToken(HashToken.sha256(sessaoAtual));
+        Optional<RefreshToken> tokenMantido = refreshTokenRepository
+            .findByToken(HashToken.sha256(outraSessao));
 
         assertTrue(tokenRemovido.isEmpty());
+        assertTrue(tokenMantido.isPresent());
+    }
+
+    @Test
+    void deveEncerrarTodasAsSessoesNoLogoutSemRefreshToken() throws Exception {
+        String login = "usuario_logout_sem_token";
+        String senha = "senhaLogout";
+        Usuario usuario = new Usuario(login, passwordEncoder.encode(senha));
+        usuarioRepository.save(usuario);
+
+        String token = gerarTokenJWT(login, senha);
+        String outraSessao = UUID.randomUUID().toString();
+        refreshTokenRepository.save(criarRefreshToken(usuario, outraSessao));
+
+        mockMvc.perform(post("/auth/logout")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isNoContent());
+
+        assertTrue(refreshTokenRepository
+            .findByToken(HashToken.sha256(outraSessao)).isEmpty());
     }
 
     @Nested
@@ -246,6 +271,14 @@ class AutenticacaoControllerIT extends TestBaseIT {
     }
     
     // Método auxiliar para obter token JWT real com login válido
+    private RefreshToken criarRefreshToken(Usuario usuario, String valor) {
+        return RefreshToken.builder()
+            .usuario(usuario)
+            .token(HashToken.sha256(valor))
+            .dataExpiracao(Instant.now().plusSeconds(3600))
+            .build();
+    }
+
     private String gerarTokenJWT(String login, String senha) throws Exception {
         DadosAutenticacaoDTO dados = new DadosAutenticacaoDTO(login, senha);
 
@@ -58,8 +58,8 @@ class ConsultaControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveAgendarNovaConsulta() throws Exception {
         Paciente paciente = pacienteRepository.save(new Paciente(null, "Lucas", "lucas@email.com", "12345678900",
-                "11999999999", LocalDate.of(1990, 1, 1), true));
-        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true));
+                "11999999999", LocalDate.of(1990, 1, 1), true, null));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true, null));
 
         ConsultaDTO dto = new ConsultaDTO(
                 null,
@@ -81,10 +81,10 @@ class ConsultaControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveListarConsultas() throws Exception {
         Paciente paciente = pacienteRepository.save(new Paciente(null, "Amanda", "amanda@email.com", "12345678902",
-                "11777777777", LocalDate.of(1985, 4, 15), true));
-        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true));
+                "11777777777", LocalDate.of(1985, 4, 15), true, null));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true, null));
 
-        Consulta consulta = new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(2), StatusConsulta.REALIZADA, "Retorno");
+        Consulta consulta = new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(2), StatusConsulta.REALIZADA, "Retorno", null);
         consultaRepository.save(consulta);
 
         mockMvc.perform(get("/consultas"))
@@ -97,9 +97,9 @@ class ConsultaControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveCancelarConsulta() throws Exception {
         Paciente paciente = pacienteRepository.save(new Paciente(null, "Carlos", "carlos@email.com", "12345678904",
-                "11555555555", LocalDate.of(1970, 12, 12), true));
-        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true));
-        Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(3), StatusConsulta.AGENDADA, "Avaliação"));
+                "11555555555", LocalDate.of(1970, 12, 12), true, null));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true, null));
+        Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(3), StatusConsulta.AGENDADA, "Avaliação", null));
 
         mockMvc.perform(delete("/consultas/" + consulta.getId()))
                 .andExpect(status().isNoContent());
@@ -112,9 +112,9 @@ class ConsultaControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveBuscarConsultaPorId() throws Exception {
         Paciente paciente = pacienteRepository.save(new Paciente(null, "Julia", "julia@email.com", "12345678905",
-                "11888888888", LocalDate.of(1995, 3, 10), true));
-        Medico medico = medicoRepository.save(new Medico(null, "Dr. Pedro", "888888", Especialidade.PEDIATRIA, "pedro@email.com", "987654321", true));
-        Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(2), StatusConsulta.AGENDADA, "Consulta pediátrica"));
+                "11888888888", LocalDate.of(1995, 3, 10), true, null));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Pedro", "888888", Especialidade.PEDIATRIA, "pedro@email.com", "987654321", true, null));
+        Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(2), StatusConsulta.AGENDADA, "Consulta pediátrica", null));
 
         mockMvc.perform(get("/consultas/" + consulta.getId()))
                 .andExpect(status().isOk())
@@ -133,9 +133,9 @@ class ConsultaControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveAtualizarConsulta() throws Exception {
         Paciente paciente = pacienteRepository.save(new Paciente(null, "Beatriz", "bia@email.com", "12345678906",
-                "11777777777", LocalDate.of(1992, 7, 20), true));
-        Medico medico = medicoRepository.save(new Medico(null, "Dr. Ana", "777777", Especialidade.GINECOLOGIA, "ana@email.com", "123456789", true));
-        Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(5), StatusConsulta.AGENDADA, "Avaliação inicial"));
+                "11777777777", LocalDate.of(1992, 7, 20), true, null));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Ana", "777777", Especialidade.GINECOLOGIA, "ana@email.com", "123456789", true, null));
+        Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico, LocalDateTime.now().plusDays(5), StatusConsulta.AGENDADA, "Avaliação inicial", null));
 
         ConsultaDTO atualizado = new ConsultaDTO(consulta.getId(), paciente.getId(), medico.getId(),
                 consulta.getDataHora().plusDays(1), "Remarcada", StatusConsulta.AGENDADA);
@@ -146,4 +146,29 @@ class ConsultaControllerIT extends TestBaseIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.motivoCancelamento").value("Remarcada"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deveExcluirMedicoAposExcluirSuasConsultas() throws Exception {
+        Paciente paciente = pacienteRepository.save(new Paciente(null, "Rafael", "rafael@email.com", "12345678907",
+                "11666666666", LocalDate.of(1988, 9, 5), true, null));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Otavio", "555555", Especialidade.CARDIOLOGIA, "otavio@email.com", "123456789", true, null));
+        ConsultaDTO dto = new ConsultaDTO(null, paciente.getId(), medico.getId(),
+                LocalDateTime.now().plusDays(4), "Check-up", StatusConsulta.AGENDADA);
+
+        String resposta = mockMvc.perform(post("/consultas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long consultaId = objectMapper.readValue(resposta, ConsultaDTO.class).id();
+
+        mockMvc.perform(delete("/consultas/" + consultaId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/medicos/" + medico.getId()))
+                .andExpect(status().isNoContent());
+        medicoRepository.flush();
+
+        assertTrue(medicoRepository.findById(medico.getId()).isEmpty());
+    }
+}
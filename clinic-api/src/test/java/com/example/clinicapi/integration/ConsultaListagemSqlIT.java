@@ -0,0 +1,121 @@
+package com.example.clinicapi.integration;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.model.Paciente;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.repository.MedicoRepository;
+import com.example.clinicapi.repository.PacienteRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+/**
+ * Garante que as listagens de consultas executam uma quantidade fixa de
+ * comandos SQL, sem carregar pacientes e médicos (N+1).
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConsultaListagemSqlIT extends TestBaseIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long primeiraConsultaId;
+
+    @BeforeEach
+    void setUp() {
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true, null));
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            Paciente paciente = pacienteRepository.save(new Paciente(null, "Paciente " + i, "p" + i + "@email.com",
+                    "1234567890" + i, "11999999999", LocalDate.of(1990, 1, 1), true, null));
+            Consulta consulta = consultaRepository.save(new Consulta(null, paciente, medico,
+                    inicio.plusHours(i), StatusConsulta.AGENDADA, null, null));
+            if (primeiraConsultaId == null) {
+                primeiraConsultaId = consulta.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deveListarPaginaComUmaConsultaEUmaContagem() throws Exception {
+        mockMvc.perform(get("/consultas?page=0&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].pacienteId").exists());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deveListarPorCursorComUmaUnicaConsulta() throws Exception {
+        mockMvc.perform(get("/consultas/cursor?size=3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(3)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deveBuscarPorIdSemCarregarPacienteEMedico() throws Exception {
+        mockMvc.perform(get("/consultas/" + primeiraConsultaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medicoId").exists());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
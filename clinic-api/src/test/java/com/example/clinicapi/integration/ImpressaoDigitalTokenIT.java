@@ -0,0 +1,90 @@
+package com.example.clinicapi.integration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.clinicapi.dto.DadosAutenticacaoDTO;
+import com.example.clinicapi.dto.TokenResponse;
+import com.example.clinicapi.model.Usuario;
+import com.example.clinicapi.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+
+/**
+ * Garante que, com a vinculação dos tokens habilitada (opcional,
+ * desabilitada por padrão), o access token só é aceito junto com o
+ * cookie de impressão digital entregue no login.
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = "api.security.token.impressao-digital.habilitada=true")
+class ImpressaoDigitalTokenIT extends TestBaseIT {
+
+    private static final String COOKIE = "__Secure-Fgp";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deveAceitarTokenComCookieERecusarReenvioSemCookie() throws Exception {
+        // Arrange
+        String login = "usuario_impressao";
+        String senha = "senhaImpressao";
+        usuarioRepository.save(new Usuario(login, passwordEncoder.encode(senha)));
+
+        MvcResult result = mockMvc.perform(post("/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DadosAutenticacaoDTO(login, senha))))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        String token = objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponse.class)
+            .accessToken();
+        Cookie impressao = result.getResponse().getCookie(COOKIE);
+
+        assertNotNull(impressao);
+        assertTrue(impressao.isHttpOnly());
+        assertTrue(impressao.getSecure());
+
+        // Act & Assert: o cliente que fez o login é aceito
+        mockMvc.perform(get("/medicos")
+                .header("Authorization", "Bearer " + token)
+                .cookie(new Cookie(COOKIE, impressao.getValue())))
+            .andExpect(status().isOk());
+
+        // O mesmo token reenviado sem o cookie (copiado para outro cliente) é recusado
+        mockMvc.perform(get("/medicos")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isUnauthorized());
+
+        // E com o cookie de outro cliente também
+        mockMvc.perform(get("/medicos")
+                .header("Authorization", "Bearer " + token)
+                .cookie(new Cookie(COOKIE, "outro-cliente")))
+            .andExpect(status().isUnauthorized());
+    }
+}
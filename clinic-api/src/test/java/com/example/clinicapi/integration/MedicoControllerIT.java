@@ -76,7 +76,7 @@ class MedicoControllerIT extends TestBaseIT {
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveAtualizarMedico() throws Exception {
-        Medico medico = new Medico(null, "Dr. Fabio", "111111", Especialidade.PEDIATRIA, "fabio@email.com", "123456789", true);
+        Medico medico = new Medico(null, "Dr. Fabio", "111111", Especialidade.PEDIATRIA, "fabio@email.com", "123456789", true, null);
         medico = medicoRepository.save(medico);
 
         MedicoDTO atualizado = new MedicoDTO(null, "Dr. Fabio Atualizado", medico.getEmail(), medico.getCrm(), medico.getTelefone(), medico.getEspecialidade(), true);
@@ -91,7 +91,7 @@ class MedicoControllerIT extends TestBaseIT {
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveExcluirMedico() throws Exception {
-        Medico medico = new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true);
+        Medico medico = new Medico(null, "Dr. Miguel", "999999", Especialidade.DERMATOLOGIA, "miguel@email.com", "123456789", true, null);
         medico = medicoRepository.save(medico);
 
         mockMvc.perform(delete("/medicos/" + medico.getId()))
@@ -104,7 +104,7 @@ class MedicoControllerIT extends TestBaseIT {
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveBuscarMedicosPorEspecialidade() throws Exception {
-        Medico medico = new Medico(null, "Dr. Carlos", "333333", Especialidade.CARDIOLOGIA, "carlos@email.com", "999999999", true);
+        Medico medico = new Medico(null, "Dr. Carlos", "333333", Especialidade.CARDIOLOGIA, "carlos@email.com", "999999999", true, null);
         medicoRepository.save(medico);
 
         mockMvc.perform(get("/medicos/especialidade/CARDIOLOGIA"))
@@ -115,7 +115,7 @@ class MedicoControllerIT extends TestBaseIT {
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveBuscarMedicoPorId() throws Exception {
-        Medico medico = medicoRepository.save(new Medico(null, "Dr. Ana", "444444", Especialidade.PEDIATRIA, "ana@email.com", "888888888", true));
+        Medico medico = medicoRepository.save(new Medico(null, "Dr. Ana", "444444", Especialidade.PEDIATRIA, "ana@email.com", "888888888", true, null));
 
         mockMvc.perform(get("/medicos/" + medico.getId()))
                 .andExpect(status().isOk())
@@ -66,9 +66,9 @@ class PacienteControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveListarPacientesAtivos() throws Exception {
         Paciente paciente1 = new Paciente(null, "Carlos Lima", "carlos@email.com", "12345678901",
-                "11999999999", LocalDate.of(1990, 1, 1), true);
+                "11999999999", LocalDate.of(1990, 1, 1), true, null);
         Paciente paciente2 = new Paciente(null, "Paula Silva", "paula@email.com", "12345678902",
-                "11888888888", LocalDate.of(1988, 6, 10), false);
+                "11888888888", LocalDate.of(1988, 6, 10), false, null);
 
         pacienteRepository.saveAll(List.of(paciente1, paciente2));
 
@@ -83,7 +83,7 @@ class PacienteControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveAtualizarPaciente() throws Exception {
         Paciente paciente = new Paciente(null, "Joana", "joana@email.com", "12345678903",
-                "11777777777", LocalDate.of(1980, 3, 20), true);
+                "11777777777", LocalDate.of(1980, 3, 20), true, null);
         paciente = pacienteRepository.save(paciente);
 
         PacienteDTO atualizado = new PacienteDTO(null, "Joana Atualizada", paciente.getEmail(),
@@ -100,7 +100,7 @@ class PacienteControllerIT extends TestBaseIT {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void deveExcluirPaciente() throws Exception {
         Paciente paciente = new Paciente(null, "Luis", "luis@email.com", "12345678904",
-                "11777777777", LocalDate.of(1975, 4, 4), true);
+                "11777777777", LocalDate.of(1975, 4, 4), true, null);
         paciente = pacienteRepository.save(paciente);
 
         mockMvc.perform(delete("/pacientes/" + paciente.getId()))
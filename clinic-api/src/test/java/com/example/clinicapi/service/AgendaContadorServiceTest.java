@@ -0,0 +1,140 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import com.example.clinicapi.dto.ContagemAgendaDTO;
+import com.example.clinicapi.dto.PeriodoConsultasDTO;
+import com.example.clinicapi.model.AgendaContador;
+import com.example.clinicapi.model.AgendaContadorId;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.AgendaContadorRepository;
+import com.example.clinicapi.service.AgendaContadorService.ChaveContador;
+
+@ExtendWith(MockitoExtension.class)
+class AgendaContadorServiceTest {
+
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 10);
+
+    @Mock
+    private AgendaContadorRepository agendaContadorRepository;
+
+    @InjectMocks
+    private AgendaContadorService agendaContadorService;
+
+    @Test
+    void deveRetornarUmaContagemPorDiaIncluindoDiasSemConsultas() {
+        when(agendaContadorRepository.findPorMedicoEPeriodo(1L, DIA, DIA.plusDays(2))).thenReturn(List.of(
+                new AgendaContador(new AgendaContadorId(1L, DIA, StatusConsulta.AGENDADA), 4),
+                new AgendaContador(new AgendaContadorId(1L, DIA, StatusConsulta.CANCELADA), 1),
+                new AgendaContador(new AgendaContadorId(1L, DIA.plusDays(2), StatusConsulta.REALIZADA), 2)));
+
+        List<ContagemAgendaDTO> contagens = agendaContadorService.contar(1L, DIA, DIA.plusDays(2));
+
+        assertEquals(3, contagens.size());
+        assertEquals(DIA, contagens.get(0).data());
+        assertEquals(4L, contagens.get(0).porStatus().get(StatusConsulta.AGENDADA));
+        assertEquals(5L, contagens.get(0).total());
+        assertEquals(0L, contagens.get(1).total());
+        assertEquals(0L, contagens.get(1).porStatus().get(StatusConsulta.REALIZADA));
+        assertEquals(2L, contagens.get(2).porStatus().get(StatusConsulta.REALIZADA));
+    }
+
+    @Test
+    void deveRecusarPeriodoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> agendaContadorService.contar(1L, DIA, DIA.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> agendaContadorService.contar(1L, DIA, DIA.plusDays(366)));
+        verifyNoInteractions(agendaContadorRepository);
+    }
+
+    @Test
+    void deveMoverConsultaEntreContadoresQuandoStatusForAlterado() {
+        agendaContadorService.registrarAlteracao(
+                new ChaveContador(1L, DIA, StatusConsulta.AGENDADA),
+                new ChaveContador(1L, DIA, StatusConsulta.CANCELADA));
+
+        verify(agendaContadorRepository).somar(1L, DIA, "AGENDADA", -1);
+        verify(agendaContadorRepository).somar(1L, DIA, "CANCELADA", 1);
+    }
+
+    @Test
+    void naoDeveAlterarContadoresQuandoChaveNaoMudar() {
+        ChaveContador chave = new ChaveContador(1L, DIA, StatusConsulta.AGENDADA);
+
+        agendaContadorService.registrarAlteracao(chave, new ChaveContador(1L, DIA, StatusConsulta.AGENDADA));
+
+        verify(agendaContadorRepository, never()).somar(anyLong(), any(), anyString(), anyLong());
+    }
+
+    @Test
+    void deveAgruparCriacoesEmLotePorContador() {
+        ChaveContador chave = new ChaveContador(1L, DIA, StatusConsulta.AGENDADA);
+
+        agendaContadorService.registrarCriacoes(List.of(chave, chave, chave));
+
+        verify(agendaContadorRepository).somar(1L, DIA, "AGENDADA", 3);
+    }
+
+    @Test
+    void deveAgruparAlteracoesEmLotePorContador() {
+        ChaveContador chave = new ChaveContador(1L, DIA, StatusConsulta.AGENDADA);
+
+        agendaContadorService.registrarAlteracoes(List.of(chave, chave), StatusConsulta.NAO_COMPARECEU);
+
+        verify(agendaContadorRepository).somar(1L, DIA, "AGENDADA", -2);
+        verify(agendaContadorRepository).somar(1L, DIA, "NAO_COMPARECEU", 2);
+    }
+
+    @Test
+    void naoDevePropagarFalhaAoAtualizarContador() {
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(agendaContadorRepository).somar(1L, DIA, "AGENDADA", 1);
+
+        agendaContadorService.registrarCriacao(new ChaveContador(1L, DIA, StatusConsulta.AGENDADA));
+
+        verify(agendaContadorRepository).somar(1L, DIA, "AGENDADA", 1);
+    }
+
+    @Test
+    void deveReconciliarContadoresEmBlocosDoPeriodoDasConsultas() {
+        when(agendaContadorRepository.periodoConsultas())
+                .thenReturn(new PeriodoConsultasDTO(DIA.atTime(9, 0), DIA.plusDays(40).atTime(17, 0)));
+
+        agendaContadorService.reconciliar();
+
+        verify(agendaContadorRepository).removerForaDoPeriodo(DIA, DIA.plusDays(40));
+        verify(agendaContadorRepository).reconstruirPeriodo(DIA.atStartOfDay(), DIA.plusDays(31).atStartOfDay());
+        verify(agendaContadorRepository).removerObsoletos(DIA, DIA.plusDays(30));
+        verify(agendaContadorRepository).reconstruirPeriodo(DIA.plusDays(31).atStartOfDay(), DIA.plusDays(41).atStartOfDay());
+        verify(agendaContadorRepository).removerObsoletos(DIA.plusDays(31), DIA.plusDays(40));
+        verify(agendaContadorRepository, never()).removerTodos();
+    }
+
+    @Test
+    void deveRemoverTodosOsContadoresNaReconciliacaoSemConsultas() {
+        when(agendaContadorRepository.periodoConsultas()).thenReturn(new PeriodoConsultasDTO(null, null));
+
+        agendaContadorService.reconciliar();
+
+        verify(agendaContadorRepository).removerTodos();
+        verify(agendaContadorRepository, never()).reconstruirPeriodo(any(), any());
+    }
+}
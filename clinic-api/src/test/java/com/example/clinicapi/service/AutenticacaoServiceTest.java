@@ -3,6 +3,7 @@ package com.example.clinicapi.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
@@ -57,4 +58,15 @@ class AutenticacaoServiceTest {
 
         assertEquals("Usuário não encontrado", ex.getMessage());
     }
+
+    @Test
+    void deveGravarOHashRecalculado() {
+        Usuario usuario = new Usuario("admin", "$2a$04$antigo");
+        when(repository.save(usuario)).thenReturn(usuario);
+
+        UserDetails resultado = service.updatePassword(usuario, "$2a$12$novo");
+
+        assertEquals("$2a$12$novo", resultado.getPassword());
+        verify(repository).save(usuario);
+    }
 }
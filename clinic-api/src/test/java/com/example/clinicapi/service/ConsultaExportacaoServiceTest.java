@@ -0,0 +1,125 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.mapper.ConsultaMapper;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.model.Paciente;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.service.ConsultaExportacaoService.FormatoExportacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultaExportacaoServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 1, 0, 0);
+
+    private static final LocalDateTime FIM = LocalDateTime.of(2030, 4, 1, 0, 0);
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private ConsultaMapper consultaMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ConsultaExportacaoService exportacaoService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        exportacaoService = new ConsultaExportacaoService(consultaRepository, consultaMapper,
+                objectMapper, entityManager);
+    }
+
+    @Test
+    void deveExportarUmaConsultaPorLinhaEmNdjsonEDesanexarCadaEntidade() throws Exception {
+        Consulta primeira = consulta(1L);
+        Consulta segunda = consulta(2L);
+        when(consultaRepository.streamPorPeriodo(INICIO, FIM)).thenReturn(Stream.of(primeira, segunda));
+        when(consultaMapper.toDTO(any(Consulta.class))).thenAnswer(inv -> dto(inv.getArgument(0)));
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long total = exportacaoService.exportar(INICIO, FIM, FormatoExportacao.NDJSON, saida);
+
+        assertEquals(2, total);
+        assertEquals("""
+                {"id":1,"pacienteId":10,"medicoId":20,"dataHora":"2030-03-10T09:00:00","motivoCancelamento":null,"status":"AGENDADA"}
+                {"id":2,"pacienteId":10,"medicoId":20,"dataHora":"2030-03-10T09:00:00","motivoCancelamento":null,"status":"AGENDADA"}
+                """, saida.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(primeira);
+        verify(entityManager).detach(segunda);
+        verify(entityManager).detach(primeira.getPaciente());
+        verify(entityManager).detach(segunda.getMedico());
+    }
+
+    @Test
+    void deveExportarCsvComCabecalho() throws Exception {
+        when(consultaRepository.streamPorPeriodo(INICIO, FIM)).thenReturn(Stream.of(consulta(1L)));
+        when(consultaMapper.toDTO(any(Consulta.class))).thenAnswer(inv -> dto(inv.getArgument(0)));
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportar(INICIO, FIM, FormatoExportacao.CSV, saida);
+
+        assertEquals("""
+                id,pacienteId,medicoId,dataHora,status,motivoCancelamento
+                1,10,20,2030-03-10T09:00:00,AGENDADA,
+                """, saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void deveRecusarPeriodoInvalidoSemConsultarBanco() {
+        assertThrows(IllegalArgumentException.class, () ->
+                exportacaoService.exportar(FIM, INICIO, FormatoExportacao.CSV, new ByteArrayOutputStream()));
+        verify(consultaRepository, never()).streamPorPeriodo(any(), any());
+    }
+
+    @Test
+    void deveConverterFormatoSemDiferenciarMaiusculas() {
+        assertEquals(FormatoExportacao.CSV, FormatoExportacao.deParametro("csv"));
+        assertThrows(IllegalArgumentException.class, () -> FormatoExportacao.deParametro("xml"));
+    }
+
+    private static Consulta consulta(final long id) {
+        Paciente paciente = new Paciente();
+        paciente.setId(10L);
+        Medico medico = new Medico();
+        medico.setId(20L);
+        return Consulta.builder()
+                .id(id)
+                .paciente(paciente)
+                .medico(medico)
+                .dataHora(LocalDateTime.of(2030, 3, 10, 9, 0))
+                .status(StatusConsulta.AGENDADA)
+                .build();
+    }
+
+    private static ConsultaDTO dto(final Consulta c) {
+        return new ConsultaDTO(c.getId(), c.getPaciente().getId(), c.getMedico().getId(),
+                c.getDataHora(), c.getMotivoCancelamento(), c.getStatus());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.ResultadoItemLoteDTO.StatusItemLote;
+import com.example.clinicapi.dto.ResultadoLoteDTO;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.infra.concorrencia.BloqueioPorMedico;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.model.Paciente;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.repository.MedicoRepository;
+import com.example.clinicapi.repository.PacienteRepository;
+import com.example.clinicapi.service.AgendaContadorService.ChaveContador;
+
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultaLoteServiceTest {
+
+    private static final LocalDateTime AMANHA = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private AgendaContadorService agendaContadorService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AgendaMedicoIndex agendaMedicoIndex;
+
+    private ConsultaLoteService consultaLoteService;
+
+    private final Paciente paciente = new Paciente(1L, "João", "joao@email.com", "12345678900", "999999999", null, true, null);
+
+    private final Medico medico = new Medico(2L, "Dr. Mock", "1111", Especialidade.CARDIOLOGIA, "dr@mock.com", "99999999", true, null);
+
+    @BeforeEach
+    void setUp() {
+        agendaMedicoIndex = new AgendaMedicoIndex(consultaRepository, 30);
+        consultaLoteService = new ConsultaLoteService(consultaRepository, pacienteRepository,
+                medicoRepository, agendaMedicoIndex, new BloqueioPorMedico(16), agendaContadorService, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void deveCriarConsultasValidasEInformarStatusPorLinha() {
+        when(pacienteRepository.findAllById(List.of(1L, 5L))).thenReturn(List.of(paciente));
+        when(medicoRepository.findAllById(List.of(2L))).thenReturn(List.of(medico));
+        simularGeracaoDeIds(100L);
+
+        ResultadoLoteDTO resultado = consultaLoteService.criarEmLote(List.of(
+                new ConsultaDTO(null, 1L, 2L, AMANHA, null, null),
+                new ConsultaDTO(null, 5L, 2L, AMANHA.plusHours(1), null, null),
+                new ConsultaDTO(null, 1L, 2L, AMANHA.plusMinutes(15), null, null),
+                new ConsultaDTO(null, 1L, null, AMANHA.plusHours(2), null, null),
+                new ConsultaDTO(null, 1L, 2L, AMANHA.plusHours(3), null, null)));
+
+        assertEquals(5, resultado.total());
+        assertEquals(2, resultado.criadas());
+        assertEquals(3, resultado.rejeitadas());
+
+        assertEquals(StatusItemLote.CRIADA, resultado.itens().get(0).status());
+        assertEquals(100L, resultado.itens().get(0).id());
+        assertEquals("Paciente ou Médico não encontrados", resultado.itens().get(1).mensagem());
+        assertEquals("O médico já possui consulta agendada neste horário", resultado.itens().get(2).mensagem());
+        assertEquals("ID do médico é obrigatório", resultado.itens().get(3).mensagem());
+        assertEquals(StatusItemLote.CRIADA, resultado.itens().get(4).status());
+        assertEquals(101L, resultado.itens().get(4).id());
+        assertNull(resultado.itens().get(4).mensagem());
+
+        assertEquals(2, agendaMedicoIndex.tamanho());
+        verify(consultaRepository, times(1)).saveAll(anyList());
+        verify(agendaContadorService).registrarCriacoes(List.of(
+                new ChaveContador(2L, AMANHA.toLocalDate(), StatusConsulta.AGENDADA),
+                new ChaveContador(2L, AMANHA.plusHours(3).toLocalDate(), StatusConsulta.AGENDADA)));
+    }
+
+    @Test
+    void deveRejeitarLinhaQueConflitaComConsultaExistente() {
+        agendaMedicoIndex.registrar(50L, 2L, AMANHA);
+        when(pacienteRepository.findAllById(List.of(1L))).thenReturn(List.of(paciente));
+        when(medicoRepository.findAllById(List.of(2L))).thenReturn(List.of(medico));
+
+        ResultadoLoteDTO resultado = consultaLoteService.criarEmLote(List.of(
+                new ConsultaDTO(null, 1L, 2L, AMANHA.plusMinutes(10), null, null)));
+
+        assertEquals(0, resultado.criadas());
+        assertEquals(StatusItemLote.REJEITADA, resultado.itens().get(0).status());
+        verify(consultaRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void deveCarregarReferenciasEmBlocosDeConsultasIn() {
+        List<ConsultaDTO> lote = new ArrayList<>();
+        for (long i = 0; i < 1500; i++) {
+            lote.add(new ConsultaDTO(null, i, 2L, AMANHA.plusHours(i), null, null));
+        }
+        when(pacienteRepository.findAllById(anyList())).thenReturn(Collections.emptyList());
+        when(medicoRepository.findAllById(List.of(2L))).thenReturn(List.of(medico));
+
+        ResultadoLoteDTO resultado = consultaLoteService.criarEmLote(lote);
+
+        assertEquals(1500, resultado.rejeitadas());
+        verify(pacienteRepository, times(2)).findAllById(anyList());
+        verify(medicoRepository, times(1)).findAllById(anyList());
+    }
+
+    @Test
+    void deveRecusarLoteVazioOuAcimaDoLimite() {
+        assertThrows(IllegalArgumentException.class,
+                () -> consultaLoteService.criarEmLote(List.of()));
+
+        List<ConsultaDTO> grande = Collections.nCopies(ConsultaLoteService.TAMANHO_MAXIMO_LOTE + 1,
+                new ConsultaDTO(null, 1L, 2L, AMANHA, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> consultaLoteService.criarEmLote(grande));
+    }
+
+    private void simularGeracaoDeIds(final long primeiroId) {
+        when(consultaRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Consulta> consultas = invocation.getArgument(0);
+            long id = primeiroId;
+            for (Consulta consulta : consultas) {
+                consulta.setId(id++);
+            }
+            return consultas;
+        });
+    }
+}
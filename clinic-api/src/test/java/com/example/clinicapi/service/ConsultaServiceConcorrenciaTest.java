@@ -0,0 +1,195 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.exception.HorarioIndisponivelException;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.infra.concorrencia.BloqueioPorMedico;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
+import com.example.clinicapi.mapper.ConsultaMapper;
+import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.model.Paciente;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.repository.MedicoRepository;
+import com.example.clinicapi.repository.PacienteRepository;
+
+/**
+ * Teste de estresse dos agendamentos concorrentes: o índice da agenda e o
+ * bloqueio por médico são reais e o salvamento simula a latência do banco.
+ */
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class ConsultaServiceConcorrenciaTest {
+
+    private static final int THREADS = 8;
+
+    private static final long LATENCIA_SALVAMENTO_MS = 2;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 5, 6, 8, 0);
+
+    private final AtomicLong proximoId = new AtomicLong();
+
+    private ExecutorService executor;
+
+    private AgendaMedicoIndex agendaMedicoIndex;
+
+    private ConsultaService consultaService;
+
+    @BeforeEach
+    void setUp() {
+        ConsultaRepository consultaRepository = mock(ConsultaRepository.class, withSettings().stubOnly());
+        PacienteRepository pacienteRepository = mock(PacienteRepository.class, withSettings().stubOnly());
+        MedicoRepository medicoRepository = mock(MedicoRepository.class, withSettings().stubOnly());
+        ConsultaMapper consultaMapper = mock(ConsultaMapper.class, withSettings().stubOnly());
+
+        PacienteService pacienteService = mock(PacienteService.class, withSettings().stubOnly());
+        MedicoService medicoService = mock(MedicoService.class, withSettings().stubOnly());
+
+        Paciente paciente = new Paciente();
+        paciente.setId(1L);
+        when(pacienteService.findById(anyLong())).thenReturn(Optional.of(new PacienteDTO(1L, "Maria",
+                "maria@email.com", "12345678901", "11999999999", LocalDate.of(1990, 5, 20), true)));
+        when(pacienteRepository.getReferenceById(anyLong())).thenReturn(paciente);
+        when(medicoService.findById(anyLong())).thenAnswer(inv -> Optional.of(new MedicoDTO(inv.getArgument(0),
+                "Dr. Mock", "dr@mock.com", "1111", "99999999", Especialidade.CARDIOLOGIA, true)));
+        when(medicoRepository.findParaAgendamentoById(anyLong())).thenAnswer(inv -> {
+            Medico medico = new Medico();
+            medico.setId(inv.getArgument(0));
+            return Optional.of(medico);
+        });
+        when(consultaRepository.save(any(Consulta.class))).thenAnswer(inv -> {
+            Thread.sleep(LATENCIA_SALVAMENTO_MS);
+            Consulta consulta = inv.getArgument(0);
+            consulta.setId(proximoId.incrementAndGet());
+            return consulta;
+        });
+        when(consultaMapper.toDTO(any(Consulta.class))).thenAnswer(inv -> {
+            Consulta c = inv.getArgument(0);
+            return new ConsultaDTO(c.getId(), c.getPaciente().getId(), c.getMedico().getId(),
+                    c.getDataHora(), null, c.getStatus());
+        });
+
+        agendaMedicoIndex = new AgendaMedicoIndex(consultaRepository, 30);
+        consultaService = new ConsultaService(consultaRepository, pacienteRepository, medicoRepository,
+                pacienteService, medicoService, consultaMapper, mock(EmailService.class, withSettings().stubOnly()), agendaMedicoIndex,
+                new BloqueioPorMedico(64), new RetentativaOtimista(3, 0),
+                mock(AgendaContadorService.class, withSettings().stubOnly()),
+                mock(ApplicationEventPublisher.class, withSettings().stubOnly()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class, withSettings().stubOnly())));
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deveAceitarApenasUmAgendamentoParaOMesmoHorarioDisputado() throws Exception {
+        int tentativas = 64;
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (int i = 0; i < tentativas; i++) {
+            // Horários diferentes, mas todos dentro da mesma janela de 30 minutos
+            LocalDateTime dataHora = INICIO.plusMinutes(i % 20);
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    consultaService.createConsulta(new ConsultaDTO(null, 1L, 7L, dataHora, null, null));
+                    return true;
+                } catch (HorarioIndisponivelException ex) {
+                    conflitos.incrementAndGet();
+                    return false;
+                }
+            }));
+        }
+        largada.countDown();
+
+        int criadas = 0;
+        for (Future<Boolean> resultado : resultados) {
+            criadas += resultado.get() ? 1 : 0;
+        }
+
+        assertEquals(1, criadas);
+        assertEquals(tentativas - 1, conflitos.get());
+        assertEquals(1, agendaMedicoIndex.tamanho());
+    }
+
+    @Test
+    void deveEscalarComAgendamentosDeMedicosDiferentes() throws Exception {
+        int porThread = 25;
+
+        long mesmoMedico = medirAgendamentos(porThread, thread -> 1L);
+        assertEquals(THREADS * porThread, agendaMedicoIndex.tamanho());
+
+        long medicosDiferentes = medirAgendamentos(porThread, thread -> 100L + thread);
+        assertEquals(2 * THREADS * porThread, agendaMedicoIndex.tamanho());
+
+        // Com um médico por thread os salvamentos ocorrem em paralelo;
+        // com um único médico eles são serializados pelo bloqueio
+        assertTrue(medicosDiferentes * 3 < mesmoMedico,
+                "médicos diferentes: " + medicosDiferentes + " ms, mesmo médico: " + mesmoMedico + " ms");
+    }
+
+    /**
+     * Agenda {@code porThread} consultas sem conflito em cada thread e
+     * retorna o tempo total em milissegundos.
+     */
+    private long medirAgendamentos(final int porThread, final IntToLongFunction medicoDaThread) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Void>> resultados = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            Callable<Void> tarefa = () -> {
+                largada.await();
+                long medicoId = medicoDaThread.applyAsLong(thread);
+                for (int k = 0; k < porThread; k++) {
+                    LocalDateTime dataHora = INICIO.plusHours(thread * porThread + k);
+                    consultaService.createConsulta(new ConsultaDTO(null, 1L, medicoId, dataHora, null, null));
+                }
+                return null;
+            };
+            resultados.add(executor.submit(tarefa));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<Void> resultado : resultados) {
+            resultado.get();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.clinicapi.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -17,16 +24,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.clinicapi.dto.ConsultaDTO;
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.dto.PaginaCursorDTO;
+import com.example.clinicapi.event.ConsultaAlteradaEvent;
+import com.example.clinicapi.exception.HorarioIndisponivelException;
+import com.example.clinicapi.exception.ResourceNotFoundException;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.infra.concorrencia.BloqueioPorMedico;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
+import com.example.clinicapi.infra.pagination.CursorCodec;
 import com.example.clinicapi.mapper.ConsultaMapper;
 import com.example.clinicapi.model.Consulta;
+import com.example.clinicapi.model.Especialidade;
 import com.example.clinicapi.model.Medico;
 import com.example.clinicapi.model.Paciente;
 import com.example.clinicapi.model.StatusConsulta;
@@ -38,6 +63,13 @@ import com.example.clinicapi.repository.PacienteRepository;
 @ActiveProfiles("test")
 class ConsultaServiceTest {
 
+    private static final PacienteDTO PACIENTE = new PacienteDTO(1L, "Maria", "maria@email.com", "12345678901",
+            "11999999999", LocalDate.of(1990, 5, 20), true);
+
+    private static final MedicoDTO MEDICO = new MedicoDTO(1L, "Dr. Mock", "dr@mock.com", "1111", "99999999",
+            Especialidade.CARDIOLOGIA, true);
+
+
     @Mock
     private ConsultaRepository consultaRepository;
     @Mock
@@ -45,9 +77,25 @@ class ConsultaServiceTest {
     @Mock
     private MedicoRepository medicoRepository;
     @Mock
+    private PacienteService pacienteService;
+    @Mock
+    private MedicoService medicoService;
+    @Mock
     private ConsultaMapper consultaMapper;
     @Mock
     private EmailService emailService;
+    @Mock
+    private AgendaMedicoIndex agendaMedicoIndex;
+    @Spy
+    private BloqueioPorMedico bloqueioPorMedico = new BloqueioPorMedico(16);
+    @Spy
+    private RetentativaOtimista retentativaOtimista = new RetentativaOtimista(3, 0);
+    @Mock
+    private AgendaContadorService agendaContadorService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private TransactionTemplate transacao = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks
     private ConsultaService consultaService;
@@ -62,8 +110,10 @@ class ConsultaServiceTest {
         consultaSalva.setStatus(StatusConsulta.AGENDADA);
         ConsultaDTO dtoRetorno = new ConsultaDTO(10L, 1L, 1L, dto.dataHora(), null, StatusConsulta.AGENDADA);
 
-        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
-        when(medicoRepository.findById(1L)).thenReturn(Optional.of(medico));
+        when(pacienteService.findById(1L)).thenReturn(Optional.of(PACIENTE));
+        when(medicoService.findById(1L)).thenReturn(Optional.of(MEDICO));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(paciente);
+        when(medicoRepository.findParaAgendamentoById(1L)).thenReturn(Optional.of(medico));
         when(consultaRepository.save(any(Consulta.class))).thenReturn(consultaSalva);
         when(consultaMapper.toDTO(consultaSalva)).thenReturn(dtoRetorno);
 
@@ -71,15 +121,16 @@ class ConsultaServiceTest {
 
         assertEquals(StatusConsulta.AGENDADA, resultado.status());
         verify(consultaRepository).save(any(Consulta.class));
+        verify(pacienteRepository, never()).findById(anyLong());
+        verify(medicoRepository, never()).findById(anyLong());
+        verify(emailService).enviarEmail(eq(PACIENTE.email()), anyString(), anyString());
     }
     
     @Test
     void deveRetornarConsultaPorId() {
-        Consulta consulta = new Consulta();
         ConsultaDTO dto = new ConsultaDTO(1L, 1L, 1L, LocalDateTime.now(), null, StatusConsulta.AGENDADA);
 
-        when(consultaRepository.findById(1L)).thenReturn(Optional.of(consulta));
-        when(consultaMapper.toDTO(consulta)).thenReturn(dto);
+        when(consultaRepository.findProjetadaById(1L)).thenReturn(Optional.of(dto));
 
         Optional<ConsultaDTO> result = consultaService.findById(1L);
 
@@ -98,8 +149,10 @@ class ConsultaServiceTest {
         ConsultaDTO dtoSaida = new ConsultaDTO(id, 1L, 1L, dtoEntrada.dataHora(), "Desistência", StatusConsulta.CANCELADA);
 
         when(consultaRepository.findById(id)).thenReturn(Optional.of(consultaExistente));
-        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
-        when(medicoRepository.findById(1L)).thenReturn(Optional.of(medico));
+        when(pacienteService.findById(1L)).thenReturn(Optional.of(PACIENTE));
+        when(medicoService.findById(1L)).thenReturn(Optional.of(MEDICO));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(paciente);
+        when(medicoRepository.findParaAgendamentoById(1L)).thenReturn(Optional.of(medico));
         when(consultaRepository.save(any(Consulta.class))).thenReturn(consultaAtualizada);
         when(consultaMapper.toDTO(consultaAtualizada)).thenReturn(dtoSaida);
 
@@ -128,37 +181,176 @@ class ConsultaServiceTest {
         consultaService.deleteById(id);
 
         verify(consultaRepository, times(1)).deleteById(id);
+        verify(eventPublisher).publishEvent(ConsultaAlteradaEvent.removida(id));
     }
     
     @Test
     void deveLancarExcecaoQuandoPacienteOuMedicoNaoForemEncontrados() {
         ConsultaDTO dto = new ConsultaDTO(null, 1L, 1L, LocalDateTime.now(), null, StatusConsulta.AGENDADA);
 
-        when(pacienteRepository.findById(1L)).thenReturn(Optional.empty());
-        when(medicoRepository.findById(1L)).thenReturn(Optional.of(new Medico()));
+        when(pacienteService.findById(1L)).thenReturn(Optional.empty());
+        when(medicoService.findById(1L)).thenReturn(Optional.of(MEDICO));
 
         assertThrows(IllegalArgumentException.class, () -> consultaService.createConsulta(dto));
 
-        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(new Paciente()));
-        when(medicoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(pacienteService.findById(1L)).thenReturn(Optional.of(PACIENTE));
+        when(medicoService.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> consultaService.createConsulta(dto));
     }
     
+    @Test
+    void deveResponderNaoEncontradoQuandoMedicoForExcluidoAposBuscaEmCache() {
+        ConsultaDTO dto = new ConsultaDTO(null, 1L, 2L, LocalDateTime.now(), null, StatusConsulta.AGENDADA);
+        Paciente paciente = new Paciente();
+        paciente.setId(1L);
+
+        when(pacienteService.findById(1L)).thenReturn(Optional.of(PACIENTE));
+        when(medicoService.findById(2L)).thenReturn(Optional.of(MEDICO));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(paciente);
+        when(medicoRepository.findParaAgendamentoById(2L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+                () -> consultaService.createConsulta(dto));
+
+        assertEquals("Médico não encontrado", ex.getMessage());
+        verify(consultaRepository, never()).save(any(Consulta.class));
+        verify(agendaMedicoIndex, never()).registrar(any(Consulta.class));
+        verify(emailService, never()).enviarEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void deveResponderNaoEncontradoQuandoPacienteForExcluidoDuranteAtualizacao() {
+        Long id = 1L;
+        Paciente paciente = new Paciente();
+        paciente.setId(3L);
+        ConsultaDTO dto = new ConsultaDTO(id, 3L, null, null, null, StatusConsulta.CANCELADA);
+
+        when(consultaRepository.findById(id)).thenReturn(Optional.of(new Consulta()));
+        when(pacienteService.findById(3L)).thenReturn(Optional.of(PACIENTE));
+        when(pacienteRepository.getReferenceById(3L)).thenReturn(paciente);
+        when(consultaRepository.save(any(Consulta.class))).thenThrow(new DataIntegrityViolationException("fk_consulta_paciente"));
+        when(pacienteRepository.existsById(3L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> consultaService.updateConsulta(id, dto));
+    }
+
+    @Test
+    void deveRepassarViolacaoDeIntegridadeQuandoPacienteEMedicoExistirem() {
+        Long id = 1L;
+        Paciente paciente = new Paciente();
+        paciente.setId(3L);
+        Consulta consulta = new Consulta();
+        consulta.setPaciente(paciente);
+        ConsultaDTO dto = new ConsultaDTO(id, null, null, null, "Motivo", StatusConsulta.CANCELADA);
+
+        when(consultaRepository.findById(id)).thenReturn(Optional.of(consulta));
+        when(consultaRepository.save(any(Consulta.class))).thenThrow(new DataIntegrityViolationException("outra"));
+        when(pacienteRepository.existsById(3L)).thenReturn(true);
+
+        assertThrows(DataIntegrityViolationException.class, () -> consultaService.updateConsulta(id, dto));
+    }
+
     @Test
     void deveRetornarPaginaDeConsultas() {
         Pageable pageable = PageRequest.of(0, 10);
-        Consulta consulta = new Consulta();
         ConsultaDTO dto = new ConsultaDTO(1L, 1L, 1L, LocalDateTime.now(), "Rotina", StatusConsulta.AGENDADA);
 
-        Page<Consulta> page = new PageImpl<>(List.of(consulta));
+        Page<ConsultaDTO> page = new PageImpl<>(List.of(dto));
 
-        when(consultaRepository.findAll(pageable)).thenReturn(page);
-        when(consultaMapper.toDTO(consulta)).thenReturn(dto);
+        when(consultaRepository.findAllProjetadas(pageable)).thenReturn(page);
 
         Page<ConsultaDTO> resultado = consultaService.findAll(pageable);
 
         assertEquals(1, resultado.getTotalElements());
         assertEquals(dto, resultado.getContent().get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveListarConsultasPorCursorAPartirDaUltimaChave() {
+        LocalDateTime dataHora = LocalDateTime.of(2030, 3, 10, 9, 0);
+        ConsultaDTO primeira = new ConsultaDTO(5L, 1L, 1L, dataHora, null, StatusConsulta.AGENDADA);
+        ConsultaDTO segunda = new ConsultaDTO(6L, 1L, 1L, dataHora.plusHours(1), null, StatusConsulta.AGENDADA);
+        ConsultaDTO terceira = new ConsultaDTO(7L, 1L, 1L, dataHora.plusHours(2), null, StatusConsulta.AGENDADA);
+
+        when(consultaRepository.findApos(dataHora.minusHours(1), 4L, Limit.of(3)))
+                .thenReturn(List.of(primeira, segunda, terceira));
+
+        PaginaCursorDTO<ConsultaDTO> pagina = consultaService.findAllPorCursor(
+                CursorCodec.codificar(dataHora.minusHours(1), 4L), 2);
+
+        assertEquals(2, pagina.itens().size());
+        CursorCodec.ChaveDataHoraId proxima = CursorCodec.decodificarDataHoraId(pagina.proximoCursor());
+        assertEquals(segunda.dataHora(), proxima.dataHora());
+        assertEquals(6L, proxima.id());
+    }
+
+    @Test
+    void deveEncerrarListagemPorCursorNaUltimaPagina() {
+        ConsultaDTO consulta = new ConsultaDTO(1L, 1L, 1L, LocalDateTime.now(), null, StatusConsulta.AGENDADA);
+
+        when(consultaRepository.findPrimeirasPorDataHoraEId(Limit.of(11)))
+                .thenReturn(List.of(consulta));
+
+        PaginaCursorDTO<ConsultaDTO> pagina = consultaService.findAllPorCursor(null, 10);
+
+        assertEquals(1, pagina.itens().size());
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    void deveRecusarConsultaEmHorarioOcupadoSemConsultarBanco() {
+        LocalDateTime dataHora = LocalDateTime.now().plusDays(1);
+        ConsultaDTO dto = new ConsultaDTO(null, 1L, 2L, dataHora, null, null);
+
+        when(agendaMedicoIndex.possuiConflito(2L, dataHora, null)).thenReturn(true);
+
+        assertThrows(HorarioIndisponivelException.class, () -> consultaService.createConsulta(dto));
+
+        verify(pacienteService, never()).findById(anyLong());
+        verify(consultaRepository, never()).save(any(Consulta.class));
+    }
+
+    @Test
+    void deveRecusarConsultaEmHorarioGravadoPorOutroNo() {
+        LocalDateTime dataHora = LocalDateTime.now().plusDays(1);
+        ConsultaDTO dto = new ConsultaDTO(null, 1L, 1L, dataHora, null, null);
+
+        when(pacienteService.findById(1L)).thenReturn(Optional.of(PACIENTE));
+        when(medicoService.findById(1L)).thenReturn(Optional.of(MEDICO));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(new Paciente());
+        when(medicoRepository.findParaAgendamentoById(1L)).thenReturn(Optional.of(new Medico()));
+        when(agendaMedicoIndex.possuiConflitoGravado(1L, dataHora, null)).thenReturn(true);
+
+        assertThrows(HorarioIndisponivelException.class, () -> consultaService.createConsulta(dto));
+
+        verify(consultaRepository, never()).save(any(Consulta.class));
+        verify(agendaMedicoIndex, never()).registrar(any(Consulta.class));
+    }
+
+    @Test
+    void deveRefazerAgendamentoQuandoOutroNoAlterarAAgendaDoMedico() {
+        LocalDateTime dataHora = LocalDateTime.now().plusDays(1);
+        ConsultaDTO dto = new ConsultaDTO(null, 1L, 1L, dataHora, null, null);
+        Consulta consultaSalva = new Consulta();
+        consultaSalva.setDataHora(dataHora);
+        consultaSalva.setStatus(StatusConsulta.AGENDADA);
+        ConsultaDTO dtoRetorno = new ConsultaDTO(10L, 1L, 1L, dataHora, null, StatusConsulta.AGENDADA);
+
+        when(pacienteService.findById(1L)).thenReturn(Optional.of(PACIENTE));
+        when(medicoService.findById(1L)).thenReturn(Optional.of(MEDICO));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(new Paciente());
+        when(medicoRepository.findParaAgendamentoById(1L)).thenReturn(Optional.of(new Medico()));
+        when(consultaRepository.save(any(Consulta.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Medico.class, 1L))
+                .thenReturn(consultaSalva);
+        when(consultaMapper.toDTO(consultaSalva)).thenReturn(dtoRetorno);
+
+        ConsultaDTO resultado = consultaService.createConsulta(dto);
+
+        assertEquals(10L, resultado.id());
+        verify(medicoRepository, times(2)).findParaAgendamentoById(1L);
+        verify(agendaMedicoIndex, times(2)).possuiConflitoGravado(1L, dataHora, null);
+        verify(agendaMedicoIndex, times(1)).registrar(consultaSalva);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.clinicapi.dto.AgendaMedicoDTO;
+import com.example.clinicapi.exception.ResourceNotFoundException;
+import com.example.clinicapi.infra.agenda.AgendaMedicoIndex;
+import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.repository.MedicoRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DisponibilidadeServiceTest {
+
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 10);
+
+    private static final LocalDateTime ONTEM = DIA.minusDays(1).atStartOfDay();
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    private AgendaMedicoIndex agendaMedicoIndex;
+
+    private DisponibilidadeService disponibilidadeService;
+
+    @BeforeEach
+    void setUp() {
+        agendaMedicoIndex = new AgendaMedicoIndex(consultaRepository, 30);
+        disponibilidadeService = new DisponibilidadeService(
+                agendaMedicoIndex, medicoRepository, "08:00", "12:00");
+    }
+
+    @Test
+    void deveListarTodoOExpedienteQuandoNaoHaConsultas() {
+        AgendaMedicoDTO agenda = disponibilidadeService
+                .calcularAgenda(10L, DIA, DIA, ONTEM);
+
+        // 08:00 até 11:30 em intervalos de 15 minutos
+        assertEquals(15, agenda.horariosLivres().size());
+        assertEquals(DIA.atTime(8, 0), agenda.horariosLivres().get(0));
+        assertEquals(DIA.atTime(11, 30), agenda.horariosLivres().get(14));
+    }
+
+    @Test
+    void deveExcluirHorariosQueSobrepoemConsultasAgendadas() {
+        agendaMedicoIndex.registrar(1L, 10L, DIA.atTime(9, 0));
+
+        List<LocalDateTime> livres = disponibilidadeService
+                .calcularAgenda(10L, DIA, DIA, ONTEM).horariosLivres();
+
+        assertTrue(livres.contains(DIA.atTime(8, 30)));
+        assertFalse(livres.contains(DIA.atTime(8, 45)));
+        assertFalse(livres.contains(DIA.atTime(9, 0)));
+        assertFalse(livres.contains(DIA.atTime(9, 15)));
+        assertTrue(livres.contains(DIA.atTime(9, 30)));
+    }
+
+    @Test
+    void deveConsiderarConsultasForaDaGradeDeQuinzeMinutos() {
+        agendaMedicoIndex.registrar(1L, 10L, DIA.atTime(9, 10));
+
+        List<LocalDateTime> livres = disponibilidadeService
+                .calcularAgenda(10L, DIA, DIA, ONTEM).horariosLivres();
+
+        assertTrue(livres.contains(DIA.atTime(8, 30)));
+        assertFalse(livres.contains(DIA.atTime(9, 30)));
+        assertTrue(livres.contains(DIA.atTime(9, 45)));
+    }
+
+    @Test
+    void naoDeveRetornarHorariosNoPassado() {
+        List<LocalDateTime> livres = disponibilidadeService
+                .calcularAgenda(10L, DIA, DIA.plusDays(1),
+                        DIA.atTime(10, 5)).horariosLivres();
+
+        assertEquals(DIA.atTime(10, 15), livres.get(0));
+        assertEquals(DIA.plusDays(1).atTime(11, 30),
+                livres.get(livres.size() - 1));
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoMedicoNaoExiste() {
+        when(medicoRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                disponibilidadeService.horariosLivres(99L, DIA, DIA));
+    }
+
+    @Test
+    void deveRecusarPeriodoInvalidoOuMuitoLongo() {
+        assertThrows(IllegalArgumentException.class, () ->
+                disponibilidadeService.horariosLivres(1L, DIA, DIA.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () ->
+                disponibilidadeService.horariosLivres(1L, DIA, DIA.plusDays(31)));
+    }
+
+    @Test
+    void deveCalcularAgendaDeCadaMedicoDaEspecialidade() {
+        when(medicoRepository.findIdsAtivosPorEspecialidade(Especialidade.CARDIOLOGIA))
+                .thenReturn(List.of(10L, 20L));
+        agendaMedicoIndex.registrar(1L, 20L, LocalDate.now().plusDays(1).atTime(8, 0));
+
+        LocalDate amanha = LocalDate.now().plusDays(1);
+        List<AgendaMedicoDTO> agendas = disponibilidadeService
+                .horariosLivresPorEspecialidade(Especialidade.CARDIOLOGIA, amanha, amanha);
+
+        assertEquals(2, agendas.size());
+        assertEquals(15, agendas.get(0).horariosLivres().size());
+        assertEquals(13, agendas.get(1).horariosLivres().size());
+    }
+}
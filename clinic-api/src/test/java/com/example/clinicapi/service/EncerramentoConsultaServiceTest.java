@@ -0,0 +1,130 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.dto.ProgressoEncerramentoDTO;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+import com.example.clinicapi.service.AgendaContadorService.ChaveContador;
+
+@ExtendWith(MockitoExtension.class)
+class EncerramentoConsultaServiceTest {
+
+    private static final Instant AGORA = Instant.parse("2030-03-10T12:00:00Z");
+
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2030, 3, 10, 10, 0);
+
+    private static final LocalDateTime ONTEM = LocalDateTime.of(2030, 3, 9, 9, 0);
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private AgendaContadorService agendaContadorService;
+
+    private EncerramentoConsultaService encerramentoConsultaService;
+
+    @BeforeEach
+    void setUp() {
+        encerramentoConsultaService = criar(StatusConsulta.NAO_COMPARECEU);
+    }
+
+    @Test
+    void deveEncerrarConsultasEmLotesAvancandoOCursor() {
+        List<HorarioConsultaDTO> primeiro = List.of(
+                new HorarioConsultaDTO(1L, 7L, ONTEM), new HorarioConsultaDTO(2L, 7L, ONTEM));
+        List<HorarioConsultaDTO> segundo = List.of(new HorarioConsultaDTO(5L, 8L, ONTEM.plusHours(1)));
+        when(consultaRepository.findAgendadasApos(EncerramentoConsultaService.DATA_HORA_MINIMA, 0L, LIMITE,
+                Limit.of(2))).thenReturn(primeiro);
+        when(consultaRepository.findAgendadasApos(ONTEM, 2L, LIMITE, Limit.of(2))).thenReturn(segundo);
+        when(consultaRepository.encerrarAgendadas(List.of(1L, 2L), StatusConsulta.NAO_COMPARECEU)).thenReturn(2);
+        when(consultaRepository.encerrarAgendadas(List.of(5L), StatusConsulta.NAO_COMPARECEU)).thenReturn(1);
+
+        encerramentoConsultaService.executar();
+
+        ChaveContador chave7 = new ChaveContador(7L, ONTEM.toLocalDate(), StatusConsulta.AGENDADA);
+        verify(agendaContadorService).registrarAlteracoes(List.of(chave7, chave7), StatusConsulta.NAO_COMPARECEU);
+        verify(agendaContadorService).registrarAlteracoes(
+                List.of(new ChaveContador(8L, ONTEM.toLocalDate(), StatusConsulta.AGENDADA)),
+                StatusConsulta.NAO_COMPARECEU);
+
+        ProgressoEncerramentoDTO progresso = encerramentoConsultaService.getProgresso();
+        assertFalse(progresso.emExecucao());
+        assertEquals(2, progresso.lotes());
+        assertEquals(3, progresso.encerradas());
+        assertEquals(5L, progresso.cursorId());
+        assertEquals(AGORA, progresso.concluidaEm());
+    }
+
+    @Test
+    void naoDeveAlterarNadaQuandoNaoHouverConsultasPassadas() {
+        when(consultaRepository.findAgendadasApos(any(), any(), any(), any())).thenReturn(List.of());
+
+        encerramentoConsultaService.executar();
+
+        verify(consultaRepository, never()).encerrarAgendadas(anyCollection(), any());
+        verifyNoInteractions(agendaContadorService);
+        assertEquals(0, encerramentoConsultaService.getProgresso().lotes());
+        assertNull(encerramentoConsultaService.getProgresso().cursorId());
+    }
+
+    @Test
+    void deveDeixarContadoresParaAReconciliacaoQuandoOLoteMudouDuranteOEncerramento() {
+        when(consultaRepository.findAgendadasApos(EncerramentoConsultaService.DATA_HORA_MINIMA, 0L, LIMITE,
+                Limit.of(2))).thenReturn(List.of(new HorarioConsultaDTO(1L, 7L, ONTEM)));
+        when(consultaRepository.encerrarAgendadas(List.of(1L), StatusConsulta.NAO_COMPARECEU)).thenReturn(0);
+
+        encerramentoConsultaService.executar();
+
+        verifyNoInteractions(agendaContadorService);
+        assertEquals(0, encerramentoConsultaService.getProgresso().encerradas());
+    }
+
+    @Test
+    void deveAcumularOTotalEntreExecucoes() {
+        when(consultaRepository.findAgendadasApos(EncerramentoConsultaService.DATA_HORA_MINIMA, 0L, LIMITE,
+                Limit.of(2))).thenReturn(List.of(new HorarioConsultaDTO(1L, 7L, ONTEM)));
+        when(consultaRepository.encerrarAgendadas(List.of(1L), StatusConsulta.NAO_COMPARECEU)).thenReturn(1);
+
+        encerramentoConsultaService.executar();
+        encerramentoConsultaService.executar();
+
+        assertEquals(1, encerramentoConsultaService.getProgresso().encerradas());
+        assertEquals(2, encerramentoConsultaService.getProgresso().totalEncerradas());
+    }
+
+    @Test
+    void deveRecusarStatusDeDestinoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> criar(StatusConsulta.CANCELADA));
+        assertThrows(IllegalArgumentException.class, () -> criar(StatusConsulta.AGENDADA));
+    }
+
+    private EncerramentoConsultaService criar(final StatusConsulta statusDestino) {
+        return new EncerramentoConsultaService(consultaRepository, agendaContadorService,
+                Clock.fixed(AGORA, ZoneOffset.UTC), statusDestino, Duration.ofHours(2), 2, Duration.ZERO);
+    }
+}
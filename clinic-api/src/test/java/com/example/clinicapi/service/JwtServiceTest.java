@@ -2,35 +2,52 @@ package com.example.clinicapi.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.clinicapi.exception.TokenInvalidoException;
+import com.example.clinicapi.infra.security.AutenticacaoJwt;
 import com.example.clinicapi.infra.security.JwtService;
+import com.example.clinicapi.infra.security.UsuarioAutenticado;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
 
 @ExtendWith(MockitoExtension.class)
 @ActiveProfiles("test")
 class JwtServiceTest {
 
+    private static final String SECRET = "minha-chave-supersecreta-para-teste-123456"; // pelo menos 256 bits
+
+    private static final Usuario USUARIO = new Usuario(7L, "usuario123", "senha", Role.ROLE_ADMIN);
+
     private JwtService jwtService;
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService();
-        ReflectionTestUtils.setField(jwtService, "secret", "minha-chave-supersecreta-para-teste-123456"); // pelo menos 256 bits
+        jwtService = new JwtService(SECRET, 100);
     }
 
     @Test
     void deveGerarTokenValido() {
-        String token = jwtService.generateToken("usuario123");
+        String token = jwtService.generateToken(USUARIO);
 
         assertNotNull(token);
         assertFalse(token.isBlank());
@@ -38,7 +55,7 @@ class JwtServiceTest {
 
     @Test
     void deveExtrairSubjectDoTokenValido() {
-        String token = jwtService.generateToken("usuario123");
+        String token = jwtService.generateToken(USUARIO);
         String subject = jwtService.getSubject(token);
 
         assertEquals("usuario123", subject);
@@ -53,4 +70,64 @@ class JwtServiceTest {
 
         assertTrue(exception.getMessage().contains("Erro ao extrair subject do token JWT"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveGerarIdentificadorUnicoPorToken() {
+        String token = jwtService.generateToken(USUARIO);
+        String outro = jwtService.generateToken(USUARIO);
+
+        assertNotNull(jwtService.getId(token));
+        assertNotEquals(jwtService.getId(token), jwtService.getId(outro));
+        assertTrue(jwtService.getExpiracao(token).isAfter(Instant.now()));
+    }
+
+    @Test
+    void deveExtrairSubjectDoTokenJaVerificado() {
+        String token = jwtService.generateToken(USUARIO);
+
+        assertEquals("usuario123", jwtService.getSubject(token));
+        assertEquals("usuario123", jwtService.getSubject(token));
+    }
+
+    @Test
+    void deveRecusarTokenAssinadoComOutraChave() {
+        String token = new JwtService("outra-chave-supersecreta-para-teste-1234567", 100).generateToken(USUARIO);
+
+        assertThrows(TokenInvalidoException.class, () -> jwtService.getSubject(token));
+    }
+
+    @Test
+    void deveMontarPrincipalComIdERoleDoToken() {
+        String token = jwtService.generateToken(USUARIO);
+
+        UsuarioAutenticado principal = jwtService.getPrincipal(token).orElseThrow();
+
+        assertEquals(7L, principal.id());
+        assertEquals("usuario123", principal.login());
+        assertEquals(Role.ROLE_ADMIN, principal.role());
+    }
+
+    @Test
+    void deveReutilizarAutenticacaoEAutoridadesDoMesmoToken() {
+        String token = jwtService.generateToken(USUARIO);
+
+        AutenticacaoJwt autenticacao = jwtService.getAutenticacao(token).orElseThrow();
+
+        assertSame(autenticacao, jwtService.getAutenticacao(token).orElseThrow());
+        assertSame(Role.ROLE_ADMIN.getAutoridades(), autenticacao.getAuthorities());
+        assertNull(autenticacao.getCredentials());
+        assertThrows(IllegalArgumentException.class, () -> autenticacao.setAuthenticated(false));
+    }
+
+    @Test
+    void naoDeveMontarPrincipalDeTokenSemIdERole() {
+        String token = Jwts.builder()
+                .setSubject("usuario123")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertTrue(jwtService.getPrincipal(token).isEmpty());
+        assertEquals("usuario123", jwtService.getSubject(token));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.example.clinicapi.dto.HorarioConsultaDTO;
+import com.example.clinicapi.dto.LembreteConsultaDTO;
+import com.example.clinicapi.event.ConsultaAlteradaEvent;
+import com.example.clinicapi.infra.lembrete.ReservaLembretes;
+import com.example.clinicapi.model.StatusConsulta;
+import com.example.clinicapi.repository.ConsultaRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LembreteConsultaServiceTest {
+
+    private static final Instant INICIO = Instant.parse("2030-03-10T08:00:00Z");
+
+    private static final LocalDateTime AGORA = LocalDateTime.ofInstant(INICIO, ZoneOffset.UTC);
+
+    private static final Duration JANELA = Duration.ofHours(26);
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ReservaLembretes reservaLembretes;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LembreteConsultaService lembreteConsultaService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(reservaLembretes.reservar(anyString(), any())).thenReturn(true);
+        lembreteConsultaService = new LembreteConsultaService(consultaRepository, emailService, reservaLembretes,
+                meterRegistry, Clock.fixed(INICIO, ZoneOffset.UTC), true, JANELA, Duration.ofSeconds(1), 64);
+    }
+
+    @Test
+    void deveEnviarOsDoisLembretesNosHorariosPrevistos() {
+        LocalDateTime dataHora = AGORA.plusHours(25);
+        carregar(new HorarioConsultaDTO(1L, 7L, dataHora));
+        when(consultaRepository.findLembretes(List.of(1L))).thenReturn(List.of(
+                new LembreteConsultaDTO(1L, dataHora, StatusConsulta.AGENDADA, "Maria", "maria@email.com")));
+        assertEquals(2, lembreteConsultaService.pendentes());
+
+        lembreteConsultaService.girar(INICIO.plus(Duration.ofHours(1)).plusSeconds(3));
+        verify(emailService).enviarEmail(eq("maria@email.com"), contains("amanhã"), contains("Maria"));
+        assertEquals(1, lembreteConsultaService.pendentes());
+
+        lembreteConsultaService.girar(INICIO.plus(Duration.ofHours(24)).plusSeconds(1));
+        verify(emailService).enviarEmail(eq("maria@email.com"), contains("1 hora"), anyString());
+        assertEquals(0, lembreteConsultaService.pendentes());
+
+        assertEquals(1, meterRegistry.get("clinica.lembretes.enviados").tag("tipo", "VESPERA").counter().count());
+        assertEquals(1, meterRegistry.get("clinica.lembretes.atraso").tag("tipo", "UMA_HORA").timer().count());
+        assertEquals(3, meterRegistry.get("clinica.lembretes.atraso").tag("tipo", "VESPERA").timer()
+                .max(TimeUnit.SECONDS), 1);
+    }
+
+    @Test
+    void naoDeveAgendarLembretesCujoEnvioJaPassou() {
+        carregar(new HorarioConsultaDTO(1L, 7L, AGORA.plusMinutes(30)),
+                new HorarioConsultaDTO(2L, 7L, AGORA.plusHours(3)));
+
+        // Apenas o lembrete de 1 hora da segunda consulta
+        assertEquals(1, lembreteConsultaService.pendentes());
+    }
+
+    @Test
+    void deveDescartarLembreteDeConsultaCanceladaOuRemarcada() {
+        LocalDateTime dataHora = AGORA.plusHours(2);
+        carregar(new HorarioConsultaDTO(1L, 7L, dataHora), new HorarioConsultaDTO(2L, 7L, dataHora));
+        when(consultaRepository.findLembretes(List.of(1L, 2L))).thenReturn(List.of(
+                new LembreteConsultaDTO(1L, dataHora, StatusConsulta.CANCELADA, "Maria", "maria@email.com"),
+                new LembreteConsultaDTO(2L, dataHora.plusDays(1), StatusConsulta.AGENDADA, "João", "joao@email.com")));
+
+        lembreteConsultaService.girar(INICIO.plus(Duration.ofHours(1)).plusSeconds(1));
+
+        verify(emailService, never()).enviarEmail(anyString(), anyString(), anyString());
+        assertEquals(2, meterRegistry.get("clinica.lembretes.descartados").counter().count());
+    }
+
+    @Test
+    void deveReagendarLembretesQuandoConsultaForAlterada() {
+        carregar(new HorarioConsultaDTO(1L, 7L, AGORA.plusHours(25)));
+
+        lembreteConsultaService.aoAlterarConsulta(
+                new ConsultaAlteradaEvent(1L, AGORA.plusHours(5), StatusConsulta.AGENDADA));
+        assertEquals(1, lembreteConsultaService.pendentes());
+
+        lembreteConsultaService.aoAlterarConsulta(ConsultaAlteradaEvent.removida(1L));
+        assertEquals(0, lembreteConsultaService.pendentes());
+
+        // Consultas além da janela são carregadas na próxima extensão
+        lembreteConsultaService.aoAlterarConsulta(
+                new ConsultaAlteradaEvent(2L, AGORA.plusHours(30), StatusConsulta.AGENDADA));
+        assertEquals(0, lembreteConsultaService.pendentes());
+    }
+
+    @Test
+    void naoDeveEnviarLembreteReservadoPorOutroNo() {
+        LocalDateTime dataHora = AGORA.plusHours(2);
+        carregar(new HorarioConsultaDTO(1L, 7L, dataHora));
+        when(consultaRepository.findLembretes(List.of(1L))).thenReturn(List.of(
+                new LembreteConsultaDTO(1L, dataHora, StatusConsulta.AGENDADA, "Maria", "maria@email.com")));
+        when(reservaLembretes.reservar(eq("1:UMA_HORA:" + dataHora), eq(Duration.ofHours(1)))).thenReturn(false);
+
+        lembreteConsultaService.girar(INICIO.plus(Duration.ofHours(1)).plusSeconds(1));
+
+        verify(emailService, never()).enviarEmail(anyString(), anyString(), anyString());
+        assertEquals(0, meterRegistry.get("clinica.lembretes.descartados").counter().count());
+    }
+
+    @Test
+    void deveEnviarLembreteDeConsultaAlteradaComFracaoDeSegundo() {
+        carregar();
+        LocalDateTime dataHora = AGORA.plusHours(2).plusSeconds(10);
+        lembreteConsultaService.aoAlterarConsulta(
+                new ConsultaAlteradaEvent(1L, dataHora.plusNanos(700_000_000), StatusConsulta.AGENDADA));
+        // O MySQL arredonda a fração ao gravar em DATETIME
+        when(consultaRepository.findLembretes(List.of(1L))).thenReturn(List.of(new LembreteConsultaDTO(
+                1L, dataHora.plusSeconds(1), StatusConsulta.AGENDADA, "Maria", "maria@email.com")));
+
+        lembreteConsultaService.girar(INICIO.plus(Duration.ofHours(1)).plusSeconds(12));
+
+        verify(emailService).enviarEmail(eq("maria@email.com"), contains("1 hora"), anyString());
+    }
+
+    @Test
+    void deveCarregarAJanelaEmBlocos() {
+        HorarioConsultaDTO[] bloco = new HorarioConsultaDTO[LembreteConsultaService.TAMANHO_BLOCO];
+        for (int i = 0; i < bloco.length; i++) {
+            bloco[i] = new HorarioConsultaDTO(i + 1L, 7L, AGORA.plusHours(2).plusSeconds(i));
+        }
+        HorarioConsultaDTO ultimo = bloco[bloco.length - 1];
+        when(consultaRepository.findAgendadasApos(AGORA, Long.MAX_VALUE, AGORA.plus(JANELA),
+                Limit.of(LembreteConsultaService.TAMANHO_BLOCO))).thenReturn(List.of(bloco));
+        when(consultaRepository.findAgendadasApos(ultimo.dataHora(), ultimo.id(), AGORA.plus(JANELA),
+                Limit.of(LembreteConsultaService.TAMANHO_BLOCO))).thenReturn(List.of());
+
+        lembreteConsultaService.carregarJanela(AGORA);
+
+        assertEquals(LembreteConsultaService.TAMANHO_BLOCO, lembreteConsultaService.pendentes());
+    }
+
+    @Test
+    void deveRecusarJanelaMenorQueAAntecedenciaDoLembrete() {
+        Clock clock = Clock.fixed(INICIO, ZoneOffset.UTC);
+        assertThrows(IllegalArgumentException.class, () -> new LembreteConsultaService(consultaRepository,
+                emailService, reservaLembretes, meterRegistry, clock, true, Duration.ofHours(24), Duration.ofSeconds(1), 64));
+        verify(consultaRepository, never()).findAgendadasApos(any(), any(), any(), any());
+    }
+
+    private void carregar(final HorarioConsultaDTO... horarios) {
+        when(consultaRepository.findAgendadasApos(AGORA, Long.MAX_VALUE, AGORA.plus(JANELA),
+                Limit.of(LembreteConsultaService.TAMANHO_BLOCO))).thenReturn(List.of(horarios));
+        lembreteConsultaService.carregarJanela(AGORA);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.example.clinicapi.dto.RefreshTokenExpiradoDTO;
+import com.example.clinicapi.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LimpezaRefreshTokenServiceTest {
+
+    private static final Instant AGORA = Instant.parse("2030-03-10T12:00:00Z");
+
+    private static final Instant ONTEM = AGORA.minus(Duration.ofDays(1));
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LimpezaRefreshTokenService limpezaRefreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limpezaRefreshTokenService = new LimpezaRefreshTokenService(refreshTokenRepository, meterRegistry,
+                Clock.fixed(AGORA, ZoneOffset.UTC), 2, Duration.ZERO);
+    }
+
+    @Test
+    void deveRemoverTokensExpiradosEmLotesAvancandoOCursor() {
+        when(refreshTokenRepository.findExpiradosApos(Instant.EPOCH, 0L, AGORA, Limit.of(2))).thenReturn(List.of(
+                new RefreshTokenExpiradoDTO(4L, ONTEM), new RefreshTokenExpiradoDTO(9L, ONTEM)));
+        when(refreshTokenRepository.findExpiradosApos(ONTEM, 9L, AGORA, Limit.of(2))).thenReturn(List.of(
+                new RefreshTokenExpiradoDTO(3L, ONTEM.plusSeconds(60))));
+        when(refreshTokenRepository.removerPorIds(List.of(4L, 9L))).thenReturn(2);
+        when(refreshTokenRepository.removerPorIds(List.of(3L))).thenReturn(1);
+
+        limpezaRefreshTokenService.executar();
+
+        assertEquals(3.0, meterRegistry.get("clinica.refresh-tokens.removidos").counter().count());
+        assertEquals(2.0, meterRegistry.get("clinica.refresh-tokens.lotes").counter().count());
+        assertEquals(1L, meterRegistry.get("clinica.refresh-tokens.limpeza").timer().count());
+    }
+
+    @Test
+    void deveContarApenasOsTokensEfetivamenteRemovidos() {
+        when(refreshTokenRepository.findExpiradosApos(Instant.EPOCH, 0L, AGORA, Limit.of(2))).thenReturn(List.of(
+                new RefreshTokenExpiradoDTO(4L, ONTEM)));
+        // O token foi rotacionado entre a leitura e o DELETE
+        when(refreshTokenRepository.removerPorIds(List.of(4L))).thenReturn(0);
+
+        assertEquals(0L, limpezaRefreshTokenService.limpar(AGORA));
+        assertEquals(1.0, meterRegistry.get("clinica.refresh-tokens.lotes").counter().count());
+    }
+
+    @Test
+    void naoDeveExecutarComandosQuandoNaoHouverTokensExpirados() {
+        when(refreshTokenRepository.findExpiradosApos(any(), any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0L, limpezaRefreshTokenService.limpar(AGORA));
+        verify(refreshTokenRepository, never()).removerPorIds(anyCollection());
+        assertEquals(1L, meterRegistry.get("clinica.refresh-tokens.limpeza").timer().count());
+    }
+
+    @Test
+    void deveRecusarLoteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new LimpezaRefreshTokenService(refreshTokenRepository,
+                meterRegistry, Clock.systemUTC(), 0, Duration.ZERO));
+    }
+}
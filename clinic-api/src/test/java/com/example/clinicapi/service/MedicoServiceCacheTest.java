@@ -0,0 +1,199 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.infra.cache.BarramentoInvalidacao;
+import com.example.clinicapi.infra.cache.BarramentoInvalidacaoEmMemoria;
+import com.example.clinicapi.infra.cache.CacheManagerDoisNiveis;
+import com.example.clinicapi.infra.cache.GeracaoStoreEmMemoria;
+import com.example.clinicapi.infra.cache.GeracoesCache;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
+import com.example.clinicapi.mapper.MedicoMapper;
+import com.example.clinicapi.model.Especialidade;
+import com.example.clinicapi.model.Medico;
+import com.example.clinicapi.repository.MedicoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Conta os acessos ao banco das listagens de médicos em cache sob uma
+ * carga com escritas frequentes em uma única especialidade.
+ */
+@SpringJUnitConfig(MedicoServiceCacheTest.Configuracao.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class MedicoServiceCacheTest {
+
+    private static final int RODADAS = 100;
+
+    private static final List<Pageable> PAGINAS = List.of(PageRequest.of(0, 10), PageRequest.of(1, 10));
+
+    @Configuration
+    @EnableCaching
+    static class Configuracao {
+
+        @Bean
+        MedicoRepository medicoRepository() {
+            return mock(MedicoRepository.class);
+        }
+
+        @Bean
+        MedicoMapper medicoMapper() {
+            return mock(MedicoMapper.class);
+        }
+
+        @Bean
+        BarramentoInvalidacao barramentoInvalidacao() {
+            return new BarramentoInvalidacaoEmMemoria();
+        }
+
+        @Bean
+        GeracoesCache geracoesCache(BarramentoInvalidacao barramento) {
+            return new GeracoesCache(new GeracaoStoreEmMemoria(), barramento, new SimpleMeterRegistry(), 30_000);
+        }
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CacheManager cacheManager(BarramentoInvalidacao barramento, SimpleMeterRegistry meterRegistry) {
+            return new CacheManagerDoisNiveis(new ConcurrentMapCacheManager(), barramento,
+                    meterRegistry, 1000, Duration.ofSeconds(30), Duration.ofMinutes(10), 1.0);
+        }
+
+        @Bean
+        MedicoService medicoService(MedicoRepository repository, MedicoMapper mapper, GeracoesCache geracoes) {
+            return new MedicoService(repository, mapper, new RetentativaOtimista(3, 0), geracoes);
+        }
+    }
+
+    @Autowired
+    private MedicoService medicoService;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private MedicoMapper medicoMapper;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    private Medico cardiologista;
+
+    @BeforeEach
+    void setUp() {
+        cardiologista = new Medico(1L, "Dr. Cardio", "1111", Especialidade.CARDIOLOGIA, "dr@cardio.com", "99999999", true, null);
+        MedicoDTO dto = new MedicoDTO(1L, "Dr. Cardio", "dr@cardio.com", "1111", "99999999", Especialidade.CARDIOLOGIA, true);
+        when(medicoRepository.findAllAtivos(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(cardiologista)));
+        when(medicoRepository.findByEspecialidadeAndAtivoTrue(any(Especialidade.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(cardiologista)));
+        when(medicoRepository.findById(1L)).thenReturn(Optional.of(cardiologista));
+        when(medicoRepository.save(any(Medico.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+        when(medicoMapper.toDTO(any(Medico.class))).thenReturn(dto);
+    }
+
+    @Test
+    void deveManterEmCacheAsEspecialidadesNaoAfetadasPelasEscritas() {
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            lerTodasAsListagens();
+            lerTodasAsListagens();
+            medicoService.update(1L, new MedicoDTO(null, "Dr. Cardio " + rodada, null, null, null, null, null));
+        }
+
+        assertEquals(RODADAS * PAGINAS.size(), consultas("findAllAtivos"));
+        assertEquals(RODADAS * PAGINAS.size(), consultasEspecialidade(Especialidade.CARDIOLOGIA));
+        for (Especialidade especialidade : Especialidade.values()) {
+            if (especialidade != Especialidade.CARDIOLOGIA) {
+                assertEquals(PAGINAS.size(), consultasEspecialidade(especialidade));
+            }
+        }
+    }
+
+    @Test
+    void naoDeveInvalidarListagensAoCadastrarMedicoInativo() {
+        Medico inativo = new Medico(null, "Dr. Inativo", "2222", Especialidade.PEDIATRIA, "dr@inativo.com", "88888888", false, null);
+        when(medicoMapper.toEntity(any(MedicoDTO.class))).thenReturn(inativo);
+
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            lerTodasAsListagens();
+            medicoService.save(new MedicoDTO(null, "Dr. Inativo", "dr@inativo.com", "2222", "88888888", Especialidade.PEDIATRIA, false));
+        }
+
+        assertEquals(PAGINAS.size(), consultas("findAllAtivos"));
+        assertEquals(PAGINAS.size(), consultasEspecialidade(Especialidade.PEDIATRIA));
+    }
+
+    @Test
+    void deveAtenderBuscasPorIdPeloCacheMantidoPelasEscritas() {
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            medicoService.findById(1L);
+        }
+        MedicoDTO atualizado = new MedicoDTO(1L, "Dr. Atualizado", "dr@cardio.com", "1111", "99999999",
+                Especialidade.CARDIOLOGIA, true);
+        when(medicoMapper.toDTO(cardiologista)).thenReturn(atualizado);
+
+        medicoService.update(1L, new MedicoDTO(null, "Dr. Atualizado", null, null, null, null, null));
+
+        assertEquals(atualizado, medicoService.findById(1L).orElseThrow());
+        assertEquals(2, consultas("findById"));
+
+        medicoService.deleteById(1L);
+        when(medicoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // A ausência também fica em cache, até o médico ser criado
+        assertTrue(medicoService.findById(1L).isEmpty());
+        assertTrue(medicoService.findById(1L).isEmpty());
+        assertEquals(4, consultas("findById"));
+        assertEquals(101.0 / 103.0, meterRegistry.get("clinica.cache.acertos.taxa")
+                .tag("cache", "medicos").gauge().value(), 1e-9);
+    }
+
+    private void lerTodasAsListagens() {
+        for (Pageable pagina : PAGINAS) {
+            medicoService.findAllAtivos(pagina);
+            for (Especialidade especialidade : Especialidade.values()) {
+                medicoService.findByEspecialidade(especialidade, pagina);
+            }
+        }
+    }
+
+    private long consultas(String metodo) {
+        return mockingDetails(medicoRepository).getInvocations().stream()
+                .filter(invocacao -> invocacao.getMethod().getName().equals(metodo))
+                .count();
+    }
+
+    private long consultasEspecialidade(Especialidade especialidade) {
+        return mockingDetails(medicoRepository).getInvocations().stream()
+                .filter(invocacao -> invocacao.getMethod().getName().equals("findByEspecialidadeAndAtivoTrue"))
+                .filter(invocacao -> invocacao.getArgument(0) == especialidade)
+                .count();
+    }
+}
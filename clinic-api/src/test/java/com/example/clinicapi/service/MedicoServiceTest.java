@@ -9,6 +9,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -26,6 +28,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.example.clinicapi.dto.MedicoDTO;
+import com.example.clinicapi.infra.cache.GeracoesCache;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
 import com.example.clinicapi.mapper.MedicoMapper;
 import com.example.clinicapi.model.Especialidade;
 import com.example.clinicapi.model.Medico;
@@ -43,6 +47,12 @@ class MedicoServiceTest {
     @Mock
     private MedicoMapper medicoMapper;
 
+    @Mock
+    private GeracoesCache geracoesCache;
+
+    @Spy
+    private RetentativaOtimista retentativaOtimista = new RetentativaOtimista(3, 0);
+
     @InjectMocks
     private MedicoService medicoService;
 
@@ -74,7 +84,7 @@ class MedicoServiceTest {
     
     @Test
     void deveRetornarMedicoDTOQuandoExistir() {
-        Medico medico = new Medico(1L, "Dr. Mock", "1111", Especialidade.CARDIOLOGIA,"dr@mock.com", "99999999", true);
+        Medico medico = new Medico(1L, "Dr. Mock", "1111", Especialidade.CARDIOLOGIA,"dr@mock.com", "99999999", true, null);
         MedicoDTO dto = new MedicoDTO(1L, "Dr. Mock", "dr@mock.com", "1111", "99999999", Especialidade.CARDIOLOGIA, true);
 
         when(medicoRepository.findById(1L)).thenReturn(Optional.of(medico));
@@ -102,7 +112,7 @@ class MedicoServiceTest {
     @Test
     void deveCriarMedico() {
         MedicoDTO dto = new MedicoDTO(1L, "Dr. Mock", "dr@mock.com", "1111", "99999999", Especialidade.CARDIOLOGIA, true);
-        Medico medico = new Medico(1L, "Dr. Mock", "1111", Especialidade.CARDIOLOGIA,"dr@mock.com", "99999999", true);
+        Medico medico = new Medico(1L, "Dr. Mock", "1111", Especialidade.CARDIOLOGIA,"dr@mock.com", "99999999", true, null);
 
         when(medicoMapper.toEntity(dto)).thenReturn(medico);
         when(medicoRepository.save(medico)).thenReturn(medico);
@@ -110,6 +120,7 @@ class MedicoServiceTest {
 
         MedicoDTO result = medicoService.save(dto);
 
+        verify(geracoesCache).avancar("medicos:ativos", "medicos:CARDIOLOGIA");
         assertNotNull(result);
         assertEquals("Dr. Mock", result.nome());
         assertEquals("dr@mock.com", result.email());
@@ -120,7 +131,7 @@ class MedicoServiceTest {
     void deveLancarExcecaoQuandoDadosInvalidos() {
         MedicoDTO medicoInvalidoDTO = new MedicoDTO(null, null, "dr@mock.com", "1111", "99999999", Especialidade.CARDIOLOGIA, true);
 
-        Medico medicoInvalido = new Medico(null, null, "1111", Especialidade.CARDIOLOGIA, "dr@mock.com", null, true);
+        Medico medicoInvalido = new Medico(null, null, "1111", Especialidade.CARDIOLOGIA, "dr@mock.com", null, true, null);
         when(medicoMapper.toEntity(medicoInvalidoDTO)).thenReturn(medicoInvalido);
 
         when(medicoRepository.save(any(Medico.class))).thenThrow(new IllegalArgumentException("Dados inválidos"));
@@ -134,7 +145,7 @@ class MedicoServiceTest {
     
     @Test
     void deveRetornarMedicosAtivos() {
-        Medico medico = new Medico(1L, "Dr. Ativo", "2222", Especialidade.CARDIOLOGIA, "ativo@med.com", "88888888", true);
+        Medico medico = new Medico(1L, "Dr. Ativo", "2222", Especialidade.CARDIOLOGIA, "ativo@med.com", "88888888", true, null);
         MedicoDTO dto = new MedicoDTO(1L, "Dr. Ativo", "ativo@med.com", "2222", "88888888", Especialidade.CARDIOLOGIA, true);
 
         when(medicoRepository.findAllAtivos(any(Pageable.class)))
@@ -149,7 +160,7 @@ class MedicoServiceTest {
     
     @Test
     void deveRetornarMedicosPorEspecialidade() {
-        Medico medico = new Medico(1L, "Dr. Especialista", "3333", Especialidade.ORTOPEDIA, "esp@med.com", "77777777", true);
+        Medico medico = new Medico(1L, "Dr. Especialista", "3333", Especialidade.ORTOPEDIA, "esp@med.com", "77777777", true, null);
         MedicoDTO dto = new MedicoDTO(1L, "Dr. Especialista", "esp@med.com", "3333", "77777777", Especialidade.ORTOPEDIA, true);
 
         when(medicoRepository.findByEspecialidadeAndAtivoTrue(eq(Especialidade.ORTOPEDIA), any(Pageable.class)))
@@ -166,8 +177,8 @@ class MedicoServiceTest {
     void deveAtualizarMedicoExistente() {
         Long id = 1L;
         MedicoDTO dtoAtualizado = new MedicoDTO(id, "Dr. Atualizado", "novo@email.com", "4444", "66666666", Especialidade.DERMATOLOGIA, false);
-        Medico medicoExistente = new Medico(id, "Dr. Original", "1111", Especialidade.CARDIOLOGIA, "dr@old.com", "99999999", true);
-        Medico medicoAtualizado = new Medico(id, "Dr. Atualizado", "4444", Especialidade.DERMATOLOGIA, "novo@email.com", "66666666", false);
+        Medico medicoExistente = new Medico(id, "Dr. Original", "1111", Especialidade.CARDIOLOGIA, "dr@old.com", "99999999", true, null);
+        Medico medicoAtualizado = new Medico(id, "Dr. Atualizado", "4444", Especialidade.DERMATOLOGIA, "novo@email.com", "66666666", false, null);
 
         when(medicoRepository.findById(id)).thenReturn(Optional.of(medicoExistente));
         when(medicoRepository.save(any(Medico.class))).thenReturn(medicoAtualizado);
@@ -179,6 +190,20 @@ class MedicoServiceTest {
         assertEquals("novo@email.com", result.email());
         assertEquals(Especialidade.DERMATOLOGIA, result.especialidade());
         assertFalse(result.ativo());
+        verify(geracoesCache).avancar("medicos:ativos", "medicos:CARDIOLOGIA");
+    }
+
+    @Test
+    void naoDeveAvancarGeracoesAoAtualizarMedicoQuePermaneceInativo() {
+        MedicoDTO dto = new MedicoDTO(1L, "Dr. Inativo", null, null, null, Especialidade.PEDIATRIA, null);
+        Medico medico = new Medico(1L, "Dr. Original", "1111", Especialidade.CARDIOLOGIA, "dr@old.com", "99999999", false, null);
+
+        when(medicoRepository.findById(1L)).thenReturn(Optional.of(medico));
+        when(medicoRepository.save(medico)).thenReturn(medico);
+
+        medicoService.update(1L, dto);
+
+        verifyNoInteractions(geracoesCache);
     }
     
     @Test
@@ -2,6 +2,7 @@ package com.example.clinicapi.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
@@ -17,14 +18,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.example.clinicapi.dto.PacienteDTO;
+import com.example.clinicapi.infra.concorrencia.RetentativaOtimista;
 import com.example.clinicapi.mapper.PacienteMapper;
 import com.example.clinicapi.model.Paciente;
 import com.example.clinicapi.repository.PacienteRepository;
@@ -39,12 +44,15 @@ class PacienteServiceTest {
     @Mock
     private PacienteMapper pacienteMapper;
 
+    @Spy
+    private RetentativaOtimista retentativaOtimista = new RetentativaOtimista(3, 0);
+
     @InjectMocks
     private PacienteService pacienteService;
 
     @Test
     void deveRetornarListaDePacienteDTO() {
-        Paciente paciente = new Paciente(1L, "João", "joao@email.com", "12345678900", "99999999", LocalDate.of(1990, 1, 1), true);
+        Paciente paciente = new Paciente(1L, "João", "joao@email.com", "12345678900", "99999999", LocalDate.of(1990, 1, 1), true, null);
         PacienteDTO dto = new PacienteDTO(1L, "João", "joao@email.com", "12345678900", "99999999", LocalDate.of(1990, 1, 1), true);
 
         when(pacienteRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(paciente)));
@@ -58,7 +66,7 @@ class PacienteServiceTest {
     
     @Test
     void deveRetornarPacientePorId() {
-        Paciente paciente = new Paciente(1L, "João", "joao@email.com", "12345678901", "11999999999", LocalDate.of(1990, 1, 1), true);
+        Paciente paciente = new Paciente(1L, "João", "joao@email.com", "12345678901", "11999999999", LocalDate.of(1990, 1, 1), true, null);
         PacienteDTO dto = new PacienteDTO(1L, "João", "joao@email.com", "12345678901", "11999999999", LocalDate.of(1990, 1, 1), true);
 
         when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
@@ -82,7 +90,7 @@ class PacienteServiceTest {
     @Test
     void deveRetornarPacientesAtivos() {
         Pageable pageable = PageRequest.of(0, 10);
-        Paciente paciente = new Paciente(1L, "Maria", "maria@email.com", "12345678901", "11999999999", LocalDate.of(1985, 5, 5), true);
+        Paciente paciente = new Paciente(1L, "Maria", "maria@email.com", "12345678901", "11999999999", LocalDate.of(1985, 5, 5), true, null);
         PacienteDTO dto = new PacienteDTO(1L, "Maria", "maria@email.com", "12345678901", "11999999999", LocalDate.of(1985, 5, 5), true);
         Page<Paciente> pacientes = new PageImpl<>(List.of(paciente));
 
@@ -98,9 +106,9 @@ class PacienteServiceTest {
     @Test
     void deveAtualizarPaciente() {
         Long id = 1L;
-        Paciente paciente = new Paciente(id, "Antigo", "antigo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true);
+        Paciente paciente = new Paciente(id, "Antigo", "antigo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true, null);
         PacienteDTO dtoAtualizado = new PacienteDTO(id, "Novo Nome", "novo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true);
-        Paciente pacienteAtualizado = new Paciente(id, "Novo Nome", "novo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true);
+        Paciente pacienteAtualizado = new Paciente(id, "Novo Nome", "novo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true, null);
 
         when(pacienteRepository.findById(id)).thenReturn(Optional.of(paciente));
         when(pacienteRepository.save(any(Paciente.class))).thenReturn(pacienteAtualizado);
@@ -111,6 +119,40 @@ class PacienteServiceTest {
         assertEquals("Novo Nome", result.nome());
         assertEquals("novo@email.com", result.email());
     }
+
+    @Test
+    void deveRefazerAtualizacaoQuandoHouverConflitoDeVersao() {
+        Long id = 1L;
+        PacienteDTO dtoAtualizado = new PacienteDTO(id, "Novo Nome", null, null, null, null, null);
+        Paciente pacienteAtualizado = new Paciente(id, "Novo Nome", "antigo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true, 2L);
+
+        when(pacienteRepository.findById(id))
+                .thenReturn(Optional.of(new Paciente(id, "Antigo", "antigo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true, 0L)))
+                .thenReturn(Optional.of(new Paciente(id, "Antigo", "outro@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true, 1L)));
+        when(pacienteRepository.save(any(Paciente.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Paciente.class, id))
+                .thenReturn(pacienteAtualizado);
+        when(pacienteMapper.toDTO(pacienteAtualizado)).thenReturn(dtoAtualizado);
+
+        PacienteDTO result = pacienteService.update(id, dtoAtualizado);
+
+        assertEquals("Novo Nome", result.nome());
+        verify(pacienteRepository, times(2)).findById(id);
+        verify(pacienteRepository, times(2)).save(any(Paciente.class));
+    }
+
+    @Test
+    void deveDesistirDaAtualizacaoAposEsgotarAsTentativas() {
+        Long id = 1L;
+        PacienteDTO dtoAtualizado = new PacienteDTO(id, "Novo Nome", null, null, null, null, null);
+
+        when(pacienteRepository.findById(id)).thenAnswer(inv -> Optional.of(new Paciente(id, "Antigo", "antigo@email.com", "11111111111", "11988888888", LocalDate.of(1980, 1, 1), true, 0L)));
+        when(pacienteRepository.save(any(Paciente.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Paciente.class, id));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> pacienteService.update(id, dtoAtualizado));
+        verify(pacienteRepository, times(3)).save(any(Paciente.class));
+    }
     
     @Test
     void deveExcluirPacientePorId() {
@@ -126,8 +168,8 @@ class PacienteServiceTest {
     @Test
     void deveSalvarNovoPaciente() {
         PacienteDTO dtoEntrada = new PacienteDTO(null, "Carlos", "carlos@email.com", "98765432100", "11911111111", LocalDate.of(1995, 3, 15), true);
-        Paciente paciente = new Paciente(null, "Carlos", "carlos@email.com", "98765432100", "11911111111", LocalDate.of(1995, 3, 15), true);
-        Paciente pacienteSalvo = new Paciente(1L, "Carlos", "carlos@email.com", "98765432100", "11911111111", LocalDate.of(1995, 3, 15), true);
+        Paciente paciente = new Paciente(null, "Carlos", "carlos@email.com", "98765432100", "11911111111", LocalDate.of(1995, 3, 15), true, null);
+        Paciente pacienteSalvo = new Paciente(1L, "Carlos", "carlos@email.com", "98765432100", "11911111111", LocalDate.of(1995, 3, 15), true, null);
         PacienteDTO dtoRetorno = new PacienteDTO(1L, "Carlos", "carlos@email.com", "98765432100", "11911111111", LocalDate.of(1995, 3, 15), true);
 
         when(pacienteMapper.toEntity(dtoEntrada)).thenReturn(paciente);
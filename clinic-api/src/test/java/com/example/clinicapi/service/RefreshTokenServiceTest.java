@@ -0,0 +1,170 @@
+package com.example.clinicapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.clinicapi.infra.refreshtoken.HashToken;
+import com.example.clinicapi.infra.refreshtoken.RefreshTokenStoreEmMemoria;
+import com.example.clinicapi.model.Role;
+import com.example.clinicapi.model.Usuario;
+import com.example.clinicapi.repository.UsuarioRepository;
+import com.example.clinicapi.service.RefreshTokenService.RefreshTokenRotacionado;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final long DURACAO_MS = Duration.ofDays(7).toMillis();
+
+    private static final Usuario USUARIO = new Usuario(7L, "usuario123", "senha", Role.ROLE_USER);
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private Instant agora = Instant.parse("2030-03-10T12:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    };
+
+    private RefreshTokenStoreEmMemoria store;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStoreEmMemoria(clock);
+        refreshTokenService = new RefreshTokenService(store, usuarioRepository, DURACAO_MS, clock);
+    }
+
+    @Test
+    void deveArmazenarApenasOHashDoToken() {
+        String token = refreshTokenService.criarRefreshToken(USUARIO);
+
+        assertEquals(43, token.length());
+        assertEquals(64, HashToken.sha256(token).length());
+        assertEquals(1, store.tamanho());
+        assertEquals(7L, store.consumir(HashToken.sha256(token)).orElseThrow().usuarioId());
+        assertEquals(Optional.empty(), store.consumir(token));
+    }
+
+    @Test
+    void deveRotacionarTokenInvalidandoOAnterior() {
+        when(usuarioRepository.findById(7L)).thenReturn(Optional.of(USUARIO));
+        String token = refreshTokenService.criarRefreshToken(USUARIO);
+
+        RefreshTokenRotacionado rotacionado = refreshTokenService.rotacionar(token);
+
+        assertEquals(USUARIO, rotacionado.usuario());
+        assertNotEquals(token, rotacionado.refreshToken());
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotacionar(token));
+        assertEquals(USUARIO, refreshTokenService.rotacionar(rotacionado.refreshToken()).usuario());
+    }
+
+    @Test
+    void deveRecusarTokenExpirado() {
+        String token = refreshTokenService.criarRefreshToken(USUARIO);
+        agora = agora.plusMillis(DURACAO_MS);
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotacionar(token));
+        assertEquals(0, store.tamanho());
+    }
+
+    @Test
+    void deveManterSessoesIndependentesERemoverTodasNoLogout() {
+        when(usuarioRepository.findById(7L)).thenReturn(Optional.of(USUARIO));
+        String celular = refreshTokenService.criarRefreshToken(USUARIO);
+        String navegador = refreshTokenService.criarRefreshToken(USUARIO);
+        refreshTokenService.criarRefreshToken(new Usuario(8L, "outro", "senha", Role.ROLE_USER));
+
+        refreshTokenService.rotacionar(celular);
+        assertEquals(3, store.tamanho());
+
+        refreshTokenService.excluirPorUsuario(USUARIO.getId());
+
+        assertEquals(1, store.tamanho());
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotacionar(navegador));
+    }
+
+    @Test
+    void deveEncerrarApenasASessaoDoTokenNoLogout() {
+        when(usuarioRepository.findById(7L)).thenReturn(Optional.of(USUARIO));
+        String celular = refreshTokenService.criarRefreshToken(USUARIO);
+        String navegador = refreshTokenService.criarRefreshToken(USUARIO);
+        String deOutro = refreshTokenService.criarRefreshToken(new Usuario(8L, "outro", "senha", Role.ROLE_USER));
+
+        refreshTokenService.encerrarSessao(USUARIO.getId(), celular);
+        refreshTokenService.encerrarSessao(USUARIO.getId(), deOutro);
+
+        assertEquals(2, store.tamanho());
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotacionar(celular));
+        assertEquals(USUARIO, refreshTokenService.rotacionar(navegador).usuario());
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.encerrarSessao(USUARIO.getId(), null));
+    }
+
+    @Test
+    void deveAtenderApenasUmaRotacaoConcorrenteDoMesmoToken() throws Exception {
+        when(usuarioRepository.findById(7L)).thenReturn(Optional.of(USUARIO));
+        String token = refreshTokenService.criarRefreshToken(USUARIO);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                Callable<Boolean> tarefa = () -> {
+                    largada.await();
+                    try {
+                        refreshTokenService.rotacionar(token);
+                        return true;
+                    } catch (RuntimeException ex) {
+                        return false;
+                    }
+                };
+                resultados.add(executor.submit(tarefa));
+            }
+            largada.countDown();
+            int atendidas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                atendidas += resultado.get() ? 1 : 0;
+            }
+            assertEquals(1, atendidas);
+            assertEquals(1, store.tamanho());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}